@@ -21,6 +21,8 @@ import java.util.List;
 import org.telosys.tools.generic.model.enums.BooleanValue;
 import org.telosys.tools.generic.model.enums.DateType;
 import org.telosys.tools.generic.model.enums.GeneratedValueStrategy;
+import org.telosys.tools.generic.model.types.NeutralTypeCode;
+import org.telosys.tools.generic.model.types.NeutralTypeRegistry;
 
 /**
  * This interface describe an abstract attribute that must be implemented 
@@ -208,6 +210,16 @@ public interface Attribute {
 	 */
 	public String getNeutralType();
 
+	/**
+	 * Returns the code of the neutral type (predefined type or base type of a custom type) <br> 
+	 * Usable in a 'switch' instead of comparing strings <br>
+	 * @return the code or null if the neutral type is unknown
+	 * @since 4.2.0
+	 */
+	public default NeutralTypeCode getNeutralTypeCode() {
+		return NeutralTypeRegistry.getCode(getNeutralType());
+	}
+
 	/**
 	 * Returns the validation "pattern" (Reg Exp) if any, (null if none) <br> 
 	 * If not supported by the model implementation : 'null'
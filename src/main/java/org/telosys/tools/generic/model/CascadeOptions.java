@@ -95,6 +95,17 @@ public class CascadeOptions implements Serializable {
 		return options.contains(CascadeOption.REMOVE);
 	}
 	
+	/**
+	 * Returns TRUE if the given option is in the selected options <br>
+	 * (unlike 'getActiveOptions()' no list is created)
+	 * @param cascadeOption
+	 * @return
+	 * @since 4.2.0
+	 */
+	public boolean contains(CascadeOption cascadeOption) {
+		return options.contains(cascadeOption);
+	}
+
 	public List<CascadeOption> getActiveOptions() {
 		LinkedList<CascadeOption> list = new LinkedList<>() ;
 		for ( CascadeOption o : options ) {
@@ -15,6 +15,8 @@
  */
 package org.telosys.tools.generic.model;
 
+import java.util.List;
+
 /**
  * Tag container interface 
  * 
@@ -74,4 +76,12 @@ public interface TagContainer {
 	 */
 	public boolean getTagValueAsBoolean(String tagName, boolean defaultValue);
 
+	/**
+	 * Returns the names of all the tags defined in this container <br>
+	 * It cannot be null, if no tag the implementation is supposed to return a void list
+	 * @return
+	 * @since v 4.2.0
+	 */
+	public List<String> getTagNames(); // v 4.2.0
+
 }
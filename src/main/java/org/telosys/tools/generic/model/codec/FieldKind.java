@@ -0,0 +1,106 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.codec;
+
+import org.telosys.tools.generic.model.Attribute;
+import org.telosys.tools.generic.model.types.NeutralTypeCode;
+
+/**
+ * Binary representation of a field in a row 
+ * 
+ * @since 4.2.0
+ */
+public enum FieldKind {
+
+	BOOLEAN(1),
+	BYTE(1),
+	SHORT(2),
+	INT(4),
+	LONG(8),
+	FLOAT(4),
+	DOUBLE(8),
+	DECIMAL32(4),  // unscaled value with the scale of the attribute
+	DECIMAL64(8),  // unscaled value with the scale of the attribute
+	DATE(4),       // epoch day
+	TIME(8),       // nano of day
+	TIMESTAMP(12), // epoch second (UTC) + nano
+	TIMESTAMPZ(16),// epoch second + nano + offset seconds
+	STRING(-1),    // UTF-8 in the variable section
+	DECIMAL(-1),   // scale + unscaled value (two's complement) in the variable section
+	BINARY(-1);    // bytes in the variable section
+
+	private final int size ;
+
+	private FieldKind(int size) {
+		this.size = size;
+	}
+
+	/**
+	 * Returns the size in the fixed section (or -1 for a variable length field)
+	 * @return
+	 */
+	public int getFixedSize() {
+		return size;
+	}
+
+	/**
+	 * Returns true if the value is stored in the variable section 
+	 * @return
+	 */
+	public boolean isVariable() {
+		return size < 0 ;
+	}
+
+	/**
+	 * Returns the kind used for the given attribute <br>
+	 * A decimal with 'precision' &lt;= 18 and a 'scale' is stored as an unscaled int/long value
+	 * @param attribute
+	 * @return
+	 */
+	public static FieldKind of(Attribute attribute) {
+		NeutralTypeCode code = attribute.getNeutralTypeCode();
+		if ( code == null ) {
+			throw new IllegalArgumentException("Attribute '" + attribute.getName() + "' : unsupported type '" + attribute.getNeutralType() + "'");
+		}
+		switch ( code ) {
+		case BOOLEAN :    return BOOLEAN ;
+		case BYTE :       return BYTE ;
+		case SHORT :      return SHORT ;
+		case INTEGER :    return INT ;
+		case LONG :       return LONG ;
+		case FLOAT :      return FLOAT ;
+		case DOUBLE :     return DOUBLE ;
+		case DATE :       return DATE ;
+		case TIME :       return TIME ;
+		case TIMESTAMP :  return TIMESTAMP ;
+		case TIMESTAMPZ : return TIMESTAMPZ ;
+		case BINARY :     return BINARY ;
+		case DECIMAL :
+			Integer precision = attribute.getPrecision();
+			if ( precision != null && precision > 0 && attribute.getScale() != null ) {
+				if ( precision <= 9 ) {
+					return DECIMAL32 ;
+				}
+				if ( precision <= 18 ) {
+					return DECIMAL64 ;
+				}
+			}
+			return DECIMAL ;
+		default :
+			return STRING ;
+		}
+	}
+}
@@ -0,0 +1,481 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.codec;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import org.telosys.tools.generic.model.Entity;
+
+/**
+ * Binary codec for the rows of an entity (see 'RowLayout') <br>
+ * A record is an 'Object[]' with the attribute values in the order of 'entity.getAttributes()'. <br>
+ * Rows are written at the current position of the buffer (the position is moved after the row). <br>
+ * Use 'RowReader' and 'RowWriter' to access the fields without boxing. <br>
+ * Thread-safe (no state except the layout)
+ * 
+ * @since 4.2.0
+ */
+public final class RowCodec {
+
+	private final RowLayout layout ;
+
+	private RowCodec(RowLayout layout) {
+		super();
+		this.layout = layout;
+	}
+
+	/**
+	 * Compiles the codec for the given entity 
+	 * @param entity
+	 * @return
+	 */
+	public static RowCodec compile(Entity entity) {
+		return new RowCodec(RowLayout.of(entity));
+	}
+
+	public RowLayout getLayout() {
+		return layout;
+	}
+
+	/**
+	 * Returns a new reader (not thread-safe, reusable)
+	 * @return
+	 */
+	public RowReader newReader() {
+		return new RowReader(layout);
+	}
+
+	/**
+	 * Returns a new writer (not thread-safe, reusable)
+	 * @return
+	 */
+	public RowWriter newWriter() {
+		return new RowWriter(layout);
+	}
+
+	/**
+	 * Writes the given record at the current position of the buffer 
+	 * @param record
+	 * @param buffer
+	 * @return the row size 
+	 * @throws IllegalArgumentException if a value is invalid (null, type, length, precision)
+	 * @throws BufferOverflowException if the row doesn't fit in the buffer (the position is unchanged)
+	 */
+	public int encode(Object[] record, ByteBuffer buffer) {
+		if ( record == null || record.length != layout.getFieldCount() ) {
+			throw new IllegalArgumentException(layout.getEntityName() + " : invalid record (" + layout.getFieldCount() + " values expected)");
+		}
+		int start = buffer.position();
+		int varPos = beginRow(layout, buffer, start);
+		for ( int i = 0 ; i < record.length ; i++ ) {
+			if ( record[i] == null ) {
+				if ( !layout.isNullable(i) ) {
+					throw new IllegalArgumentException(layout.getEntityName() + "." + layout.getFieldName(i) + " : null value");
+				}
+			}
+			else {
+				setNotNull(layout, buffer, start, i);
+				varPos = writeValue(layout, buffer, start, varPos, i, record[i]);
+			}
+		}
+		return endRow(buffer, start, varPos);
+	}
+
+	/**
+	 * Reads the row at the current position of the buffer 
+	 * @param buffer
+	 * @return a new record
+	 */
+	public Object[] decode(ByteBuffer buffer) {
+		return decode(buffer, new Object[layout.getFieldCount()]);
+	}
+
+	/**
+	 * Reads the row at the current position of the buffer in the given record
+	 * @param buffer
+	 * @param record
+	 * @return the given record
+	 */
+	public Object[] decode(ByteBuffer buffer, Object[] record) {
+		int start = buffer.position();
+		int size = rowSize(buffer, start);
+		for ( int i = 0 ; i < record.length ; i++ ) {
+			record[i] = isNull(layout, buffer, start, i) ? null : readValue(layout, buffer, start, i);
+		}
+		buffer.position(start + size);
+		return record;
+	}
+
+	//-------------------------------------------------------------------------------------
+	// Row structure (shared with 'RowReader' and 'RowWriter')
+	//-------------------------------------------------------------------------------------
+	private static void ensure(ByteBuffer buffer, long end) {
+		if ( end > buffer.limit() ) {
+			throw new BufferOverflowException();
+		}
+	}
+
+	/**
+	 * Initializes a row : all nullable fields are null, fixed section set to zero 
+	 * @return the position of the variable section
+	 */
+	static int beginRow(RowLayout layout, ByteBuffer buffer, int start) {
+		int fixedEnd = start + layout.getFixedRowSize();
+		ensure(buffer, fixedEnd);
+		int bitmapEnd = start + RowLayout.HEADER_SIZE + layout.getBitmapSize() ;
+		for ( int p = start + RowLayout.HEADER_SIZE ; p < bitmapEnd ; p++ ) {
+			buffer.put(p, (byte) 0xFF);
+		}
+		for ( int p = bitmapEnd ; p < fixedEnd ; p++ ) {
+			buffer.put(p, (byte) 0);
+		}
+		return fixedEnd ;
+	}
+
+	static int endRow(ByteBuffer buffer, int start, int varPos) {
+		int size = varPos - start ;
+		buffer.putInt(start, size);
+		buffer.position(varPos);
+		return size ;
+	}
+
+	/**
+	 * Returns the size of the row starting at the given position 
+	 */
+	static int rowSize(ByteBuffer buffer, int start) {
+		if ( start + RowLayout.HEADER_SIZE > buffer.limit() ) {
+			throw new BufferUnderflowException();
+		}
+		int size = buffer.getInt(start);
+		if ( size < RowLayout.HEADER_SIZE || (long) start + size > buffer.limit() ) {
+			throw new BufferUnderflowException();
+		}
+		return size ;
+	}
+
+	static boolean isNull(RowLayout layout, ByteBuffer buffer, int start, int field) {
+		int bit = layout.nullBit(field);
+		return bit >= 0 && ( buffer.get(start + RowLayout.HEADER_SIZE + ( bit >> 3 )) & ( 1 << ( bit & 7 ) ) ) != 0 ;
+	}
+
+	static void setNotNull(RowLayout layout, ByteBuffer buffer, int start, int field) {
+		int bit = layout.nullBit(field);
+		if ( bit >= 0 ) {
+			int p = start + RowLayout.HEADER_SIZE + ( bit >> 3 ) ;
+			buffer.put(p, (byte) ( buffer.get(p) & ~( 1 << ( bit & 7 ) ) ));
+		}
+	}
+
+	private static void putSlot(RowLayout layout, ByteBuffer buffer, int start, int field, int offset, int length) {
+		int p = start + layout.offset(field);
+		if ( layout.getSlotWidth() == 2 ) {
+			if ( offset + length > 0xFFFF ) {
+				throw new IllegalArgumentException(layout.getEntityName() + " : row too large");
+			}
+			buffer.putShort(p, (short) offset);
+			buffer.putShort(p + 2, (short) length);
+		}
+		else {
+			buffer.putInt(p, offset);
+			buffer.putInt(p + 4, length);
+		}
+	}
+
+	static int slotOffset(RowLayout layout, ByteBuffer buffer, int start, int field) {
+		int p = start + layout.offset(field);
+		return layout.getSlotWidth() == 2 ? buffer.getShort(p) & 0xFFFF : buffer.getInt(p) ;
+	}
+
+	static int slotLength(RowLayout layout, ByteBuffer buffer, int start, int field) {
+		int p = start + layout.offset(field);
+		return layout.getSlotWidth() == 2 ? buffer.getShort(p + 2) & 0xFFFF : buffer.getInt(p + 4) ;
+	}
+
+	//-------------------------------------------------------------------------------------
+	// Values 
+	//-------------------------------------------------------------------------------------
+	static IllegalArgumentException invalid(RowLayout layout, int field, String message) {
+		return new IllegalArgumentException(layout.getEntityName() + "." + layout.getFieldName(field) + " : " + message);
+	}
+
+	/**
+	 * Writes a fixed size integer value (with range check)
+	 */
+	static void writeLong(RowLayout layout, ByteBuffer buffer, int start, int field, long value) {
+		int p = start + layout.offset(field);
+		switch ( layout.getFieldKind(field) ) {
+		case BYTE :
+			checkRange(layout, field, value, Byte.MIN_VALUE, Byte.MAX_VALUE);
+			buffer.put(p, (byte) value);
+			break;
+		case SHORT :
+			checkRange(layout, field, value, Short.MIN_VALUE, Short.MAX_VALUE);
+			buffer.putShort(p, (short) value);
+			break;
+		case INT :
+		case DATE :
+		case DECIMAL32 :
+			checkRange(layout, field, value, Integer.MIN_VALUE, Integer.MAX_VALUE);
+			buffer.putInt(p, (int) value);
+			break;
+		case LONG :
+		case TIME :
+		case DECIMAL64 :
+			buffer.putLong(p, value);
+			break;
+		default :
+			throw invalid(layout, field, "not an integer field (" + layout.getFieldKind(field) + ")");
+		}
+	}
+
+	private static void checkRange(RowLayout layout, int field, long value, long min, long max) {
+		if ( value < min || value > max ) {
+			throw invalid(layout, field, "value out of range (" + value + ")");
+		}
+	}
+
+	/**
+	 * Writes a fixed size floating point value
+	 */
+	static void writeDouble(RowLayout layout, ByteBuffer buffer, int start, int field, double value) {
+		int p = start + layout.offset(field);
+		switch ( layout.getFieldKind(field) ) {
+		case FLOAT :
+			buffer.putFloat(p, (float) value);
+			break;
+		case DOUBLE :
+			buffer.putDouble(p, value);
+			break;
+		default :
+			throw invalid(layout, field, "not a floating point field (" + layout.getFieldKind(field) + ")");
+		}
+	}
+
+	/**
+	 * Writes a not null value 
+	 * @return the new position in the variable section
+	 */
+	static int writeValue(RowLayout layout, ByteBuffer buffer, int start, int varPos, int field, Object value) {
+		try {
+			int p = start + layout.offset(field);
+			switch ( layout.getFieldKind(field) ) {
+			case BOOLEAN :
+				buffer.put(p, (byte) ( ((Boolean) value) ? 1 : 0 ));
+				return varPos ;
+			case BYTE :
+			case SHORT :
+			case INT :
+			case LONG :
+				writeLong(layout, buffer, start, field, integral(layout, field, value));
+				return varPos ;
+			case FLOAT :
+			case DOUBLE :
+				writeDouble(layout, buffer, start, field, ((Number) value).doubleValue());
+				return varPos ;
+			case DECIMAL32 :
+			case DECIMAL64 :
+				writeLong(layout, buffer, start, field, unscaled(layout, field, value));
+				return varPos ;
+			case DATE :
+				writeLong(layout, buffer, start, field, ((LocalDate) value).toEpochDay());
+				return varPos ;
+			case TIME :
+				buffer.putLong(p, ((LocalTime) value).toNanoOfDay());
+				return varPos ;
+			case TIMESTAMP :
+				LocalDateTime ldt = (LocalDateTime) value ;
+				buffer.putLong(p, ldt.toEpochSecond(ZoneOffset.UTC));
+				buffer.putInt(p + 8, ldt.getNano());
+				return varPos ;
+			case TIMESTAMPZ :
+				OffsetDateTime odt = (OffsetDateTime) value ;
+				buffer.putLong(p, odt.toEpochSecond());
+				buffer.putInt(p + 8, odt.getNano());
+				buffer.putInt(p + 12, odt.getOffset().getTotalSeconds());
+				return varPos ;
+			case STRING :
+				return writeString(layout, buffer, start, varPos, field, (CharSequence) value);
+			case DECIMAL :
+				return writeDecimal(layout, buffer, start, varPos, field, toBigDecimal(value));
+			case BINARY :
+				return writeBinary(layout, buffer, start, varPos, field, (byte[]) value);
+			default :
+				throw invalid(layout, field, "unexpected kind");
+			}
+		} catch ( ClassCastException e ) {
+			throw invalid(layout, field, "invalid value type (" + value.getClass().getSimpleName() + ")");
+		}
+	}
+
+	private static long integral(RowLayout layout, int field, Object value) {
+		if ( value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte ) {
+			return ((Number) value).longValue();
+		}
+		if ( value instanceof BigInteger || value instanceof BigDecimal ) {
+			try {
+				return value instanceof BigInteger ? ((BigInteger) value).longValueExact() : ((BigDecimal) value).longValueExact() ;
+			} catch ( ArithmeticException e ) {
+				throw invalid(layout, field, "not an integer value (" + value + ")");
+			}
+		}
+		throw new ClassCastException();
+	}
+
+	private static BigDecimal toBigDecimal(Object value) {
+		if ( value instanceof BigDecimal ) {
+			return (BigDecimal) value ;
+		}
+		if ( value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte ) {
+			return BigDecimal.valueOf(((Number) value).longValue());
+		}
+		if ( value instanceof BigInteger ) {
+			return new BigDecimal((BigInteger) value);
+		}
+		return BigDecimal.valueOf(((Number) value).doubleValue());
+	}
+
+	/**
+	 * Returns the unscaled value of a fixed size decimal (with the scale and the precision of the attribute)
+	 */
+	static long unscaled(RowLayout layout, int field, Object value) {
+		BigDecimal bd ;
+		try {
+			bd = toBigDecimal(value).setScale(layout.scale(field), RoundingMode.UNNECESSARY);
+		} catch ( ArithmeticException e ) {
+			throw invalid(layout, field, "scale exceeded (" + value + ")");
+		}
+		int max = layout.maxLength(field);
+		if ( max >= 0 && bd.precision() > max ) {
+			throw invalid(layout, field, "precision exceeded (" + value + ")");
+		}
+		BigInteger unscaled = bd.unscaledValue();
+		if ( unscaled.bitLength() > 63 ) {
+			throw invalid(layout, field, "precision exceeded (" + value + ")");
+		}
+		return unscaled.longValue();
+	}
+
+	private static int writeString(RowLayout layout, ByteBuffer buffer, int start, int varPos, int field, CharSequence s) {
+		int max = layout.maxLength(field);
+		if ( max >= 0 && s.length() > max ) {
+			throw invalid(layout, field, "value too long (" + s.length() + " > " + max + ")");
+		}
+		int length = Utf8.encodedLength(s);
+		ensure(buffer, (long) varPos + length);
+		Utf8.encode(s, buffer, varPos);
+		putSlot(layout, buffer, start, field, varPos - start, length);
+		return varPos + length ;
+	}
+
+	private static int writeBinary(RowLayout layout, ByteBuffer buffer, int start, int varPos, int field, byte[] bytes) {
+		int max = layout.maxLength(field);
+		if ( max >= 0 && bytes.length > max ) {
+			throw invalid(layout, field, "value too long (" + bytes.length + " > " + max + ")");
+		}
+		ensure(buffer, (long) varPos + bytes.length);
+		putBytes(buffer, varPos, bytes);
+		putSlot(layout, buffer, start, field, varPos - start, bytes.length);
+		return varPos + bytes.length ;
+	}
+
+	static int writeDecimal(RowLayout layout, ByteBuffer buffer, int start, int varPos, int field, BigDecimal value) {
+		int max = layout.maxLength(field);
+		if ( max >= 0 && value.precision() > max ) {
+			throw invalid(layout, field, "precision exceeded (" + value + ")");
+		}
+		byte[] bytes = value.unscaledValue().toByteArray();
+		ensure(buffer, (long) varPos + 4 + bytes.length);
+		buffer.putInt(varPos, value.scale());
+		putBytes(buffer, varPos + 4, bytes);
+		putSlot(layout, buffer, start, field, varPos - start, 4 + bytes.length);
+		return varPos + 4 + bytes.length ;
+	}
+
+	private static void putBytes(ByteBuffer buffer, int position, byte[] bytes) {
+		ByteBuffer target = buffer.duplicate();
+		target.position(position);
+		target.put(bytes);
+	}
+
+	static byte[] getBytes(ByteBuffer buffer, int position, int length) {
+		byte[] bytes = new byte[length];
+		ByteBuffer source = buffer.duplicate();
+		source.position(position);
+		source.get(bytes);
+		return bytes;
+	}
+
+	static String readString(RowLayout layout, ByteBuffer buffer, int start, int field) {
+		int p = start + slotOffset(layout, buffer, start, field);
+		int length = slotLength(layout, buffer, start, field);
+		if ( buffer.hasArray() ) {
+			return new String(buffer.array(), buffer.arrayOffset() + p, length, StandardCharsets.UTF_8);
+		}
+		return new String(getBytes(buffer, p, length), StandardCharsets.UTF_8);
+	}
+
+	static BigDecimal readDecimal(RowLayout layout, ByteBuffer buffer, int start, int field) {
+		int p = start + layout.offset(field);
+		switch ( layout.getFieldKind(field) ) {
+		case DECIMAL32 :
+			return BigDecimal.valueOf(buffer.getInt(p), layout.scale(field));
+		case DECIMAL64 :
+			return BigDecimal.valueOf(buffer.getLong(p), layout.scale(field));
+		case DECIMAL :
+			int v = start + slotOffset(layout, buffer, start, field);
+			int length = slotLength(layout, buffer, start, field);
+			return new BigDecimal(new BigInteger(getBytes(buffer, v + 4, length - 4)), buffer.getInt(v));
+		default :
+			throw invalid(layout, field, "not a decimal field (" + layout.getFieldKind(field) + ")");
+		}
+	}
+
+	/**
+	 * Reads a not null value 
+	 */
+	static Object readValue(RowLayout layout, ByteBuffer buffer, int start, int field) {
+		int p = start + layout.offset(field);
+		switch ( layout.getFieldKind(field) ) {
+		case BOOLEAN :    return buffer.get(p) != 0 ;
+		case BYTE :       return buffer.get(p);
+		case SHORT :      return buffer.getShort(p);
+		case INT :        return buffer.getInt(p);
+		case LONG :       return buffer.getLong(p);
+		case FLOAT :      return buffer.getFloat(p);
+		case DOUBLE :     return buffer.getDouble(p);
+		case DATE :       return LocalDate.ofEpochDay(buffer.getInt(p));
+		case TIME :       return LocalTime.ofNanoOfDay(buffer.getLong(p));
+		case TIMESTAMP :  return LocalDateTime.ofEpochSecond(buffer.getLong(p), buffer.getInt(p + 8), ZoneOffset.UTC);
+		case TIMESTAMPZ : 
+			ZoneOffset offset = ZoneOffset.ofTotalSeconds(buffer.getInt(p + 12));
+			return OffsetDateTime.of(LocalDateTime.ofEpochSecond(buffer.getLong(p), buffer.getInt(p + 8), offset), offset);
+		case STRING :     return readString(layout, buffer, start, field);
+		case BINARY :     return getBytes(buffer, start + slotOffset(layout, buffer, start, field), slotLength(layout, buffer, start, field));
+		default :         return readDecimal(layout, buffer, start, field); 
+		}
+	}
+}
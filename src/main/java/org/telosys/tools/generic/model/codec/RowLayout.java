@@ -0,0 +1,239 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.codec;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.telosys.tools.generic.model.Attribute;
+import org.telosys.tools.generic.model.Entity;
+
+/**
+ * Binary layout of the rows of an entity (one field per attribute, same order) <br>
+ * <pre>
+ *  | row size (int) | null bitmap | fixed section | variable section |
+ * </pre>
+ *  . null bitmap : one bit for each nullable field (no bit for 'isNotNull' attributes) <br>
+ *  . fixed section : one slot per field, fixed size values or 'offset + length' for variable length values <br>
+ *  . variable section : strings (UTF-8), unbounded decimals, binary values <br>
+ * The size of the 'offset + length' slots is 2+2 bytes if the row size is bounded ('maxLength', 'precision') <br>
+ * and less than 64 KB, otherwise 4+4 bytes. <br>
+ * A decimal with 'precision' &lt;= 18 and a 'scale' is stored as a fixed size unscaled value. 
+ * 
+ * @since 4.2.0
+ */
+public final class RowLayout {
+
+	static final int HEADER_SIZE = 4 ;
+
+	private static final int SHORT_SLOTS_LIMIT = 0xFFFF ;
+	private static final double BITS_PER_DIGIT = 3.3219280948873626 ; // log2(10)
+
+	private final String entityName ;
+	private final String[] names ;
+	private final FieldKind[] kinds ;
+	private final int[] offsets ;     // position of the slot in the row
+	private final int[] nullBits ;    // bit in the null bitmap or -1 if not nullable
+	private final int[] scales ;      // decimal scale (fixed size decimals)
+	private final int[] maxLengths ;  // chars, bytes or digits for decimals (-1 if none)
+	private final Map<String, Integer> fieldIndexes = new HashMap<>();
+	private final int bitmapSize ;
+	private final int variableStart ;
+	private final int slotWidth ;     // 2 or 4
+	private final int maxRowSize ;    // -1 if unbounded
+
+	private RowLayout(Entity entity) {
+		super();
+		this.entityName = entity.getClassName();
+		List<Attribute> attributes = entity.getAttributes();
+		int n = attributes.size();
+		names = new String[n];
+		kinds = new FieldKind[n];
+		offsets = new int[n];
+		nullBits = new int[n];
+		scales = new int[n];
+		maxLengths = new int[n];
+		int nullableCount = 0 ;
+		long maxVariableSize = 0 ;
+		int variableCount = 0 ;
+		int fixedSize = 0 ;
+		for ( int i = 0 ; i < n ; i++ ) {
+			Attribute attribute = attributes.get(i);
+			names[i] = attribute.getName();
+			fieldIndexes.put(names[i], i);
+			kinds[i] = FieldKind.of(attribute);
+			scales[i] = attribute.getScale() != null ? attribute.getScale() : 0 ;
+			maxLengths[i] = maxLengthOf(attribute, kinds[i]);
+			nullBits[i] = attribute.isNotNull() || attribute.isKeyElement() ? -1 : nullableCount++ ;
+			if ( kinds[i].isVariable() ) {
+				variableCount++ ;
+				long max = maxBytes(kinds[i], maxLengths[i]);
+				maxVariableSize = ( maxVariableSize < 0 || max < 0 ) ? -1 : maxVariableSize + max ;
+			}
+			else {
+				fixedSize += kinds[i].getFixedSize();
+			}
+		}
+		bitmapSize = ( nullableCount + 7 ) / 8 ;
+		//--- slots width : 2 bytes if all the positions in the row can be stored in an unsigned short
+		long bound = maxVariableSize < 0 ? -1 : HEADER_SIZE + bitmapSize + fixedSize + variableCount * 4L + maxVariableSize ;
+		slotWidth = ( bound >= 0 && bound <= SHORT_SLOTS_LIMIT ) ? 2 : 4 ;
+		int position = HEADER_SIZE + bitmapSize ;
+		for ( int i = 0 ; i < n ; i++ ) {
+			offsets[i] = position ;
+			position += kinds[i].isVariable() ? 2 * slotWidth : kinds[i].getFixedSize() ;
+		}
+		variableStart = position ;
+		maxRowSize = maxVariableSize < 0 ? -1 : (int) Math.min(Integer.MAX_VALUE, variableStart + maxVariableSize) ;
+	}
+
+	/**
+	 * Returns the layout for the given entity
+	 * @param entity
+	 * @return
+	 */
+	public static RowLayout of(Entity entity) {
+		if ( entity == null ) {
+			throw new IllegalArgumentException("Entity is null");
+		}
+		return new RowLayout(entity);
+	}
+
+	private static int maxLengthOf(Attribute attribute, FieldKind kind) {
+		Integer max ;
+		if ( kind == FieldKind.DECIMAL || kind == FieldKind.DECIMAL32 || kind == FieldKind.DECIMAL64 ) {
+			max = attribute.getPrecision() ;
+		}
+		else if ( kind == FieldKind.STRING || kind == FieldKind.BINARY ) {
+			max = attribute.getMaxLength() ;
+		}
+		else {
+			max = null ;
+		}
+		return max != null && max >= 0 ? max : -1 ;
+	}
+
+	private static long maxBytes(FieldKind kind, int maxLength) {
+		if ( maxLength < 0 ) {
+			return -1 ;
+		}
+		switch ( kind ) {
+		case STRING :  return maxLength * 3L ; // UTF-8 : max 3 bytes per char
+		case DECIMAL : return 4 + (long) Math.ceil(maxLength * BITS_PER_DIGIT) / 8 + 1 ; // scale + unscaled value
+		default :      return maxLength ;
+		}
+	}
+
+	//-------------------------------------------------------------------------------------
+	public String getEntityName() {
+		return entityName;
+	}
+
+	/**
+	 * Returns the number of fields (number of attributes)
+	 * @return
+	 */
+	public int getFieldCount() {
+		return names.length;
+	}
+
+	/**
+	 * Returns the position of the given attribute in the row 
+	 * @param attributeName
+	 * @return
+	 */
+	public int getFieldIndex(String attributeName) {
+		Integer i = fieldIndexes.get(attributeName);
+		if ( i == null ) {
+			throw new IllegalArgumentException("Unknown attribute '" + attributeName + "' in entity '" + entityName + "'");
+		}
+		return i;
+	}
+
+	public String getFieldName(int field) {
+		return names[field];
+	}
+
+	public FieldKind getFieldKind(int field) {
+		return kinds[field];
+	}
+
+	public boolean isNullable(int field) {
+		return nullBits[field] >= 0 ;
+	}
+
+	/**
+	 * Returns the size of the null bitmap (bytes)
+	 * @return
+	 */
+	public int getBitmapSize() {
+		return bitmapSize;
+	}
+
+	/**
+	 * Returns the size of a row without variable length values (header, bitmap and fixed section)
+	 * @return
+	 */
+	public int getFixedRowSize() {
+		return variableStart;
+	}
+
+	/**
+	 * Returns the size of the 'offset' and 'length' values in the slots of the variable length fields (2 or 4)
+	 * @return
+	 */
+	public int getSlotWidth() {
+		return slotWidth;
+	}
+
+	/**
+	 * Returns the maximum size of a row or -1 if unbounded 
+	 * @return
+	 */
+	public int getMaxRowSize() {
+		return maxRowSize;
+	}
+
+	//-------------------------------------------------------------------------------------
+	int offset(int field) {
+		return offsets[field];
+	}
+
+	int nullBit(int field) {
+		return nullBits[field];
+	}
+
+	int scale(int field) {
+		return scales[field];
+	}
+
+	int maxLength(int field) {
+		return maxLengths[field];
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(entityName).append(" : bitmap=").append(bitmapSize).append(" fixed=").append(variableStart)
+			.append(" slot=").append(slotWidth).append(" max=").append(maxRowSize);
+		for ( int i = 0 ; i < names.length ; i++ ) {
+			sb.append("\n  ").append(offsets[i]).append(" ").append(names[i]).append(" ").append(kinds[i])
+				.append(nullBits[i] >= 0 ? " (null bit " + nullBits[i] + ")" : "");
+		}
+		return sb.toString();
+	}
+}
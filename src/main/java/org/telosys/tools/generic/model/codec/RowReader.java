@@ -0,0 +1,172 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.codec;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+
+/**
+ * Cursor on the rows of a buffer with direct access to the fields (no boxing for primitive values) <br>
+ * The primitive getters return 0 (or false) for a null value (use 'isNull' to check). <br>
+ * Not thread-safe
+ * 
+ * @since 4.2.0
+ */
+public final class RowReader {
+
+	private final RowLayout layout ;
+	private ByteBuffer buffer ;
+	private int rowStart = -1 ;
+	private int rowSize ;
+
+	RowReader(RowLayout layout) {
+		super();
+		this.layout = layout;
+	}
+
+	public RowLayout getLayout() {
+		return layout;
+	}
+
+	/**
+	 * Moves to the row at the current position of the buffer (the position is moved after the row)
+	 * @param buffer
+	 * @return false if there's no more data in the buffer
+	 */
+	public boolean next(ByteBuffer buffer) {
+		if ( !buffer.hasRemaining() ) {
+			return false ;
+		}
+		at(buffer, buffer.position());
+		buffer.position(rowStart + rowSize);
+		return true ;
+	}
+
+	/**
+	 * Moves to the row at the given position (the buffer position is not changed)
+	 * @param buffer
+	 * @param position
+	 * @return
+	 */
+	public RowReader at(ByteBuffer buffer, int position) {
+		this.rowSize = RowCodec.rowSize(buffer, position);
+		this.buffer = buffer ;
+		this.rowStart = position ;
+		return this ;
+	}
+
+	/**
+	 * Returns the size of the current row 
+	 * @return
+	 */
+	public int getRowSize() {
+		return rowSize;
+	}
+
+	private int position(int field) {
+		if ( rowStart < 0 ) {
+			throw new IllegalStateException("No current row");
+		}
+		return rowStart + layout.offset(field);
+	}
+
+	public boolean isNull(int field) {
+		position(field);
+		return RowCodec.isNull(layout, buffer, rowStart, field);
+	}
+
+	public boolean getBoolean(int field) {
+		int p = position(field);
+		if ( layout.getFieldKind(field) != FieldKind.BOOLEAN ) {
+			throw RowCodec.invalid(layout, field, "not a boolean field");
+		}
+		return buffer.get(p) != 0 ;
+	}
+
+	/**
+	 * Returns the value of an integer field (byte, short, int) or the epoch day of a date 
+	 * @param field
+	 * @return
+	 */
+	public int getInt(int field) {
+		int p = position(field);
+		switch ( layout.getFieldKind(field) ) {
+		case BYTE :  return buffer.get(p);
+		case SHORT : return buffer.getShort(p);
+		case INT :   
+		case DATE :  return buffer.getInt(p);
+		default :    throw RowCodec.invalid(layout, field, "not an int field (" + layout.getFieldKind(field) + ")");
+		}
+	}
+
+	/**
+	 * Returns the value of an integer field (byte, short, int, long), the epoch day of a date, <br>
+	 * the nano of day of a time or the unscaled value of a fixed size decimal 
+	 * @param field
+	 * @return
+	 */
+	public long getLong(int field) {
+		int p = position(field);
+		switch ( layout.getFieldKind(field) ) {
+		case BYTE :      return buffer.get(p);
+		case SHORT :     return buffer.getShort(p);
+		case INT :   
+		case DATE :  
+		case DECIMAL32 : return buffer.getInt(p);
+		case LONG :  
+		case TIME :  
+		case DECIMAL64 : return buffer.getLong(p);
+		default :        throw RowCodec.invalid(layout, field, "not a long field (" + layout.getFieldKind(field) + ")");
+		}
+	}
+
+	/**
+	 * Returns the value of a floating point field (float, double)
+	 * @param field
+	 * @return
+	 */
+	public double getDouble(int field) {
+		int p = position(field);
+		switch ( layout.getFieldKind(field) ) {
+		case FLOAT :  return buffer.getFloat(p);
+		case DOUBLE : return buffer.getDouble(p);
+		default :     throw RowCodec.invalid(layout, field, "not a floating point field (" + layout.getFieldKind(field) + ")");
+		}
+	}
+
+	public String getString(int field) {
+		position(field);
+		if ( layout.getFieldKind(field) != FieldKind.STRING ) {
+			throw RowCodec.invalid(layout, field, "not a string field");
+		}
+		return isNull(field) ? null : RowCodec.readString(layout, buffer, rowStart, field);
+	}
+
+	public BigDecimal getDecimal(int field) {
+		position(field);
+		return isNull(field) ? null : RowCodec.readDecimal(layout, buffer, rowStart, field);
+	}
+
+	/**
+	 * Returns the value of any field (boxed)
+	 * @param field
+	 * @return
+	 */
+	public Object getObject(int field) {
+		position(field);
+		return isNull(field) ? null : RowCodec.readValue(layout, buffer, rowStart, field);
+	}
+}
@@ -0,0 +1,175 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.codec;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+
+/**
+ * Writes a row field by field (no boxing for primitive values) <br>
+ * Usage : begin(buffer), set each field once (in any order), end() <br>
+ * A nullable field not set is null. <br>
+ * Not thread-safe
+ * 
+ * @since 4.2.0
+ */
+public final class RowWriter {
+
+	private final RowLayout layout ;
+	private final long[] assigned ;
+	private ByteBuffer buffer ;
+	private int rowStart = -1 ;
+	private int varPos ;
+
+	RowWriter(RowLayout layout) {
+		super();
+		this.layout = layout;
+		this.assigned = new long[( layout.getFieldCount() + 63 ) / 64];
+	}
+
+	public RowLayout getLayout() {
+		return layout;
+	}
+
+	/**
+	 * Starts a new row at the current position of the buffer 
+	 * @param buffer
+	 * @return
+	 */
+	public RowWriter begin(ByteBuffer buffer) {
+		int start = buffer.position();
+		this.varPos = RowCodec.beginRow(layout, buffer, start);
+		this.buffer = buffer ;
+		this.rowStart = start ;
+		for ( int i = 0 ; i < assigned.length ; i++ ) {
+			assigned[i] = 0 ;
+		}
+		return this ;
+	}
+
+	/**
+	 * Checks that a row is started and that the field is not already set
+	 * @param field
+	 */
+	private void checkUnset(int field) {
+		if ( rowStart < 0 ) {
+			throw new IllegalStateException("No current row");
+		}
+		if ( ( assigned[field >> 6] & ( 1L << ( field & 63 ) ) ) != 0 ) {
+			throw new IllegalStateException(layout.getEntityName() + "." + layout.getFieldName(field) + " : already set");
+		}
+	}
+
+	private void assigned(int field, boolean notNull) {
+		assigned[field >> 6] |= 1L << ( field & 63 ) ;
+		if ( notNull ) {
+			RowCodec.setNotNull(layout, buffer, rowStart, field);
+		}
+	}
+
+	public RowWriter setNull(int field) {
+		if ( !layout.isNullable(field) ) {
+			throw RowCodec.invalid(layout, field, "null value");
+		}
+		checkUnset(field);
+		assigned(field, false);
+		return this ;
+	}
+
+	public RowWriter setBoolean(int field, boolean value) {
+		if ( layout.getFieldKind(field) != FieldKind.BOOLEAN ) {
+			throw RowCodec.invalid(layout, field, "not a boolean field");
+		}
+		checkUnset(field);
+		buffer.put(rowStart + layout.offset(field), (byte) ( value ? 1 : 0 ));
+		assigned(field, true);
+		return this ;
+	}
+
+	/**
+	 * Sets an integer field (byte, short, int, long), the epoch day of a date, <br>
+	 * the nano of day of a time or the unscaled value of a fixed size decimal 
+	 * @param field
+	 * @param value
+	 * @return
+	 */
+	public RowWriter setLong(int field, long value) {
+		checkUnset(field);
+		RowCodec.writeLong(layout, buffer, rowStart, field, value); // checks kind and range
+		assigned(field, true);
+		return this ;
+	}
+
+	public RowWriter setInt(int field, int value) {
+		return setLong(field, value);
+	}
+
+	/**
+	 * Sets a floating point field (float, double)
+	 * @param field
+	 * @param value
+	 * @return
+	 */
+	public RowWriter setDouble(int field, double value) {
+		checkUnset(field);
+		RowCodec.writeDouble(layout, buffer, rowStart, field, value); // checks kind
+		assigned(field, true);
+		return this ;
+	}
+
+	public RowWriter setString(int field, CharSequence value) {
+		return setObject(field, value);
+	}
+
+	public RowWriter setDecimal(int field, BigDecimal value) {
+		return setObject(field, value);
+	}
+
+	/**
+	 * Sets any field (boxed value) 
+	 * @param field
+	 * @param value the value or null
+	 * @return
+	 */
+	public RowWriter setObject(int field, Object value) {
+		if ( value == null ) {
+			return setNull(field);
+		}
+		checkUnset(field);
+		varPos = RowCodec.writeValue(layout, buffer, rowStart, varPos, field, value);
+		assigned(field, true);
+		return this ;
+	}
+
+	/**
+	 * Ends the current row (the buffer position is moved after the row)
+	 * @return the row size
+	 * @throws IllegalStateException if a not null field is not set
+	 */
+	public int end() {
+		if ( rowStart < 0 ) {
+			throw new IllegalStateException("No current row");
+		}
+		for ( int i = 0 ; i < layout.getFieldCount() ; i++ ) {
+			if ( !layout.isNullable(i) && ( assigned[i >> 6] & ( 1L << ( i & 63 ) ) ) == 0 ) {
+				throw new IllegalStateException(layout.getEntityName() + "." + layout.getFieldName(i) + " : not set");
+			}
+		}
+		int size = RowCodec.endRow(buffer, rowStart, varPos);
+		rowStart = -1 ;
+		return size ;
+	}
+}
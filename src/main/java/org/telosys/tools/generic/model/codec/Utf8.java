@@ -0,0 +1,94 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * UTF-8 encoding directly in a ByteBuffer (no intermediate byte array) <br>
+ * An unpaired surrogate is encoded as '?' (same as 'String.getBytes')
+ * 
+ * @since 4.2.0
+ */
+final class Utf8 {
+
+	private Utf8() {
+	}
+
+	/**
+	 * Returns the number of bytes of the UTF-8 encoded value
+	 * @param s
+	 * @return
+	 */
+	static int encodedLength(CharSequence s) {
+		int n = s.length();
+		int length = n ;
+		for ( int i = 0 ; i < n ; i++ ) {
+			char c = s.charAt(i);
+			if ( c >= 0x80 ) {
+				if ( c < 0x800 ) {
+					length += 1 ;
+				}
+				else if ( Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(s.charAt(i + 1)) ) {
+					length += 2 ; // 4 bytes for 2 chars
+					i++ ;
+				}
+				else if ( !Character.isSurrogate(c) ) {
+					length += 2 ;
+				}
+			}
+		}
+		return length;
+	}
+
+	/**
+	 * Writes the UTF-8 encoded value at the given position (absolute puts)
+	 * @param s
+	 * @param buffer
+	 * @param position
+	 * @return the position after the last byte
+	 */
+	static int encode(CharSequence s, ByteBuffer buffer, int position) {
+		int p = position ;
+		int n = s.length();
+		for ( int i = 0 ; i < n ; i++ ) {
+			char c = s.charAt(i);
+			if ( c < 0x80 ) {
+				buffer.put(p++, (byte) c);
+			}
+			else if ( c < 0x800 ) {
+				buffer.put(p++, (byte) ( 0xC0 | ( c >> 6 ) ));
+				buffer.put(p++, (byte) ( 0x80 | ( c & 0x3F ) ));
+			}
+			else if ( Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(s.charAt(i + 1)) ) {
+				int cp = Character.toCodePoint(c, s.charAt(++i));
+				buffer.put(p++, (byte) ( 0xF0 | ( cp >> 18 ) ));
+				buffer.put(p++, (byte) ( 0x80 | ( ( cp >> 12 ) & 0x3F ) ));
+				buffer.put(p++, (byte) ( 0x80 | ( ( cp >> 6 ) & 0x3F ) ));
+				buffer.put(p++, (byte) ( 0x80 | ( cp & 0x3F ) ));
+			}
+			else if ( Character.isSurrogate(c) ) {
+				buffer.put(p++, (byte) '?');
+			}
+			else {
+				buffer.put(p++, (byte) ( 0xE0 | ( c >> 12 ) ));
+				buffer.put(p++, (byte) ( 0x80 | ( ( c >> 6 ) & 0x3F ) ));
+				buffer.put(p++, (byte) ( 0x80 | ( c & 0x3F ) ));
+			}
+		}
+		return p;
+	}
+}
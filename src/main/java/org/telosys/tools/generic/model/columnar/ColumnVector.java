@@ -0,0 +1,291 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.columnar;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import org.telosys.tools.generic.model.codec.FieldKind;
+
+/**
+ * Values of a column in a batch (one primitive array per column) <br>
+ * The arrays are returned without copy for the scans (only the first 'batch.getSize()' values are used). <br>
+ * Validity bitmap : bit set = value not null (no bitmap for a not null column). <br>
+ * Not thread-safe
+ * 
+ * @since 4.2.0
+ */
+public final class ColumnVector {
+
+	private final String name ;
+	private final FieldKind kind ;
+	private final VectorType type ;
+	private final int scale ;
+	private final int precision ;
+	private final boolean[] booleans ;
+	private final int[] ints ; // values or dictionary codes
+	private final long[] longs ;
+	private final double[] doubles ;
+	private final Object[] objects ;
+	private final StringDictionary dictionary ;
+	private final long[] validity ;
+
+	ColumnVector(ColumnarSchema schema, int column, int capacity) {
+		super();
+		this.name = schema.getColumnName(column);
+		this.kind = schema.getFieldKind(column);
+		this.type = schema.getVectorType(column);
+		this.scale = schema.getScale(column);
+		this.precision = schema.getPrecision(column);
+		this.booleans = type == VectorType.BOOLEAN ? new boolean[capacity] : null ;
+		this.ints = type == VectorType.INT || type == VectorType.DICTIONARY ? new int[capacity] : null ;
+		this.longs = type == VectorType.LONG ? new long[capacity] : null ;
+		this.doubles = type == VectorType.DOUBLE ? new double[capacity] : null ;
+		this.objects = type == VectorType.OBJECT ? new Object[capacity] : null ;
+		this.dictionary = type == VectorType.DICTIONARY ? new StringDictionary() : null ;
+		this.validity = schema.isNullable(column) ? new long[( capacity + 63 ) / 64] : null ;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public FieldKind getFieldKind() {
+		return kind;
+	}
+
+	public VectorType getType() {
+		return type;
+	}
+
+	private void checkType(VectorType expected) {
+		if ( type != expected ) {
+			throw new IllegalStateException("Column '" + name + "' : " + type + " vector (not " + expected + ")");
+		}
+	}
+
+	public boolean[] getBooleans() {
+		checkType(VectorType.BOOLEAN);
+		return booleans;
+	}
+
+	public int[] getInts() {
+		checkType(VectorType.INT);
+		return ints;
+	}
+
+	public long[] getLongs() {
+		checkType(VectorType.LONG);
+		return longs;
+	}
+
+	public double[] getDoubles() {
+		checkType(VectorType.DOUBLE);
+		return doubles;
+	}
+
+	public Object[] getObjects() {
+		checkType(VectorType.OBJECT);
+		return objects;
+	}
+
+	/**
+	 * Returns the dictionary codes of a string column
+	 * @return
+	 */
+	public int[] getCodes() {
+		checkType(VectorType.DICTIONARY);
+		return ints;
+	}
+
+	public StringDictionary getDictionary() {
+		checkType(VectorType.DICTIONARY);
+		return dictionary;
+	}
+
+	/**
+	 * Returns the scale of a decimal column (unscaled values in the INT or LONG vector)
+	 * @return
+	 */
+	public int getScale() {
+		return scale;
+	}
+
+	public boolean isNullable() {
+		return validity != null ;
+	}
+
+	/**
+	 * Returns the validity bitmap (or null if the column is not nullable) 
+	 * @return
+	 */
+	public long[] getValidity() {
+		return validity;
+	}
+
+	public boolean isNull(int row) {
+		return validity != null && ( validity[row >> 6] & ( 1L << ( row & 63 ) ) ) == 0 ;
+	}
+
+	//-------------------------------------------------------------------------------------
+	private IllegalArgumentException invalid(String message) {
+		return new IllegalArgumentException("Column '" + name + "' : " + message);
+	}
+
+	/**
+	 * Sets the value for the given row 
+	 * @param row
+	 * @param value
+	 */
+	void set(int row, Object value) {
+		if ( value == null ) {
+			if ( validity == null ) {
+				throw invalid("null value");
+			}
+			validity[row >> 6] &= ~( 1L << ( row & 63 ) ) ;
+			return ;
+		}
+		try {
+			switch ( kind ) {
+			case BOOLEAN :   booleans[row] = (Boolean) value ; break;
+			case BYTE :      ints[row] = (int) integral(value, Byte.MIN_VALUE, Byte.MAX_VALUE); break;
+			case SHORT :     ints[row] = (int) integral(value, Short.MIN_VALUE, Short.MAX_VALUE); break;
+			case INT :       ints[row] = (int) integral(value, Integer.MIN_VALUE, Integer.MAX_VALUE); break;
+			case DATE :      ints[row] = epochDay((LocalDate) value); break;
+			case DECIMAL32 : ints[row] = (int) unscaled(value, Integer.MIN_VALUE, Integer.MAX_VALUE); break;
+			case LONG :      longs[row] = integral(value, Long.MIN_VALUE, Long.MAX_VALUE); break;
+			case TIME :      longs[row] = ((LocalTime) value).toNanoOfDay(); break;
+			case DECIMAL64 : longs[row] = unscaled(value, Long.MIN_VALUE, Long.MAX_VALUE); break;
+			case FLOAT :
+			case DOUBLE :    doubles[row] = ((Number) value).doubleValue(); break;
+			case STRING :    ints[row] = dictionary.encode(((CharSequence) value).toString()); break;
+			default :        objects[row] = value ; break;
+			}
+		} catch ( ClassCastException e ) {
+			throw invalid("invalid value type (" + value.getClass().getSimpleName() + ")");
+		}
+		if ( validity != null ) {
+			validity[row >> 6] |= 1L << ( row & 63 ) ;
+		}
+	}
+
+	private long integral(Object value, long min, long max) {
+		long v ;
+		if ( value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte ) {
+			v = ((Number) value).longValue();
+		}
+		else if ( value instanceof BigInteger || value instanceof BigDecimal ) {
+			try {
+				v = value instanceof BigInteger ? ((BigInteger) value).longValueExact() : ((BigDecimal) value).longValueExact() ;
+			} catch ( ArithmeticException e ) {
+				throw invalid("not an integer value (" + value + ")");
+			}
+		}
+		else {
+			throw new ClassCastException();
+		}
+		if ( v < min || v > max ) {
+			throw invalid("value out of range (" + value + ")");
+		}
+		return v ;
+	}
+
+	private long unscaled(Object value, long min, long max) {
+		BigDecimal bd ;
+		if ( value instanceof BigDecimal ) {
+			bd = (BigDecimal) value ;
+		}
+		else {
+			bd = BigDecimal.valueOf(integral(value, Long.MIN_VALUE, Long.MAX_VALUE));
+		}
+		try {
+			bd = bd.setScale(scale, RoundingMode.UNNECESSARY);
+		} catch ( ArithmeticException e ) {
+			throw invalid("scale exceeded (" + value + ")");
+		}
+		if ( precision >= 0 && bd.precision() > precision ) {
+			throw invalid("precision exceeded (" + value + ")");
+		}
+		return integral(bd.unscaledValue(), min, max);
+	}
+
+	private int epochDay(LocalDate date) {
+		try {
+			return Math.toIntExact(date.toEpochDay());
+		} catch ( ArithmeticException e ) {
+			throw invalid("value out of range (" + date + ")");
+		}
+	}
+
+	/**
+	 * Returns the value for the given row (boxed)
+	 * @param row
+	 * @return
+	 */
+	Object get(int row) {
+		if ( isNull(row) ) {
+			return null ;
+		}
+		switch ( kind ) {
+		case BOOLEAN :   return booleans[row];
+		case BYTE :      return (byte) ints[row];
+		case SHORT :     return (short) ints[row];
+		case INT :       return ints[row];
+		case DATE :      return LocalDate.ofEpochDay(ints[row]);
+		case DECIMAL32 : return BigDecimal.valueOf(ints[row], scale);
+		case LONG :      return longs[row];
+		case TIME :      return LocalTime.ofNanoOfDay(longs[row]);
+		case DECIMAL64 : return BigDecimal.valueOf(longs[row], scale);
+		case FLOAT :     return (float) doubles[row];
+		case DOUBLE :    return doubles[row];
+		case STRING :    return dictionary.valueOf(ints[row]);
+		default :        return objects[row];
+		}
+	}
+
+	/**
+	 * Returns the number of values in the dictionary (0 if not a string column)
+	 * @return
+	 */
+	int dictionarySize() {
+		return dictionary != null ? dictionary.size() : 0 ;
+	}
+
+	/**
+	 * Removes the dictionary values added after the given size 
+	 * @param dictionarySize
+	 */
+	void rollback(int dictionarySize) {
+		if ( dictionary != null ) {
+			dictionary.truncate(dictionarySize);
+		}
+	}
+
+	/**
+	 * Clears the object references (for the garbage collector)
+	 * @param size
+	 */
+	void clear(int size) {
+		if ( objects != null ) {
+			for ( int i = 0 ; i < size ; i++ ) {
+				objects[i] = null ;
+			}
+		}
+	}
+}
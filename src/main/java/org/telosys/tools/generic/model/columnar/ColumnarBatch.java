@@ -0,0 +1,225 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.columnar;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Batch of rows stored by columns (struct of arrays) <br>
+ * Rows are appended and read column by column (one array at a time). <br>
+ * Not thread-safe
+ * 
+ * @since 4.2.0
+ */
+public final class ColumnarBatch {
+
+	private final ColumnarSchema schema ;
+	private final int capacity ;
+	private final ColumnVector[] vectors ;
+	private final int[] dictionarySizes ; // before an append (to undo it on error)
+	private int size = 0 ;
+
+	ColumnarBatch(ColumnarSchema schema, int capacity) {
+		super();
+		this.schema = schema;
+		this.capacity = capacity;
+		this.vectors = new ColumnVector[schema.getColumnCount()];
+		for ( int c = 0 ; c < vectors.length ; c++ ) {
+			vectors[c] = new ColumnVector(schema, c, capacity);
+		}
+		this.dictionarySizes = new int[vectors.length];
+	}
+
+	public ColumnarSchema getSchema() {
+		return schema;
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Returns the number of rows 
+	 * @return
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	public boolean isFull() {
+		return size == capacity ;
+	}
+
+	public ColumnVector getVector(int column) {
+		return vectors[column];
+	}
+
+	public ColumnVector getVector(String attributeName) {
+		return vectors[schema.getColumnIndex(attributeName)];
+	}
+
+	/**
+	 * Removes all the rows (the dictionaries are kept)
+	 */
+	public void clear() {
+		for ( ColumnVector vector : vectors ) {
+			vector.clear(size);
+		}
+		size = 0 ;
+	}
+
+	/**
+	 * Appends a record 
+	 * @param record
+	 * @return false if the batch is full
+	 * @throws IllegalArgumentException if a value is invalid (record not appended, dictionaries unchanged)
+	 */
+	public boolean appendRow(Object[] record) {
+		checkRecord(record);
+		if ( isFull() ) {
+			return false ;
+		}
+		markDictionaries();
+		try {
+			for ( int c = 0 ; c < vectors.length ; c++ ) {
+				vectors[c].set(size, record[schema.getFieldIndex(c)]);
+			}
+		} catch ( RuntimeException e ) {
+			rollbackDictionaries();
+			throw e ;
+		}
+		size++ ;
+		return true ;
+	}
+
+	/**
+	 * Appends the records from the given position (column by column) until the batch is full
+	 * @param records
+	 * @param from
+	 * @return the number of records appended 
+	 * @throws IllegalArgumentException if a value is invalid (no record appended, dictionaries unchanged)
+	 */
+	public int appendRows(List<Object[]> records, int from) {
+		int count = Math.min(capacity - size, records.size() - from);
+		for ( int i = 0 ; i < count ; i++ ) {
+			checkRecord(records.get(from + i));
+		}
+		markDictionaries();
+		try {
+			for ( int c = 0 ; c < vectors.length ; c++ ) {
+				ColumnVector vector = vectors[c];
+				int field = schema.getFieldIndex(c);
+				for ( int i = 0 ; i < count ; i++ ) {
+					vector.set(size + i, records.get(from + i)[field]);
+				}
+			}
+		} catch ( RuntimeException e ) {
+			// the values written after 'size' are ignored, only the new dictionary entries must be removed
+			rollbackDictionaries();
+			throw e ;
+		}
+		size += count ;
+		return count ;
+	}
+
+	private void markDictionaries() {
+		for ( int c = 0 ; c < vectors.length ; c++ ) {
+			dictionarySizes[c] = vectors[c].dictionarySize();
+		}
+	}
+
+	private void rollbackDictionaries() {
+		for ( int c = 0 ; c < vectors.length ; c++ ) {
+			vectors[c].rollback(dictionarySizes[c]);
+		}
+	}
+
+	private void checkRecord(Object[] record) {
+		if ( record == null || record.length != schema.getRecordSize() ) {
+			throw new IllegalArgumentException(schema.getEntityName() + " : invalid record (" + schema.getRecordSize() + " values expected)");
+		}
+	}
+
+	/**
+	 * Returns the value of a column for the given row (boxed)
+	 * @param row
+	 * @param column
+	 * @return
+	 */
+	public Object getValue(int row, int column) {
+		checkRow(row);
+		return vectors[column].get(row);
+	}
+
+	/**
+	 * Returns the record for the given row (attributes without column are null)
+	 * @param row
+	 * @return
+	 */
+	public Object[] getRow(int row) {
+		checkRow(row);
+		Object[] record = new Object[schema.getRecordSize()];
+		for ( int c = 0 ; c < vectors.length ; c++ ) {
+			record[schema.getFieldIndex(c)] = vectors[c].get(row);
+		}
+		return record;
+	}
+
+	/**
+	 * Returns all the rows as records (filled column by column)
+	 * @return
+	 */
+	public List<Object[]> toRows() {
+		Object[][] records = new Object[size][schema.getRecordSize()];
+		for ( int c = 0 ; c < vectors.length ; c++ ) {
+			ColumnVector vector = vectors[c];
+			int field = schema.getFieldIndex(c);
+			for ( int row = 0 ; row < size ; row++ ) {
+				records[row][field] = vector.get(row);
+			}
+		}
+		List<Object[]> list = new ArrayList<>(size);
+		for ( Object[] record : records ) {
+			list.add(record);
+		}
+		return list;
+	}
+
+	private void checkRow(int row) {
+		if ( row < 0 || row >= size ) {
+			throw new IndexOutOfBoundsException("Row " + row + " (size " + size + ")");
+		}
+	}
+
+	/**
+	 * Transposes records to batches (the dictionaries are not shared between the batches)
+	 * @param schema
+	 * @param records
+	 * @param batchSize
+	 * @return
+	 */
+	public static List<ColumnarBatch> fromRows(ColumnarSchema schema, List<Object[]> records, int batchSize) {
+		List<ColumnarBatch> batches = new ArrayList<>();
+		int from = 0 ;
+		while ( from < records.size() ) {
+			ColumnarBatch batch = schema.newBatch(batchSize);
+			from += batch.appendRows(records, from);
+			batches.add(batch);
+		}
+		return batches;
+	}
+}
@@ -0,0 +1,217 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.columnar;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.telosys.tools.generic.model.Attribute;
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.codec.FieldKind;
+
+/**
+ * Columnar layout of an entity : one column per attribute (or per selected attribute) <br>
+ * The vector type of each column is derived from the neutral type (see 'VectorType') <br>
+ * and the nullability ('isNotNull' and key attributes have no validity bitmap). <br>
+ * Records are 'Object[]' with the attribute values in the order of 'entity.getAttributes()'.
+ * 
+ * @since 4.2.0
+ */
+public final class ColumnarSchema {
+
+	private final String entityName ;
+	private final int recordSize ;
+	private final String[] names ;
+	private final int[] fieldIndexes ;
+	private final FieldKind[] kinds ;
+	private final VectorType[] types ;
+	private final boolean[] nullables ;
+	private final int[] scales ;
+	private final int[] precisions ; // -1 if none
+	private final Map<String, Integer> columnIndexes = new HashMap<>();
+
+	private ColumnarSchema(Entity entity, List<Attribute> columns) {
+		super();
+		this.entityName = entity.getClassName();
+		List<Attribute> attributes = entity.getAttributes();
+		this.recordSize = attributes.size();
+		int n = columns.size();
+		names = new String[n];
+		fieldIndexes = new int[n];
+		kinds = new FieldKind[n];
+		types = new VectorType[n];
+		nullables = new boolean[n];
+		scales = new int[n];
+		precisions = new int[n];
+		for ( int i = 0 ; i < n ; i++ ) {
+			Attribute attribute = columns.get(i);
+			names[i] = attribute.getName();
+			fieldIndexes[i] = attributes.indexOf(attribute);
+			kinds[i] = FieldKind.of(attribute);
+			types[i] = VectorType.of(kinds[i]);
+			nullables[i] = !( attribute.isNotNull() || attribute.isKeyElement() );
+			scales[i] = attribute.getScale() != null ? attribute.getScale() : 0 ;
+			precisions[i] = ( kinds[i] == FieldKind.DECIMAL32 || kinds[i] == FieldKind.DECIMAL64 ) && attribute.getPrecision() != null ? 
+					attribute.getPrecision() : -1 ;
+			columnIndexes.put(names[i], i);
+		}
+	}
+
+	/**
+	 * Returns the schema with all the attributes of the given entity 
+	 * @param entity
+	 * @return
+	 */
+	public static ColumnarSchema of(Entity entity) {
+		return builder(entity).build();
+	}
+
+	/**
+	 * Returns a builder to select the attributes 
+	 * @param entity
+	 * @return
+	 */
+	public static Builder builder(Entity entity) {
+		if ( entity == null ) {
+			throw new IllegalArgumentException("Entity is null");
+		}
+		return new Builder(entity);
+	}
+
+	/**
+	 * Schema builder 
+	 */
+	public static final class Builder {
+
+		private final Entity entity ;
+		private final List<Attribute> columns = new ArrayList<>();
+
+		private Builder(Entity entity) {
+			super();
+			this.entity = entity;
+		}
+
+		/**
+		 * Adds the given attributes as columns (all the attributes if no column is added)
+		 * @param attributeNames
+		 * @return
+		 */
+		public Builder columns(String... attributeNames) {
+			for ( String name : attributeNames ) {
+				Attribute attribute = entity.getAttributeByName(name);
+				if ( attribute == null ) {
+					throw new IllegalArgumentException("Unknown attribute '" + name + "' in entity '" + entity.getClassName() + "'");
+				}
+				if ( columns.contains(attribute) ) {
+					throw new IllegalArgumentException("Duplicated column '" + name + "'");
+				}
+				columns.add(attribute);
+			}
+			return this ;
+		}
+
+		public ColumnarSchema build() {
+			return new ColumnarSchema(entity, columns.isEmpty() ? entity.getAttributes() : columns);
+		}
+	}
+
+	//-------------------------------------------------------------------------------------
+	public String getEntityName() {
+		return entityName;
+	}
+
+	/**
+	 * Returns the size of the records (number of attributes in the entity)
+	 * @return
+	 */
+	public int getRecordSize() {
+		return recordSize;
+	}
+
+	public int getColumnCount() {
+		return names.length;
+	}
+
+	/**
+	 * Returns the index of the column for the given attribute 
+	 * @param attributeName
+	 * @return
+	 */
+	public int getColumnIndex(String attributeName) {
+		Integer i = columnIndexes.get(attributeName);
+		if ( i == null ) {
+			throw new IllegalArgumentException("No column '" + attributeName + "' in schema '" + entityName + "'");
+		}
+		return i;
+	}
+
+	public String getColumnName(int column) {
+		return names[column];
+	}
+
+	/**
+	 * Returns the position of the column value in the records 
+	 * @param column
+	 * @return
+	 */
+	public int getFieldIndex(int column) {
+		return fieldIndexes[column];
+	}
+
+	public FieldKind getFieldKind(int column) {
+		return kinds[column];
+	}
+
+	public VectorType getVectorType(int column) {
+		return types[column];
+	}
+
+	public boolean isNullable(int column) {
+		return nullables[column];
+	}
+
+	/**
+	 * Returns the scale of a decimal column (unscaled values in INT and LONG vectors)
+	 * @param column
+	 * @return
+	 */
+	public int getScale(int column) {
+		return scales[column];
+	}
+
+	/**
+	 * Returns the precision of a decimal column (max number of digits) or -1 if none
+	 * @param column
+	 * @return
+	 */
+	public int getPrecision(int column) {
+		return precisions[column];
+	}
+
+	/**
+	 * Returns a new batch with the given capacity (rows)
+	 * @param capacity
+	 * @return
+	 */
+	public ColumnarBatch newBatch(int capacity) {
+		if ( capacity <= 0 ) {
+			throw new IllegalArgumentException("Invalid capacity " + capacity);
+		}
+		return new ColumnarBatch(this, capacity);
+	}
+}
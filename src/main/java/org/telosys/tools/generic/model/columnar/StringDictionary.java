@@ -0,0 +1,90 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.columnar;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dictionary for a string column : each distinct value has a code (0, 1, 2, ...) <br>
+ * The codes are kept when the batch is cleared (codes can be compared between batches). <br>
+ * Not thread-safe
+ * 
+ * @since 4.2.0
+ */
+public final class StringDictionary {
+
+	private final Map<String, Integer> codes = new HashMap<>();
+	private final List<String> values = new ArrayList<>();
+
+	StringDictionary() {
+		super();
+	}
+
+	/**
+	 * Returns the code of the given value (a new code is created if the value is not yet in the dictionary)
+	 * @param value
+	 * @return
+	 */
+	int encode(String value) {
+		Integer code = codes.get(value);
+		if ( code == null ) {
+			code = values.size();
+			codes.put(value, code);
+			values.add(value);
+		}
+		return code ;
+	}
+
+	/**
+	 * Removes the values added after the given size (codes &gt;= size)
+	 * @param newSize
+	 */
+	void truncate(int newSize) {
+		for ( int code = values.size() - 1 ; code >= newSize ; code-- ) {
+			codes.remove(values.remove(code));
+		}
+	}
+
+	/**
+	 * Returns the code of the given value or -1 if not in the dictionary (for filters on codes)
+	 * @param value
+	 * @return
+	 */
+	public int codeOf(String value) {
+		Integer code = codes.get(value);
+		return code != null ? code : -1 ;
+	}
+
+	/**
+	 * Returns the value for the given code
+	 * @param code
+	 * @return
+	 */
+	public String valueOf(int code) {
+		return values.get(code);
+	}
+
+	/**
+	 * Returns the number of distinct values
+	 * @return
+	 */
+	public int size() {
+		return values.size();
+	}
+}
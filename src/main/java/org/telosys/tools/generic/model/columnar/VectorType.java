@@ -0,0 +1,56 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.columnar;
+
+import org.telosys.tools.generic.model.codec.FieldKind;
+
+/**
+ * Storage of a column in a batch 
+ * 
+ * @since 4.2.0
+ */
+public enum VectorType {
+
+	BOOLEAN,    // boolean[]
+	INT,        // int[]    : byte, short, int, date (epoch day), decimal (unscaled, precision <= 9)
+	LONG,       // long[]   : long, time (nano of day), decimal (unscaled, precision <= 18)
+	DOUBLE,     // double[] : float, double
+	DICTIONARY, // int[] codes + dictionary : string
+	OBJECT;     // Object[] : timestamp, unbounded decimal, binary
+
+	/**
+	 * Returns the vector type for the given field kind
+	 * @param kind
+	 * @return
+	 */
+	public static VectorType of(FieldKind kind) {
+		switch ( kind ) {
+		case BOOLEAN :   return BOOLEAN ;
+		case BYTE :
+		case SHORT :
+		case INT :
+		case DATE :
+		case DECIMAL32 : return INT ;
+		case LONG :
+		case TIME :
+		case DECIMAL64 : return LONG ;
+		case FLOAT :
+		case DOUBLE :    return DOUBLE ;
+		case STRING :    return DICTIONARY ;
+		default :        return OBJECT ;
+		}
+	}
+}
@@ -0,0 +1,439 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.data;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.SplittableRandom;
+
+import org.telosys.tools.generic.model.Attribute;
+import org.telosys.tools.generic.model.types.NeutralTypeCode;
+
+/**
+ * Values generator for an attribute (a column) <br>
+ * The constraints of the attribute (min/max value, min/max length, pattern, date past/future, etc) <br>
+ * are converted once in primitive ranges, then the values are appended directly in the output buffer. <br>
+ * <br>
+ * 'Row-derived' values ( keys, unique attributes and attributes referenced by foreign keys ) <br>
+ * are a pure function of the row number : they are unique and can be recomputed to build a reference <br>
+ * (the pattern is not applied to these values). <br>
+ * Immutable and thread-safe (the random generator is provided by the caller)
+ * 
+ * @since 4.2.0
+ */
+final class ColumnGenerator {
+
+	private static final long[] POW10 = { 1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L, 1000000000L };
+	private static final int  MAX_SCALE = POW10.length - 1 ;
+	private static final long MAX_UNITS = 100000000000000000L ; // 10^17 : no overflow in ranges
+
+	private static final long DEFAULT_MAX_NUMBER = 100000L ;
+	private static final int  DEFAULT_DECIMAL_SCALE = 2 ;
+	private static final int  DEFAULT_MAX_LENGTH = 20 ;
+	private static final int  DEFAULT_MAX_LONG_TEXT_LENGTH = 200 ;
+	private static final int  DEFAULT_BINARY_LENGTH = 16 ;
+	private static final int  SECONDS_PER_DAY = 86400 ;
+	private static final long MIN_DAY = LocalDate.of(2000, 1, 1).toEpochDay();
+	private static final long MAX_DAY = LocalDate.of(2030, 12, 31).toEpochDay();
+	private static final long LAST_DAY = LocalDate.of(9999, 12, 31).toEpochDay();
+	private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+	private static final char[] LETTERS = "abcdefghijklmnopqrstuvwxyz".toCharArray();
+
+	private final Attribute attribute ;
+	private final String columnName ;
+	private final NeutralTypeCode code ;
+	private final boolean rowDerived ;
+	private final boolean nullable ;
+	private final boolean text ; // quoted value
+
+	private final long minUnits ; // integer value or decimal value x 10^scale
+	private final long maxUnits ;
+	private final int  scale ;
+	private final int  minLength ;
+	private final int  maxLength ;
+	private final long minDay ;
+	private final long maxDay ;
+	private final PatternGenerator pattern ;
+	private final int  patternMinLength ; // explicit min/max length only
+	private final int  patternMaxLength ;
+
+	/**
+	 * Constructor
+	 * @param attribute
+	 * @param rowDerived
+	 * @param today reference date for 'past' and 'future' dates
+	 */
+	ColumnGenerator(Attribute attribute, boolean rowDerived, LocalDate today) {
+		super();
+		this.attribute = attribute ;
+		this.columnName = attribute.getDatabaseName() != null && !attribute.getDatabaseName().isEmpty() ? 
+				attribute.getDatabaseName() : attribute.getName() ;
+		NeutralTypeCode c = attribute.getNeutralTypeCode();
+		if ( c == null ) {
+			throw new IllegalArgumentException("Attribute '" + attribute.getName() + "' : unknown neutral type '" 
+					+ attribute.getNeutralType() + "'");
+		}
+		this.code = c ;
+		this.rowDerived = rowDerived ;
+		this.nullable = !rowDerived && !attribute.isNotNull() && !attribute.isKeyElement() ;
+		this.text = c == NeutralTypeCode.STRING || c.isTemporal() || c == NeutralTypeCode.BINARY ;
+
+		//--- numbers
+		this.scale = initScale(attribute, c);
+		long[] range = initRange(attribute, c, scale, rowDerived);
+		this.minUnits = range[0];
+		this.maxUnits = range[1];
+
+		//--- strings 
+		int maxLen = attribute.getMaxLength() != null ? attribute.getMaxLength() 
+				: ( attribute.isLongText() ? DEFAULT_MAX_LONG_TEXT_LENGTH : DEFAULT_MAX_LENGTH ) ;
+		int minLen = attribute.getMinLength() != null ? attribute.getMinLength() : 1 ;
+		if ( attribute.getMaxLength() != null && minLen > maxLen ) {
+			minLen = maxLen ;
+		}
+		if ( maxLen < minLen ) {
+			maxLen = minLen ;
+		}
+		this.minLength = Math.max(0, minLen);
+		this.maxLength = Math.max(0, maxLen);
+		this.pattern = ( c == NeutralTypeCode.STRING && !rowDerived ) ? PatternGenerator.compile(attribute.getPattern()) : null ;
+		this.patternMinLength = attribute.getMinLength() != null ? minLength : 0 ;
+		this.patternMaxLength = attribute.getMaxLength() != null ? maxLength : Integer.MAX_VALUE ;
+		if ( pattern != null && ( pattern.getMinLength() > patternMaxLength || pattern.getMaxLength() < patternMinLength ) ) {
+			throw new IllegalArgumentException("Attribute '" + attribute.getName() + "' : pattern incompatible with min/max length");
+		}
+
+		//--- dates ( row-derived dates are consecutive days from the min day : no default max )
+		long dayMin = MIN_DAY ;
+		long dayMax = rowDerived ? LAST_DAY : MAX_DAY ;
+		if ( attribute.isDatePast() ) {
+			dayMin = today.minusYears(30).toEpochDay();
+			dayMax = today.toEpochDay() - 1 ;
+		}
+		else if ( attribute.isDateFuture() ) {
+			dayMin = today.toEpochDay() + 1 ;
+			dayMax = today.plusYears(30).toEpochDay();
+		}
+		dayMin = Math.max(dayMin, parseDay(attribute.getDateAfterValue(), dayMin - 1) + 1);
+		dayMax = Math.min(dayMax, parseDay(attribute.getDateBeforeValue(), dayMax + 1) - 1);
+		this.minDay = dayMin ;
+		this.maxDay = Math.max(dayMin, dayMax) ;
+	}
+
+	private static int initScale(Attribute attribute, NeutralTypeCode code) {
+		switch ( code ) {
+		case DECIMAL :
+		case FLOAT :
+		case DOUBLE :
+			int s = attribute.getScale() != null ? attribute.getScale() : DEFAULT_DECIMAL_SCALE ;
+			return Math.max(0, Math.min(s, MAX_SCALE));
+		default :
+			return 0 ;
+		}
+	}
+
+	private static long[] initRange(Attribute attribute, NeutralTypeCode code, int scale, boolean rowDerived) {
+		long typeMin ;
+		long typeMax ;
+		switch ( code ) {
+		case BYTE :
+			typeMin = Byte.MIN_VALUE ;
+			typeMax = Byte.MAX_VALUE ;
+			break;
+		case SHORT :
+			typeMin = Short.MIN_VALUE ;
+			typeMax = Short.MAX_VALUE ;
+			break;
+		case INTEGER :
+			typeMin = Integer.MIN_VALUE ;
+			typeMax = Integer.MAX_VALUE ;
+			break;
+		default :
+			typeMin = -MAX_UNITS ;
+			typeMax = MAX_UNITS ;
+		}
+		long unit = POW10[scale];
+		if ( attribute.getPrecision() != null && attribute.getPrecision() > scale && attribute.getPrecision() - scale < 17 ) {
+			long limit = POW10[0] ;
+			for ( int i = 0 ; i < attribute.getPrecision() - scale ; i++ ) {
+				limit *= 10 ;
+			}
+			typeMax = Math.min(typeMax, limit * unit - 1) ;
+			typeMin = Math.max(typeMin, -typeMax) ;
+		}
+		long min = rowDerived ? unit : 0 ; // keys start at 1
+		long max = rowDerived ? typeMax : Math.min(typeMax, DEFAULT_MAX_NUMBER * unit) ;
+		if ( attribute.isUnsignedTypeExpected() ) {
+			typeMin = Math.max(typeMin, 0) ;
+		}
+		if ( attribute.getMinValue() != null ) {
+			min = toUnits(attribute.getMinValue(), scale, RoundingMode.CEILING);
+			if ( attribute.getMaxValue() == null && !rowDerived ) {
+				max = Math.max(max, min + DEFAULT_MAX_NUMBER * unit) ;
+			}
+		}
+		if ( attribute.getMaxValue() != null ) {
+			max = toUnits(attribute.getMaxValue(), scale, RoundingMode.FLOOR);
+			if ( attribute.getMinValue() == null && max < min ) {
+				min = Math.max(typeMin, max - DEFAULT_MAX_NUMBER * unit) ;
+			}
+		}
+		min = Math.max(min, typeMin);
+		max = Math.min(max, typeMax);
+		if ( max < min ) {
+			throw new IllegalArgumentException("Attribute '" + attribute.getName() + "' : invalid min/max values");
+		}
+		return new long[] { min, max } ;
+	}
+
+	private static long toUnits(BigDecimal value, int scale, RoundingMode roundingMode) {
+		BigDecimal units = value.movePointRight(scale).setScale(0, roundingMode);
+		if ( units.compareTo(BigDecimal.valueOf(MAX_UNITS)) > 0 ) {
+			return MAX_UNITS ;
+		}
+		if ( units.compareTo(BigDecimal.valueOf(-MAX_UNITS)) < 0 ) {
+			return -MAX_UNITS ;
+		}
+		return units.longValue();
+	}
+
+	private static long parseDay(String date, long defaultValue) {
+		if ( date != null ) {
+			try {
+				return LocalDate.parse(date.trim()).toEpochDay();
+			} catch (DateTimeParseException e) {
+				// not an ISO date : ignored
+			}
+		}
+		return defaultValue ;
+	}
+
+	//-------------------------------------------------------------------------------------
+	Attribute getAttribute() {
+		return attribute;
+	}
+
+	String getColumnName() {
+		return columnName;
+	}
+
+	boolean isRowDerived() {
+		return rowDerived;
+	}
+
+	boolean isNullable() {
+		return nullable;
+	}
+
+	/**
+	 * Checks that 'rowCount' distinct row-derived values can be generated 
+	 * @param rowCount
+	 */
+	void checkCapacity(long rowCount) {
+		if ( !rowDerived || rowCount == 0 ) {
+			return ;
+		}
+		long last = rowCount - 1 ;
+		boolean ok ;
+		switch ( code ) {
+		case STRING :
+			ok = Math.max(minLength, Long.toString(last).length()) <= maxLength ;
+			break;
+		case BOOLEAN :
+			ok = rowCount <= 2 ;
+			break;
+		case DATE :
+			ok = last <= maxDay - minDay ;
+			break;
+		case TIMESTAMP :
+		case TIMESTAMPZ :
+			ok = last < ( maxDay - minDay + 1 ) * SECONDS_PER_DAY ;
+			break;
+		case TIME :
+			ok = rowCount <= SECONDS_PER_DAY ;
+			break;
+		case BINARY :
+			ok = true ;
+			break;
+		default :
+			ok = last <= ( maxUnits - minUnits ) / POW10[scale] ;
+		}
+		if ( !ok ) {
+			throw new IllegalArgumentException("Attribute '" + attribute.getName() + "' : cannot generate " 
+					+ rowCount + " unique values");
+		}
+	}
+
+	//-------------------------------------------------------------------------------------
+	// Values generation
+	//-------------------------------------------------------------------------------------
+	/**
+	 * Appends the value for the given row (row-derived attributes) 
+	 * @param sb
+	 * @param row
+	 * @param format
+	 */
+	void appendRowValue(StringBuilder sb, long row, DataFormat format) {
+		int start = sb.length();
+		switch ( code ) {
+		case STRING :
+			String s = Long.toString(row); // digits only : compatible with most patterns
+			for ( int i = s.length() ; i < minLength ; i++ ) {
+				sb.append('0');
+			}
+			sb.append(s);
+			break;
+		case BOOLEAN :
+			sb.append(row != 0);
+			break;
+		case DATE :
+			appendDate(sb, minDay + row);
+			break;
+		case TIME :
+			appendTime(sb, (int) ( row % SECONDS_PER_DAY ));
+			break;
+		case TIMESTAMP :
+		case TIMESTAMPZ :
+			appendTimestamp(sb, minDay * SECONDS_PER_DAY + row);
+			break;
+		case BINARY :
+			appendHex(sb, row);
+			break;
+		default :
+			// numbers : min, min + 1, min + 2, ...
+			appendUnits(sb, minUnits + row * POW10[scale], scale);
+		}
+		if ( text ) {
+			format.quote(sb, start, code == NeutralTypeCode.BINARY);
+		}
+	}
+
+	/**
+	 * Appends a random value (or a null value if nullable and 'isNull' is true)
+	 * @param sb
+	 * @param random
+	 * @param format
+	 */
+	void appendRandomValue(StringBuilder sb, SplittableRandom random, DataFormat format) {
+		int start = sb.length();
+		switch ( code ) {
+		case STRING :
+			if ( pattern != null ) {
+				pattern.generate(sb, random, patternMinLength, patternMaxLength);
+			}
+			else {
+				int length = nextInt(random, minLength, maxLength);
+				for ( int i = 0 ; i < length ; i++ ) {
+					sb.append(LETTERS[random.nextInt(LETTERS.length)]);
+				}
+			}
+			break;
+		case BOOLEAN :
+			sb.append(random.nextBoolean());
+			break;
+		case DATE :
+			appendDate(sb, nextLong(random, minDay, maxDay));
+			break;
+		case TIME :
+			appendTime(sb, random.nextInt(SECONDS_PER_DAY));
+			break;
+		case TIMESTAMP :
+		case TIMESTAMPZ :
+			appendTimestamp(sb, nextLong(random, minDay, maxDay) * SECONDS_PER_DAY + random.nextInt(SECONDS_PER_DAY));
+			break;
+		case BINARY :
+			int length = Math.min(maxLength, DEFAULT_BINARY_LENGTH);
+			for ( int i = 0 ; i < length ; i++ ) {
+				int b = random.nextInt(256);
+				sb.append(HEX[b >>> 4]).append(HEX[b & 0xF]);
+			}
+			break;
+		default :
+			appendUnits(sb, nextLong(random, minUnits, maxUnits), scale);
+		}
+		if ( text ) {
+			format.quote(sb, start, code == NeutralTypeCode.BINARY);
+		}
+	}
+
+	private static int nextInt(SplittableRandom random, int min, int max) {
+		return min == max ? min : random.nextInt(min, max + 1) ;
+	}
+
+	private static long nextLong(SplittableRandom random, long min, long max) {
+		return min == max ? min : random.nextLong(min, max + 1) ; // max < Long.MAX_VALUE (bounded ranges)
+	}
+
+	//-------------------------------------------------------------------------------------
+	// Formatting (no intermediate objects)
+	//-------------------------------------------------------------------------------------
+	private static void appendUnits(StringBuilder sb, long units, int scale) {
+		if ( scale == 0 ) {
+			sb.append(units);
+			return ;
+		}
+		if ( units < 0 ) {
+			sb.append('-');
+			units = -units ;
+		}
+		long unit = POW10[scale];
+		sb.append(units / unit).append('.');
+		long fraction = units % unit ;
+		for ( long d = unit / 10 ; d > 0 ; d /= 10 ) {
+			sb.append((char) ( '0' + ( fraction / d ) % 10 ));
+		}
+	}
+
+	private static void appendDate(StringBuilder sb, long epochDay) {
+		LocalDate date = LocalDate.ofEpochDay(epochDay);
+		append(sb, date.getYear(), 4).append('-');
+		append(sb, date.getMonthValue(), 2).append('-');
+		append(sb, date.getDayOfMonth(), 2);
+	}
+
+	private static void appendTime(StringBuilder sb, int secondOfDay) {
+		append(sb, secondOfDay / 3600, 2).append(':');
+		append(sb, ( secondOfDay / 60 ) % 60, 2).append(':');
+		append(sb, secondOfDay % 60, 2);
+	}
+
+	private void appendTimestamp(StringBuilder sb, long epochSecond) {
+		long epochDay = Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+		appendDate(sb, epochDay);
+		sb.append(' ');
+		appendTime(sb, (int) ( epochSecond - epochDay * SECONDS_PER_DAY ));
+		if ( code == NeutralTypeCode.TIMESTAMPZ ) {
+			sb.append("+00:00");
+		}
+	}
+
+	private static void appendHex(StringBuilder sb, long value) {
+		for ( int shift = 60 ; shift >= 0 ; shift -= 4 ) {
+			sb.append(HEX[(int) ( value >>> shift ) & 0xF]);
+		}
+	}
+
+	private static StringBuilder append(StringBuilder sb, int value, int digits) {
+		for ( int d = 1, n = 10 ; d < digits ; d++, n *= 10 ) {
+			if ( value < n ) {
+				sb.append('0');
+			}
+		}
+		return sb.append(value);
+	}
+}
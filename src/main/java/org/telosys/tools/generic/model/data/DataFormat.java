@@ -0,0 +1,117 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.data;
+
+/**
+ * Output formats for the generated datasets 
+ * 
+ * @since 4.2.0
+ */
+public enum DataFormat {
+
+	/**
+	 * CSV (RFC 4180) : header line with the column names, empty field for null
+	 */
+	CSV("csv", ",") {
+		@Override
+		void appendNull(StringBuilder sb) {
+			// empty field
+		}
+		@Override
+		void quote(StringBuilder sb, int start, boolean binary) {
+			if ( needsQuotes(sb, start) ) {
+				escape(sb, start, '"');
+			}
+		}
+	},
+
+	/**
+	 * SQL : one 'INSERT' statement per row
+	 */
+	SQL("sql", ", ") {
+		@Override
+		void appendNull(StringBuilder sb) {
+			sb.append("NULL");
+		}
+		@Override
+		void quote(StringBuilder sb, int start, boolean binary) {
+			if ( binary ) {
+				sb.insert(start, "X'").append('\'');
+			}
+			else {
+				escape(sb, start, '\'');
+			}
+		}
+	};
+
+	private final String fileExtension ;
+
+	private final String separator ;
+
+	private DataFormat(String fileExtension, String separator) {
+		this.fileExtension = fileExtension;
+		this.separator = separator;
+	}
+
+	/**
+	 * Returns the file extension (without dot) 
+	 * @return
+	 */
+	public String getFileExtension() {
+		return fileExtension;
+	}
+
+	/**
+	 * Returns the separator between 2 values in a row 
+	 * @return
+	 */
+	String getSeparator() {
+		return separator;
+	}
+
+	/**
+	 * Appends a null value 
+	 * @param sb
+	 */
+	abstract void appendNull(StringBuilder sb) ;
+
+	/**
+	 * Quotes the text value located at the end of the buffer (from 'start')
+	 * @param sb
+	 * @param start
+	 * @param binary true if the value is an hexadecimal binary value
+	 */
+	abstract void quote(StringBuilder sb, int start, boolean binary) ;
+
+	private static boolean needsQuotes(StringBuilder sb, int start) {
+		for ( int i = start ; i < sb.length() ; i++ ) {
+			char c = sb.charAt(i);
+			if ( c == ',' || c == '"' || c == '\n' || c == '\r' ) {
+				return true ;
+			}
+		}
+		return false ;
+	}
+
+	private static void escape(StringBuilder sb, int start, char quote) {
+		for ( int i = sb.length() - 1 ; i >= start ; i-- ) {
+			if ( sb.charAt(i) == quote ) {
+				sb.insert(i, quote); // doubled
+			}
+		}
+		sb.insert(start, quote).append(quote);
+	}
+}
@@ -0,0 +1,291 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.data;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.ForeignKey;
+import org.telosys.tools.generic.model.ForeignKeyAttribute;
+import org.telosys.tools.generic.model.Model;
+import org.telosys.tools.generic.model.util.DependencySorter;
+
+/**
+ * Synthetic test data generator driven by the model <br>
+ * <br>
+ * Generates rows for each entity respecting the attributes constraints <br>
+ * (max length, min/max values, pattern, not null, unique, keys, foreign keys) <br>
+ * and writes them as CSV or SQL 'INSERT' in the foreign keys dependency order. <br>
+ * <br>
+ * The rows are generated by chunks in parallel, each chunk with its own random generator <br>
+ * split from the entity generator, so the result is the same for a given seed whatever the number of threads. <br>
+ * The chunks are written in order in a NIO channel (memory used = a few chunks). <br>
+ * <br>
+ * Usage : <br>
+ *   DatasetGenerator generator = new DatasetGenerator(model); <br>
+ *   generator.setDefaultRowCount(100000); <br>
+ *   generator.setRowCount("Country", 200); <br>
+ *   List&lt;Path&gt; files = generator.generate(directory, DataFormat.SQL); <br>
+ * <br>
+ * Not thread-safe (configuration), each 'generate' call is independent
+ * 
+ * @since 4.2.0
+ */
+public class DatasetGenerator {
+
+	private static final int DEFAULT_CHUNK_SIZE = 10000 ;
+	private static final int BYTES_PER_ROW_ESTIMATE = 64 ;
+
+	private final Model model ;
+
+	private final Map<String, Long> rowCounts = new HashMap<>();
+
+	private long defaultRowCount = 100 ;
+
+	private long seed = 0 ;
+
+	private double nullRate = 0.1 ;
+
+	private int chunkSize = DEFAULT_CHUNK_SIZE ;
+
+	private int parallelism = Runtime.getRuntime().availableProcessors() ;
+
+	private LocalDate referenceDate = LocalDate.now() ;
+
+	/**
+	 * Constructor
+	 * @param model
+	 */
+	public DatasetGenerator(Model model) {
+		super();
+		if ( model == null ) {
+			throw new IllegalArgumentException("Model is null");
+		}
+		this.model = model;
+	}
+
+	//-------------------------------------------------------------------------------------
+	// Configuration
+	//-------------------------------------------------------------------------------------
+	/**
+	 * Set the number of rows for the entities without specific row count (default : 100)
+	 * @param rowCount
+	 */
+	public void setDefaultRowCount(long rowCount) {
+		this.defaultRowCount = checkRowCount(rowCount);
+	}
+
+	/**
+	 * Set the number of rows for the given entity 
+	 * @param entityClassName
+	 * @param rowCount
+	 */
+	public void setRowCount(String entityClassName, long rowCount) {
+		rowCounts.put(entityClassName, checkRowCount(rowCount));
+	}
+
+	/**
+	 * Returns the number of rows to generate for the given entity
+	 * @param entityClassName
+	 * @return
+	 */
+	public long getRowCount(String entityClassName) {
+		Long n = rowCounts.get(entityClassName);
+		return n != null ? n : defaultRowCount ;
+	}
+
+	private static long checkRowCount(long rowCount) {
+		if ( rowCount < 0 ) {
+			throw new IllegalArgumentException("Invalid row count : " + rowCount);
+		}
+		return rowCount ;
+	}
+
+	/**
+	 * Set the seed of the random generators (default : 0)
+	 * @param seed
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * Set the probability of a null value for the nullable attributes (default : 0.1)
+	 * @param nullRate between 0 and 1
+	 */
+	public void setNullRate(double nullRate) {
+		if ( nullRate < 0 || nullRate > 1 ) {
+			throw new IllegalArgumentException("Invalid null rate : " + nullRate);
+		}
+		this.nullRate = nullRate;
+	}
+
+	/**
+	 * Set the number of rows generated by each task (default : 10000)
+	 * @param chunkSize
+	 */
+	public void setChunkSize(int chunkSize) {
+		if ( chunkSize <= 0 ) {
+			throw new IllegalArgumentException("Invalid chunk size : " + chunkSize);
+		}
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Set the number of chunks generated in parallel before writing (default : number of processors)
+	 * @param parallelism
+	 */
+	public void setParallelism(int parallelism) {
+		if ( parallelism <= 0 ) {
+			throw new IllegalArgumentException("Invalid parallelism : " + parallelism);
+		}
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Set the reference date used for 'past' and 'future' dates (default : today)
+	 * @param referenceDate
+	 */
+	public void setReferenceDate(LocalDate referenceDate) {
+		if ( referenceDate == null ) {
+			throw new IllegalArgumentException("Reference date is null");
+		}
+		this.referenceDate = referenceDate;
+	}
+
+	//-------------------------------------------------------------------------------------
+	// Generation
+	//-------------------------------------------------------------------------------------
+	/**
+	 * Generates a file for each entity in the given directory ( "ClassName.csv" or "ClassName.sql" )
+	 * @param directory
+	 * @param format
+	 * @return the files in the dependency order (the loading order)
+	 * @throws IOException
+	 */
+	public List<Path> generate(Path directory, DataFormat format) throws IOException {
+		Map<String, EntityDataGenerator> generators = compile();
+		Files.createDirectories(directory);
+		List<Path> files = new ArrayList<>();
+		for ( EntityDataGenerator generator : generators.values() ) {
+			Path file = directory.resolve(generator.getEntity().getClassName() + "." + format.getFileExtension());
+			try ( FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, 
+					StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE) ) {
+				write(generator, channel, format);
+			}
+			files.add(file);
+		}
+		return files ;
+	}
+
+	/**
+	 * Writes the rows of the given entity in the given channel (the channel is not closed)
+	 * @param entityClassName
+	 * @param channel
+	 * @param format
+	 * @return the number of rows written
+	 * @throws IOException
+	 */
+	public long write(String entityClassName, WritableByteChannel channel, DataFormat format) throws IOException {
+		EntityDataGenerator generator = compile().get(entityClassName);
+		if ( generator == null ) {
+			throw new IllegalArgumentException("Unknown entity '" + entityClassName + "'");
+		}
+		write(generator, channel, format);
+		return generator.getRowCount();
+	}
+
+	/**
+	 * Returns the generators in the dependency order
+	 * @return
+	 */
+	private Map<String, EntityDataGenerator> compile() {
+		Entity[] entities = DependencySorter.computeDependencyOrder(model).getOrderedEntities();
+		Set<String> referencedAttributes = new HashSet<>();
+		for ( Entity entity : entities ) {
+			for ( ForeignKey fk : entity.getForeignKeys() ) {
+				for ( ForeignKeyAttribute fka : fk.getAttributes() ) {
+					referencedAttributes.add(fk.getReferencedEntityName() + "." + fka.getReferencedAttributeName());
+				}
+			}
+		}
+		Map<String, EntityDataGenerator> generators = new LinkedHashMap<>();
+		for ( Entity entity : entities ) {
+			generators.put(entity.getClassName(), 
+					new EntityDataGenerator(entity, getRowCount(entity.getClassName()), referencedAttributes, referenceDate));
+		}
+		for ( EntityDataGenerator generator : generators.values() ) {
+			generator.bindForeignKeys(generators);
+		}
+		return generators ;
+	}
+
+	private void write(EntityDataGenerator generator, WritableByteChannel channel, DataFormat format) throws IOException {
+		writeFully(channel, encode(generator.getHeader(format)));
+		long rows = generator.getRowCount();
+		long chunks = ( rows + chunkSize - 1 ) / chunkSize ;
+		// one random generator per entity (independent of the other entities), split for each chunk 
+		SplittableRandom entityRandom = new SplittableRandom(seed ^ ( generator.getEntity().getClassName().hashCode() * 0x9E3779B97F4A7C15L ));
+		SplittableRandom[] randoms = new SplittableRandom[parallelism];
+		ByteBuffer[] buffers = new ByteBuffer[parallelism];
+		for ( long firstChunk = 0 ; firstChunk < chunks ; firstChunk += parallelism ) {
+			int n = (int) Math.min(parallelism, chunks - firstChunk);
+			for ( int i = 0 ; i < n ; i++ ) {
+				randoms[i] = entityRandom.split(); // sequential split : deterministic
+			}
+			long first = firstChunk * chunkSize ;
+			IntStream.range(0, n).parallel().forEach( i -> {
+				long start = first + (long) i * chunkSize ;
+				long end = Math.min(start + chunkSize, rows);
+				StringBuilder sb = new StringBuilder((int) Math.min(Integer.MAX_VALUE / 2, ( end - start ) * BYTES_PER_ROW_ESTIMATE));
+				generator.appendRows(sb, start, end, randoms[i], format, nullRate);
+				buffers[i] = encode(sb);
+			});
+			for ( int i = 0 ; i < n ; i++ ) {
+				writeFully(channel, buffers[i]);
+				buffers[i] = null ;
+			}
+		}
+	}
+
+	private static ByteBuffer encode(CharSequence text) {
+		return StandardCharsets.UTF_8.encode(CharBuffer.wrap(text));
+	}
+
+	private static void writeFully(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+		while ( buffer.hasRemaining() ) {
+			channel.write(buffer);
+		}
+	}
+}
@@ -0,0 +1,308 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.data;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import org.telosys.tools.generic.model.Attribute;
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.ForeignKey;
+import org.telosys.tools.generic.model.ForeignKeyAttribute;
+
+/**
+ * Rows generator for an entity <br>
+ * Each foreign key is bound to the row-derived columns of the referenced entity : <br>
+ * a reference is a random row number in the referenced entity, so it always exists. <br>
+ * Foreign keys used in the primary key (or unique) use a 'mixed radix' row numbering <br>
+ * to keep the key combinations unique. <br>
+ * Immutable after 'bindForeignKeys', thread-safe for rows generation
+ * 
+ * @since 4.2.0
+ */
+final class EntityDataGenerator {
+
+	private final Entity entity ;
+	private final String tableName ;
+	private final long rowCount ;
+	private final ColumnGenerator[] columns ;
+	private final Map<String, ColumnGenerator> columnsByAttributeName = new HashMap<>();
+	private final Map<String, Integer> columnIndexes = new HashMap<>();
+
+	private ForeignKeyBinding[] bindings = new ForeignKeyBinding[0] ;
+	private int[] columnBinding ; // binding index for each column ( -1 if none )
+	private ColumnGenerator[] columnTarget ; // referenced column for each column ( null if none )
+
+	/**
+	 * Constructor
+	 * @param entity
+	 * @param rowCount
+	 * @param referencedAttributes names of the attributes referenced by foreign keys ( "Entity.attribute" )
+	 * @param today
+	 */
+	EntityDataGenerator(Entity entity, long rowCount, Set<String> referencedAttributes, LocalDate today) {
+		super();
+		this.entity = entity ;
+		this.rowCount = rowCount ;
+		String table = entity.getDatabaseTable() != null && !entity.getDatabaseTable().isEmpty() ? 
+				entity.getDatabaseTable() : entity.getClassName() ;
+		String schema = entity.getDatabaseSchema() ;
+		this.tableName = schema != null && !schema.isEmpty() ? schema + "." + table : table ;
+		List<ColumnGenerator> list = new ArrayList<>();
+		for ( Attribute attribute : entity.getAttributes() ) {
+			if ( attribute.isTransient() ) {
+				continue;
+			}
+			boolean rowDerived = attribute.isKeyElement() || attribute.isUnique() 
+					|| referencedAttributes.contains(entity.getClassName() + "." + attribute.getName()) ;
+			ColumnGenerator column = new ColumnGenerator(attribute, rowDerived, today);
+			column.checkCapacity(rowCount);
+			columnIndexes.put(attribute.getName(), list.size());
+			columnsByAttributeName.put(attribute.getName(), column);
+			list.add(column);
+		}
+		this.columns = list.toArray(new ColumnGenerator[0]);
+		this.columnBinding = new int[columns.length];
+		Arrays.fill(columnBinding, -1);
+		this.columnTarget = new ColumnGenerator[columns.length];
+	}
+
+	Entity getEntity() {
+		return entity;
+	}
+
+	long getRowCount() {
+		return rowCount;
+	}
+
+	ColumnGenerator getColumn(String attributeName) {
+		return columnsByAttributeName.get(attributeName);
+	}
+
+	/**
+	 * Binds the foreign keys to the generators of the referenced entities 
+	 * @param generators all the generators ( key = entity class name )
+	 */
+	void bindForeignKeys(Map<String, EntityDataGenerator> generators) {
+		List<ForeignKeyBinding> list = new ArrayList<>();
+		long divisor = 1 ;
+		for ( ForeignKey fk : entity.getForeignKeys() ) {
+			EntityDataGenerator target = generators.get(fk.getReferencedEntityName());
+			if ( target == null ) {
+				continue; // unknown entity : random values
+			}
+			List<ForeignKeyAttribute> fkAttributes = fk.getAttributes();
+			int[] indexes = new int[fkAttributes.size()];
+			ColumnGenerator[] targets = new ColumnGenerator[fkAttributes.size()];
+			boolean key = false ;
+			boolean unique = false ;
+			boolean nullable = true ;
+			int n = 0 ;
+			for ( ForeignKeyAttribute fka : fkAttributes ) {
+				Integer index = columnIndexes.get(fka.getOriginAttributeName());
+				ColumnGenerator targetColumn = target.getColumn(fka.getReferencedAttributeName());
+				if ( index != null && targetColumn != null ) {
+					ColumnGenerator column = columns[index];
+					key |= column.getAttribute().isKeyElement() ;
+					unique |= column.getAttribute().isUnique() ;
+					nullable &= !column.getAttribute().isNotNull() && !column.getAttribute().isKeyElement() ;
+					indexes[n] = index ;
+					targets[n] = targetColumn ;
+					n++ ;
+				}
+			}
+			if ( n == 0 ) {
+				continue;
+			}
+			boolean self = target == this ;
+			if ( target.getRowCount() == 0 && rowCount > 0 && !nullable ) {
+				throw new IllegalArgumentException("Entity '" + entity.getClassName() + "' : foreign key '" + fk.getName() 
+						+ "' references entity '" + target.getEntity().getClassName() + "' without rows");
+			}
+			ForeignKeyBinding binding ;
+			if ( key && !self ) {
+				// part of the primary key : 'mixed radix' numbering with the other foreign keys of the primary key
+				binding = new ForeignKeyBinding(Arrays.copyOf(indexes, n), Arrays.copyOf(targets, n),
+						target.getRowCount(), false, true, nullable, divisor);
+				divisor = multiply(divisor, target.getRowCount());
+			}
+			else if ( unique && !self ) {
+				// unique foreign key : one row referenced once
+				if ( rowCount > target.getRowCount() ) {
+					throw new IllegalArgumentException("Entity '" + entity.getClassName() + "' : cannot generate " + rowCount 
+							+ " unique references to " + target.getRowCount() + " rows (foreign key '" + fk.getName() + "')");
+				}
+				binding = new ForeignKeyBinding(Arrays.copyOf(indexes, n), Arrays.copyOf(targets, n),
+						target.getRowCount(), false, true, nullable, 1);
+			}
+			else {
+				binding = new ForeignKeyBinding(Arrays.copyOf(indexes, n), Arrays.copyOf(targets, n),
+						target.getRowCount(), self, false, nullable, 1);
+			}
+			for ( int i = 0 ; i < n ; i++ ) {
+				columnBinding[binding.columns[i]] = list.size();
+				columnTarget[binding.columns[i]] = binding.targets[i];
+			}
+			list.add(binding);
+		}
+		if ( divisor > 1 && rowCount > divisor && isKeyBound() ) {
+			throw new IllegalArgumentException("Entity '" + entity.getClassName() + "' : cannot generate " + rowCount 
+					+ " unique keys from " + divisor + " referenced rows");
+		}
+		this.bindings = list.toArray(new ForeignKeyBinding[0]);
+	}
+
+	/**
+	 * Returns true if all the primary key columns are foreign key columns 
+	 * (else the other key columns are row-derived and the key is always unique)
+	 * @return
+	 */
+	private boolean isKeyBound() {
+		boolean found = false ;
+		for ( int c = 0 ; c < columns.length ; c++ ) {
+			if ( columns[c].getAttribute().isKeyElement() ) {
+				if ( columnBinding[c] < 0 ) {
+					return false ;
+				}
+				found = true ;
+			}
+		}
+		return found ;
+	}
+
+	private static long multiply(long a, long b) {
+		try {
+			return Math.multiplyExact(a, b);
+		} catch (ArithmeticException e) {
+			return Long.MAX_VALUE ;
+		}
+	}
+
+	//-------------------------------------------------------------------------------------
+	// Rows generation
+	//-------------------------------------------------------------------------------------
+	/**
+	 * Returns the text to write before the rows (CSV header)
+	 * @param format
+	 * @return
+	 */
+	String getHeader(DataFormat format) {
+		if ( format == DataFormat.CSV ) {
+			return getColumnNames(",") + "\n" ;
+		}
+		return "" ;
+	}
+
+	private String getColumnNames(String separator) {
+		StringBuilder sb = new StringBuilder();
+		for ( int c = 0 ; c < columns.length ; c++ ) {
+			if ( c > 0 ) {
+				sb.append(separator);
+			}
+			sb.append(columns[c].getColumnName());
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Appends the rows [first, end[ 
+	 * @param sb
+	 * @param first
+	 * @param end
+	 * @param random
+	 * @param format
+	 * @param nullRate
+	 */
+	void appendRows(StringBuilder sb, long first, long end, SplittableRandom random, DataFormat format, double nullRate) {
+		String rowPrefix = format == DataFormat.SQL ? "INSERT INTO " + tableName + " (" + getColumnNames(", ") + ") VALUES (" : "" ;
+		String rowSuffix = format == DataFormat.SQL ? ");\n" : "\n" ;
+		String separator = format.getSeparator();
+		long[] references = new long[bindings.length];
+		for ( long row = first ; row < end ; row++ ) {
+			for ( int b = 0 ; b < bindings.length ; b++ ) {
+				references[b] = bindings[b].chooseRow(row, random, nullRate);
+			}
+			sb.append(rowPrefix);
+			for ( int c = 0 ; c < columns.length ; c++ ) {
+				if ( c > 0 ) {
+					sb.append(separator);
+				}
+				ColumnGenerator column = columns[c];
+				int b = columnBinding[c];
+				if ( b >= 0 ) {
+					if ( references[b] < 0 ) {
+						format.appendNull(sb);
+					}
+					else {
+						columnTarget[c].appendRowValue(sb, references[b], format);
+					}
+				}
+				else if ( column.isRowDerived() ) {
+					column.appendRowValue(sb, row, format);
+				}
+				else if ( column.isNullable() && nullRate > 0 && random.nextDouble() < nullRate ) {
+					format.appendNull(sb);
+				}
+				else {
+					column.appendRandomValue(sb, random, format);
+				}
+			}
+			sb.append(rowSuffix);
+		}
+	}
+
+	//-------------------------------------------------------------------------------------
+	private static final class ForeignKeyBinding {
+		private final int[] columns ;
+		private final ColumnGenerator[] targets ;
+		private final long targetRowCount ;
+		private final boolean self ;
+		private final boolean keyLike ;
+		private final boolean nullable ;
+		private final long divisor ;
+
+		ForeignKeyBinding(int[] columns, ColumnGenerator[] targets, long targetRowCount, 
+				boolean self, boolean keyLike, boolean nullable, long divisor) {
+			this.columns = columns;
+			this.targets = targets;
+			this.targetRowCount = targetRowCount;
+			this.self = self;
+			this.keyLike = keyLike;
+			this.nullable = nullable;
+			this.divisor = divisor;
+		}
+
+		/**
+		 * Returns the referenced row (or -1 for null)
+		 */
+		long chooseRow(long row, SplittableRandom random, double nullRate) {
+			if ( keyLike ) {
+				return ( row / divisor ) % targetRowCount ;
+			}
+			if ( targetRowCount == 0 || ( nullable && nullRate > 0 && random.nextDouble() < nullRate ) ) {
+				return -1 ;
+			}
+			// self reference : a previous row (or the row itself)
+			return random.nextLong(self ? row + 1 : targetRowCount) ;
+		}
+	}
+}
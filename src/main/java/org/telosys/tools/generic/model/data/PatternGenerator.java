@@ -0,0 +1,448 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Generates strings matching a regular expression (subset) <br>
+ * Supported : literals, escaped characters, '.', \d \w \s, character classes with ranges ( [a-zA-Z_] ), <br>
+ * groups with alternatives ( (ab|cd) ), quantifiers ( ? * + {n} {n,} {n,m} ), anchors ^ and $ <br>
+ * Not supported : negated classes, back references, look-around, etc (compile returns null) <br>
+ * The length of the generated string can be bounded : the max length is always respected, <br>
+ * the min length is respected if the pattern can produce it (the repetitions are adjusted). <br>
+ * Immutable and thread-safe (the random generator is provided by the caller)
+ * 
+ * @since 4.2.0
+ */
+final class PatternGenerator {
+
+	private static final int UNBOUNDED_EXTRA = 8 ; // max for '*', '+' and '{n,}' = min + 8
+
+	private static final char[] DIGITS = "0123456789".toCharArray();
+	private static final char[] WORD   = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789_".toCharArray();
+	private static final char[] LETTERS = "abcdefghijklmnopqrstuvwxyz".toCharArray();
+	private static final char[] SPACE  = { ' ' };
+
+	private final Node root ;
+
+	private PatternGenerator(Node root) {
+		super();
+		this.root = root;
+	}
+
+	/**
+	 * Compiles the given regular expression 
+	 * @param regex
+	 * @return the generator or null if the regular expression is not supported
+	 */
+	static PatternGenerator compile(String regex) {
+		if ( regex == null || regex.isEmpty() ) {
+			return null ;
+		}
+		try {
+			Parser parser = new Parser(regex);
+			Node node = parser.parseAlternation();
+			if ( parser.pos != parser.end ) {
+				return null ; // unbalanced ')'
+			}
+			return new PatternGenerator(node);
+		} catch (IllegalArgumentException e) {
+			return null ;
+		}
+	}
+
+	/**
+	 * Appends a string matching the regular expression 
+	 * @param sb
+	 * @param random
+	 */
+	void generate(StringBuilder sb, SplittableRandom random) {
+		root.generate(sb, random, 0, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Appends a string matching the regular expression with a length in the given bounds 
+	 * @param sb
+	 * @param random
+	 * @param minLength
+	 * @param maxLength must be greater than or equal to getMinLength()
+	 */
+	void generate(StringBuilder sb, SplittableRandom random, int minLength, int maxLength) {
+		root.generate(sb, random, minLength, maxLength);
+	}
+
+	/**
+	 * Returns the min length of the strings matching the regular expression
+	 * @return
+	 */
+	int getMinLength() {
+		return root.minLength ;
+	}
+
+	/**
+	 * Returns the max length of the generated strings (Integer.MAX_VALUE if too long)
+	 * @return
+	 */
+	int getMaxLength() {
+		return root.maxLength ;
+	}
+
+	private static int saturated(long length) {
+		return (int) Math.min(length, Integer.MAX_VALUE);
+	}
+
+	//-------------------------------------------------------------------------------------
+	// Nodes
+	//-------------------------------------------------------------------------------------
+	private abstract static class Node {
+		final int minLength ;
+		final int maxLength ;
+		Node(int minLength, int maxLength) {
+			this.minLength = minLength;
+			this.maxLength = maxLength;
+		}
+		/**
+		 * Appends at most 'high' characters ( high >= minLength ), and at least 'low' if possible
+		 */
+		abstract void generate(StringBuilder sb, SplittableRandom random, int low, int high) ;
+
+		boolean isBounded(int low, int high) {
+			return low > minLength || high < maxLength ;
+		}
+	}
+
+	private static final class CharNode extends Node {
+		private final char[] chars ;
+		CharNode(char[] chars) {
+			super(1, 1);
+			this.chars = chars;
+		}
+		@Override
+		void generate(StringBuilder sb, SplittableRandom random, int low, int high) {
+			sb.append( chars.length == 1 ? chars[0] : chars[random.nextInt(chars.length)] );
+		}
+	}
+
+	private static final class SequenceNode extends Node {
+		private final Node[] nodes ;
+		private final long[] minAfter ; // min length of the nodes after the node i
+		private final long[] maxAfter ;
+		SequenceNode(List<Node> nodes) {
+			this(nodes.toArray(new Node[0]), new long[nodes.size() + 1], new long[nodes.size() + 1]);
+		}
+		private SequenceNode(Node[] nodes, long[] minAfter, long[] maxAfter) {
+			super(saturated(sumAfter(nodes, minAfter, true)), saturated(sumAfter(nodes, maxAfter, false)));
+			this.nodes = nodes;
+			this.minAfter = minAfter;
+			this.maxAfter = maxAfter;
+		}
+		private static long sumAfter(Node[] nodes, long[] sums, boolean min) {
+			for ( int i = nodes.length - 1 ; i >= 0 ; i-- ) {
+				sums[i] = sums[i + 1] + ( min ? nodes[i].minLength : nodes[i].maxLength ) ;
+			}
+			return sums[0] ;
+		}
+		@Override
+		void generate(StringBuilder sb, SplittableRandom random, int low, int high) {
+			if ( !isBounded(low, high) ) {
+				for ( Node node : nodes ) {
+					node.generate(sb, random, node.minLength, node.maxLength);
+				}
+				return ;
+			}
+			int start = sb.length();
+			for ( int i = 0 ; i < nodes.length ; i++ ) {
+				int produced = sb.length() - start ;
+				int h = (int) Math.max(nodes[i].minLength, Math.min(nodes[i].maxLength, high - produced - minAfter[i + 1]));
+				int l = (int) Math.max(nodes[i].minLength, Math.min(h, low - produced - maxAfter[i + 1]));
+				nodes[i].generate(sb, random, l, h);
+			}
+		}
+	}
+
+	private static final class AlternationNode extends Node {
+		private final Node[] nodes ;
+		AlternationNode(List<Node> nodes) {
+			this(nodes.toArray(new Node[0]));
+		}
+		private AlternationNode(Node[] nodes) {
+			super(minLength(nodes), maxLength(nodes));
+			this.nodes = nodes;
+		}
+		private static int minLength(Node[] nodes) {
+			int min = Integer.MAX_VALUE ;
+			for ( Node node : nodes ) {
+				min = Math.min(min, node.minLength);
+			}
+			return min ;
+		}
+		private static int maxLength(Node[] nodes) {
+			int max = 0 ;
+			for ( Node node : nodes ) {
+				max = Math.max(max, node.maxLength);
+			}
+			return max ;
+		}
+		@Override
+		void generate(StringBuilder sb, SplittableRandom random, int low, int high) {
+			Node node ;
+			if ( !isBounded(low, high) ) {
+				node = nodes[random.nextInt(nodes.length)];
+			}
+			else {
+				node = choose(random, low, high);
+				if ( node == null ) {
+					node = choose(random, 0, high); // 'low' not reachable 
+				}
+			}
+			int h = Math.min(high, node.maxLength);
+			node.generate(sb, random, Math.min(h, Math.max(low, node.minLength)), h);
+		}
+		private Node choose(SplittableRandom random, int low, int high) {
+			Node chosen = null ;
+			int count = 0 ;
+			for ( Node node : nodes ) {
+				if ( node.minLength <= high && node.maxLength >= low && random.nextInt(++count) == 0 ) {
+					chosen = node ;
+				}
+			}
+			return chosen ;
+		}
+	}
+
+	private static final class RepeatNode extends Node {
+		private final Node node ;
+		private final int min ;
+		private final int max ;
+		RepeatNode(Node node, int min, int max) {
+			super(saturated((long) min * node.minLength), saturated((long) max * node.maxLength));
+			this.node = node;
+			this.min = min;
+			this.max = max;
+		}
+		@Override
+		void generate(StringBuilder sb, SplittableRandom random, int low, int high) {
+			int nMin = min ;
+			int nMax = max ;
+			if ( isBounded(low, high) ) {
+				if ( node.minLength > 0 ) {
+					nMax = Math.min(nMax, high / node.minLength);
+				}
+				if ( node.maxLength > 0 ) {
+					nMin = Math.max(nMin, ( low + node.maxLength - 1 ) / node.maxLength);
+				}
+				nMin = Math.min(nMin, nMax);
+			}
+			int n = ( nMin == nMax ) ? nMin : nMin + random.nextInt(nMax - nMin + 1) ;
+			int start = sb.length();
+			for ( int i = 0 ; i < n ; i++ ) {
+				int produced = sb.length() - start ;
+				int remaining = n - i - 1 ;
+				int h = (int) Math.max(node.minLength, Math.min(node.maxLength, high - produced - (long) remaining * node.minLength));
+				int l = (int) Math.max(node.minLength, Math.min(h, low - produced - (long) remaining * node.maxLength));
+				node.generate(sb, random, l, h);
+			}
+		}
+	}
+
+	//-------------------------------------------------------------------------------------
+	// Parser (recursive descent)
+	//-------------------------------------------------------------------------------------
+	private static final class Parser {
+		private final String regex ;
+		private final int end ;
+		private int pos ;
+
+		Parser(String regex) {
+			this.regex = regex ;
+			int start = regex.startsWith("^") ? 1 : 0 ;
+			int stop = regex.length();
+			if ( stop > start && regex.charAt(stop - 1) == '$' && ( stop < 2 || regex.charAt(stop - 2) != '\\' ) ) {
+				stop-- ;
+			}
+			this.pos = start ;
+			this.end = stop ;
+		}
+
+		Node parseAlternation() {
+			List<Node> alternatives = new ArrayList<>();
+			alternatives.add(parseSequence());
+			while ( pos < end && regex.charAt(pos) == '|' ) {
+				pos++ ;
+				alternatives.add(parseSequence());
+			}
+			return alternatives.size() == 1 ? alternatives.get(0) : new AlternationNode(alternatives);
+		}
+
+		private Node parseSequence() {
+			List<Node> nodes = new ArrayList<>();
+			while ( pos < end ) {
+				char c = regex.charAt(pos);
+				if ( c == '|' || c == ')' ) {
+					break;
+				}
+				nodes.add(parseQuantifier(parseAtom()));
+			}
+			return nodes.size() == 1 ? nodes.get(0) : new SequenceNode(nodes);
+		}
+
+		private Node parseAtom() {
+			char c = regex.charAt(pos++);
+			switch ( c ) {
+			case '(' :
+				if ( regex.startsWith("?:", pos) ) {
+					pos += 2 ;
+				} else if ( pos < end && regex.charAt(pos) == '?' ) {
+					throw new IllegalArgumentException("look-around");
+				}
+				Node group = parseAlternation();
+				expect(')');
+				return group ;
+			case '[' :
+				return parseClass();
+			case '.' :
+				return new CharNode(LETTERS);
+			case '\\' :
+				return new CharNode(parseEscape());
+			case '*' :
+			case '+' :
+			case '?' :
+			case '{' :
+				throw new IllegalArgumentException("quantifier without atom");
+			default :
+				return new CharNode(new char[] { c });
+			}
+		}
+
+		private char[] parseEscape() {
+			if ( pos >= end ) {
+				throw new IllegalArgumentException("trailing '\\'");
+			}
+			char c = regex.charAt(pos++);
+			switch ( c ) {
+			case 'd' : return DIGITS ;
+			case 'w' : return WORD ;
+			case 's' : return SPACE ;
+			case 't' : return new char[] { '\t' } ;
+			case 'n' : return new char[] { '\n' } ;
+			default :
+				if ( Character.isLetterOrDigit(c) ) {
+					throw new IllegalArgumentException("escape '\\" + c + "'"); // \D, \b, \1, etc
+				}
+				return new char[] { c } ;
+			}
+		}
+
+		private Node parseClass() {
+			if ( pos < end && regex.charAt(pos) == '^' ) {
+				throw new IllegalArgumentException("negated class");
+			}
+			StringBuilder chars = new StringBuilder();
+			boolean first = true ;
+			while ( pos < end && ( first || regex.charAt(pos) != ']' ) ) {
+				first = false ;
+				char c = regex.charAt(pos++);
+				if ( c == '\\' ) {
+					chars.append(parseEscape());
+				}
+				else if ( pos + 1 < end && regex.charAt(pos) == '-' && regex.charAt(pos + 1) != ']' ) {
+					char last = regex.charAt(pos + 1);
+					pos += 2 ;
+					if ( last < c ) {
+						throw new IllegalArgumentException("invalid range");
+					}
+					for ( char x = c ; x <= last ; x++ ) {
+						chars.append(x);
+					}
+				}
+				else {
+					chars.append(c);
+				}
+			}
+			expect(']');
+			if ( chars.length() == 0 ) {
+				throw new IllegalArgumentException("empty class");
+			}
+			return new CharNode(chars.toString().toCharArray());
+		}
+
+		private Node parseQuantifier(Node atom) {
+			if ( pos >= end ) {
+				return atom ;
+			}
+			char c = regex.charAt(pos);
+			Node node ;
+			switch ( c ) {
+			case '?' :
+				pos++ ;
+				node = new RepeatNode(atom, 0, 1);
+				break;
+			case '*' :
+				pos++ ;
+				node = new RepeatNode(atom, 0, UNBOUNDED_EXTRA);
+				break;
+			case '+' :
+				pos++ ;
+				node = new RepeatNode(atom, 1, 1 + UNBOUNDED_EXTRA);
+				break;
+			case '{' :
+				node = parseBraces(atom);
+				break;
+			default :
+				return atom ;
+			}
+			if ( pos < end && ( regex.charAt(pos) == '?' || regex.charAt(pos) == '+' ) ) {
+				pos++ ; // lazy or possessive : same generation
+			}
+			return node ;
+		}
+
+		private Node parseBraces(Node atom) {
+			int close = regex.indexOf('}', pos);
+			if ( close < 0 || close >= end ) {
+				throw new IllegalArgumentException("unclosed '{'");
+			}
+			String content = regex.substring(pos + 1, close);
+			pos = close + 1 ;
+			int comma = content.indexOf(',');
+			try {
+				if ( comma < 0 ) {
+					int n = Integer.parseInt(content.trim());
+					return new RepeatNode(atom, n, n);
+				}
+				int min = Integer.parseInt(content.substring(0, comma).trim());
+				String maxText = content.substring(comma + 1).trim();
+				int max = maxText.isEmpty() ? min + UNBOUNDED_EXTRA : Integer.parseInt(maxText);
+				if ( min < 0 || max < min ) {
+					throw new IllegalArgumentException("invalid quantifier");
+				}
+				return new RepeatNode(atom, min, max);
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("invalid quantifier", e);
+			}
+		}
+
+		private void expect(char c) {
+			if ( pos >= end || regex.charAt(pos) != c ) {
+				throw new IllegalArgumentException("'" + c + "' expected");
+			}
+			pos++ ;
+		}
+	}
+}
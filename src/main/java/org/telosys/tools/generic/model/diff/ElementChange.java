@@ -0,0 +1,84 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.diff;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Change of an element in an entity (attribute, link, foreign key or tag) <br>
+ * The element is identified by its name : <br>
+ *  . attribute : 'getName' <br>
+ *  . link : 'getFieldName' <br>
+ *  . foreign key : 'getName' <br>
+ *  . tag : tag name <br>
+ * For a MODIFIED element the names of the modified properties are provided <br>
+ * (a tag change in an attribute or a link is reported as a property named '@TagName') 
+ * 
+ * @since 4.2.0
+ */
+public class ElementChange {
+
+	private final String name ;
+	private final ChangeType changeType ;
+	private final List<String> modifiedProperties ;
+
+	/**
+	 * Constructor
+	 * @param name
+	 * @param changeType
+	 * @param modifiedProperties
+	 */
+	public ElementChange(String name, ChangeType changeType, List<String> modifiedProperties) {
+		super();
+		this.name = name;
+		this.changeType = changeType;
+		this.modifiedProperties = modifiedProperties != null 
+				? Collections.unmodifiableList(modifiedProperties) : Collections.<String>emptyList() ;
+	}
+
+	/**
+	 * Returns the element name
+	 * @return
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Returns the type of change
+	 * @return
+	 */
+	public ChangeType getChangeType() {
+		return changeType;
+	}
+
+	/**
+	 * Returns the names of the modified properties (void if not MODIFIED)
+	 * @return
+	 */
+	public List<String> getModifiedProperties() {
+		return modifiedProperties;
+	}
+
+	@Override
+	public String toString() {
+		if ( changeType == ChangeType.MODIFIED ) {
+			return changeType + " " + name + " " + modifiedProperties ;
+		}
+		return changeType + " " + name ;
+	}
+}
@@ -0,0 +1,119 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.diff;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Differences for an entity existing in the 2 models <br>
+ * (an entity is identified by its class name)
+ * 
+ * @since 4.2.0
+ */
+public class EntityDiff {
+
+	private final String entityName ;
+	private final List<String> modifiedProperties ;
+	private final List<ElementChange> attributeChanges ;
+	private final List<ElementChange> linkChanges ;
+	private final List<ElementChange> foreignKeyChanges ;
+	private final List<ElementChange> tagChanges ;
+
+	/**
+	 * Constructor
+	 * @param entityName
+	 * @param modifiedProperties
+	 * @param attributeChanges
+	 * @param linkChanges
+	 * @param foreignKeyChanges
+	 * @param tagChanges
+	 */
+	public EntityDiff(String entityName, List<String> modifiedProperties, 
+			List<ElementChange> attributeChanges, List<ElementChange> linkChanges, 
+			List<ElementChange> foreignKeyChanges, List<ElementChange> tagChanges) {
+		super();
+		this.entityName = entityName;
+		this.modifiedProperties = Collections.unmodifiableList(modifiedProperties);
+		this.attributeChanges   = Collections.unmodifiableList(attributeChanges);
+		this.linkChanges        = Collections.unmodifiableList(linkChanges);
+		this.foreignKeyChanges  = Collections.unmodifiableList(foreignKeyChanges);
+		this.tagChanges         = Collections.unmodifiableList(tagChanges);
+	}
+
+	/**
+	 * Returns the entity class name
+	 * @return
+	 */
+	public String getEntityName() {
+		return entityName;
+	}
+
+	/**
+	 * Returns true if there's at least one difference in this entity
+	 * @return
+	 */
+	public boolean hasChanges() {
+		return ! ( modifiedProperties.isEmpty() && attributeChanges.isEmpty() && linkChanges.isEmpty() 
+				&& foreignKeyChanges.isEmpty() && tagChanges.isEmpty() ) ;
+	}
+
+	/**
+	 * Returns the names of the entity properties modified (e.g. 'databaseTable', 'readOnly')
+	 * @return
+	 */
+	public List<String> getModifiedProperties() {
+		return modifiedProperties;
+	}
+
+	/**
+	 * Returns the attributes added, removed or modified
+	 * @return
+	 */
+	public List<ElementChange> getAttributeChanges() {
+		return attributeChanges;
+	}
+
+	/**
+	 * Returns the links added, removed or modified
+	 * @return
+	 */
+	public List<ElementChange> getLinkChanges() {
+		return linkChanges;
+	}
+
+	/**
+	 * Returns the foreign keys added, removed or modified
+	 * @return
+	 */
+	public List<ElementChange> getForeignKeyChanges() {
+		return foreignKeyChanges;
+	}
+
+	/**
+	 * Returns the entity tags added, removed or modified
+	 * @return
+	 */
+	public List<ElementChange> getTagChanges() {
+		return tagChanges;
+	}
+
+	@Override
+	public String toString() {
+		return "EntityDiff " + entityName + " : properties=" + modifiedProperties + " attributes=" + attributeChanges 
+				+ " links=" + linkChanges + " foreignKeys=" + foreignKeyChanges + " tags=" + tagChanges ;
+	}
+}
@@ -0,0 +1,207 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.diff;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+import org.telosys.tools.generic.model.Attribute;
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.ForeignKey;
+import org.telosys.tools.generic.model.Link;
+import org.telosys.tools.generic.model.Model;
+import org.telosys.tools.generic.model.TagContainer;
+import org.telosys.tools.generic.model.util.ModelProperties;
+
+/**
+ * Comparison engine used by {@link ModelDiff}
+ * 
+ * @since 4.2.0
+ */
+class ModelComparator {
+
+	private static final List<String> MODEL_PROPERTIES     = ModelProperties.getModelPropertyNames();
+	private static final List<String> ENTITY_PROPERTIES    = ModelProperties.getEntityPropertyNames();
+	private static final List<String> ATTRIBUTE_PROPERTIES = ModelProperties.getAttributePropertyNames();
+	private static final List<String> LINK_PROPERTIES      = ModelProperties.getLinkPropertyNames();
+	private static final List<String> FK_PROPERTIES        = ModelProperties.getForeignKeyPropertyNames();
+
+	private static final String TAG_PREFIX = "@" ;
+
+	ModelDiff compare(Model oldModel, Model newModel) {
+		List<String> modelProperties = compareValues(MODEL_PROPERTIES, 
+				ModelProperties.getModelValues(oldModel), ModelProperties.getModelValues(newModel));
+
+		List<String> added   = new ArrayList<>();
+		List<String> removed = new ArrayList<>();
+		List<EntityDiff> modified = new ArrayList<>();
+
+		Map<String, Entity> oldEntities = indexByName(oldModel.getEntities(), Entity::getClassName);
+		Map<String, Entity> newEntities = indexByName(newModel.getEntities(), Entity::getClassName);
+		for ( Entity newEntity : newModel.getEntities() ) {
+			Entity oldEntity = oldEntities.get(newEntity.getClassName());
+			if ( oldEntity == null ) {
+				added.add(newEntity.getClassName());
+			}
+			else {
+				EntityDiff entityDiff = compareEntities(oldEntity, newEntity);
+				if ( entityDiff.hasChanges() ) {
+					modified.add(entityDiff);
+				}
+			}
+		}
+		for ( Entity oldEntity : oldModel.getEntities() ) {
+			if ( ! newEntities.containsKey(oldEntity.getClassName()) ) {
+				removed.add(oldEntity.getClassName());
+			}
+		}
+		return new ModelDiff(modelProperties, added, removed, modified);
+	}
+
+	private EntityDiff compareEntities(Entity oldEntity, Entity newEntity) {
+		List<String> properties = compareValues(ENTITY_PROPERTIES, 
+				ModelProperties.getEntityValues(oldEntity), ModelProperties.getEntityValues(newEntity));
+		List<ElementChange> attributeChanges = compareElements(oldEntity.getAttributes(), newEntity.getAttributes(),
+				Attribute::getName, this::compareAttributes);
+		List<ElementChange> linkChanges = compareElements(oldEntity.getLinks(), newEntity.getLinks(),
+				Link::getFieldName, this::compareLinks);
+		List<ElementChange> fkChanges = compareElements(oldEntity.getForeignKeys(), newEntity.getForeignKeys(),
+				ForeignKey::getName, this::compareForeignKeys);
+		List<ElementChange> tagChanges = compareTags(oldEntity.getTagContainer(), newEntity.getTagContainer());
+		return new EntityDiff(newEntity.getClassName(), properties, attributeChanges, linkChanges, fkChanges, tagChanges);
+	}
+
+	private List<String> compareAttributes(Attribute a1, Attribute a2) {
+		List<String> list = compareValues(ATTRIBUTE_PROPERTIES, 
+				ModelProperties.getAttributeValues(a1), ModelProperties.getAttributeValues(a2));
+		addTagChanges(list, a1.getTagContainer(), a2.getTagContainer());
+		return list;
+	}
+
+	private List<String> compareLinks(Link l1, Link l2) {
+		List<String> list = compareValues(LINK_PROPERTIES, 
+				ModelProperties.getLinkValues(l1), ModelProperties.getLinkValues(l2));
+		addTagChanges(list, l1.getTagContainer(), l2.getTagContainer());
+		return list;
+	}
+
+	private List<String> compareForeignKeys(ForeignKey fk1, ForeignKey fk2) {
+		return compareValues(FK_PROPERTIES, 
+				ModelProperties.getForeignKeyValues(fk1), ModelProperties.getForeignKeyValues(fk2));
+	}
+
+	/**
+	 * Compares 2 lists of elements matched by name
+	 * @param oldElements
+	 * @param newElements
+	 * @param nameFunction
+	 * @param comparator returns the list of modified properties for 2 elements with the same name
+	 * @return
+	 */
+	private <T> List<ElementChange> compareElements(List<T> oldElements, List<T> newElements, 
+			Function<T, String> nameFunction, ElementComparator<T> comparator) {
+		List<ElementChange> changes = new ArrayList<>();
+		Map<String, T> oldMap = indexByName(oldElements, nameFunction);
+		Map<String, T> newMap = indexByName(newElements, nameFunction);
+		for ( T newElement : newElements ) {
+			String name = nameFunction.apply(newElement);
+			T oldElement = oldMap.get(name);
+			if ( oldElement == null ) {
+				changes.add(new ElementChange(name, ChangeType.ADDED, null));
+			}
+			else {
+				List<String> properties = comparator.compare(oldElement, newElement);
+				if ( ! properties.isEmpty() ) {
+					changes.add(new ElementChange(name, ChangeType.MODIFIED, properties));
+				}
+			}
+		}
+		for ( T oldElement : oldElements ) {
+			String name = nameFunction.apply(oldElement);
+			if ( ! newMap.containsKey(name) ) {
+				changes.add(new ElementChange(name, ChangeType.REMOVED, null));
+			}
+		}
+		return changes;
+	}
+
+	@FunctionalInterface
+	private interface ElementComparator<T> {
+		List<String> compare(T oldElement, T newElement);
+	}
+
+	private List<ElementChange> compareTags(TagContainer oldTags, TagContainer newTags) {
+		List<ElementChange> changes = new ArrayList<>();
+		if ( isEmpty(oldTags) && isEmpty(newTags) ) {
+			return changes ;
+		}
+		for ( String name : tagNames(newTags) ) {
+			if ( isEmpty(oldTags) || ! oldTags.containsTag(name) ) {
+				changes.add(new ElementChange(name, ChangeType.ADDED, null));
+			}
+			else if ( ! Objects.equals(oldTags.getTagValue(name), newTags.getTagValue(name)) ) {
+				List<String> properties = new ArrayList<>(1);
+				properties.add("value");
+				changes.add(new ElementChange(name, ChangeType.MODIFIED, properties));
+			}
+		}
+		for ( String name : tagNames(oldTags) ) {
+			if ( isEmpty(newTags) || ! newTags.containsTag(name) ) {
+				changes.add(new ElementChange(name, ChangeType.REMOVED, null));
+			}
+		}
+		return changes;
+	}
+
+	private void addTagChanges(List<String> properties, TagContainer oldTags, TagContainer newTags) {
+		if ( isEmpty(oldTags) && isEmpty(newTags) ) {
+			return ;
+		}
+		for ( ElementChange change : compareTags(oldTags, newTags) ) {
+			properties.add(TAG_PREFIX + change.getName());
+		}
+	}
+
+	private static boolean isEmpty(TagContainer tags) {
+		return tags == null || tags.isEmpty() ;
+	}
+
+	private static List<String> tagNames(TagContainer tags) {
+		return isEmpty(tags) ? new ArrayList<>() : tags.getTagNames() ;
+	}
+
+	private static <T> Map<String, T> indexByName(List<T> elements, Function<T, String> nameFunction) {
+		Map<String, T> map = new HashMap<>(elements.size() * 4 / 3 + 1);
+		for ( T element : elements ) {
+			map.putIfAbsent(nameFunction.apply(element), element);
+		}
+		return map;
+	}
+
+	private static List<String> compareValues(List<String> names, Object[] values1, Object[] values2) {
+		List<String> list = new ArrayList<>();
+		for ( int i = 0 ; i < values1.length ; i++ ) {
+			if ( ! Objects.equals(values1[i], values2[i]) ) {
+				list.add(names.get(i));
+			}
+		}
+		return list;
+	}
+}
@@ -0,0 +1,142 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.diff;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.telosys.tools.generic.model.Model;
+
+/**
+ * Structural differences between 2 versions of a model <br>
+ * Usage : <br>
+ *   ModelDiff diff = ModelDiff.compare(oldModel, newModel); <br>
+ *   for ( String entityName : diff.getChangedEntityNames() ) { ... regenerate ... } <br>
+ * <br>
+ * Entities are matched by class name, attributes by name, links by field name, <br>
+ * foreign keys by name and tags by tag name. <br>
+ * The comparison uses hash maps at each level (linear time).
+ * 
+ * @since 4.2.0
+ */
+public class ModelDiff {
+
+	private final List<String> modifiedProperties ;
+	private final List<String> addedEntities ;
+	private final List<String> removedEntities ;
+	private final List<EntityDiff> modifiedEntities ;
+
+	/**
+	 * Constructor
+	 * @param modifiedProperties
+	 * @param addedEntities
+	 * @param removedEntities
+	 * @param modifiedEntities
+	 */
+	public ModelDiff(List<String> modifiedProperties, List<String> addedEntities, List<String> removedEntities,
+			List<EntityDiff> modifiedEntities) {
+		super();
+		this.modifiedProperties = Collections.unmodifiableList(modifiedProperties);
+		this.addedEntities      = Collections.unmodifiableList(addedEntities);
+		this.removedEntities    = Collections.unmodifiableList(removedEntities);
+		this.modifiedEntities   = Collections.unmodifiableList(modifiedEntities);
+	}
+
+	/**
+	 * Compares the 2 given models 
+	 * @param oldModel
+	 * @param newModel
+	 * @return
+	 */
+	public static ModelDiff compare(Model oldModel, Model newModel) {
+		return new ModelComparator().compare(oldModel, newModel);
+	}
+
+	/**
+	 * Returns true if the 2 models are different
+	 * @return
+	 */
+	public boolean hasChanges() {
+		return ! ( modifiedProperties.isEmpty() && addedEntities.isEmpty() && removedEntities.isEmpty() 
+				&& modifiedEntities.isEmpty() );
+	}
+
+	/**
+	 * Returns the names of the model properties modified (e.g. 'title', 'version')
+	 * @return
+	 */
+	public List<String> getModifiedProperties() {
+		return modifiedProperties;
+	}
+
+	/**
+	 * Returns the class names of the entities only in the new model
+	 * @return
+	 */
+	public List<String> getAddedEntities() {
+		return addedEntities;
+	}
+
+	/**
+	 * Returns the class names of the entities only in the old model
+	 * @return
+	 */
+	public List<String> getRemovedEntities() {
+		return removedEntities;
+	}
+
+	/**
+	 * Returns the differences for each entity modified 
+	 * @return
+	 */
+	public List<EntityDiff> getModifiedEntities() {
+		return modifiedEntities;
+	}
+
+	/**
+	 * Returns the differences for the given entity (or null if not modified)
+	 * @param entityName
+	 * @return
+	 */
+	public EntityDiff getEntityDiff(String entityName) {
+		for ( EntityDiff d : modifiedEntities ) {
+			if ( d.getEntityName().equals(entityName) ) {
+				return d ;
+			}
+		}
+		return null ;
+	}
+
+	/**
+	 * Returns the class names of all the entities to be regenerated (added or modified) 
+	 * @return
+	 */
+	public List<String> getChangedEntityNames() {
+		List<String> list = new ArrayList<>(addedEntities.size() + modifiedEntities.size());
+		list.addAll(addedEntities);
+		for ( EntityDiff d : modifiedEntities ) {
+			list.add(d.getEntityName());
+		}
+		return list;
+	}
+
+	@Override
+	public String toString() {
+		return "ModelDiff : properties=" + modifiedProperties + " added=" + addedEntities 
+				+ " removed=" + removedEntities + " modified=" + modifiedEntities ;
+	}
+}
@@ -0,0 +1,118 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.fetch;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Eager-fetch closure of an entity and the loading plan proposed for it <br>
+ * . eager paths : all the links loaded with the entity (transitively) <br>
+ * . fetch joins : paths to load in the same query (references only, no row multiplication) <br>
+ * . batch fetches : paths to load with one query per batch of owners (collections) 
+ * 
+ * @since 4.2.0
+ */
+public final class EntityFetchPlan {
+
+	private final String entityName ;
+	private final List<String> eagerEntities ;
+	private final List<String> eagerPaths ;
+	private final List<String> fetchJoins ;
+	private final List<String> batchFetches ;
+	private final int maxDepth ;
+	private final long estimatedRows ;
+
+	/**
+	 * Constructor
+	 * @param entityName
+	 * @param eagerEntities
+	 * @param eagerPaths
+	 * @param fetchJoins
+	 * @param batchFetches
+	 * @param maxDepth
+	 * @param estimatedRows
+	 */
+	public EntityFetchPlan(String entityName, List<String> eagerEntities, List<String> eagerPaths,
+			List<String> fetchJoins, List<String> batchFetches, int maxDepth, long estimatedRows) {
+		super();
+		this.entityName = entityName;
+		this.eagerEntities = Collections.unmodifiableList(eagerEntities);
+		this.eagerPaths = Collections.unmodifiableList(eagerPaths);
+		this.fetchJoins = Collections.unmodifiableList(fetchJoins);
+		this.batchFetches = Collections.unmodifiableList(batchFetches);
+		this.maxDepth = maxDepth;
+		this.estimatedRows = estimatedRows;
+	}
+
+	public String getEntityName() {
+		return entityName;
+	}
+
+	/**
+	 * Returns the class names of the entities loaded eagerly with this entity (transitive closure)
+	 * @return
+	 */
+	public List<String> getEagerEntities() {
+		return eagerEntities;
+	}
+
+	/**
+	 * Returns the paths of the links loaded eagerly with this entity 
+	 * @return
+	 */
+	public List<String> getEagerPaths() {
+		return eagerPaths;
+	}
+
+	/**
+	 * Returns the paths proposed for 'join fetch' 
+	 * @return
+	 */
+	public List<String> getFetchJoins() {
+		return fetchJoins;
+	}
+
+	/**
+	 * Returns the paths proposed for 'batch fetch' 
+	 * @return
+	 */
+	public List<String> getBatchFetches() {
+		return batchFetches;
+	}
+
+	/**
+	 * Returns the length of the longest eager path (0 if nothing is loaded eagerly)
+	 * @return
+	 */
+	public int getMaxDepth() {
+		return maxDepth;
+	}
+
+	/**
+	 * Returns the estimated number of rows returned by a single query joining all the eager paths 
+	 * @return
+	 */
+	public long getEstimatedRows() {
+		return estimatedRows;
+	}
+
+	@Override
+	public String toString() {
+		return "EntityFetchPlan : " + entityName + " eager=" + eagerPaths + " rows=" + estimatedRows 
+				+ " join=" + fetchJoins + " batch=" + batchFetches ;
+	}
+}
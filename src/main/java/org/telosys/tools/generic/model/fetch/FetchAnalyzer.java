@@ -0,0 +1,308 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.fetch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.Link;
+import org.telosys.tools.generic.model.Model;
+import org.telosys.tools.generic.model.enums.Cardinality;
+import org.telosys.tools.generic.model.enums.FetchType;
+import org.telosys.tools.generic.model.util.ModelGraph;
+import org.telosys.tools.generic.model.util.ModelGraph.EdgeKind;
+
+/**
+ * Fetch analyzer working on the graph of links <br>
+ * For each entity : <br>
+ * . computes the transitive closure of the links loaded eagerly <br>
+ * . estimates the rows of a single query joining this closure ( each collection = 'collectionSize' rows ) <br>
+ * . reports eager collections, cartesian products, fan-out over the limit, eager cycles, <br>
+ *   N+1 selects (lazy links inside a collection) and chains of lazy references <br>
+ * . proposes the paths to load with 'join fetch' and the paths to load with 'batch fetch' <br>
+ * <br>
+ * A link with a 'DEFAULT' or 'UNDEFINED' fetch type follows the JPA rules : <br>
+ * references are eager and collections are lazy. Transient links are ignored. <br>
+ * <br>
+ * Usage : <br>
+ *   FetchReport report = new FetchAnalyzer().analyze(model); <br>
+ *   if ( report.hasErrors() ) { ... report.toJson() ... } <br>
+ * 
+ * @since 4.2.0
+ */
+public class FetchAnalyzer {
+
+	public static final int  DEFAULT_COLLECTION_SIZE = 10 ;
+	public static final long DEFAULT_MAX_ROWS = 1000 ;
+
+	private static final int MAX_DEPTH = 8 ; // longest eager path explored
+
+	private final int  collectionSize ;
+	private final long maxRows ;
+
+	/**
+	 * Constructor with the default collection size and rows limit
+	 */
+	public FetchAnalyzer() {
+		this(DEFAULT_COLLECTION_SIZE, DEFAULT_MAX_ROWS);
+	}
+
+	/**
+	 * Constructor
+	 * @param collectionSize the number of elements assumed for each collection 
+	 * @param maxRows the estimated rows per entity above which an error is reported
+	 */
+	public FetchAnalyzer(int collectionSize, long maxRows) {
+		super();
+		if ( collectionSize < 1 ) {
+			throw new IllegalArgumentException("Invalid collection size " + collectionSize);
+		}
+		if ( maxRows < 1 ) {
+			throw new IllegalArgumentException("Invalid rows limit " + maxRows);
+		}
+		this.collectionSize = collectionSize;
+		this.maxRows = maxRows;
+	}
+
+	/**
+	 * Returns true if the given link is loaded with its owner 
+	 * @param link
+	 * @return
+	 */
+	public static boolean isEager(Link link) {
+		FetchType fetchType = link.getFetchType();
+		if ( fetchType == FetchType.EAGER ) return true ;
+		if ( fetchType == FetchType.LAZY ) return false ;
+		return ! isToMany(link) ; // JPA default 
+	}
+
+	private static boolean isToMany(Link link) {
+		Cardinality cardinality = link.getCardinality();
+		return cardinality != null && cardinality.isToMany() ;
+	}
+
+	/**
+	 * Analyzes all the entities of the given model
+	 * @param model
+	 * @return
+	 */
+	public FetchReport analyze(Model model) {
+		return analyze(model.getEntities());
+	}
+
+	/**
+	 * Analyzes the given entities (links to other entities are ignored)
+	 * @param entities
+	 * @return
+	 */
+	public FetchReport analyze(List<Entity> entities) {
+		ModelGraph graph = new ModelGraph(entities);
+		int n = graph.getEntityCount();
+		List<EntityFetchPlan> plans = new ArrayList<>(n);
+		List<FetchFinding> findings = new ArrayList<>();
+		for ( int i = 0 ; i < n ; i++ ) {
+			plans.add(analyzeEntity(graph, i, findings));
+		}
+		return new FetchReport(collectionSize, maxRows, plans, findings);
+	}
+
+	private EntityFetchPlan analyzeEntity(ModelGraph graph, int root, List<FetchFinding> findings) {
+		String entityName = graph.getEntity(root).getClassName();
+
+		//--- Eager closure
+		Closure closure = new Closure(root, graph.getEntityCount());
+		walk(graph, closure, root, -1, "", 0);
+		long rows = estimateRows(closure.toManyPaths.size());
+
+		//--- Findings for the closure
+		for ( String path : closure.cycles ) {
+			findings.add(new FetchFinding(entityName, FetchIssue.EAGER_CYCLE, Collections.singletonList(path), rows));
+		}
+		List<String> parallel = parallelPaths(closure.toManyPaths);
+		if ( ! parallel.isEmpty() ) {
+			findings.add(new FetchFinding(entityName, FetchIssue.CARTESIAN_PRODUCT, parallel, rows));
+		}
+		if ( rows > maxRows ) {
+			findings.add(new FetchFinding(entityName, FetchIssue.FAN_OUT_LIMIT, closure.toManyPaths, rows));
+		}
+
+		//--- Findings for the links of the entity
+		List<String> nPlusOne = new ArrayList<>();
+		List<String> lazyChains = new ArrayList<>();
+		for ( int e = graph.getOutgoingStart(root) ; e < graph.getOutgoingEnd(root) ; e++ ) {
+			if ( graph.getEdgeKind(e) != EdgeKind.LINK || graph.getEdgeLink(e).isTransient() ) {
+				continue ;
+			}
+			Link link = graph.getEdgeLink(e);
+			if ( isToMany(link) && link.getFetchType() == FetchType.EAGER ) {
+				findings.add(new FetchFinding(entityName, FetchIssue.EAGER_TO_MANY, 
+						Collections.singletonList(link.getFieldName()), collectionSize));
+			}
+			int target = graph.getEdgeTarget(e);
+			for ( int e2 = graph.getOutgoingStart(target) ; e2 < graph.getOutgoingEnd(target) ; e2++ ) {
+				if ( graph.getEdgeKind(e2) != EdgeKind.LINK || graph.getEdgeTarget(e2) == root ) {
+					continue ; // back-reference : already loaded
+				}
+				Link next = graph.getEdgeLink(e2);
+				if ( next.isTransient() || isEager(next) ) {
+					continue ;
+				}
+				String path = link.getFieldName() + "." + next.getFieldName() ;
+				if ( isToMany(link) ) {
+					// one select per element of the collection 
+					nPlusOne.add(path);
+					findings.add(new FetchFinding(entityName, FetchIssue.N_PLUS_ONE, 
+							Collections.singletonList(path), collectionSize));
+				} else if ( ! isEager(link) && ! isToMany(next) ) {
+					lazyChains.add(path);
+					findings.add(new FetchFinding(entityName, FetchIssue.LAZY_CHAIN, 
+							Collections.singletonList(path), 1));
+				}
+			}
+		}
+
+		//--- Proposed plan : references joined, collections batched 
+		List<String> fetchJoins = new ArrayList<>();
+		for ( String path : closure.eagerPaths ) {
+			if ( ! isUnderAny(path, closure.toManyPaths) ) {
+				fetchJoins.add(path);
+			}
+		}
+		fetchJoins.addAll(lazyChains);
+		List<String> batchFetches = new ArrayList<>(closure.toManyPaths);
+		batchFetches.addAll(nPlusOne);
+
+		return new EntityFetchPlan(entityName, new ArrayList<>(closure.entities), closure.eagerPaths, 
+				fetchJoins, batchFetches, closure.maxDepth, rows);
+	}
+
+	/**
+	 * Depth-first walk on the eager links 
+	 * @param graph
+	 * @param closure
+	 * @param node current entity
+	 * @param parent entity before the current one (or -1)
+	 * @param prefix path of the current entity
+	 * @param depth length of the current path
+	 */
+	private void walk(ModelGraph graph, Closure closure, int node, int parent, String prefix, int depth) {
+		closure.onPath[node] = true ;
+		for ( int e = graph.getOutgoingStart(node) ; e < graph.getOutgoingEnd(node) ; e++ ) {
+			if ( graph.getEdgeKind(e) != EdgeKind.LINK ) {
+				continue ;
+			}
+			Link link = graph.getEdgeLink(e);
+			if ( link.isTransient() || ! isEager(link) ) {
+				continue ;
+			}
+			if ( depth >= MAX_DEPTH ) {
+				continue ;
+			}
+			int target = graph.getEdgeTarget(e);
+			String path = prefix.isEmpty() ? link.getFieldName() : prefix + "." + link.getFieldName() ;
+			if ( closure.onPath[target] ) {
+				if ( target == parent ) {
+					// inverse side : the reference to the parent is already loaded, 
+					// a collection loads the siblings (not expanded again)
+					if ( isToMany(link) ) {
+						closure.add(graph, target, path, depth, true);
+					}
+				} else if ( target == closure.root ) {
+					closure.cycles.add(path);
+				}
+				continue ;
+			}
+			closure.add(graph, target, path, depth, isToMany(link));
+			walk(graph, closure, target, node, path, depth + 1);
+		}
+		closure.onPath[node] = false ;
+	}
+
+	private long estimateRows(int collections) {
+		double rows = 1 ;
+		for ( int i = 0 ; i < collections ; i++ ) {
+			rows *= collectionSize ;
+		}
+		return rows >= Long.MAX_VALUE ? Long.MAX_VALUE : (long) rows ;
+	}
+
+	/**
+	 * Returns the collection paths joined side by side (neither one under the other)
+	 * @param toManyPaths
+	 * @return
+	 */
+	private static List<String> parallelPaths(List<String> toManyPaths) {
+		Set<String> parallel = new LinkedHashSet<>();
+		for ( int i = 0 ; i < toManyPaths.size() ; i++ ) {
+			String p1 = toManyPaths.get(i);
+			for ( int j = i + 1 ; j < toManyPaths.size() ; j++ ) {
+				String p2 = toManyPaths.get(j);
+				if ( ! isUnder(p1, p2) && ! isUnder(p2, p1) ) {
+					parallel.add(p1);
+					parallel.add(p2);
+				}
+			}
+		}
+		return new ArrayList<>(parallel);
+	}
+
+	private static boolean isUnderAny(String path, List<String> parents) {
+		for ( String parent : parents ) {
+			if ( isUnder(path, parent) ) {
+				return true ;
+			}
+		}
+		return false ;
+	}
+
+	private static boolean isUnder(String path, String parent) {
+		return path.startsWith(parent) 
+				&& ( path.length() == parent.length() || path.charAt(parent.length()) == '.' ) ;
+	}
+
+	/**
+	 * State of the eager walk for one entity
+	 */
+	private static final class Closure {
+		private final int root ;
+		private final boolean[] onPath ;
+		private final List<String> eagerPaths = new ArrayList<>();
+		private final List<String> toManyPaths = new ArrayList<>();
+		private final List<String> cycles = new ArrayList<>();
+		private final Set<String> entities = new LinkedHashSet<>();
+		private int maxDepth = 0 ;
+
+		private Closure(int root, int entityCount) {
+			this.root = root;
+			this.onPath = new boolean[entityCount];
+		}
+
+		private void add(ModelGraph graph, int target, String path, int depth, boolean toMany) {
+			eagerPaths.add(path);
+			if ( toMany ) {
+				toManyPaths.add(path);
+			}
+			if ( target != root ) {
+				entities.add(graph.getEntity(target).getClassName());
+			}
+			maxDepth = Math.max(maxDepth, depth + 1);
+		}
+	}
+}
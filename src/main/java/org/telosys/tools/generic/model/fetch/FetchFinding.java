@@ -0,0 +1,89 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.fetch;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A fetch problem found for an entity <br>
+ * The paths are link field names separated by '.' from the entity ( e.g. "books.reviews" )
+ * 
+ * @since 4.2.0
+ */
+public final class FetchFinding {
+
+	private final String entityName ;
+	private final FetchIssue issue ;
+	private final List<String> paths ;
+	private final long estimatedRows ;
+
+	/**
+	 * Constructor
+	 * @param entityName
+	 * @param issue
+	 * @param paths
+	 * @param estimatedRows
+	 */
+	public FetchFinding(String entityName, FetchIssue issue, List<String> paths, long estimatedRows) {
+		super();
+		this.entityName = entityName;
+		this.issue = issue;
+		this.paths = Collections.unmodifiableList(paths);
+		this.estimatedRows = estimatedRows;
+	}
+
+	public String getEntityName() {
+		return entityName;
+	}
+
+	public FetchIssue getIssue() {
+		return issue;
+	}
+
+	public FetchSeverity getSeverity() {
+		return issue.getSeverity();
+	}
+
+	/**
+	 * Returns the strategy proposed to fix the problem
+	 * @return
+	 */
+	public FetchStrategy getStrategy() {
+		return issue.getStrategy();
+	}
+
+	/**
+	 * Returns the link paths involved (at least one)
+	 * @return
+	 */
+	public List<String> getPaths() {
+		return paths;
+	}
+
+	/**
+	 * Returns the estimated number of rows loaded for one entity 
+	 * @return
+	 */
+	public long getEstimatedRows() {
+		return estimatedRows;
+	}
+
+	@Override
+	public String toString() {
+		return issue.getSeverity() + " " + issue + " : " + entityName + " " + paths + " : " + issue.getMessage() ;
+	}
+}
@@ -0,0 +1,53 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.fetch;
+
+/**
+ * Fetch problems detected by the analyzer ( with a default severity and the proposed strategy )
+ * 
+ * @since 4.2.0
+ */
+public enum FetchIssue {
+
+	EAGER_TO_MANY(FetchSeverity.WARNING, FetchStrategy.BATCH_FETCH, "collection loaded eagerly"),
+	CARTESIAN_PRODUCT(FetchSeverity.ERROR, FetchStrategy.BATCH_FETCH, "parallel collections loaded eagerly (cartesian product)"),
+	FAN_OUT_LIMIT(FetchSeverity.ERROR, FetchStrategy.BATCH_FETCH, "estimated rows per entity greater than the limit"),
+	EAGER_CYCLE(FetchSeverity.WARNING, FetchStrategy.LAZY, "eager links loop back to the entity"),
+	N_PLUS_ONE(FetchSeverity.WARNING, FetchStrategy.BATCH_FETCH, "lazy link loaded for each element of a collection"),
+	LAZY_CHAIN(FetchSeverity.INFO, FetchStrategy.FETCH_JOIN, "chain of lazy references loaded one by one");
+
+	private final FetchSeverity severity ;
+	private final FetchStrategy strategy ;
+	private final String message ;
+
+	private FetchIssue(FetchSeverity severity, FetchStrategy strategy, String message) {
+		this.severity = severity;
+		this.strategy = strategy;
+		this.message = message;
+	}
+
+	public FetchSeverity getSeverity() {
+		return severity;
+	}
+
+	public FetchStrategy getStrategy() {
+		return strategy;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+}
@@ -0,0 +1,209 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.fetch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of a fetch analysis : a plan for each entity and the problems found <br>
+ * 'toJson()' gives a stable machine-readable form ( e.g. for a CI build failing if 'hasErrors()' )
+ * 
+ * @since 4.2.0
+ */
+public final class FetchReport {
+
+	private final int collectionSize ;
+	private final long maxRows ;
+	private final List<EntityFetchPlan> plans ;
+	private final List<FetchFinding> findings ;
+
+	/**
+	 * Constructor
+	 * @param collectionSize the size assumed for each collection
+	 * @param maxRows the limit of estimated rows per entity
+	 * @param plans
+	 * @param findings
+	 */
+	public FetchReport(int collectionSize, long maxRows, List<EntityFetchPlan> plans, List<FetchFinding> findings) {
+		super();
+		this.collectionSize = collectionSize;
+		this.maxRows = maxRows;
+		this.plans = Collections.unmodifiableList(plans);
+		this.findings = Collections.unmodifiableList(findings);
+	}
+
+	public int getCollectionSize() {
+		return collectionSize;
+	}
+
+	public long getMaxRows() {
+		return maxRows;
+	}
+
+	/**
+	 * Returns the plans (one per entity, in the model order)
+	 * @return
+	 */
+	public List<EntityFetchPlan> getPlans() {
+		return plans;
+	}
+
+	/**
+	 * Returns the plan for the given entity (or null if unknown)
+	 * @param entityName
+	 * @return
+	 */
+	public EntityFetchPlan getPlan(String entityName) {
+		for ( EntityFetchPlan plan : plans ) {
+			if ( plan.getEntityName().equals(entityName) ) {
+				return plan ;
+			}
+		}
+		return null ;
+	}
+
+	public List<FetchFinding> getFindings() {
+		return findings;
+	}
+
+	/**
+	 * Returns the findings with the given severity
+	 * @param severity
+	 * @return
+	 */
+	public List<FetchFinding> getFindings(FetchSeverity severity) {
+		List<FetchFinding> list = new ArrayList<>();
+		for ( FetchFinding f : findings ) {
+			if ( f.getSeverity() == severity ) {
+				list.add(f);
+			}
+		}
+		return list;
+	}
+
+	/**
+	 * Returns the findings for the given issue
+	 * @param issue
+	 * @return
+	 */
+	public List<FetchFinding> getFindings(FetchIssue issue) {
+		List<FetchFinding> list = new ArrayList<>();
+		for ( FetchFinding f : findings ) {
+			if ( f.getIssue() == issue ) {
+				list.add(f);
+			}
+		}
+		return list;
+	}
+
+	/**
+	 * Returns the number of findings with the given severity 
+	 * @param severity
+	 * @return
+	 */
+	public int count(FetchSeverity severity) {
+		int n = 0 ;
+		for ( FetchFinding f : findings ) {
+			n += f.getSeverity() == severity ? 1 : 0 ;
+		}
+		return n ;
+	}
+
+	/**
+	 * Returns true if at least one finding has the 'ERROR' severity
+	 * @return
+	 */
+	public boolean hasErrors() {
+		return count(FetchSeverity.ERROR) > 0 ;
+	}
+
+	/**
+	 * Returns the report in JSON format <br>
+	 * { "collectionSize":.., "maxRows":.., "summary":{..}, "entities":[..], "findings":[..] }
+	 * @return
+	 */
+	public String toJson() {
+		StringBuilder sb = new StringBuilder(256 + 128 * ( plans.size() + findings.size() ));
+		sb.append("{\"collectionSize\":").append(collectionSize);
+		sb.append(",\"maxRows\":").append(maxRows);
+		sb.append(",\"summary\":{\"entities\":").append(plans.size());
+		sb.append(",\"errors\":").append(count(FetchSeverity.ERROR));
+		sb.append(",\"warnings\":").append(count(FetchSeverity.WARNING));
+		sb.append(",\"infos\":").append(count(FetchSeverity.INFO));
+		sb.append("},\"entities\":[");
+		for ( int i = 0 ; i < plans.size() ; i++ ) {
+			EntityFetchPlan plan = plans.get(i);
+			sb.append(i > 0 ? ",{" : "{");
+			appendString(sb.append("\"entity\":"), plan.getEntityName());
+			appendStrings(sb.append(",\"eagerEntities\":"), plan.getEagerEntities());
+			appendStrings(sb.append(",\"eagerPaths\":"), plan.getEagerPaths());
+			sb.append(",\"maxDepth\":").append(plan.getMaxDepth());
+			sb.append(",\"estimatedRows\":").append(plan.getEstimatedRows());
+			appendStrings(sb.append(",\"fetchJoins\":"), plan.getFetchJoins());
+			appendStrings(sb.append(",\"batchFetches\":"), plan.getBatchFetches());
+			sb.append('}');
+		}
+		sb.append("],\"findings\":[");
+		for ( int i = 0 ; i < findings.size() ; i++ ) {
+			FetchFinding f = findings.get(i);
+			sb.append(i > 0 ? ",{" : "{");
+			appendString(sb.append("\"issue\":"), f.getIssue().name());
+			appendString(sb.append(",\"severity\":"), f.getSeverity().name());
+			appendString(sb.append(",\"entity\":"), f.getEntityName());
+			appendStrings(sb.append(",\"paths\":"), f.getPaths());
+			sb.append(",\"estimatedRows\":").append(f.getEstimatedRows());
+			appendString(sb.append(",\"strategy\":"), f.getStrategy().name());
+			appendString(sb.append(",\"message\":"), f.getIssue().getMessage());
+			sb.append('}');
+		}
+		sb.append("]}");
+		return sb.toString();
+	}
+
+	private static void appendStrings(StringBuilder sb, List<String> values) {
+		sb.append('[');
+		for ( int i = 0 ; i < values.size() ; i++ ) {
+			if ( i > 0 ) {
+				sb.append(',');
+			}
+			appendString(sb, values.get(i));
+		}
+		sb.append(']');
+	}
+
+	private static void appendString(StringBuilder sb, String s) {
+		sb.append('"');
+		for ( int i = 0 ; i < s.length() ; i++ ) {
+			char c = s.charAt(i);
+			if ( c == '"' || c == '\\' ) {
+				sb.append('\\').append(c);
+			} else if ( c < 0x20 ) {
+				sb.append(String.format("\\u%04x", (int) c));
+			} else {
+				sb.append(c);
+			}
+		}
+		sb.append('"');
+	}
+
+	@Override
+	public String toString() {
+		return "FetchReport : " + plans.size() + " entities, " + count(FetchSeverity.ERROR) + " error(s), " 
+				+ count(FetchSeverity.WARNING) + " warning(s), " + count(FetchSeverity.INFO) + " info(s)" ;
+	}
+}
@@ -0,0 +1,39 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.fetch;
+
+/**
+ * Loading strategy proposed for a link path 
+ * 
+ * @since 4.2.0
+ */
+public enum FetchStrategy {
+
+	/**
+	 * Load the link in the same query ( 'join fetch' )
+	 */
+	FETCH_JOIN,
+
+	/**
+	 * Load the link for several owners with one query ( 'batch size' or 'subselect' )
+	 */
+	BATCH_FETCH,
+
+	/**
+	 * Do not load the link with its owner
+	 */
+	LAZY
+}
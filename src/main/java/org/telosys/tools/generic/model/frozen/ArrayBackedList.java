@@ -0,0 +1,60 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.frozen;
+
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Unmodifiable list backed by an array (the array is never exposed) <br>
+ * All mutators inherited from AbstractList throw UnsupportedOperationException
+ * 
+ * @param <E>
+ * @since 4.2.0
+ */
+final class ArrayBackedList<E> extends AbstractList<E> implements RandomAccess {
+
+	private final E[] elements ;
+
+	private ArrayBackedList(E[] elements) {
+		super();
+		this.elements = elements;
+	}
+
+	/**
+	 * Returns an unmodifiable list for the given array (the shared empty list if the array is void)
+	 * @param elements the array (not copied, must not be modified by the caller)
+	 * @return
+	 */
+	static <E> List<E> wrap(E[] elements) {
+		if ( elements.length == 0 ) {
+			return Collections.emptyList();
+		}
+		return new ArrayBackedList<>(elements);
+	}
+
+	@Override
+	public E get(int index) {
+		return elements[index];
+	}
+
+	@Override
+	public int size() {
+		return elements.length;
+	}
+}
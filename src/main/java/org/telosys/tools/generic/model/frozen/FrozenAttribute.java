@@ -0,0 +1,491 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.frozen;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.telosys.tools.generic.model.Attribute;
+import org.telosys.tools.generic.model.ForeignKeyPart;
+import org.telosys.tools.generic.model.TagContainer;
+import org.telosys.tools.generic.model.enums.BooleanValue;
+import org.telosys.tools.generic.model.enums.DateType;
+import org.telosys.tools.generic.model.enums.GeneratedValueStrategy;
+import org.telosys.tools.generic.model.types.NeutralTypeCode;
+import org.telosys.tools.generic.model.types.NeutralTypeRegistry;
+import org.telosys.tools.generic.model.util.AttributeFlags;
+
+/**
+ * Immutable attribute (created by {@link ModelFreezer}) <br>
+ * All the boolean characteristics are packed in a single int (see {@link AttributeFlags}) 
+ * 
+ * @since 4.2.0
+ */
+public final class FrozenAttribute implements Attribute {
+
+	private final String name ;
+	private final String neutralType ;
+	private final NeutralTypeCode neutralTypeCode ; // null if not a predefined type
+
+	private final String booleanFalseValue ;
+	private final String booleanTrueValue ;
+	private final String databaseComment ;
+	private final String databaseDefaultValue ;
+	private final String databaseName ;
+	private final String databaseSize ;
+	private final String databaseType ;
+	private final String dateAfterValue ;
+	private final String dateBeforeValue ;
+	private final DateType dateType ;
+	private final String defaultValue ;
+	private final String initialValue ;
+	private final String inputType ;
+	private final String label ;
+	private final String pattern ;
+	private final String size ;
+	private final String referencedEntityClassName ;
+
+	private final Integer maxLength ;
+	private final Integer minLength ;
+	private final BigDecimal maxValue ;
+	private final BigDecimal minValue ;
+	private final Integer scale ;
+	private final Integer precision ;
+
+	private final GeneratedValueStrategy generatedValueStrategy ;
+	private final Integer generatedValueAllocationSize ;
+	private final Integer generatedValueInitialValue ;
+	private final String  generatedValueSequenceName ;
+	private final String  generatedValueTablePkColumnValue ;
+	private final String  generatedValueTableName ;
+
+	private final BooleanValue insertable ;
+	private final BooleanValue updatable ;
+
+	private final int flags ;
+
+	private final List<ForeignKeyPart> fkParts ;
+	private final TagContainer tagContainer ;
+
+	/**
+	 * Constructor (copy of the given attribute)
+	 * @param a the original attribute
+	 * @param freezer
+	 */
+	FrozenAttribute(Attribute a, ModelFreezer freezer) {
+		super();
+		this.name        = freezer.intern(a.getName());
+		this.neutralType = freezer.intern(a.getNeutralType());
+		this.neutralTypeCode = NeutralTypeCode.fromText(this.neutralType);
+
+		this.booleanFalseValue    = freezer.intern(a.getBooleanFalseValue());
+		this.booleanTrueValue     = freezer.intern(a.getBooleanTrueValue());
+		this.databaseComment      = freezer.intern(a.getDatabaseComment());
+		this.databaseDefaultValue = freezer.intern(a.getDatabaseDefaultValue());
+		this.databaseName         = freezer.intern(a.getDatabaseName());
+		this.databaseSize         = freezer.intern(a.getDatabaseSize());
+		this.databaseType         = freezer.intern(a.getDatabaseType());
+		this.dateAfterValue       = freezer.intern(a.getDateAfterValue());
+		this.dateBeforeValue      = freezer.intern(a.getDateBeforeValue());
+		this.dateType             = a.getDateType();
+		this.defaultValue         = freezer.intern(a.getDefaultValue());
+		this.initialValue         = freezer.intern(a.getInitialValue());
+		this.inputType            = freezer.intern(a.getInputType());
+		this.label                = freezer.intern(a.getLabel());
+		this.pattern              = freezer.intern(a.getPattern());
+		this.size                 = freezer.intern(a.getSize());
+		this.referencedEntityClassName = freezer.intern(a.getReferencedEntityClassName());
+
+		this.maxLength = a.getMaxLength();
+		this.minLength = a.getMinLength();
+		this.maxValue  = a.getMaxValue();
+		this.minValue  = a.getMinValue();
+		this.scale     = a.getScale();
+		this.precision = a.getPrecision();
+
+		this.generatedValueStrategy           = a.getGeneratedValueStrategy();
+		this.generatedValueAllocationSize     = a.getGeneratedValueAllocationSize();
+		this.generatedValueInitialValue       = a.getGeneratedValueInitialValue();
+		this.generatedValueSequenceName       = freezer.intern(a.getGeneratedValueSequenceName());
+		this.generatedValueTablePkColumnValue = freezer.intern(a.getGeneratedValueTablePkColumnValue());
+		this.generatedValueTableName          = freezer.intern(a.getGeneratedValueTableName());
+
+		this.insertable = a.getInsertable();
+		this.updatable  = a.getUpdatable();
+
+		this.flags = flagsOf(a);
+
+		this.fkParts      = freezer.freezeForeignKeyParts(a.getFKParts());
+		this.tagContainer = freezer.freezeTagContainer(a.getTagContainer());
+	}
+
+	/**
+	 * Constructor (decoding from a snapshot)
+	 * @param in
+	 */
+	FrozenAttribute(SnapshotInput in) {
+		super();
+		this.name        = in.readString();
+		this.neutralType = in.readString();
+		this.neutralTypeCode = NeutralTypeCode.fromText(this.neutralType);
+
+		this.booleanFalseValue    = in.readString();
+		this.booleanTrueValue     = in.readString();
+		this.databaseComment      = in.readString();
+		this.databaseDefaultValue = in.readString();
+		this.databaseName         = in.readString();
+		this.databaseSize         = in.readString();
+		this.databaseType         = in.readString();
+		this.dateAfterValue       = in.readString();
+		this.dateBeforeValue      = in.readString();
+		this.dateType             = in.readDateType();
+		this.defaultValue         = in.readString();
+		this.initialValue         = in.readString();
+		this.inputType            = in.readString();
+		this.label                = in.readString();
+		this.pattern              = in.readString();
+		this.size                 = in.readString();
+		this.referencedEntityClassName = in.readString();
+
+		this.maxLength = in.readInteger();
+		this.minLength = in.readInteger();
+		this.maxValue  = in.readBigDecimal();
+		this.minValue  = in.readBigDecimal();
+		this.scale     = in.readInteger();
+		this.precision = in.readInteger();
+
+		this.generatedValueStrategy           = in.readGeneratedValueStrategy();
+		this.generatedValueAllocationSize     = in.readInteger();
+		this.generatedValueInitialValue       = in.readInteger();
+		this.generatedValueSequenceName       = in.readString();
+		this.generatedValueTablePkColumnValue = in.readString();
+		this.generatedValueTableName          = in.readString();
+
+		this.insertable = in.readBooleanValue();
+		this.updatable  = in.readBooleanValue();
+
+		this.flags = in.readVarInt();
+
+		ForeignKeyPart[] parts = new ForeignKeyPart[in.readVarInt()];
+		for ( int i = 0 ; i < parts.length ; i++ ) {
+			parts[i] = new FrozenForeignKeyPart(in);
+		}
+		this.fkParts      = ArrayBackedList.wrap(parts);
+		this.tagContainer = FrozenTagContainer.read(in);
+	}
+
+	/**
+	 * Returns all the boolean characteristics of the given attribute packed in an int
+	 * @param a
+	 * @return
+	 */
+	static int flagsOf(Attribute a) {
+		return AttributeFlags.of(a);
+	}
+
+	/**
+	 * Returns all the boolean characteristics of this attribute packed in an int (see AttributeFlags)
+	 * @return
+	 */
+	public int getFlags() {
+		return flags;
+	}
+
+	private boolean flag(int mask) {
+		return ( flags & mask ) != 0 ;
+	}
+
+	@Override
+	public String getBooleanFalseValue() {
+		return booleanFalseValue;
+	}
+
+	@Override
+	public String getBooleanTrueValue() {
+		return booleanTrueValue;
+	}
+
+	@Override
+	public String getDatabaseComment() {
+		return databaseComment;
+	}
+
+	@Override
+	public String getDatabaseDefaultValue() {
+		return databaseDefaultValue;
+	}
+
+	@Override
+	public String getDatabaseName() {
+		return databaseName;
+	}
+
+	@Override
+	public String getDatabaseSize() {
+		return databaseSize;
+	}
+
+	@Override
+	public String getDatabaseType() {
+		return databaseType;
+	}
+
+	@Override
+	public String getDateAfterValue() {
+		return dateAfterValue;
+	}
+
+	@Override
+	public String getDateBeforeValue() {
+		return dateBeforeValue;
+	}
+
+	@Override
+	public DateType getDateType() {
+		return dateType;
+	}
+
+	@Override
+	public String getDefaultValue() {
+		return defaultValue;
+	}
+
+	@Override
+	public GeneratedValueStrategy getGeneratedValueStrategy() {
+		return generatedValueStrategy;
+	}
+
+	@Override
+	public String getInitialValue() {
+		return initialValue;
+	}
+
+	@Override
+	public String getInputType() {
+		return inputType;
+	}
+
+	@Override
+	public String getLabel() {
+		return label;
+	}
+
+	@Override
+	public Integer getMaxLength() {
+		return maxLength;
+	}
+
+	@Override
+	public BigDecimal getMaxValue() {
+		return maxValue;
+	}
+
+	@Override
+	public Integer getMinLength() {
+		return minLength;
+	}
+
+	@Override
+	public BigDecimal getMinValue() {
+		return minValue;
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public String getNeutralType() {
+		return neutralType;
+	}
+
+	@Override
+	public NeutralTypeCode getNeutralTypeCode() {
+		// custom types are resolved at each call (can be registered after freezing)
+		return neutralTypeCode != null ? neutralTypeCode : NeutralTypeRegistry.getCode(neutralType);
+	}
+
+	@Override
+	public String getPattern() {
+		return pattern;
+	}
+
+	@Override
+	public Integer getGeneratedValueAllocationSize() {
+		return generatedValueAllocationSize;
+	}
+
+	@Override
+	public Integer getGeneratedValueInitialValue() {
+		return generatedValueInitialValue;
+	}
+
+	@Override
+	public String getGeneratedValueSequenceName() {
+		return generatedValueSequenceName;
+	}
+
+	@Override
+	public String getGeneratedValueTablePkColumnValue() {
+		return generatedValueTablePkColumnValue;
+	}
+
+	@Override
+	public String getGeneratedValueTableName() {
+		return generatedValueTableName;
+	}
+
+	@Override
+	public boolean isDateFuture() {
+		return flag(AttributeFlags.DATE_FUTURE);
+	}
+
+	@Override
+	public boolean isDatePast() {
+		return flag(AttributeFlags.DATE_PAST);
+	}
+
+	@Override
+	public boolean isGeneratedValue() {
+		return flag(AttributeFlags.GENERATED_VALUE);
+	}
+
+	@Override
+	public boolean isKeyElement() {
+		return flag(AttributeFlags.KEY_ELEMENT);
+	}
+
+	@Override
+	public boolean isLongText() {
+		return flag(AttributeFlags.LONG_TEXT);
+	}
+
+	@Override
+	public boolean isNotBlank() {
+		return flag(AttributeFlags.NOT_BLANK);
+	}
+
+	@Override
+	public boolean isNotEmpty() {
+		return flag(AttributeFlags.NOT_EMPTY);
+	}
+
+	@Override
+	public boolean isNotNull() {
+		return flag(AttributeFlags.NOT_NULL);
+	}
+
+	@Override
+	public boolean isPrimitiveTypeExpected() {
+		return flag(AttributeFlags.PRIMITIVE_TYPE_EXPECTED);
+	}
+
+	@Override
+	public boolean isObjectTypeExpected() {
+		return flag(AttributeFlags.OBJECT_TYPE_EXPECTED);
+	}
+
+	@Override
+	public boolean isUnsignedTypeExpected() {
+		return flag(AttributeFlags.UNSIGNED_TYPE_EXPECTED);
+	}
+
+	@Override
+	public boolean isFK() {
+		return flag(AttributeFlags.FK);
+	}
+
+	@Override
+	public boolean hasFKParts() {
+		return ! fkParts.isEmpty();
+	}
+
+	@Override
+	public List<ForeignKeyPart> getFKParts() {
+		return fkParts;
+	}
+
+	@Override
+	public boolean isFKSimple() {
+		return flag(AttributeFlags.FK_SIMPLE);
+	}
+
+	@Override
+	public boolean isFKComposite() {
+		return flag(AttributeFlags.FK_COMPOSITE);
+	}
+
+	@Override
+	public String getReferencedEntityClassName() {
+		return referencedEntityClassName;
+	}
+
+	@Override
+	public boolean isUsedInLinks() {
+		return flag(AttributeFlags.USED_IN_LINKS);
+	}
+
+	@Override
+	public boolean isUsedInSelectedLinks() {
+		return flag(AttributeFlags.USED_IN_SELECTED_LINKS);
+	}
+
+	@Override
+	public TagContainer getTagContainer() {
+		return tagContainer;
+	}
+
+	@Override
+	public BooleanValue getInsertable() {
+		return insertable;
+	}
+
+	@Override
+	public BooleanValue getUpdatable() {
+		return updatable;
+	}
+
+	@Override
+	public boolean isTransient() {
+		return flag(AttributeFlags.TRANSIENT);
+	}
+
+	@Override
+	public String getSize() {
+		return size;
+	}
+
+	@Override
+	public boolean isUnique() {
+		return flag(AttributeFlags.UNIQUE);
+	}
+
+	@Override
+	public Integer getScale() {
+		return scale;
+	}
+
+	@Override
+	public Integer getPrecision() {
+		return precision;
+	}
+
+	@Override
+	public String toString() {
+		return name + " : " + neutralType ;
+	}
+}
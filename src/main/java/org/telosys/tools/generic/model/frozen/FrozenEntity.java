@@ -0,0 +1,370 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.frozen;
+
+import java.util.List;
+
+import org.telosys.tools.generic.model.Attribute;
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.ForeignKey;
+import org.telosys.tools.generic.model.Link;
+import org.telosys.tools.generic.model.TagContainer;
+import org.telosys.tools.generic.model.util.EntityIndex;
+
+/**
+ * Immutable entity (created by {@link ModelFreezer})
+ * 
+ * @since 4.2.0
+ */
+public final class FrozenEntity implements Entity {
+
+	static final int ABSTRACT             = 1 ;
+	static final int IN_MEMORY_REPOSITORY = 1 << 1 ;
+	static final int READ_ONLY            = 1 << 2 ;
+	static final int AGGREGATE_ROOT       = 1 << 3 ;
+	static final int DATABASE_VIEW        = 1 << 4 ;
+	static final int JOIN_ENTITY          = 1 << 5 ;
+
+	private final String className ;
+	private final String fullName ;
+	private final String packageName ;
+	private final String superClass ;
+	private final String domain ;
+	private final String context ;
+	private final String databaseCatalog ;
+	private final String databaseComment ;
+	private final String databaseSchema ;
+	private final String databaseTable ;
+	private final String databaseType ;
+	private final String databaseTablespace ;
+	private final Boolean tableType ;
+	private final Boolean viewType ;
+	private final int flags ;
+
+	private final List<Attribute>  attributes ;
+	private final List<Link>       links ;
+	private final List<ForeignKey> foreignKeys ;
+	private final List<String>     warnings ; // can be null (as in the original entity)
+	private final TagContainer     tagContainer ;
+
+	private volatile EntityIndex entityIndex ; // created on first use
+
+	FrozenEntity(Entity e, ModelFreezer freezer) {
+		super();
+		this.className          = freezer.intern(e.getClassName());
+		this.fullName           = freezer.intern(e.getFullName());
+		this.packageName        = freezer.intern(e.getPackageName());
+		this.superClass         = freezer.intern(e.getSuperClass());
+		this.domain             = freezer.intern(e.getDomain());
+		this.context            = freezer.intern(e.getContext());
+		this.databaseCatalog    = freezer.intern(e.getDatabaseCatalog());
+		this.databaseComment    = freezer.intern(e.getDatabaseComment());
+		this.databaseSchema     = freezer.intern(e.getDatabaseSchema());
+		this.databaseTable      = freezer.intern(e.getDatabaseTable());
+		this.databaseType       = freezer.intern(e.getDatabaseType());
+		this.databaseTablespace = freezer.intern(e.getDatabaseTablespace());
+		this.tableType          = e.isTableType();
+		this.viewType           = e.isViewType();
+
+		this.flags = flagsOf(e);
+
+		List<Attribute> sourceAttributes = e.getAttributes();
+		Attribute[] attributesArray = new Attribute[sourceAttributes.size()];
+		int i = 0 ;
+		for ( Attribute a : sourceAttributes ) {
+			attributesArray[i++] = new FrozenAttribute(a, freezer);
+		}
+		this.attributes = ArrayBackedList.wrap(attributesArray);
+
+		List<Link> sourceLinks = e.getLinks();
+		Link[] linksArray = new Link[sourceLinks.size()];
+		i = 0 ;
+		for ( Link link : sourceLinks ) {
+			linksArray[i++] = new FrozenLink(link, freezer);
+		}
+		this.links = ArrayBackedList.wrap(linksArray);
+
+		List<ForeignKey> sourceForeignKeys = e.getForeignKeys();
+		ForeignKey[] foreignKeysArray = new ForeignKey[sourceForeignKeys.size()];
+		i = 0 ;
+		for ( ForeignKey fk : sourceForeignKeys ) {
+			foreignKeysArray[i++] = new FrozenForeignKey(fk, freezer);
+		}
+		this.foreignKeys = ArrayBackedList.wrap(foreignKeysArray);
+
+		List<String> sourceWarnings = e.getWarnings();
+		if ( sourceWarnings != null ) {
+			String[] warningsArray = new String[sourceWarnings.size()];
+			i = 0 ;
+			for ( String w : sourceWarnings ) {
+				warningsArray[i++] = freezer.intern(w);
+			}
+			this.warnings = ArrayBackedList.wrap(warningsArray);
+		}
+		else {
+			this.warnings = null ;
+		}
+		this.tagContainer = freezer.freezeTagContainer(e.getTagContainer());
+	}
+
+	/**
+	 * Constructor (decoding from a snapshot)
+	 * @param in
+	 */
+	FrozenEntity(SnapshotInput in) {
+		super();
+		this.className          = in.readString();
+		this.fullName           = in.readString();
+		this.packageName        = in.readString();
+		this.superClass         = in.readString();
+		this.domain             = in.readString();
+		this.context            = in.readString();
+		this.databaseCatalog    = in.readString();
+		this.databaseComment    = in.readString();
+		this.databaseSchema     = in.readString();
+		this.databaseTable      = in.readString();
+		this.databaseType       = in.readString();
+		this.databaseTablespace = in.readString();
+		this.tableType          = in.readBoolean();
+		this.viewType           = in.readBoolean();
+		this.flags              = in.readVarInt();
+		int n = in.readVarInt();
+		if ( n > 0 ) {
+			String[] warningsArray = new String[n - 1];
+			for ( int i = 0 ; i < warningsArray.length ; i++ ) {
+				warningsArray[i] = in.readString();
+			}
+			this.warnings = ArrayBackedList.wrap(warningsArray);
+		}
+		else {
+			this.warnings = null ;
+		}
+		this.tagContainer = FrozenTagContainer.read(in);
+		this.attributes   = readAttributes(in);
+		this.links        = readLinks(in);
+		this.foreignKeys  = readForeignKeys(in);
+	}
+
+	/**
+	 * Reads the attributes block of an entity in a snapshot
+	 * @param in
+	 * @return
+	 */
+	static List<Attribute> readAttributes(SnapshotInput in) {
+		in.readVarInt(); // block size
+		Attribute[] array = new Attribute[in.readVarInt()];
+		for ( int i = 0 ; i < array.length ; i++ ) {
+			array[i] = new FrozenAttribute(in);
+		}
+		return ArrayBackedList.wrap(array);
+	}
+
+	/**
+	 * Reads the links block of an entity in a snapshot
+	 * @param in
+	 * @return
+	 */
+	static List<Link> readLinks(SnapshotInput in) {
+		in.readVarInt(); // block size
+		Link[] array = new Link[in.readVarInt()];
+		for ( int i = 0 ; i < array.length ; i++ ) {
+			array[i] = new FrozenLink(in);
+		}
+		return ArrayBackedList.wrap(array);
+	}
+
+	/**
+	 * Reads the foreign keys block of an entity in a snapshot
+	 * @param in
+	 * @return
+	 */
+	static List<ForeignKey> readForeignKeys(SnapshotInput in) {
+		in.readVarInt(); // block size
+		ForeignKey[] array = new ForeignKey[in.readVarInt()];
+		for ( int i = 0 ; i < array.length ; i++ ) {
+			array[i] = new FrozenForeignKey(in);
+		}
+		return ArrayBackedList.wrap(array);
+	}
+
+	/**
+	 * Returns all the boolean characteristics of the given entity packed in an int
+	 * @param e
+	 * @return
+	 */
+	static int flagsOf(Entity e) {
+		int f = 0 ;
+		if ( e.isAbstract() )             f |= ABSTRACT ;
+		if ( e.isInMemoryRepository() )   f |= IN_MEMORY_REPOSITORY ;
+		if ( e.isReadOnly() )             f |= READ_ONLY ;
+		if ( e.isAggregateRoot() )        f |= AGGREGATE_ROOT ;
+		if ( e.isDatabaseView() )         f |= DATABASE_VIEW ;
+		if ( e.isJoinEntity() )           f |= JOIN_ENTITY ;
+		return f ;
+	}
+
+	private boolean flag(int mask) {
+		return ( flags & mask ) != 0 ;
+	}
+
+	@Override
+	public String getClassName() {
+		return className;
+	}
+
+	@Override
+	public List<Attribute> getAttributes() {
+		return attributes;
+	}
+
+	@Override
+	public Attribute getAttributeByName(String name) {
+		return getEntityIndex().getAttributeByName(name);
+	}
+
+	/**
+	 * Returns the index of the attributes, links and foreign keys of this entity (created on first call)
+	 * @return
+	 */
+	public EntityIndex getEntityIndex() {
+		EntityIndex index = entityIndex ;
+		if ( index == null ) {
+			index = new EntityIndex(this);
+			entityIndex = index ;
+		}
+		return index ;
+	}
+
+	@Override
+	public String getDatabaseCatalog() {
+		return databaseCatalog;
+	}
+
+	@Override
+	public String getDatabaseComment() {
+		return databaseComment;
+	}
+
+	@Override
+	public List<ForeignKey> getForeignKeys() {
+		return foreignKeys;
+	}
+
+	@Override
+	public String getDatabaseSchema() {
+		return databaseSchema;
+	}
+
+	@Override
+	public String getDatabaseTable() {
+		return databaseTable;
+	}
+
+	@Override
+	public String getDatabaseType() {
+		return databaseType;
+	}
+
+	@Override
+	public String getFullName() {
+		return fullName;
+	}
+
+	@Override
+	public List<Link> getLinks() {
+		return links;
+	}
+
+	@Override
+	public String getPackageName() {
+		return packageName;
+	}
+
+	@Override
+	public Boolean isTableType() {
+		return tableType;
+	}
+
+	@Override
+	public Boolean isViewType() {
+		return viewType;
+	}
+
+	@Override
+	public List<String> getWarnings() {
+		return warnings;
+	}
+
+	@Override
+	public TagContainer getTagContainer() {
+		return tagContainer;
+	}
+
+	@Override
+	public String getSuperClass() {
+		return superClass;
+	}
+
+	@Override
+	public boolean isAbstract() {
+		return flag(ABSTRACT);
+	}
+
+	@Override
+	public boolean isInMemoryRepository() {
+		return flag(IN_MEMORY_REPOSITORY);
+	}
+
+	@Override
+	public boolean isReadOnly() {
+		return flag(READ_ONLY);
+	}
+
+	@Override
+	public boolean isAggregateRoot() {
+		return flag(AGGREGATE_ROOT);
+	}
+
+	@Override
+	public String getDomain() {
+		return domain;
+	}
+
+	@Override
+	public String getContext() {
+		return context;
+	}
+
+	@Override
+	public boolean isDatabaseView() {
+		return flag(DATABASE_VIEW);
+	}
+
+	@Override
+	public String getDatabaseTablespace() {
+		return databaseTablespace;
+	}
+
+	@Override
+	public boolean isJoinEntity() {
+		return flag(JOIN_ENTITY);
+	}
+
+	@Override
+	public String toString() {
+		return className ;
+	}
+}
@@ -0,0 +1,102 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.frozen;
+
+import java.util.List;
+
+import org.telosys.tools.generic.model.ForeignKey;
+import org.telosys.tools.generic.model.ForeignKeyAttribute;
+
+/**
+ * Immutable foreign key (created by {@link ModelFreezer})
+ * 
+ * @since 4.2.0
+ */
+public final class FrozenForeignKey implements ForeignKey {
+
+	private final String  name ;
+	private final String  originEntityName ;
+	private final String  referencedEntityName ;
+	private final boolean composite ;
+	private final boolean explicit ;
+	private final List<ForeignKeyAttribute> attributes ;
+
+	FrozenForeignKey(ForeignKey fk, ModelFreezer freezer) {
+		super();
+		this.name                 = freezer.intern(fk.getName());
+		this.originEntityName     = freezer.intern(fk.getOriginEntityName());
+		this.referencedEntityName = freezer.intern(fk.getReferencedEntityName());
+		this.composite            = fk.isComposite();
+		this.explicit             = fk.isExplicit();
+		List<ForeignKeyAttribute> source = fk.getAttributes();
+		ForeignKeyAttribute[] array = new ForeignKeyAttribute[source.size()];
+		int i = 0 ;
+		for ( ForeignKeyAttribute fka : source ) {
+			array[i++] = new FrozenForeignKeyAttribute(fka, freezer);
+		}
+		this.attributes = ArrayBackedList.wrap(array);
+	}
+
+	FrozenForeignKey(SnapshotInput in) {
+		super();
+		this.name                 = in.readString();
+		this.originEntityName     = in.readString();
+		this.referencedEntityName = in.readString();
+		int f = in.readByte();
+		this.composite            = ( f & 1 ) != 0 ;
+		this.explicit             = ( f & 2 ) != 0 ;
+		ForeignKeyAttribute[] array = new ForeignKeyAttribute[in.readVarInt()];
+		for ( int i = 0 ; i < array.length ; i++ ) {
+			array[i] = new FrozenForeignKeyAttribute(in);
+		}
+		this.attributes = ArrayBackedList.wrap(array);
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public String getOriginEntityName() {
+		return originEntityName;
+	}
+
+	@Override
+	public String getReferencedEntityName() {
+		return referencedEntityName;
+	}
+
+	@Override
+	public List<ForeignKeyAttribute> getAttributes() {
+		return attributes;
+	}
+
+	@Override
+	public boolean isComposite() {
+		return composite;
+	}
+
+	@Override
+	public boolean isExplicit() {
+		return explicit;
+	}
+
+	@Override
+	public String toString() {
+		return name + " : " + originEntityName + " -> " + referencedEntityName ;
+	}
+}
@@ -0,0 +1,59 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.frozen;
+
+import org.telosys.tools.generic.model.ForeignKeyAttribute;
+
+/**
+ * Immutable foreign key attribute (created by {@link ModelFreezer})
+ * 
+ * @since 4.2.0
+ */
+public final class FrozenForeignKeyAttribute implements ForeignKeyAttribute {
+
+	private final int    ordinal ;
+	private final String originAttributeName ;
+	private final String referencedAttributeName ;
+
+	FrozenForeignKeyAttribute(ForeignKeyAttribute fka, ModelFreezer freezer) {
+		super();
+		this.ordinal                 = fka.getOrdinal();
+		this.originAttributeName     = freezer.intern(fka.getOriginAttributeName());
+		this.referencedAttributeName = freezer.intern(fka.getReferencedAttributeName());
+	}
+
+	FrozenForeignKeyAttribute(SnapshotInput in) {
+		super();
+		this.ordinal                 = in.readVarInt();
+		this.originAttributeName     = in.readString();
+		this.referencedAttributeName = in.readString();
+	}
+
+	@Override
+	public int getOrdinal() {
+		return ordinal;
+	}
+
+	@Override
+	public String getOriginAttributeName() {
+		return originAttributeName;
+	}
+
+	@Override
+	public String getReferencedAttributeName() {
+		return referencedAttributeName;
+	}
+}
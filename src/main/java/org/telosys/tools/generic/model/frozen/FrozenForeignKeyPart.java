@@ -0,0 +1,59 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.frozen;
+
+import org.telosys.tools.generic.model.ForeignKeyPart;
+
+/**
+ * Immutable foreign key part (created by {@link ModelFreezer})
+ * 
+ * @since 4.2.0
+ */
+public final class FrozenForeignKeyPart implements ForeignKeyPart {
+
+	private final String fkName ;
+	private final String referencedEntityName ;
+	private final String referencedAttributeName ;
+
+	FrozenForeignKeyPart(ForeignKeyPart part, ModelFreezer freezer) {
+		super();
+		this.fkName                  = freezer.intern(part.getFkName());
+		this.referencedEntityName    = freezer.intern(part.getReferencedEntityName());
+		this.referencedAttributeName = freezer.intern(part.getReferencedAttributeName());
+	}
+
+	FrozenForeignKeyPart(SnapshotInput in) {
+		super();
+		this.fkName                  = in.readString();
+		this.referencedEntityName    = in.readString();
+		this.referencedAttributeName = in.readString();
+	}
+
+	@Override
+	public String getFkName() {
+		return fkName;
+	}
+
+	@Override
+	public String getReferencedEntityName() {
+		return referencedEntityName;
+	}
+
+	@Override
+	public String getReferencedAttributeName() {
+		return referencedAttributeName;
+	}
+}
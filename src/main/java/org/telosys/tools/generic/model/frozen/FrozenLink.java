@@ -0,0 +1,281 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.frozen;
+
+import java.util.List;
+
+import org.telosys.tools.generic.model.CascadeOptions;
+import org.telosys.tools.generic.model.Link;
+import org.telosys.tools.generic.model.LinkAttribute;
+import org.telosys.tools.generic.model.TagContainer;
+import org.telosys.tools.generic.model.enums.BooleanValue;
+import org.telosys.tools.generic.model.enums.Cardinality;
+import org.telosys.tools.generic.model.enums.CascadeOption;
+import org.telosys.tools.generic.model.enums.FetchType;
+import org.telosys.tools.generic.model.enums.Optional;
+
+/**
+ * Immutable link (created by {@link ModelFreezer}) <br>
+ * The cascade options are kept as a bit mask ( CascadeOptions is a mutable class, <br>
+ * so a new instance is returned by each call to 'getCascadeOptions()' )
+ * 
+ * @since 4.2.0
+ */
+public final class FrozenLink implements Link {
+
+	private static final int SELECTED             = 1 ;
+	private static final int BASED_ON_FOREIGN_KEY = 1 << 1 ;
+	private static final int BASED_ON_JOIN_ENTITY = 1 << 2 ;
+	private static final int EMBEDDED             = 1 << 3 ;
+	private static final int TRANSIENT            = 1 << 4 ;
+	private static final int ORPHAN_REMOVAL       = 1 << 5 ;
+
+	static final int NO_CASCADE_OPTIONS = -1 ;
+
+	private final String fieldName ;
+	private final String referencedEntityName ;
+	private final String mappedBy ;
+	private final String foreignKeyName ;
+	private final String joinEntityName ;
+	private final Optional    optional ;
+	private final Cardinality cardinality ;
+	private final FetchType   fetchType ;
+	private final BooleanValue insertable ;
+	private final BooleanValue updatable ;
+	private final int flags ;
+	private final int cascadeOptionsMask ;
+	private final List<LinkAttribute> attributes ; // can be null (as in the original link)
+	private final TagContainer tagContainer ;
+
+	FrozenLink(Link link, ModelFreezer freezer) {
+		super();
+		this.fieldName            = freezer.intern(link.getFieldName());
+		this.referencedEntityName = freezer.intern(link.getReferencedEntityName());
+		this.mappedBy             = freezer.intern(link.getMappedBy());
+		this.foreignKeyName       = freezer.intern(link.getForeignKeyName());
+		this.joinEntityName       = freezer.intern(link.getJoinEntityName());
+		this.optional    = link.getOptional();
+		this.cardinality = link.getCardinality();
+		this.fetchType   = link.getFetchType();
+		this.insertable  = link.getInsertable();
+		this.updatable   = link.getUpdatable();
+
+		this.flags = flagsOf(link);
+		this.cascadeOptionsMask = cascadeOptionsMaskOf(link);
+
+		List<LinkAttribute> source = link.getAttributes();
+		if ( source != null ) {
+			LinkAttribute[] array = new LinkAttribute[source.size()];
+			int i = 0 ;
+			for ( LinkAttribute la : source ) {
+				array[i++] = new FrozenLinkAttribute(la, freezer);
+			}
+			this.attributes = ArrayBackedList.wrap(array);
+		}
+		else {
+			this.attributes = null ;
+		}
+		this.tagContainer = freezer.freezeTagContainer(link.getTagContainer());
+	}
+
+	FrozenLink(SnapshotInput in) {
+		super();
+		this.fieldName            = in.readString();
+		this.referencedEntityName = in.readString();
+		this.mappedBy             = in.readString();
+		this.foreignKeyName       = in.readString();
+		this.joinEntityName       = in.readString();
+		this.optional    = in.readOptional();
+		this.cardinality = in.readCardinality();
+		this.fetchType   = in.readFetchType();
+		this.insertable  = in.readBooleanValue();
+		this.updatable   = in.readBooleanValue();
+		this.flags              = in.readVarInt();
+		this.cascadeOptionsMask = in.readVarInt() - 1 ;
+		int n = in.readVarInt();
+		if ( n > 0 ) {
+			LinkAttribute[] array = new LinkAttribute[n - 1];
+			for ( int i = 0 ; i < array.length ; i++ ) {
+				array[i] = new FrozenLinkAttribute(in);
+			}
+			this.attributes = ArrayBackedList.wrap(array);
+		}
+		else {
+			this.attributes = null ;
+		}
+		this.tagContainer = FrozenTagContainer.read(in);
+	}
+
+	/**
+	 * Returns all the boolean characteristics of the given link packed in an int
+	 * @param link
+	 * @return
+	 */
+	static int flagsOf(Link link) {
+		int f = 0 ;
+		if ( link.isSelected() )           f |= SELECTED ;
+		if ( link.isBasedOnForeignKey() )  f |= BASED_ON_FOREIGN_KEY ;
+		if ( link.isBasedOnJoinEntity() )  f |= BASED_ON_JOIN_ENTITY ;
+		if ( link.isEmbedded() )           f |= EMBEDDED ;
+		if ( link.isTransient() )          f |= TRANSIENT ;
+		if ( link.isOrphanRemoval() )      f |= ORPHAN_REMOVAL ;
+		return f ;
+	}
+
+	/**
+	 * Returns the cascade options of the given link as a bit mask (one bit per option ordinal) <br>
+	 * or NO_CASCADE_OPTIONS if the link has no cascade options
+	 * @param link
+	 * @return
+	 */
+	static int cascadeOptionsMaskOf(Link link) {
+		CascadeOptions cascadeOptions = link.getCascadeOptions();
+		if ( cascadeOptions == null ) {
+			return NO_CASCADE_OPTIONS ;
+		}
+		int mask = 0 ;
+		for ( CascadeOption o : cascadeOptions.getActiveOptions() ) {
+			mask |= 1 << o.ordinal() ;
+		}
+		return mask ;
+	}
+
+	private boolean flag(int mask) {
+		return ( flags & mask ) != 0 ;
+	}
+
+	@Override
+	public List<LinkAttribute> getAttributes() {
+		return attributes;
+	}
+
+	@Override
+	public String getReferencedEntityName() {
+		return referencedEntityName;
+	}
+
+	@Override
+	public String getFieldName() {
+		return fieldName;
+	}
+
+	@Override
+	public String getMappedBy() {
+		return mappedBy;
+	}
+
+	@Override
+	public boolean isSelected() {
+		return flag(SELECTED);
+	}
+
+	@Override
+	public Optional getOptional() {
+		return optional;
+	}
+
+	@Override
+	public Cardinality getCardinality() {
+		return cardinality;
+	}
+
+	/**
+	 * Returns a new instance of CascadeOptions (or null if the original link had no cascade options)
+	 */
+	@Override
+	public CascadeOptions getCascadeOptions() {
+		if ( cascadeOptionsMask == NO_CASCADE_OPTIONS ) {
+			return null ;
+		}
+		CascadeOptions cascadeOptions = new CascadeOptions();
+		for ( CascadeOption o : CascadeOption.values() ) {
+			if ( ( cascadeOptionsMask & ( 1 << o.ordinal() ) ) != 0 ) {
+				cascadeOptions.add(o);
+			}
+		}
+		return cascadeOptions;
+	}
+
+	/**
+	 * Returns true if the given cascade option is active <br>
+	 * (without creating a new instance of CascadeOptions)
+	 * @param option
+	 * @return
+	 */
+	public boolean hasCascadeOption(CascadeOption option) {
+		return cascadeOptionsMask != NO_CASCADE_OPTIONS && ( cascadeOptionsMask & ( 1 << option.ordinal() ) ) != 0 ;
+	}
+
+	@Override
+	public FetchType getFetchType() {
+		return fetchType;
+	}
+
+	@Override
+	public boolean isBasedOnForeignKey() {
+		return flag(BASED_ON_FOREIGN_KEY);
+	}
+
+	@Override
+	public String getForeignKeyName() {
+		return foreignKeyName;
+	}
+
+	@Override
+	public boolean isBasedOnJoinEntity() {
+		return flag(BASED_ON_JOIN_ENTITY);
+	}
+
+	@Override
+	public String getJoinEntityName() {
+		return joinEntityName;
+	}
+
+	@Override
+	public boolean isEmbedded() {
+		return flag(EMBEDDED);
+	}
+
+	@Override
+	public boolean isTransient() {
+		return flag(TRANSIENT);
+	}
+
+	@Override
+	public BooleanValue getInsertable() {
+		return insertable;
+	}
+
+	@Override
+	public BooleanValue getUpdatable() {
+		return updatable;
+	}
+
+	@Override
+	public TagContainer getTagContainer() {
+		return tagContainer;
+	}
+
+	@Override
+	public boolean isOrphanRemoval() {
+		return flag(ORPHAN_REMOVAL);
+	}
+
+	@Override
+	public String toString() {
+		return fieldName + " : " + cardinality + " " + referencedEntityName ;
+	}
+}
@@ -0,0 +1,93 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.frozen;
+
+import org.telosys.tools.generic.model.LinkAttribute;
+
+/**
+ * Immutable link attribute (created by {@link ModelFreezer})
+ * 
+ * @since 4.2.0
+ */
+public final class FrozenLinkAttribute implements LinkAttribute {
+
+	private static final int INSERTABLE = 1 ;
+	private static final int NULLABLE   = 1 << 1 ;
+	private static final int UNIQUE     = 1 << 2 ;
+	private static final int UPDATABLE  = 1 << 3 ;
+
+	private final String originAttributeName ;
+	private final String referencedAttributeName ;
+	private final int    flags ;
+
+	FrozenLinkAttribute(LinkAttribute la, ModelFreezer freezer) {
+		super();
+		this.originAttributeName     = freezer.intern(la.getOriginAttributeName());
+		this.referencedAttributeName = freezer.intern(la.getReferencedAttributeName());
+		this.flags = flagsOf(la);
+	}
+
+	FrozenLinkAttribute(SnapshotInput in) {
+		super();
+		this.originAttributeName     = in.readString();
+		this.referencedAttributeName = in.readString();
+		this.flags                   = in.readVarInt();
+	}
+
+	/**
+	 * Returns all the boolean characteristics of the given link attribute packed in an int
+	 * @param la
+	 * @return
+	 */
+	static int flagsOf(LinkAttribute la) {
+		int f = 0 ;
+		if ( la.isInsertable() ) f |= INSERTABLE ;
+		if ( la.isNullable() )   f |= NULLABLE ;
+		if ( la.isUnique() )     f |= UNIQUE ;
+		if ( la.isUpdatable() )  f |= UPDATABLE ;
+		return f ;
+	}
+
+	@Override
+	public String getOriginAttributeName() {
+		return originAttributeName;
+	}
+
+	@Override
+	public String getReferencedAttributeName() {
+		return referencedAttributeName;
+	}
+
+	@Override
+	public boolean isInsertable() {
+		return ( flags & INSERTABLE ) != 0 ;
+	}
+
+	@Override
+	public boolean isNullable() {
+		return ( flags & NULLABLE ) != 0 ;
+	}
+
+	@Override
+	public boolean isUnique() {
+		return ( flags & UNIQUE ) != 0 ;
+	}
+
+	@Override
+	public boolean isUpdatable() {
+		return ( flags & UPDATABLE ) != 0 ;
+	}
+}
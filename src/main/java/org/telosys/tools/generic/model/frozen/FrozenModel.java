@@ -0,0 +1,149 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.frozen;
+
+import java.util.List;
+
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.Model;
+import org.telosys.tools.generic.model.enums.ModelType;
+import org.telosys.tools.generic.model.util.ModelIndex;
+
+/**
+ * Immutable model (created by {@link ModelFreezer}) <br>
+ * Entities are indexed by class name and table name 
+ * 
+ * @since 4.2.0
+ */
+public final class FrozenModel implements Model {
+
+	private final String name ;
+	private final String folderName ;
+	private final ModelType type ;
+	private final String version ;
+	private final String title ;
+	private final String description ;
+	private final String databaseId ;
+	private final String databaseName ;
+	private final String databaseType ;
+	private final List<Entity> entities ;
+	private final ModelIndex index ;
+
+	FrozenModel(Model model, ModelFreezer freezer) {
+		super();
+		this.name         = freezer.intern(model.getName());
+		this.folderName   = freezer.intern(model.getFolderName());
+		this.type         = model.getType();
+		this.version      = freezer.intern(model.getVersion());
+		this.title        = freezer.intern(model.getTitle());
+		this.description  = freezer.intern(model.getDescription());
+		this.databaseId   = freezer.intern(model.getDatabaseId());
+		this.databaseName = freezer.intern(model.getDatabaseName());
+		this.databaseType = freezer.intern(model.getDatabaseType());
+		List<Entity> sourceEntities = model.getEntities();
+		Entity[] array = new Entity[sourceEntities.size()];
+		int i = 0 ;
+		for ( Entity e : sourceEntities ) {
+			array[i++] = new FrozenEntity(e, freezer);
+		}
+		this.entities = ArrayBackedList.wrap(array);
+		this.index = new ModelIndex(this.entities);
+	}
+
+	FrozenModel(SnapshotInput in) {
+		super();
+		this.name         = in.readString();
+		this.folderName   = in.readString();
+		this.type         = in.readModelType();
+		this.version      = in.readString();
+		this.title        = in.readString();
+		this.description  = in.readString();
+		this.databaseId   = in.readString();
+		this.databaseName = in.readString();
+		this.databaseType = in.readString();
+		Entity[] array = new Entity[in.readVarInt()];
+		for ( int i = 0 ; i < array.length ; i++ ) {
+			array[i] = new FrozenEntity(in);
+		}
+		this.entities = ArrayBackedList.wrap(array);
+		this.index = new ModelIndex(this.entities);
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public String getFolderName() {
+		return folderName;
+	}
+
+	@Override
+	public ModelType getType() {
+		return type;
+	}
+
+	@Override
+	public String getVersion() {
+		return version;
+	}
+
+	@Override
+	public String getTitle() {
+		return title;
+	}
+
+	@Override
+	public String getDescription() {
+		return description;
+	}
+
+	@Override
+	public String getDatabaseId() {
+		return databaseId;
+	}
+
+	@Override
+	public String getDatabaseName() {
+		return databaseName;
+	}
+
+	@Override
+	public String getDatabaseType() {
+		return databaseType;
+	}
+
+	@Override
+	public Entity getEntityByClassName(String entityClassName) {
+		return index.getEntityByClassName(entityClassName);
+	}
+
+	@Override
+	public Entity getEntityByTableName(String entityTableName) {
+		return index.getEntityByTableName(entityTableName);
+	}
+
+	@Override
+	public List<Entity> getEntities() {
+		return entities;
+	}
+
+	@Override
+	public String toString() {
+		return name + " (" + entities.size() + " entities)" ;
+	}
+}
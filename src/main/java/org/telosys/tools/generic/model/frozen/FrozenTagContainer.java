@@ -0,0 +1,215 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.frozen;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+import org.telosys.tools.generic.model.TagContainer;
+
+/**
+ * Immutable and compact tag container <br>
+ * The tag names are not stored in the container : they are registered in a {@link TagDictionary} <br>
+ * shared by the whole model and the container only holds the sorted int ids of its tags <br>
+ * (binary search) with the values in a parallel array. <br>
+ * All the containers without tag share the same instance (EMPTY).
+ * 
+ * @since 4.2.0
+ */
+public final class FrozenTagContainer implements TagContainer {
+
+	/**
+	 * Shared instance for all containers without tag
+	 */
+	public static final FrozenTagContainer EMPTY = new FrozenTagContainer(null, new int[0], new String[0]);
+
+	private final TagDictionary dictionary ;
+	private final int[]    keys ;   // tag ids (sorted)
+	private final String[] values ;
+
+	private FrozenTagContainer(TagDictionary dictionary, int[] keys, String[] values) {
+		super();
+		this.dictionary = dictionary;
+		this.keys = keys;
+		this.values = values;
+	}
+
+	/**
+	 * Returns an immutable container with the given tags
+	 * @param dictionary the dictionary where the tag names are registered
+	 * @param names tag names (no duplicate)
+	 * @param values tag values (same size as names)
+	 * @return
+	 */
+	static FrozenTagContainer of(TagDictionary dictionary, String[] names, String[] values) {
+		if ( names.length == 0 ) {
+			return EMPTY ;
+		}
+		// sort the ids with the original positions ( id in the high bits, position in the low bits )
+		long[] sorted = new long[names.length];
+		for ( int i = 0 ; i < names.length ; i++ ) {
+			sorted[i] = ( (long) dictionary.register(names[i]) << 32 ) | i ;
+		}
+		Arrays.sort(sorted);
+		int[]    sortedKeys   = new int[names.length];
+		String[] sortedValues = new String[names.length];
+		for ( int i = 0 ; i < sorted.length ; i++ ) {
+			sortedKeys[i]   = (int) ( sorted[i] >>> 32 ) ;
+			sortedValues[i] = values[(int) sorted[i]];
+		}
+		return new FrozenTagContainer(dictionary, sortedKeys, sortedValues);
+	}
+
+	/**
+	 * Reads a tag container written by the snapshot writer
+	 * @param in
+	 * @return
+	 */
+	static FrozenTagContainer read(SnapshotInput in) {
+		int count = in.readVarInt();
+		if ( count == 0 ) {
+			return EMPTY ;
+		}
+		String[] names  = new String[count];
+		String[] values = new String[count];
+		for ( int i = 0 ; i < count ; i++ ) {
+			names[i]  = in.readString();
+			values[i] = in.readString();
+		}
+		return of(in.getTagDictionary(), names, values);
+	}
+
+	private int indexOf(String tagName) {
+		if ( keys.length == 0 ) {
+			return -1 ;
+		}
+		int id = dictionary.getId(tagName);
+		if ( id < 0 ) {
+			return -1 ;
+		}
+		return Arrays.binarySearch(keys, id);
+	}
+
+	/**
+	 * Returns the dictionary holding the tag names (null for EMPTY)
+	 * @return
+	 */
+	public TagDictionary getDictionary() {
+		return dictionary;
+	}
+
+	/**
+	 * Returns the tag name at the given position 
+	 * @param i
+	 * @return
+	 */
+	public String getTagName(int i) {
+		return dictionary.getName(keys[i]);
+	}
+
+	/**
+	 * Returns the tag value at the given position 
+	 * @param i
+	 * @return
+	 */
+	public String getTagValue(int i) {
+		return values[i];
+	}
+
+	@Override
+	public int size() {
+		return keys.length;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return keys.length == 0;
+	}
+
+	@Override
+	public boolean containsTag(String tagName) {
+		return indexOf(tagName) >= 0 ;
+	}
+
+	@Override
+	public String getTagValue(String tagName) {
+		return getTagValue(tagName, "");
+	}
+
+	@Override
+	public String getTagValue(String tagName, String defaultValue) {
+		int i = indexOf(tagName);
+		if ( i >= 0 ) {
+			String v = values[i];
+			if ( v != null && ! v.isEmpty() ) {
+				return v ;
+			}
+		}
+		return defaultValue ;
+	}
+
+	@Override
+	public int getTagValueAsInt(String tagName, int defaultValue) {
+		int i = indexOf(tagName);
+		if ( i >= 0 && values[i] != null ) {
+			try {
+				return Integer.parseInt(values[i].trim());
+			} catch (NumberFormatException e) {
+				return defaultValue ;
+			}
+		}
+		return defaultValue ;
+	}
+
+	@Override
+	public boolean getTagValueAsBoolean(String tagName, boolean defaultValue) {
+		int i = indexOf(tagName);
+		if ( i >= 0 && values[i] != null ) {
+			String v = values[i].trim();
+			if ( "true".equalsIgnoreCase(v) ) {
+				return true ;
+			}
+			if ( "false".equalsIgnoreCase(v) ) {
+				return false ;
+			}
+		}
+		return defaultValue ;
+	}
+
+	/**
+	 * Returns the tag names (in dictionary order)
+	 */
+	@Override
+	public List<String> getTagNames() {
+		return new TagNames();
+	}
+
+	/**
+	 * Read-only view of the tag names
+	 */
+	private final class TagNames extends AbstractList<String> implements RandomAccess {
+		@Override
+		public String get(int index) {
+			return getTagName(index);
+		}
+		@Override
+		public int size() {
+			return keys.length;
+		}
+	}
+}
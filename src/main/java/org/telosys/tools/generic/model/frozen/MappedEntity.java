@@ -0,0 +1,299 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.frozen;
+
+import java.util.List;
+
+import org.telosys.tools.generic.model.Attribute;
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.ForeignKey;
+import org.telosys.tools.generic.model.Link;
+import org.telosys.tools.generic.model.TagContainer;
+import org.telosys.tools.generic.model.util.EntityIndex;
+
+/**
+ * Entity of a {@link MappedModel} <br>
+ * The entity fields and tags are decoded when the entity is created, <br>
+ * the attributes, links and foreign keys are decoded on first access
+ * 
+ * @since 4.2.0
+ */
+final class MappedEntity implements Entity {
+
+	private final SnapshotInput in ; // used to decode the blocks (only with the entity lock)
+
+	private final String className ;
+	private final String fullName ;
+	private final String packageName ;
+	private final String superClass ;
+	private final String domain ;
+	private final String context ;
+	private final String databaseCatalog ;
+	private final String databaseComment ;
+	private final String databaseSchema ;
+	private final String databaseTable ;
+	private final String databaseType ;
+	private final String databaseTablespace ;
+	private final Boolean tableType ;
+	private final Boolean viewType ;
+	private final int flags ;
+	private final List<String> warnings ;
+	private final TagContainer tagContainer ;
+
+	private final int attributesPosition ;
+	private final int linksPosition ;
+	private final int foreignKeysPosition ;
+
+	private volatile List<Attribute>  attributes ;
+	private volatile List<Link>       links ;
+	private volatile List<ForeignKey> foreignKeys ;
+
+	private volatile EntityIndex entityIndex ; // created on first use
+
+	MappedEntity(SnapshotInput in) {
+		super();
+		// same fields order as FrozenEntity
+		this.className          = in.readString();
+		this.fullName           = in.readString();
+		this.packageName        = in.readString();
+		this.superClass         = in.readString();
+		this.domain             = in.readString();
+		this.context            = in.readString();
+		this.databaseCatalog    = in.readString();
+		this.databaseComment    = in.readString();
+		this.databaseSchema     = in.readString();
+		this.databaseTable      = in.readString();
+		this.databaseType       = in.readString();
+		this.databaseTablespace = in.readString();
+		this.tableType          = in.readBoolean();
+		this.viewType           = in.readBoolean();
+		this.flags              = in.readVarInt();
+		int n = in.readVarInt();
+		if ( n > 0 ) {
+			String[] warningsArray = new String[n - 1];
+			for ( int i = 0 ; i < warningsArray.length ; i++ ) {
+				warningsArray[i] = in.readString();
+			}
+			this.warnings = ArrayBackedList.wrap(warningsArray);
+		}
+		else {
+			this.warnings = null ;
+		}
+		this.tagContainer = FrozenTagContainer.read(in);
+		// locate the blocks without decoding them
+		this.attributesPosition = in.position();
+		in.skip(in.readVarInt());
+		this.linksPosition = in.position();
+		in.skip(in.readVarInt());
+		this.foreignKeysPosition = in.position();
+		this.in = in ;
+	}
+
+	private SnapshotInput inputAt(int position) {
+		in.position(position);
+		return in ;
+	}
+
+	private boolean flag(int mask) {
+		return ( flags & mask ) != 0 ;
+	}
+
+	/**
+	 * Returns true if the attributes have already been decoded
+	 * @return
+	 */
+	boolean isAttributesDecoded() {
+		return attributes != null ;
+	}
+
+	@Override
+	public List<Attribute> getAttributes() {
+		List<Attribute> result = attributes ;
+		if ( result == null ) {
+			synchronized (this) {
+				result = attributes ;
+				if ( result == null ) {
+					result = FrozenEntity.readAttributes(inputAt(attributesPosition));
+					attributes = result ;
+				}
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public List<Link> getLinks() {
+		List<Link> result = links ;
+		if ( result == null ) {
+			synchronized (this) {
+				result = links ;
+				if ( result == null ) {
+					result = FrozenEntity.readLinks(inputAt(linksPosition));
+					links = result ;
+				}
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public List<ForeignKey> getForeignKeys() {
+		List<ForeignKey> result = foreignKeys ;
+		if ( result == null ) {
+			synchronized (this) {
+				result = foreignKeys ;
+				if ( result == null ) {
+					result = FrozenEntity.readForeignKeys(inputAt(foreignKeysPosition));
+					foreignKeys = result ;
+				}
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public Attribute getAttributeByName(String name) {
+		return getEntityIndex().getAttributeByName(name);
+	}
+
+	/**
+	 * Returns the index of the attributes, links and foreign keys of this entity (created on first call)
+	 * @return
+	 */
+	public EntityIndex getEntityIndex() {
+		EntityIndex index = entityIndex ;
+		if ( index == null ) {
+			index = new EntityIndex(this);
+			entityIndex = index ;
+		}
+		return index ;
+	}
+
+	@Override
+	public String getClassName() {
+		return className;
+	}
+
+	@Override
+	public String getDatabaseCatalog() {
+		return databaseCatalog;
+	}
+
+	@Override
+	public String getDatabaseComment() {
+		return databaseComment;
+	}
+
+	@Override
+	public String getDatabaseSchema() {
+		return databaseSchema;
+	}
+
+	@Override
+	public String getDatabaseTable() {
+		return databaseTable;
+	}
+
+	@Override
+	public String getDatabaseType() {
+		return databaseType;
+	}
+
+	@Override
+	public String getFullName() {
+		return fullName;
+	}
+
+	@Override
+	public String getPackageName() {
+		return packageName;
+	}
+
+	@Override
+	public Boolean isTableType() {
+		return tableType;
+	}
+
+	@Override
+	public Boolean isViewType() {
+		return viewType;
+	}
+
+	@Override
+	public List<String> getWarnings() {
+		return warnings;
+	}
+
+	@Override
+	public TagContainer getTagContainer() {
+		return tagContainer;
+	}
+
+	@Override
+	public String getSuperClass() {
+		return superClass;
+	}
+
+	@Override
+	public boolean isAbstract() {
+		return flag(FrozenEntity.ABSTRACT);
+	}
+
+	@Override
+	public boolean isInMemoryRepository() {
+		return flag(FrozenEntity.IN_MEMORY_REPOSITORY);
+	}
+
+	@Override
+	public boolean isReadOnly() {
+		return flag(FrozenEntity.READ_ONLY);
+	}
+
+	@Override
+	public boolean isAggregateRoot() {
+		return flag(FrozenEntity.AGGREGATE_ROOT);
+	}
+
+	@Override
+	public String getDomain() {
+		return domain;
+	}
+
+	@Override
+	public String getContext() {
+		return context;
+	}
+
+	@Override
+	public boolean isDatabaseView() {
+		return flag(FrozenEntity.DATABASE_VIEW);
+	}
+
+	@Override
+	public String getDatabaseTablespace() {
+		return databaseTablespace;
+	}
+
+	@Override
+	public boolean isJoinEntity() {
+		return flag(FrozenEntity.JOIN_ENTITY);
+	}
+
+	@Override
+	public String toString() {
+		return className ;
+	}
+}
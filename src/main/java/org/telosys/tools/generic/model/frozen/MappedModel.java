@@ -0,0 +1,254 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.frozen;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.Model;
+import org.telosys.tools.generic.model.enums.ModelType;
+
+/**
+ * Model backed by a memory-mapped snapshot file (see {@link ModelSnapshot}) <br>
+ * Only the footer (entity index) is decoded when the model is opened. <br>
+ * Each entity is decoded on first access, and its attributes, links and foreign keys <br>
+ * are decoded on first call to the corresponding getter. <br>
+ * The strings are decoded on first use and shared. <br>
+ * The file is mapped read-only, so many JVMs opening the same file share the same OS pages. <br>
+ * Thread-safe (each entity is created once) <br>
+ * <br>
+ * NB : the snapshot file must not be modified while the model is used (it can be replaced 
+ * with {@link ModelSnapshot#save(Model, Path)} which writes a new file)
+ * 
+ * @since 4.2.0
+ */
+public final class MappedModel implements Model {
+
+	private final ByteBuffer      buffer ;
+	private final SnapshotStrings strings ;
+
+	private final String name ;
+	private final String folderName ;
+	private final ModelType type ;
+	private final String version ;
+	private final String title ;
+	private final String description ;
+	private final String databaseId ;
+	private final String databaseName ;
+	private final String databaseType ;
+
+	private final int   modelPosition ;
+	private final int[] entityOffsets ;
+	private final int[] classNameRefs ;
+	private final int[] tableNameRefs ;
+	private final Map<String, Integer> classNameIndex ;
+	private volatile Map<String, Integer> tableNameIndex ; // built on first use
+	private final AtomicReferenceArray<MappedEntity> entities ;
+	private final List<Entity> entitiesList ;
+
+	/**
+	 * Opens the given snapshot file
+	 * @param file
+	 * @return
+	 * @throws IOException
+	 */
+	public static MappedModel open(Path file) throws IOException {
+		try ( FileChannel channel = FileChannel.open(file, StandardOpenOption.READ) ) {
+			long size = channel.size();
+			if ( size > Integer.MAX_VALUE ) {
+				throw new IOException("Snapshot too large to be mapped (" + size + " bytes)");
+			}
+			// the mapping remains valid after the channel is closed
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			return new MappedModel(buffer);
+		}
+	}
+
+	/**
+	 * Constructor
+	 * @param buffer a buffer containing a full snapshot (mapped or not)
+	 * @throws IOException
+	 */
+	MappedModel(ByteBuffer buffer) throws IOException {
+		super();
+		this.buffer  = buffer ;
+		this.strings = ModelSnapshotReader.checkAndReadStrings(buffer);
+		try {
+			//--- model fields
+			this.modelPosition = ModelSnapshotReader.modelPosition(buffer);
+			SnapshotInput in = new SnapshotInput(buffer, strings, modelPosition);
+			this.name         = in.readString();
+			this.folderName   = in.readString();
+			this.type         = in.readModelType();
+			this.version      = in.readString();
+			this.title        = in.readString();
+			this.description  = in.readString();
+			this.databaseId   = in.readString();
+			this.databaseName = in.readString();
+			this.databaseType = in.readString();
+
+			//--- entity index (footer)
+			in.position(ModelSnapshotReader.footerPosition(buffer));
+			int count = in.readVarInt();
+			this.entityOffsets = new int[count];
+			this.classNameRefs = new int[count];
+			this.tableNameRefs = new int[count];
+			this.classNameIndex = new HashMap<>(count * 4 / 3 + 1);
+			for ( int i = 0 ; i < count ; i++ ) {
+				classNameRefs[i] = in.readVarInt();
+				tableNameRefs[i] = in.readVarInt();
+				entityOffsets[i] = in.readVarInt();
+				classNameIndex.putIfAbsent(strings.get(classNameRefs[i]), i);
+			}
+		} catch (IndexOutOfBoundsException | NegativeArraySizeException e) {
+			throw new IOException("Invalid snapshot : corrupted content", e);
+		}
+		this.entities = new AtomicReferenceArray<>(entityOffsets.length);
+		this.entitiesList = new EntityList();
+	}
+
+	/**
+	 * Returns the entity at the given index (decoded on first call)
+	 * @param i
+	 * @return
+	 */
+	private MappedEntity getEntity(int i) {
+		MappedEntity entity = entities.get(i);
+		if ( entity == null ) {
+			SnapshotInput in = new SnapshotInput(buffer, strings, modelPosition + entityOffsets[i]);
+			entities.compareAndSet(i, null, new MappedEntity(in));
+			entity = entities.get(i);
+		}
+		return entity ;
+	}
+
+	/**
+	 * Returns the number of entities already decoded 
+	 * @return
+	 */
+	public int getDecodedEntitiesCount() {
+		int n = 0 ;
+		for ( int i = 0 ; i < entities.length() ; i++ ) {
+			if ( entities.get(i) != null ) {
+				n++;
+			}
+		}
+		return n ;
+	}
+
+	/**
+	 * List of entities (each entity is decoded when accessed)
+	 */
+	private final class EntityList extends AbstractList<Entity> implements RandomAccess {
+		@Override
+		public Entity get(int index) {
+			return getEntity(index);
+		}
+		@Override
+		public int size() {
+			return entityOffsets.length;
+		}
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public String getFolderName() {
+		return folderName;
+	}
+
+	@Override
+	public ModelType getType() {
+		return type;
+	}
+
+	@Override
+	public String getVersion() {
+		return version;
+	}
+
+	@Override
+	public String getTitle() {
+		return title;
+	}
+
+	@Override
+	public String getDescription() {
+		return description;
+	}
+
+	@Override
+	public String getDatabaseId() {
+		return databaseId;
+	}
+
+	@Override
+	public String getDatabaseName() {
+		return databaseName;
+	}
+
+	@Override
+	public String getDatabaseType() {
+		return databaseType;
+	}
+
+	@Override
+	public Entity getEntityByClassName(String entityClassName) {
+		Integer i = classNameIndex.get(entityClassName);
+		return i != null ? getEntity(i) : null ;
+	}
+
+	@Override
+	public Entity getEntityByTableName(String entityTableName) {
+		Map<String, Integer> index = tableNameIndex ;
+		if ( index == null ) {
+			index = new HashMap<>(tableNameRefs.length * 4 / 3 + 1);
+			for ( int i = 0 ; i < tableNameRefs.length ; i++ ) {
+				String tableName = strings.get(tableNameRefs[i]);
+				if ( tableName != null && ! tableName.isEmpty() ) {
+					index.putIfAbsent(tableName, i);
+				}
+			}
+			tableNameIndex = index ;
+		}
+		Integer i = index.get(entityTableName);
+		return i != null ? getEntity(i) : null ;
+	}
+
+	@Override
+	public List<Entity> getEntities() {
+		return entitiesList;
+	}
+
+	@Override
+	public String toString() {
+		return name + " (" + entityOffsets.length + " entities, mapped)" ;
+	}
+}
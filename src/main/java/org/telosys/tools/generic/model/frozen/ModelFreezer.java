@@ -0,0 +1,135 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.frozen;
+
+import java.util.List;
+
+import org.telosys.tools.generic.model.ForeignKeyPart;
+import org.telosys.tools.generic.model.Model;
+import org.telosys.tools.generic.model.TagContainer;
+
+/**
+ * Deep copy of any model into an immutable model <br>
+ * All the strings are shared through a single pool, the tag names through a single dictionary, <br>
+ * the lists are unmodifiable array-backed lists and the boolean flags are packed in an int. <br>
+ * The resulting model is thread-safe. <br>
+ * <br>
+ * Usage : <br>
+ *   Model frozenModel = ModelFreezer.freeze(model); <br>
+ * <br>
+ * A freezer instance can be reused to freeze many models with the same string pool and tag dictionary 
+ * 
+ * @since 4.2.0
+ */
+public class ModelFreezer {
+
+	private final StringPool stringPool ;
+
+	private final TagDictionary tagDictionary ;
+
+	/**
+	 * Constructor
+	 */
+	public ModelFreezer() {
+		this(new StringPool());
+	}
+
+	/**
+	 * Constructor with a specific string pool (to share strings between many models)
+	 * @param stringPool
+	 */
+	public ModelFreezer(StringPool stringPool) {
+		super();
+		this.stringPool = stringPool;
+		this.tagDictionary = new TagDictionary();
+	}
+
+	/**
+	 * Returns an immutable deep copy of the given model <br>
+	 * (returns the given model if it's already frozen)
+	 * @param model
+	 * @return
+	 */
+	public static FrozenModel freeze(Model model) {
+		if ( model instanceof FrozenModel ) {
+			return (FrozenModel) model ;
+		}
+		return new ModelFreezer().freezeModel(model);
+	}
+
+	/**
+	 * Returns an immutable deep copy of the given model using the current string pool
+	 * @param model
+	 * @return
+	 */
+	public FrozenModel freezeModel(Model model) {
+		if ( model == null ) {
+			throw new IllegalArgumentException("freezeModel : model is null");
+		}
+		return new FrozenModel(model, this);
+	}
+
+	/**
+	 * Returns the string pool used by this freezer 
+	 * @return
+	 */
+	public StringPool getStringPool() {
+		return stringPool;
+	}
+
+	/**
+	 * Returns the dictionary of the tag names used by this freezer 
+	 * @return
+	 */
+	public TagDictionary getTagDictionary() {
+		return tagDictionary;
+	}
+
+	String intern(String s) {
+		return stringPool.intern(s);
+	}
+
+	TagContainer freezeTagContainer(TagContainer tagContainer) {
+		if ( tagContainer == null || tagContainer.isEmpty() ) {
+			return FrozenTagContainer.EMPTY ;
+		}
+		if ( tagContainer instanceof FrozenTagContainer ) {
+			return tagContainer ;
+		}
+		List<String> tagNames = tagContainer.getTagNames();
+		String[] names  = new String[tagNames.size()];
+		String[] values = new String[tagNames.size()];
+		int i = 0 ;
+		for ( String tagName : tagNames ) {
+			names[i]  = intern(tagName);
+			values[i] = intern(tagContainer.getTagValue(tagName));
+			i++;
+		}
+		return FrozenTagContainer.of(tagDictionary, names, values);
+	}
+
+	List<ForeignKeyPart> freezeForeignKeyParts(List<ForeignKeyPart> parts) {
+		if ( parts == null ) {
+			return ArrayBackedList.wrap(new ForeignKeyPart[0]);
+		}
+		ForeignKeyPart[] array = new ForeignKeyPart[parts.size()];
+		int i = 0 ;
+		for ( ForeignKeyPart part : parts ) {
+			array[i++] = new FrozenForeignKeyPart(part, this);
+		}
+		return ArrayBackedList.wrap(array);
+	}
+}
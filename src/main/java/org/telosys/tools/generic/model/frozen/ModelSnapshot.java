@@ -0,0 +1,114 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.frozen;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import org.telosys.tools.generic.model.Model;
+
+/**
+ * Binary snapshot of a model (to save a model and reload it without parsing) <br>
+ * The model loaded from a snapshot is a {@link FrozenModel} <br>
+ * <br>
+ * Format (version 1) : <br>
+ *  . header  : magic number (4 bytes) + format version (varint) <br>
+ *  . strings : count + each string (size + UTF-8 bytes), all the strings are referenced by their index <br>
+ *  . model   : model fields + entities count + entities <br>
+ *  . entity  : entity fields, tags, then 3 blocks (size + content) : attributes, links, foreign keys <br>
+ *  . footer  : entities count + for each entity : class name, table name, offset <br>
+ *  . trailer : model position (8 bytes) + footer position (8 bytes) + magic number (4 bytes) <br>
+ * <br>
+ * Integers are varints, nullable integers are zigzag varints ( 0 for null ), <br>
+ * enums are stored as ordinal + 1 ( 0 for null ), string references as index + 1 ( 0 for null ) <br>
+ * Any change in the enums order or in the fields order requires a new format version. 
+ * 
+ * @since 4.2.0
+ */
+public final class ModelSnapshot {
+
+	/**
+	 * Magic number : "TMSN" (Telosys Model SNapshot)
+	 */
+	public static final int MAGIC = 0x544D534E ;
+
+	/**
+	 * Current format version
+	 */
+	public static final int FORMAT_VERSION = 1 ;
+
+	private ModelSnapshot() {
+	}
+
+	/**
+	 * Writes a snapshot of the given model in the given channel
+	 * @param model
+	 * @param channel
+	 * @return the number of bytes written
+	 * @throws IOException
+	 */
+	public static long write(Model model, WritableByteChannel channel) throws IOException {
+		return new ModelSnapshotWriter().write(model, channel);
+	}
+
+	/**
+	 * Reads a snapshot from the given channel (until the end of stream)
+	 * @param channel
+	 * @return
+	 * @throws IOException
+	 */
+	public static FrozenModel read(ReadableByteChannel channel) throws IOException {
+		return ModelSnapshotReader.read(ModelSnapshotReader.readAll(channel));
+	}
+
+	/**
+	 * Saves a snapshot of the given model in the given file <br>
+	 * The file is written in a temporary file then moved (a reader never sees a partial file)
+	 * @param model
+	 * @param file
+	 * @throws IOException
+	 */
+	public static void save(Model model, Path file) throws IOException {
+		Path dir = file.toAbsolutePath().getParent();
+		Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+		try {
+			try ( FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING) ) {
+				write(model, channel);
+			}
+			Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+		} finally {
+			Files.deleteIfExists(tmp);
+		}
+	}
+
+	/**
+	 * Loads the snapshot stored in the given file
+	 * @param file
+	 * @return
+	 * @throws IOException
+	 */
+	public static FrozenModel load(Path file) throws IOException {
+		try ( FileChannel channel = FileChannel.open(file, StandardOpenOption.READ) ) {
+			return read(channel);
+		}
+	}
+}
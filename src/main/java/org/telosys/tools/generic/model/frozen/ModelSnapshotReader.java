@@ -0,0 +1,132 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.frozen;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+
+/**
+ * Snapshot reader (see {@link ModelSnapshot} for the format) <br>
+ * 
+ * @since 4.2.0
+ */
+final class ModelSnapshotReader {
+
+	private static final int TRAILER_SIZE = 8 + 8 + 4 ;
+
+	private ModelSnapshotReader() {
+	}
+
+	/**
+	 * Reads all the content of the given channel in a heap buffer
+	 * @param channel
+	 * @return
+	 * @throws IOException
+	 */
+	static ByteBuffer readAll(ReadableByteChannel channel) throws IOException {
+		byte[] bytes ;
+		if ( channel instanceof FileChannel ) {
+			FileChannel fileChannel = (FileChannel) channel ;
+			long size = fileChannel.size() - fileChannel.position() ;
+			if ( size > Integer.MAX_VALUE ) {
+				throw new IOException("Snapshot too large (" + size + " bytes)");
+			}
+			bytes = new byte[(int) size];
+		}
+		else {
+			bytes = new byte[64 * 1024];
+		}
+		int size = 0 ;
+		while ( true ) {
+			if ( size == bytes.length ) {
+				// full buffer : try to read 1 more byte (end of stream expected for a FileChannel)
+				ByteBuffer one = ByteBuffer.allocate(1);
+				if ( channel.read(one) <= 0 ) {
+					break;
+				}
+				bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, 1024));
+				bytes[size++] = one.get(0);
+			}
+			int n = channel.read(ByteBuffer.wrap(bytes, size, bytes.length - size));
+			if ( n < 0 ) {
+				break;
+			}
+			size += n ;
+		}
+		return ByteBuffer.wrap(bytes, 0, size).slice();
+	}
+
+	/**
+	 * Checks the header and the trailer of the snapshot, then returns the string table 
+	 * @param buffer
+	 * @return
+	 * @throws IOException
+	 */
+	static SnapshotStrings checkAndReadStrings(ByteBuffer buffer) throws IOException {
+		if ( buffer.limit() < 4 + 1 + TRAILER_SIZE ) {
+			throw new IOException("Invalid snapshot : too short (" + buffer.limit() + " bytes)");
+		}
+		SnapshotInput in = new SnapshotInput(buffer, null, 0);
+		if ( in.readFixedInt() != ModelSnapshot.MAGIC ) {
+			throw new IOException("Invalid snapshot : bad magic number");
+		}
+		int version = in.readVarInt();
+		if ( version != ModelSnapshot.FORMAT_VERSION ) {
+			throw new IOException("Unsupported snapshot format version " + version 
+					+ " (expected " + ModelSnapshot.FORMAT_VERSION + ")");
+		}
+		if ( buffer.getInt(buffer.limit() - 4) != ModelSnapshot.MAGIC ) {
+			throw new IOException("Invalid snapshot : bad trailer (truncated file ?)");
+		}
+		return new SnapshotStrings(buffer, in.position());
+	}
+
+	/**
+	 * Returns the position of the model (in the trailer)
+	 * @param buffer
+	 * @return
+	 */
+	static int modelPosition(ByteBuffer buffer) {
+		return (int) buffer.getLong(buffer.limit() - TRAILER_SIZE);
+	}
+
+	/**
+	 * Returns the position of the footer (in the trailer)
+	 * @param buffer
+	 * @return
+	 */
+	static int footerPosition(ByteBuffer buffer) {
+		return (int) buffer.getLong(buffer.limit() - TRAILER_SIZE + 8);
+	}
+
+	/**
+	 * Decodes a full model from the given buffer
+	 * @param buffer
+	 * @return
+	 * @throws IOException
+	 */
+	static FrozenModel read(ByteBuffer buffer) throws IOException {
+		SnapshotStrings strings = checkAndReadStrings(buffer);
+		try {
+			return new FrozenModel(new SnapshotInput(buffer, strings, modelPosition(buffer)));
+		} catch (IndexOutOfBoundsException | NegativeArraySizeException e) {
+			throw new IOException("Invalid snapshot : corrupted content", e);
+		}
+	}
+}
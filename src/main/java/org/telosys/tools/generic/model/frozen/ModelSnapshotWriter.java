@@ -0,0 +1,279 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.frozen;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.telosys.tools.generic.model.Attribute;
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.ForeignKey;
+import org.telosys.tools.generic.model.ForeignKeyAttribute;
+import org.telosys.tools.generic.model.ForeignKeyPart;
+import org.telosys.tools.generic.model.Link;
+import org.telosys.tools.generic.model.LinkAttribute;
+import org.telosys.tools.generic.model.Model;
+import org.telosys.tools.generic.model.TagContainer;
+
+/**
+ * Snapshot writer (see {@link ModelSnapshot} for the format) <br>
+ * The entities are encoded in memory in a single pass (collecting the strings) <br>
+ * then the header, the string table, the entities and the footer are written in the channel
+ * 
+ * @since 4.2.0
+ */
+final class ModelSnapshotWriter {
+
+	private final SnapshotOutput entities ;
+	private final SnapshotOutput block ;
+
+	ModelSnapshotWriter() {
+		super();
+		this.entities = new SnapshotOutput(64 * 1024);
+		this.block    = new SnapshotOutput(entities.getStrings(), 4 * 1024);
+	}
+
+	/**
+	 * Writes the given model in the given channel 
+	 * @param model
+	 * @param channel
+	 * @return the number of bytes written
+	 * @throws IOException
+	 */
+	long write(Model model, WritableByteChannel channel) throws IOException {
+		//--- 1) Encode the model and all its entities (the string table is built at the same time)
+		entities.writeString(model.getName());
+		entities.writeString(model.getFolderName());
+		entities.writeEnum(model.getType());
+		entities.writeString(model.getVersion());
+		entities.writeString(model.getTitle());
+		entities.writeString(model.getDescription());
+		entities.writeString(model.getDatabaseId());
+		entities.writeString(model.getDatabaseName());
+		entities.writeString(model.getDatabaseType());
+		List<Entity> modelEntities = model.getEntities();
+		entities.writeVarInt(modelEntities.size());
+		int[] entityOffsets = new int[modelEntities.size()];
+		int i = 0 ;
+		for ( Entity entity : modelEntities ) {
+			entityOffsets[i++] = entities.size();
+			writeEntity(entity);
+		}
+		// entity index (footer) : class name and table name for each entity (strings already in the table)
+		SnapshotOutput footer = new SnapshotOutput(entities.getStrings(), 16 * modelEntities.size() + 16);
+		footer.writeVarInt(modelEntities.size());
+		i = 0 ;
+		for ( Entity entity : modelEntities ) {
+			footer.writeString(entity.getClassName());
+			footer.writeString(entity.getDatabaseTable());
+			footer.writeVarInt(entityOffsets[i++]); // relative to the model position
+		}
+
+		//--- 2) Write header + string table
+		SnapshotOutput header = new SnapshotOutput(entities.getStrings(), 64 * 1024);
+		header.writeFixedInt(ModelSnapshot.MAGIC);
+		header.writeVarInt(ModelSnapshot.FORMAT_VERSION);
+		Map<String, Integer> strings = entities.getStrings();
+		header.writeVarInt(strings.size());
+		long written = 0 ;
+		for ( String s : strings.keySet() ) { // LinkedHashMap : keys in index order
+			byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+			header.writeVarInt(bytes.length);
+			header.writeBytes(bytes, 0, bytes.length);
+			if ( header.size() > 60 * 1024 ) {
+				written += header.flush(channel);
+			}
+		}
+		written += header.flush(channel);
+		long modelPosition = written ;
+
+		//--- 3) Write model + entities
+		written += entities.flush(channel);
+
+		//--- 4) Write footer + trailer
+		long footerPosition = written ;
+		footer.writeFixedLong(modelPosition);
+		footer.writeFixedLong(footerPosition);
+		footer.writeFixedInt(ModelSnapshot.MAGIC);
+		written += footer.flush(channel);
+		return written ;
+	}
+
+	private void writeEntity(Entity entity) {
+		SnapshotOutput out = entities ;
+		out.writeString(entity.getClassName());
+		out.writeString(entity.getFullName());
+		out.writeString(entity.getPackageName());
+		out.writeString(entity.getSuperClass());
+		out.writeString(entity.getDomain());
+		out.writeString(entity.getContext());
+		out.writeString(entity.getDatabaseCatalog());
+		out.writeString(entity.getDatabaseComment());
+		out.writeString(entity.getDatabaseSchema());
+		out.writeString(entity.getDatabaseTable());
+		out.writeString(entity.getDatabaseType());
+		out.writeString(entity.getDatabaseTablespace());
+		out.writeBoolean(entity.isTableType());
+		out.writeBoolean(entity.isViewType());
+		out.writeVarInt(FrozenEntity.flagsOf(entity));
+		List<String> warnings = entity.getWarnings();
+		if ( warnings != null ) {
+			out.writeVarInt(warnings.size() + 1);
+			for ( String w : warnings ) {
+				out.writeString(w);
+			}
+		}
+		else {
+			out.writeVarInt(0);
+		}
+		writeTags(out, entity.getTagContainer());
+
+		//--- attributes block
+		block.reset();
+		List<Attribute> attributes = entity.getAttributes();
+		block.writeVarInt(attributes.size());
+		for ( Attribute a : attributes ) {
+			writeAttribute(block, a);
+		}
+		out.writeBlock(block);
+
+		//--- links block
+		block.reset();
+		List<Link> links = entity.getLinks();
+		block.writeVarInt(links.size());
+		for ( Link link : links ) {
+			writeLink(block, link);
+		}
+		out.writeBlock(block);
+
+		//--- foreign keys block
+		block.reset();
+		List<ForeignKey> foreignKeys = entity.getForeignKeys();
+		block.writeVarInt(foreignKeys.size());
+		for ( ForeignKey fk : foreignKeys ) {
+			writeForeignKey(block, fk);
+		}
+		out.writeBlock(block);
+	}
+
+	private void writeAttribute(SnapshotOutput out, Attribute a) {
+		out.writeString(a.getName());
+		out.writeString(a.getNeutralType());
+		out.writeString(a.getBooleanFalseValue());
+		out.writeString(a.getBooleanTrueValue());
+		out.writeString(a.getDatabaseComment());
+		out.writeString(a.getDatabaseDefaultValue());
+		out.writeString(a.getDatabaseName());
+		out.writeString(a.getDatabaseSize());
+		out.writeString(a.getDatabaseType());
+		out.writeString(a.getDateAfterValue());
+		out.writeString(a.getDateBeforeValue());
+		out.writeEnum(a.getDateType());
+		out.writeString(a.getDefaultValue());
+		out.writeString(a.getInitialValue());
+		out.writeString(a.getInputType());
+		out.writeString(a.getLabel());
+		out.writeString(a.getPattern());
+		out.writeString(a.getSize());
+		out.writeString(a.getReferencedEntityClassName());
+		out.writeInteger(a.getMaxLength());
+		out.writeInteger(a.getMinLength());
+		out.writeBigDecimal(a.getMaxValue());
+		out.writeBigDecimal(a.getMinValue());
+		out.writeInteger(a.getScale());
+		out.writeInteger(a.getPrecision());
+		out.writeEnum(a.getGeneratedValueStrategy());
+		out.writeInteger(a.getGeneratedValueAllocationSize());
+		out.writeInteger(a.getGeneratedValueInitialValue());
+		out.writeString(a.getGeneratedValueSequenceName());
+		out.writeString(a.getGeneratedValueTablePkColumnValue());
+		out.writeString(a.getGeneratedValueTableName());
+		out.writeEnum(a.getInsertable());
+		out.writeEnum(a.getUpdatable());
+		out.writeVarInt(FrozenAttribute.flagsOf(a));
+		List<ForeignKeyPart> parts = a.getFKParts();
+		if ( parts != null ) {
+			out.writeVarInt(parts.size());
+			for ( ForeignKeyPart part : parts ) {
+				out.writeString(part.getFkName());
+				out.writeString(part.getReferencedEntityName());
+				out.writeString(part.getReferencedAttributeName());
+			}
+		}
+		else {
+			out.writeVarInt(0);
+		}
+		writeTags(out, a.getTagContainer());
+	}
+
+	private void writeLink(SnapshotOutput out, Link link) {
+		out.writeString(link.getFieldName());
+		out.writeString(link.getReferencedEntityName());
+		out.writeString(link.getMappedBy());
+		out.writeString(link.getForeignKeyName());
+		out.writeString(link.getJoinEntityName());
+		out.writeEnum(link.getOptional());
+		out.writeEnum(link.getCardinality());
+		out.writeEnum(link.getFetchType());
+		out.writeEnum(link.getInsertable());
+		out.writeEnum(link.getUpdatable());
+		out.writeVarInt(FrozenLink.flagsOf(link));
+		out.writeVarInt(FrozenLink.cascadeOptionsMaskOf(link) + 1); // NO_CASCADE_OPTIONS (-1) => 0
+		List<LinkAttribute> attributes = link.getAttributes();
+		if ( attributes != null ) {
+			out.writeVarInt(attributes.size() + 1);
+			for ( LinkAttribute la : attributes ) {
+				out.writeString(la.getOriginAttributeName());
+				out.writeString(la.getReferencedAttributeName());
+				out.writeVarInt(FrozenLinkAttribute.flagsOf(la));
+			}
+		}
+		else {
+			out.writeVarInt(0);
+		}
+		writeTags(out, link.getTagContainer());
+	}
+
+	private void writeForeignKey(SnapshotOutput out, ForeignKey fk) {
+		out.writeString(fk.getName());
+		out.writeString(fk.getOriginEntityName());
+		out.writeString(fk.getReferencedEntityName());
+		out.writeByte( ( fk.isComposite() ? 1 : 0 ) | ( fk.isExplicit() ? 2 : 0 ) );
+		List<ForeignKeyAttribute> attributes = fk.getAttributes();
+		out.writeVarInt(attributes.size());
+		for ( ForeignKeyAttribute fka : attributes ) {
+			out.writeVarInt(fka.getOrdinal());
+			out.writeString(fka.getOriginAttributeName());
+			out.writeString(fka.getReferencedAttributeName());
+		}
+	}
+
+	private void writeTags(SnapshotOutput out, TagContainer tagContainer) {
+		if ( tagContainer == null || tagContainer.isEmpty() ) {
+			out.writeVarInt(0);
+			return;
+		}
+		List<String> names = tagContainer.getTagNames();
+		out.writeVarInt(names.size());
+		for ( String name : names ) {
+			out.writeString(name);
+			out.writeString(tagContainer.getTagValue(name));
+		}
+	}
+}
@@ -0,0 +1,169 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.frozen;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+
+import org.telosys.tools.generic.model.enums.BooleanValue;
+import org.telosys.tools.generic.model.enums.Cardinality;
+import org.telosys.tools.generic.model.enums.DateType;
+import org.telosys.tools.generic.model.enums.FetchType;
+import org.telosys.tools.generic.model.enums.GeneratedValueStrategy;
+import org.telosys.tools.generic.model.enums.ModelType;
+import org.telosys.tools.generic.model.enums.Optional;
+
+/**
+ * Reader for the primitive encodings written by {@link SnapshotOutput} <br>
+ * Each input has its own position and reads the buffer with absolute gets <br>
+ * so many inputs can share the same buffer (not the same input)
+ * 
+ * @since 4.2.0
+ */
+final class SnapshotInput {
+
+	private static final BooleanValue[]           BOOLEAN_VALUES    = BooleanValue.values();
+	private static final Cardinality[]            CARDINALITIES     = Cardinality.values();
+	private static final DateType[]               DATE_TYPES        = DateType.values();
+	private static final FetchType[]              FETCH_TYPES       = FetchType.values();
+	private static final GeneratedValueStrategy[] STRATEGIES        = GeneratedValueStrategy.values();
+	private static final ModelType[]              MODEL_TYPES       = ModelType.values();
+	private static final Optional[]               OPTIONALS         = Optional.values();
+
+	private final ByteBuffer      buffer ;
+	private final SnapshotStrings strings ;
+	private int position ;
+
+	/**
+	 * Constructor
+	 * @param buffer
+	 * @param strings
+	 * @param position initial position in the buffer
+	 */
+	SnapshotInput(ByteBuffer buffer, SnapshotStrings strings, int position) {
+		super();
+		this.buffer = buffer;
+		this.strings = strings;
+		this.position = position;
+	}
+
+	int position() {
+		return position;
+	}
+
+	void position(int newPosition) {
+		this.position = newPosition ;
+	}
+
+	void skip(int n) {
+		position += n ;
+	}
+
+	int readByte() {
+		return buffer.get(position++) & 0xFF ;
+	}
+
+	int readFixedInt() {
+		int v = buffer.getInt(position); // big-endian (ByteBuffer default)
+		position += 4 ;
+		return v ;
+	}
+
+	long readFixedLong() {
+		long v = buffer.getLong(position);
+		position += 8 ;
+		return v ;
+	}
+
+	int readVarInt() {
+		return (int) readVarLong();
+	}
+
+	long readVarLong() {
+		long result = 0 ;
+		int shift = 0 ;
+		while ( true ) {
+			int b = buffer.get(position++) ;
+			result |= (long) ( b & 0x7F ) << shift ;
+			if ( ( b & 0x80 ) == 0 ) {
+				return result ;
+			}
+			shift += 7 ;
+		}
+	}
+
+	Integer readInteger() {
+		long v = readVarLong();
+		if ( v == 0 ) {
+			return null ;
+		}
+		long zigzag = v - 1 ;
+		return (int) ( ( zigzag >>> 1 ) ^ -( zigzag & 1 ) );
+	}
+
+	String readString() {
+		return strings.get(readVarInt());
+	}
+
+	TagDictionary getTagDictionary() {
+		return strings.getTagDictionary();
+	}
+
+	BigDecimal readBigDecimal() {
+		String s = readString();
+		return s != null ? new BigDecimal(s) : null ;
+	}
+
+	Boolean readBoolean() {
+		int b = readByte();
+		if ( b == 0 ) {
+			return null ;
+		}
+		return b == 2 ? Boolean.TRUE : Boolean.FALSE ;
+	}
+
+	private static <E> E decode(E[] values, int code) {
+		return code == 0 ? null : values[code - 1] ;
+	}
+
+	BooleanValue readBooleanValue() {
+		return decode(BOOLEAN_VALUES, readVarInt());
+	}
+
+	Cardinality readCardinality() {
+		return decode(CARDINALITIES, readVarInt());
+	}
+
+	DateType readDateType() {
+		return decode(DATE_TYPES, readVarInt());
+	}
+
+	FetchType readFetchType() {
+		return decode(FETCH_TYPES, readVarInt());
+	}
+
+	GeneratedValueStrategy readGeneratedValueStrategy() {
+		return decode(STRATEGIES, readVarInt());
+	}
+
+	ModelType readModelType() {
+		return decode(MODEL_TYPES, readVarInt());
+	}
+
+	Optional readOptional() {
+		return decode(OPTIONALS, readVarInt());
+	}
+}
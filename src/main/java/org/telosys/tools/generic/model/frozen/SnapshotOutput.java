@@ -0,0 +1,183 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.frozen;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Growable byte buffer with the primitive encodings used by the model snapshot format : <br>
+ *  . unsigned varints (LEB128) <br>
+ *  . nullable integers (zigzag varint, 0 for null) <br>
+ *  . string references (index in the string table + 1, 0 for null) <br>
+ *  . enum ordinals (ordinal + 1, 0 for null) <br>
+ * 
+ * @since 4.2.0
+ */
+final class SnapshotOutput {
+
+	private final Map<String, Integer> strings ;
+	private byte[] bytes ;
+	private int    size ;
+
+	/**
+	 * Constructor
+	 * @param strings the string table shared by all the outputs of the same snapshot
+	 * @param initialCapacity
+	 */
+	SnapshotOutput(Map<String, Integer> strings, int initialCapacity) {
+		super();
+		this.strings = strings;
+		this.bytes = new byte[initialCapacity];
+		this.size = 0 ;
+	}
+
+	/**
+	 * Constructor with a new string table
+	 * @param initialCapacity
+	 */
+	SnapshotOutput(int initialCapacity) {
+		this(new LinkedHashMap<>(1024), initialCapacity);
+	}
+
+	Map<String, Integer> getStrings() {
+		return strings;
+	}
+
+	int size() {
+		return size;
+	}
+
+	void reset() {
+		size = 0 ;
+	}
+
+	private void ensureCapacity(int extra) {
+		int required = size + extra ;
+		if ( required > bytes.length ) {
+			bytes = Arrays.copyOf(bytes, Math.max(required, bytes.length * 2));
+		}
+	}
+
+	void writeByte(int b) {
+		ensureCapacity(1);
+		bytes[size++] = (byte) b ;
+	}
+
+	void writeBytes(byte[] b, int offset, int length) {
+		ensureCapacity(length);
+		System.arraycopy(b, offset, bytes, size, length);
+		size += length ;
+	}
+
+	void writeFixedInt(int v) {
+		ensureCapacity(4);
+		bytes[size++] = (byte) ( v >>> 24 );
+		bytes[size++] = (byte) ( v >>> 16 );
+		bytes[size++] = (byte) ( v >>> 8 );
+		bytes[size++] = (byte) v ;
+	}
+
+	void writeFixedLong(long v) {
+		writeFixedInt((int) ( v >>> 32 ));
+		writeFixedInt((int) v );
+	}
+
+	void writeVarInt(int v) {
+		writeVarLong(v & 0xFFFFFFFFL);
+	}
+
+	void writeVarLong(long v) {
+		ensureCapacity(10);
+		long value = v ;
+		while ( ( value & ~0x7FL ) != 0 ) {
+			bytes[size++] = (byte) ( ( value & 0x7F ) | 0x80 );
+			value >>>= 7 ;
+		}
+		bytes[size++] = (byte) value ;
+	}
+
+	void writeInteger(Integer v) {
+		if ( v == null ) {
+			writeVarLong(0);
+		}
+		else {
+			long zigzag = ( ( (long) v ) << 1 ) ^ ( ( (long) v ) >> 63 ) ;
+			writeVarLong(zigzag + 1);
+		}
+	}
+
+	void writeString(String s) {
+		if ( s == null ) {
+			writeVarInt(0);
+		}
+		else {
+			Integer index = strings.get(s);
+			if ( index == null ) {
+				index = strings.size();
+				strings.put(s, index);
+			}
+			writeVarInt(index + 1);
+		}
+	}
+
+	void writeBigDecimal(BigDecimal v) {
+		writeString( v != null ? v.toString() : null );
+	}
+
+	void writeEnum(Enum<?> e) {
+		writeVarInt( e != null ? e.ordinal() + 1 : 0 );
+	}
+
+	void writeBoolean(Boolean b) {
+		if ( b == null ) {
+			writeByte(0);
+		}
+		else {
+			writeByte( b.booleanValue() ? 2 : 1 );
+		}
+	}
+
+	/**
+	 * Writes the given output as a block (size followed by the bytes)
+	 * @param block
+	 */
+	void writeBlock(SnapshotOutput block) {
+		writeVarInt(block.size);
+		writeBytes(block.bytes, 0, block.size);
+	}
+
+	/**
+	 * Writes all the bytes in the given channel and resets the output
+	 * @param channel
+	 * @return the number of bytes written
+	 * @throws IOException
+	 */
+	int flush(WritableByteChannel channel) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, size);
+		while ( buffer.hasRemaining() ) {
+			channel.write(buffer);
+		}
+		int n = size ;
+		size = 0 ;
+		return n ;
+	}
+}
@@ -0,0 +1,121 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.frozen;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * String table of a snapshot <br>
+ * The table is scanned once to locate each string, then each string is decoded <br>
+ * on first access only and kept in a cache (the same instance is always returned) <br>
+ * Thread-safe : the buffer is only read with absolute positions and the decoded strings <br>
+ * are published with 'compareAndSet' (the first decoded instance wins)
+ * 
+ * @since 4.2.0
+ */
+final class SnapshotStrings {
+
+	private final ByteBuffer buffer ;
+	private final int[]      offsets ;
+	private final int[]      lengths ;
+	private final AtomicReferenceArray<String> cache ;
+	private final int        endPosition ;
+	private final TagDictionary tagDictionary = new TagDictionary();
+
+	/**
+	 * Constructor
+	 * @param buffer
+	 * @param position the position of the string table in the buffer
+	 * @throws IOException 
+	 */
+	SnapshotStrings(ByteBuffer buffer, int position) throws IOException {
+		super();
+		this.buffer = buffer ;
+		SnapshotInput in = new SnapshotInput(buffer, null, position);
+		int count = in.readVarInt();
+		if ( count < 0 || count > buffer.limit() ) {
+			throw new IOException("Invalid snapshot : bad string table size " + count);
+		}
+		this.offsets = new int[count];
+		this.lengths = new int[count];
+		this.cache   = new AtomicReferenceArray<>(count);
+		for ( int i = 0 ; i < count ; i++ ) {
+			int length = in.readVarInt();
+			offsets[i] = in.position();
+			lengths[i] = length ;
+			in.skip(length);
+		}
+		this.endPosition = in.position();
+	}
+
+	/**
+	 * Returns the dictionary shared by all the tag containers of the snapshot
+	 * @return
+	 */
+	TagDictionary getTagDictionary() {
+		return tagDictionary;
+	}
+
+	/**
+	 * Returns the position just after the string table 
+	 * @return
+	 */
+	int getEndPosition() {
+		return endPosition;
+	}
+
+	/**
+	 * Returns the number of strings in the table
+	 * @return
+	 */
+	int size() {
+		return cache.length();
+	}
+
+	/**
+	 * Returns the string for the given reference (index + 1, 0 for null)
+	 * @param ref
+	 * @return
+	 */
+	String get(int ref) {
+		if ( ref == 0 ) {
+			return null ;
+		}
+		int i = ref - 1 ;
+		String s = cache.get(i);
+		if ( s == null ) {
+			s = decode(offsets[i], lengths[i]);
+			if ( ! cache.compareAndSet(i, null, s) ) {
+				s = cache.get(i); // decoded by another thread
+			}
+		}
+		return s ;
+	}
+
+	private String decode(int offset, int length) {
+		if ( buffer.hasArray() ) {
+			return new String(buffer.array(), buffer.arrayOffset() + offset, length, StandardCharsets.UTF_8);
+		}
+		byte[] bytes = new byte[length];
+		ByteBuffer b = buffer.duplicate();
+		b.position(offset);
+		b.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,63 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.frozen;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Pool of canonical strings (used to share the same instance for all equal strings) <br>
+ * Unlike 'String.intern()' the pool is a plain heap structure released with its owner <br>
+ * Not thread-safe (supposed to be used by a single 'freezer' at a time)
+ * 
+ * @since 4.2.0
+ */
+public class StringPool {
+
+	private final Map<String, String> pool ;
+
+	/**
+	 * Constructor
+	 */
+	public StringPool() {
+		super();
+		this.pool = new HashMap<>(256);
+	}
+
+	/**
+	 * Returns the canonical instance for the given string (null stays null)
+	 * @param s
+	 * @return
+	 */
+	public String intern(String s) {
+		if ( s == null ) {
+			return null ;
+		}
+		if ( s.isEmpty() ) {
+			return "" ;
+		}
+		String canonical = pool.putIfAbsent(s, s);
+		return canonical != null ? canonical : s ;
+	}
+
+	/**
+	 * Returns the number of distinct strings in the pool
+	 * @return
+	 */
+	public int size() {
+		return pool.size();
+	}
+}
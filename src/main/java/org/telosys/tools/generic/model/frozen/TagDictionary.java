@@ -0,0 +1,93 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.frozen;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dictionary of tag names shared by all the tag containers of a model <br>
+ * Each tag name is stored once and identified by an int (0 to N-1 in order of registration), <br>
+ * so a container only needs an array of int ids instead of its own array or map of names. <br>
+ * Thread-safe : the lookups are lock-free, the registrations are synchronized.
+ * 
+ * @since 4.2.0
+ */
+public final class TagDictionary {
+
+	private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+
+	private volatile String[] names = new String[16];
+
+	private int size = 0 ;
+
+	/**
+	 * Returns the id of the given tag name (or -1 if the name is not in the dictionary)
+	 * @param tagName
+	 * @return
+	 */
+	public int getId(String tagName) {
+		if ( tagName == null ) {
+			return -1 ;
+		}
+		Integer id = ids.get(tagName);
+		return id != null ? id : -1 ;
+	}
+
+	/**
+	 * Returns the tag name for the given id 
+	 * @param id
+	 * @return
+	 */
+	public String getName(int id) {
+		return names[id];
+	}
+
+	/**
+	 * Returns the number of tag names in the dictionary 
+	 * @return
+	 */
+	public synchronized int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the id of the given tag name, registers it if not yet in the dictionary 
+	 * @param tagName
+	 * @return
+	 */
+	int register(String tagName) {
+		Integer id = ids.get(tagName);
+		if ( id != null ) {
+			return id ;
+		}
+		synchronized (this) {
+			id = ids.get(tagName);
+			if ( id != null ) {
+				return id ;
+			}
+			String[] array = names ;
+			if ( size == array.length ) {
+				array = Arrays.copyOf(array, size * 2);
+			}
+			array[size] = tagName ;
+			names = array ; // publish the name before the id
+			ids.put(tagName, size);
+			return size++ ;
+		}
+	}
+}
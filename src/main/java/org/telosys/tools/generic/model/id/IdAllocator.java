@@ -0,0 +1,172 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.id;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.telosys.tools.generic.model.Attribute;
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.enums.GeneratedValueStrategy;
+
+/**
+ * Id allocator driven by the 'generated value' metadata of the attributes <br>
+ * <br>
+ * One generator per sequence key : <br>
+ *  . SEQUENCE : "SEQUENCE:" + sequence name (default : table name + "_SEQ") <br>
+ *  . TABLE    : "TABLE:" + table name (default : "ID_GEN") + ":" + pk column value (default : table name) <br>
+ *  . IDENTITY, AUTO or undefined : "IDENTITY:" + table name + "." + column name <br>
+ * Attributes with the same key share the same generator (e.g. a sequence used by several entities). <br>
+ * The initial value and the allocation size (block size) are taken from the first attribute using the key <br>
+ * (default : 1 and 50 as in JPA). <br>
+ * <br>
+ * Usage : <br>
+ *   IdAllocator allocator = new IdAllocator(); <br>
+ *   long id = allocator.nextId(entity); <br>
+ * <br>
+ * Thread-safe
+ * 
+ * @since 4.2.0
+ */
+public class IdAllocator {
+
+	public static final long DEFAULT_INITIAL_VALUE   = 1 ;
+	public static final int  DEFAULT_ALLOCATION_SIZE = 50 ;
+	public static final String DEFAULT_GENERATOR_TABLE = "ID_GEN" ;
+
+	private final IdBlockStore store ;
+
+	private final ConcurrentHashMap<String, IdGenerator> generators = new ConcurrentHashMap<>();
+
+	// generator of the generated key attribute for each entity 
+	private final ConcurrentHashMap<Entity, IdGenerator> entityGenerators = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructor with an in-memory store
+	 */
+	public IdAllocator() {
+		this(new InMemoryIdBlockStore());
+	}
+
+	/**
+	 * Constructor
+	 * @param store the persistence hook used to reserve the blocks of ids
+	 */
+	public IdAllocator(IdBlockStore store) {
+		super();
+		if ( store == null ) {
+			throw new IllegalArgumentException("Store is null");
+		}
+		this.store = store;
+	}
+
+	public IdBlockStore getStore() {
+		return store;
+	}
+
+	/**
+	 * Returns the sequence key for the given attribute
+	 * @param entity
+	 * @param attribute
+	 * @return
+	 */
+	public static String keyOf(Entity entity, Attribute attribute) {
+		String table = entity.getDatabaseTable() != null && !entity.getDatabaseTable().isEmpty() ? 
+				entity.getDatabaseTable() : entity.getClassName() ;
+		GeneratedValueStrategy strategy = attribute.getGeneratedValueStrategy();
+		if ( strategy == GeneratedValueStrategy.SEQUENCE ) {
+			String name = attribute.getGeneratedValueSequenceName();
+			return "SEQUENCE:" + ( isDefined(name) ? name : table + "_SEQ" ) ;
+		}
+		if ( strategy == GeneratedValueStrategy.TABLE ) {
+			String name = attribute.getGeneratedValueTableName();
+			String pkValue = attribute.getGeneratedValueTablePkColumnValue();
+			return "TABLE:" + ( isDefined(name) ? name : DEFAULT_GENERATOR_TABLE ) + ":" + ( isDefined(pkValue) ? pkValue : table ) ;
+		}
+		String column = isDefined(attribute.getDatabaseName()) ? attribute.getDatabaseName() : attribute.getName() ;
+		return "IDENTITY:" + table + "." + column ;
+	}
+
+	private static boolean isDefined(String s) {
+		return s != null && !s.trim().isEmpty() ;
+	}
+
+	/**
+	 * Returns the generator for the given attribute 
+	 * @param entity
+	 * @param attribute
+	 * @return
+	 */
+	public IdGenerator getGenerator(Entity entity, Attribute attribute) {
+		String key = keyOf(entity, attribute);
+		IdGenerator generator = generators.get(key);
+		if ( generator == null ) {
+			long initialValue = attribute.getGeneratedValueInitialValue() != null ? 
+					attribute.getGeneratedValueInitialValue() : DEFAULT_INITIAL_VALUE ;
+			Integer size = attribute.getGeneratedValueAllocationSize() ;
+			int blockSize = size != null && size > 0 ? size : DEFAULT_ALLOCATION_SIZE ;
+			generator = generators.computeIfAbsent(key, k -> new IdGenerator(k, initialValue, blockSize, store));
+		}
+		return generator ;
+	}
+
+	/**
+	 * Returns the generator for the generated key attribute of the given entity
+	 * @param entity
+	 * @return
+	 * @throws IllegalArgumentException if the entity has no generated key attribute
+	 */
+	public IdGenerator getGenerator(Entity entity) {
+		IdGenerator generator = entityGenerators.get(entity);
+		if ( generator == null ) {
+			Attribute attribute = findGeneratedKey(entity);
+			if ( attribute == null ) {
+				throw new IllegalArgumentException("Entity '" + entity.getClassName() + "' : no generated key attribute");
+			}
+			generator = getGenerator(entity, attribute);
+			entityGenerators.putIfAbsent(entity, generator);
+		}
+		return generator ;
+	}
+
+	private static Attribute findGeneratedKey(Entity entity) {
+		for ( Attribute attribute : entity.getAttributes() ) {
+			if ( attribute.isKeyElement() && attribute.isGeneratedValue() ) {
+				return attribute ;
+			}
+		}
+		return null ;
+	}
+
+	/**
+	 * Returns a new id for the generated key attribute of the given entity
+	 * @param entity
+	 * @return
+	 */
+	public long nextId(Entity entity) {
+		return getGenerator(entity).nextId();
+	}
+
+	/**
+	 * Returns all the generators created 
+	 * @return
+	 */
+	public List<IdGenerator> getGenerators() {
+		return Collections.unmodifiableList(new ArrayList<>(generators.values()));
+	}
+}
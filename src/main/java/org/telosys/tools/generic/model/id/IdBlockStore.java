@@ -0,0 +1,37 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.id;
+
+/**
+ * Persistence hook for the id generators : reserves blocks of ids <br>
+ * An implementation can keep the counters in memory, in a file, in a database table, etc <br>
+ * Implementations must be thread-safe (called concurrently when thread blocks are exhausted)
+ * 
+ * @since 4.2.0
+ */
+public interface IdBlockStore {
+
+	/**
+	 * Reserves a block of ids for the given key <br>
+	 * The ids [ first, first + size [ must never be returned again for this key 
+	 * @param key the sequence key (see IdAllocator)
+	 * @param initialValue the first id if the key is new
+	 * @param size the number of ids in the block (1 or more)
+	 * @return the first id of the block
+	 */
+	public long reserveBlock(String key, long initialValue, int size) ;
+
+}
@@ -0,0 +1,125 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.id;
+
+/**
+ * Id generator for a sequence key <br>
+ * Each thread takes a block of ids from the store and uses it without any synchronization, <br>
+ * the store is called only when the block of the thread is exhausted. <br>
+ * The ids are unique for the key but not ordered between threads (as with a JPA 'allocationSize'). <br>
+ * Thread-safe
+ * 
+ * @since 4.2.0
+ */
+public final class IdGenerator {
+
+	private final String key ;
+
+	private final long initialValue ;
+
+	private final int blockSize ;
+
+	private final IdBlockStore store ;
+
+	private final ThreadLocal<Block> threadBlock = ThreadLocal.withInitial(Block::new);
+
+	/**
+	 * Block of ids owned by a thread : [ next, end [ 
+	 */
+	private static final class Block {
+		private long next = 0 ;
+		private long end = 0 ;
+	}
+
+	/**
+	 * Constructor
+	 * @param key
+	 * @param initialValue
+	 * @param blockSize
+	 * @param store
+	 */
+	public IdGenerator(String key, long initialValue, int blockSize, IdBlockStore store) {
+		super();
+		if ( key == null || store == null ) {
+			throw new IllegalArgumentException("IdGenerator constructor : null argument");
+		}
+		if ( blockSize <= 0 ) {
+			throw new IllegalArgumentException("Invalid block size : " + blockSize);
+		}
+		this.key = key;
+		this.initialValue = initialValue;
+		this.blockSize = blockSize;
+		this.store = store;
+	}
+
+	public String getKey() {
+		return key;
+	}
+
+	public long getInitialValue() {
+		return initialValue;
+	}
+
+	public int getBlockSize() {
+		return blockSize;
+	}
+
+	/**
+	 * Returns a new id 
+	 * @return
+	 */
+	public long nextId() {
+		Block block = threadBlock.get();
+		if ( block.next == block.end ) {
+			long first = store.reserveBlock(key, initialValue, blockSize);
+			block.next = first ;
+			block.end = first + blockSize ;
+		}
+		return block.next++ ;
+	}
+
+	/**
+	 * Fills the given array with new ids 
+	 * @param ids
+	 */
+	public void nextIds(long[] ids) {
+		Block block = threadBlock.get();
+		int i = 0 ;
+		while ( i < ids.length ) {
+			if ( block.next == block.end ) {
+				long first = store.reserveBlock(key, initialValue, blockSize);
+				block.next = first ;
+				block.end = first + blockSize ;
+			}
+			int n = (int) Math.min(block.end - block.next, (long) ids.length - i);
+			for ( int k = 0 ; k < n ; k++ ) {
+				ids[i++] = block.next++ ;
+			}
+		}
+	}
+
+	/**
+	 * Releases the block of the current thread (the remaining ids are lost) 
+	 */
+	public void releaseThreadBlock() {
+		threadBlock.remove();
+	}
+
+	@Override
+	public String toString() {
+		return "IdGenerator : " + key + " (initial value " + initialValue + ", block size " + blockSize + ")" ;
+	}
+}
@@ -0,0 +1,66 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.id;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory block store : one atomic counter per key (lock-free) 
+ * 
+ * @since 4.2.0
+ */
+public class InMemoryIdBlockStore implements IdBlockStore {
+
+	private final ConcurrentHashMap<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+	@Override
+	public long reserveBlock(String key, long initialValue, int size) {
+		if ( size <= 0 ) {
+			throw new IllegalArgumentException("Invalid block size : " + size);
+		}
+		AtomicLong counter = counters.get(key);
+		if ( counter == null ) {
+			counter = counters.computeIfAbsent(key, k -> new AtomicLong(initialValue));
+		}
+		return counter.getAndAdd(size);
+	}
+
+	/**
+	 * Returns the next id not yet reserved for the given key (or null if unknown key)
+	 * @param key
+	 * @return
+	 */
+	public Long getNextFreeValue(String key) {
+		AtomicLong counter = counters.get(key);
+		return counter != null ? counter.get() : null ;
+	}
+
+	/**
+	 * Returns a snapshot of all the counters (next free value for each key)
+	 * @return
+	 */
+	public Map<String, Long> getCounters() {
+		Map<String, Long> map = new TreeMap<>();
+		for ( Map.Entry<String, AtomicLong> e : counters.entrySet() ) {
+			map.put(e.getKey(), e.getValue().get());
+		}
+		return Collections.unmodifiableMap(map);
+	}
+}
@@ -0,0 +1,89 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.languages.types;
+
+/**
+ * Type in a target language for a neutral type <br>
+ * Immutable, instances are shared by the conversion tables
+ * 
+ * @since 4.2.0
+ */
+public final class LanguageType {
+
+	private final String neutralType ;
+
+	private final String simpleType ; // e.g. "int", "Integer", "LocalDate"
+
+	private final String fullType ; // e.g. "int", "java.lang.Integer", "java.time.LocalDate"
+
+	private final String wrapperType ; // e.g. "Integer" for "int"
+
+	private final boolean primitiveType ;
+
+	/**
+	 * Constructor
+	 * @param neutralType
+	 * @param simpleType
+	 * @param fullType
+	 * @param primitiveType
+	 * @param wrapperType
+	 */
+	public LanguageType(String neutralType, String simpleType, String fullType, boolean primitiveType, String wrapperType) {
+		super();
+		if ( neutralType == null || simpleType == null || fullType == null || wrapperType == null ) {
+			throw new IllegalArgumentException("LanguageType constructor : null argument");
+		}
+		this.neutralType = neutralType;
+		this.simpleType = simpleType;
+		this.fullType = fullType;
+		this.primitiveType = primitiveType;
+		this.wrapperType = wrapperType ;
+	}
+
+	/**
+	 * Returns true if the type is void (no type for the neutral type in the target language)
+	 * @return
+	 */
+	public boolean isEmpty() {
+		return simpleType.isEmpty() && fullType.isEmpty() && wrapperType.isEmpty();
+	}
+
+	public String getNeutralType() {
+		return neutralType;
+	}
+
+	public String getSimpleType() {
+		return simpleType;
+	}
+
+	public String getFullType() {
+		return fullType;
+	}
+
+	public boolean isPrimitiveType() {
+		return primitiveType;
+	}
+
+	public String getWrapperType() {
+		return wrapperType ;
+	}
+
+	@Override
+	public String toString() {
+		String s = primitiveType ? "PRIMITIVE-TYPE" : "OBJECT-TYPE" ;
+		return "LanguageType : '" + simpleType + "', '" + fullType + "' " + s + ", wrapper : " + wrapperType ;
+	}
+}
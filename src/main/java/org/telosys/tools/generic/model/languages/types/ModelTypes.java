@@ -0,0 +1,111 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.languages.types;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.telosys.tools.generic.model.Attribute;
+import org.telosys.tools.generic.model.Entity;
+
+/**
+ * Result of the conversion of all the attributes of a model for a target language <br>
+ * (see TypeConverter.convertModel) <br>
+ * Immutable
+ * 
+ * @since 4.2.0
+ */
+public final class ModelTypes {
+
+	private final String languageName ;
+
+	private final List<Entity> entities ;
+
+	private final LanguageType[][] types ; // [entity index][attribute index]
+
+	ModelTypes(String languageName, List<Entity> entities, LanguageType[][] types) {
+		super();
+		this.languageName = languageName;
+		this.entities = entities;
+		this.types = types;
+	}
+
+	public String getLanguageName() {
+		return languageName;
+	}
+
+	public int getEntityCount() {
+		return entities.size();
+	}
+
+	public Entity getEntity(int entityIndex) {
+		return entities.get(entityIndex);
+	}
+
+	/**
+	 * Returns the total number of attributes converted 
+	 * @return
+	 */
+	public int getAttributeCount() {
+		int n = 0 ;
+		for ( LanguageType[] entityTypes : types ) {
+			n += entityTypes.length ;
+		}
+		return n ;
+	}
+
+	/**
+	 * Returns the type of the given attribute
+	 * @param entityIndex
+	 * @param attributeIndex
+	 * @return
+	 */
+	public LanguageType getType(int entityIndex, int attributeIndex) {
+		return types[entityIndex][attributeIndex];
+	}
+
+	/**
+	 * Returns the types of all the attributes of the given entity (same order as the attributes)
+	 * @param entityIndex
+	 * @return
+	 */
+	public List<LanguageType> getTypes(int entityIndex) {
+		return Collections.unmodifiableList(Arrays.asList(types[entityIndex]));
+	}
+
+	/**
+	 * Returns the type of the given attribute (or null if unknown)
+	 * @param entityClassName
+	 * @param attributeName
+	 * @return
+	 */
+	public LanguageType getType(String entityClassName, String attributeName) {
+		for ( int e = 0 ; e < entities.size() ; e++ ) {
+			Entity entity = entities.get(e);
+			if ( entity.getClassName().equals(entityClassName) ) {
+				List<Attribute> attributes = entity.getAttributes();
+				for ( int a = 0 ; a < attributes.size() ; a++ ) {
+					if ( attributes.get(a).getName().equals(attributeName) ) {
+						return types[e][a];
+					}
+				}
+				return null ;
+			}
+		}
+		return null ;
+	}
+}
@@ -0,0 +1,298 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.languages.types;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.telosys.tools.generic.model.Attribute;
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.Model;
+import org.telosys.tools.generic.model.frozen.FrozenAttribute;
+import org.telosys.tools.generic.model.types.NeutralTypeCode;
+import org.telosys.tools.generic.model.types.NeutralTypeRegistry;
+import org.telosys.tools.generic.model.util.AttributeFlags;
+
+/**
+ * Table-driven type converter for a target language <br>
+ * Converts a neutral type to a language type according to the attribute type flags <br>
+ * (NOT_NULL, PRIMITIVE_TYPE, OBJECT_TYPE, UNSIGNED_TYPE) <br>
+ * <br>
+ * All the conversions are precomputed when the converter is built <br>
+ * in a table indexed by ( neutral type code x flags ), <br>
+ * so a conversion is a single array access (no allocation). <br>
+ * Immutable and thread-safe. <br>
+ * <br>
+ * Usage : <br>
+ *   LanguageType type = TypeConverters.JAVA.getType(attribute); <br>
+ * 
+ * @since 4.2.0
+ */
+public final class TypeConverter {
+
+	//--- Type flags (same values as the former 'AttributeTypeInfo')
+	public static final int NONE           = 0 ;
+	public static final int NOT_NULL       = 1 ;
+	public static final int PRIMITIVE_TYPE = 2 ;
+	public static final int OBJECT_TYPE    = 4 ;
+	public static final int UNSIGNED_TYPE  = 8 ;
+
+	private static final int FLAGS_COUNT = 16 ;
+	private static final int FLAGS_MASK  = FLAGS_COUNT - 1 ;
+	// position of NOT_NULL in AttributeFlags (the 4 type flags are contiguous)
+	private static final int ATTRIBUTE_FLAGS_SHIFT = Integer.numberOfTrailingZeros(AttributeFlags.NOT_NULL) ;
+
+	private final String languageName ;
+
+	private final TypeResolution resolution ;
+
+	// index = ( neutral type code ordinal * FLAGS_COUNT ) + flags, null if no type
+	private final LanguageType[] table ;
+
+	private TypeConverter(String languageName, TypeResolution resolution, LanguageType[] table) {
+		super();
+		this.languageName = languageName;
+		this.resolution = resolution;
+		this.table = table;
+	}
+
+	/**
+	 * Returns a new builder for the given language
+	 * @param languageName
+	 * @return
+	 */
+	public static Builder builder(String languageName) {
+		return new Builder(languageName);
+	}
+
+	/**
+	 * Returns the language associated with this type converter
+	 * @return
+	 */
+	public String getLanguageName() {
+		return languageName;
+	}
+
+	/**
+	 * Returns the rules used to build the conversion table 
+	 * @return
+	 */
+	public TypeResolution getResolution() {
+		return resolution;
+	}
+
+	//--------------------------------------------------------------------------------------------
+	// Type flags
+	//--------------------------------------------------------------------------------------------
+	/**
+	 * Returns the type flags of the given attribute (NOT_NULL, PRIMITIVE_TYPE, OBJECT_TYPE, UNSIGNED_TYPE)
+	 * @param attribute
+	 * @return
+	 */
+	public static int typeFlags(Attribute attribute) {
+		if ( attribute instanceof FrozenAttribute ) {
+			return typeFlagsFromAttributeFlags(((FrozenAttribute) attribute).getFlags()) ;
+		}
+		int flags = NONE ;
+		if ( attribute.isNotNull() ) flags |= NOT_NULL ;
+		if ( attribute.isPrimitiveTypeExpected() ) flags |= PRIMITIVE_TYPE ;
+		if ( attribute.isObjectTypeExpected() ) flags |= OBJECT_TYPE ;
+		if ( attribute.isUnsignedTypeExpected() ) flags |= UNSIGNED_TYPE ;
+		return flags ;
+	}
+
+	/**
+	 * Returns the type flags extracted from the given AttributeFlags value
+	 * @param attributeFlags
+	 * @return
+	 */
+	public static int typeFlagsFromAttributeFlags(int attributeFlags) {
+		return ( attributeFlags >>> ATTRIBUTE_FLAGS_SHIFT ) & FLAGS_MASK ;
+	}
+
+	//--------------------------------------------------------------------------------------------
+	// Conversion
+	//--------------------------------------------------------------------------------------------
+	/**
+	 * Returns true if a type exists for the given neutral type and flags
+	 * @param code
+	 * @param flags
+	 * @return
+	 */
+	public boolean hasType(NeutralTypeCode code, int flags) {
+		return code != null && table[index(code, flags)] != null ;
+	}
+
+	/**
+	 * Returns the language type for the given neutral type code and flags 
+	 * @param code
+	 * @param flags
+	 * @return
+	 * @throws TypeNotFoundException if no type
+	 */
+	public LanguageType getType(NeutralTypeCode code, int flags) {
+		if ( code != null ) {
+			LanguageType type = table[index(code, flags)] ;
+			if ( type != null ) {
+				return type ;
+			}
+		}
+		throw new TypeNotFoundException(languageName, code != null ? code.getText() : null);
+	}
+
+	/**
+	 * Returns the language type for the given neutral type (predefined or custom) and flags 
+	 * @param neutralType
+	 * @param flags
+	 * @return
+	 * @throws TypeNotFoundException if no type
+	 */
+	public LanguageType getType(String neutralType, int flags) {
+		NeutralTypeCode code = NeutralTypeRegistry.getCode(neutralType);
+		if ( code == null ) {
+			throw new TypeNotFoundException(languageName, neutralType);
+		}
+		return getType(code, flags);
+	}
+
+	/**
+	 * Returns the language type that suits as well as possible with the given attribute's characteristics
+	 * @param attribute
+	 * @return
+	 * @throws TypeNotFoundException if no type
+	 */
+	public LanguageType getType(Attribute attribute) {
+		NeutralTypeCode code = attribute.getNeutralTypeCode();
+		if ( code == null ) {
+			throw new TypeNotFoundException(languageName, attribute.getNeutralType());
+		}
+		return getType(code, typeFlags(attribute));
+	}
+
+	private static int index(NeutralTypeCode code, int flags) {
+		return ( code.ordinal() * FLAGS_COUNT ) + ( flags & FLAGS_MASK ) ;
+	}
+
+	//--------------------------------------------------------------------------------------------
+	// Bulk conversion
+	//--------------------------------------------------------------------------------------------
+	/**
+	 * Converts the types of all the attributes of the given model (entities processed in parallel)
+	 * @param model
+	 * @return
+	 * @throws TypeNotFoundException if an attribute type cannot be converted
+	 */
+	public ModelTypes convertModel(Model model) {
+		List<Entity> entities = new ArrayList<>(model.getEntities());
+		LanguageType[][] types = new LanguageType[entities.size()][];
+		// each task writes its own slot, the terminal operation publishes the results
+		IntStream.range(0, entities.size()).parallel().forEach( i -> types[i] = convertEntity(entities.get(i)) );
+		return new ModelTypes(languageName, Collections.unmodifiableList(entities), types);
+	}
+
+	/**
+	 * Converts the types of all the attributes of the given entity (same order as the attributes)
+	 * @param entity
+	 * @return
+	 * @throws TypeNotFoundException if an attribute type cannot be converted
+	 */
+	public LanguageType[] convertEntity(Entity entity) {
+		List<Attribute> attributes = entity.getAttributes();
+		LanguageType[] types = new LanguageType[attributes.size()];
+		for ( int i = 0 ; i < types.length ; i++ ) {
+			types[i] = getType(attributes.get(i));
+		}
+		return types ;
+	}
+
+	//--------------------------------------------------------------------------------------------
+	// Builder
+	//--------------------------------------------------------------------------------------------
+	/**
+	 * Builder used to declare the types of a language <br>
+	 * Not thread-safe
+	 */
+	public static final class Builder {
+
+		private final String languageName ;
+		private final int codesCount = NeutralTypeCode.values().length ;
+		private final LanguageType[] primitiveTypes = new LanguageType[codesCount];
+		private final LanguageType[] unsignedTypes  = new LanguageType[codesCount];
+		private final LanguageType[] objectTypes    = new LanguageType[codesCount];
+
+		private Builder(String languageName) {
+			super();
+			if ( languageName == null ) {
+				throw new IllegalArgumentException("Language name is null");
+			}
+			this.languageName = languageName ;
+		}
+
+		/**
+		 * Declares a primitive type (simple type = full type)
+		 * @param code
+		 * @param primitiveType
+		 * @param wrapperType
+		 * @return
+		 */
+		public Builder primitive(NeutralTypeCode code, String primitiveType, String wrapperType) {
+			primitiveTypes[code.ordinal()] = new LanguageType(code.getText(), primitiveType, primitiveType, true, wrapperType);
+			return this;
+		}
+
+		/**
+		 * Declares an unsigned primitive type (simple type = full type)
+		 * @param code
+		 * @param primitiveType
+		 * @param wrapperType
+		 * @return
+		 */
+		public Builder unsigned(NeutralTypeCode code, String primitiveType, String wrapperType) {
+			unsignedTypes[code.ordinal()] = new LanguageType(code.getText(), primitiveType, primitiveType, true, wrapperType);
+			return this;
+		}
+
+		/**
+		 * Declares an object type (wrapper type = simple type)
+		 * @param code
+		 * @param simpleType
+		 * @param fullType
+		 * @return
+		 */
+		public Builder object(NeutralTypeCode code, String simpleType, String fullType) {
+			objectTypes[code.ordinal()] = new LanguageType(code.getText(), simpleType, fullType, false, simpleType);
+			return this;
+		}
+
+		/**
+		 * Builds the converter (all the conversions are computed here)
+		 * @param resolution
+		 * @return
+		 */
+		public TypeConverter build(TypeResolution resolution) {
+			LanguageType[] table = new LanguageType[codesCount * FLAGS_COUNT];
+			for ( NeutralTypeCode code : NeutralTypeCode.values() ) {
+				int i = code.ordinal();
+				for ( int flags = 0 ; flags < FLAGS_COUNT ; flags++ ) {
+					table[index(code, flags)] = resolution.resolve(code, flags, primitiveTypes[i], unsignedTypes[i], objectTypes[i]);
+				}
+			}
+			return new TypeConverter(languageName, resolution, table);
+		}
+	}
+}
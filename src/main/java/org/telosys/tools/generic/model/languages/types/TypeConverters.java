@@ -0,0 +1,275 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.languages.types;
+
+import static org.telosys.tools.generic.model.types.NeutralTypeCode.BINARY;
+import static org.telosys.tools.generic.model.types.NeutralTypeCode.BOOLEAN;
+import static org.telosys.tools.generic.model.types.NeutralTypeCode.BYTE;
+import static org.telosys.tools.generic.model.types.NeutralTypeCode.DATE;
+import static org.telosys.tools.generic.model.types.NeutralTypeCode.DECIMAL;
+import static org.telosys.tools.generic.model.types.NeutralTypeCode.DOUBLE;
+import static org.telosys.tools.generic.model.types.NeutralTypeCode.FLOAT;
+import static org.telosys.tools.generic.model.types.NeutralTypeCode.INTEGER;
+import static org.telosys.tools.generic.model.types.NeutralTypeCode.LONG;
+import static org.telosys.tools.generic.model.types.NeutralTypeCode.SHORT;
+import static org.telosys.tools.generic.model.types.NeutralTypeCode.STRING;
+import static org.telosys.tools.generic.model.types.NeutralTypeCode.TIME;
+import static org.telosys.tools.generic.model.types.NeutralTypeCode.TIMESTAMP;
+import static org.telosys.tools.generic.model.types.NeutralTypeCode.TIMESTAMPZ;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.telosys.tools.generic.model.types.NeutralTypeCode;
+
+/**
+ * Predefined type converters for the target languages <br>
+ * (same types as the former 'TypeConverterForXxx' classes) <br>
+ * The converters are immutable and can be shared by all threads
+ * 
+ * @since 4.2.0
+ */
+public final class TypeConverters {
+
+	public static final TypeConverter JAVA = TypeConverter.builder("Java")
+			.object(STRING,     "String",         "java.lang.String")
+			.object(BOOLEAN,    "Boolean",        "java.lang.Boolean")
+			.object(BYTE,       "Byte",           "java.lang.Byte")
+			.object(SHORT,      "Short",          "java.lang.Short")
+			.object(INTEGER,    "Integer",        "java.lang.Integer")
+			.object(LONG,       "Long",           "java.lang.Long")
+			.object(FLOAT,      "Float",          "java.lang.Float")
+			.object(DOUBLE,     "Double",         "java.lang.Double")
+			.object(DECIMAL,    "BigDecimal",     "java.math.BigDecimal")
+			.object(DATE,       "LocalDate",      "java.time.LocalDate")
+			.object(TIME,       "LocalTime",      "java.time.LocalTime")
+			.object(TIMESTAMP,  "LocalDateTime",  "java.time.LocalDateTime")
+			.object(TIMESTAMPZ, "OffsetDateTime", "java.time.OffsetDateTime")
+			.primitive(BOOLEAN, "boolean", "Boolean")
+			.primitive(BYTE,    "byte",    "Byte")
+			.primitive(SHORT,   "short",   "Short")
+			.primitive(INTEGER, "int",     "Integer")
+			.primitive(LONG,    "long",    "Long")
+			.primitive(FLOAT,   "float",   "Float")
+			.primitive(DOUBLE,  "double",  "Double")
+			.primitive(BINARY,  "byte[]",  "byte[]")
+			.build(TypeResolution.JAVA);
+
+	public static final TypeConverter CSHARP = TypeConverter.builder("C#")
+			.object(STRING,     "String",         "System.String")
+			.object(BOOLEAN,    "Boolean",        "System.Boolean")
+			.object(BYTE,       "SByte",          "System.SByte")
+			.object(SHORT,      "Int16",          "System.Int16")
+			.object(INTEGER,    "Int32",          "System.Int32")
+			.object(LONG,       "Int64",          "System.Int64")
+			.object(FLOAT,      "Single",         "System.Single")
+			.object(DOUBLE,     "Double",         "System.Double")
+			.object(DECIMAL,    "Decimal",        "System.Decimal")
+			.object(DATE,       "DateOnly",       "System.DateOnly")
+			.object(TIME,       "TimeOnly",       "System.TimeOnly")
+			.object(TIMESTAMP,  "DateTime",       "System.DateTime")
+			.object(TIMESTAMPZ, "DateTimeOffset", "System.DateTimeOffset")
+			.primitive(STRING,  "string",  "System.String")
+			.primitive(BOOLEAN, "bool",    "System.Boolean")
+			.primitive(BYTE,    "sbyte",   "System.SByte")
+			.primitive(SHORT,   "short",   "System.Int16")
+			.primitive(INTEGER, "int",     "System.Int32")
+			.primitive(LONG,    "long",    "System.Int64")
+			.primitive(FLOAT,   "float",   "System.Single")
+			.primitive(DOUBLE,  "double",  "System.Double")
+			.primitive(DECIMAL, "decimal", "System.Decimal")
+			.primitive(BINARY,  "byte[]",  "byte[]")
+			.unsigned(BYTE,     "byte",    "System.Byte")
+			.unsigned(SHORT,    "ushort",  "System.UInt16")
+			.unsigned(INTEGER,  "uint",    "System.UInt32")
+			.unsigned(LONG,     "ulong",   "System.UInt64")
+			.build(TypeResolution.CSHARP);
+
+	public static final TypeConverter GO = TypeConverter.builder("Go")
+			.primitive(STRING,  "string",  "string")
+			.primitive(BOOLEAN, "bool",    "bool")
+			.primitive(BYTE,    "byte",    "byte")
+			.primitive(SHORT,   "int16",   "int16")
+			.primitive(INTEGER, "int32",   "int32")
+			.primitive(LONG,    "int64",   "int64")
+			.primitive(FLOAT,   "float32", "float32")
+			.primitive(DOUBLE,  "float64", "float64")
+			.primitive(DECIMAL, "float64", "float64")
+			.primitive(BINARY,  "[]byte",  "[]byte")
+			.unsigned(BYTE,     "uint8",   "uint8")
+			.unsigned(SHORT,    "uint16",  "uint16")
+			.unsigned(INTEGER,  "uint32",  "uint32")
+			.unsigned(LONG,     "uint64",  "uint64")
+			.object(DATE,       "time.Time", "time.Time")
+			.object(TIME,       "time.Time", "time.Time")
+			.object(TIMESTAMP,  "time.Time", "time.Time")
+			.object(TIMESTAMPZ, "time.Time", "time.Time")
+			.build(TypeResolution.PRIMITIVE_FIRST);
+
+	public static final TypeConverter KOTLIN = TypeConverter.builder("Kotlin")
+			.primitive(STRING,  "String",    "String")
+			.primitive(BOOLEAN, "Boolean",   "Boolean")
+			.primitive(BYTE,    "Byte",      "Byte")
+			.primitive(SHORT,   "Short",     "Short")
+			.primitive(INTEGER, "Int",       "Int")
+			.primitive(LONG,    "Long",      "Long")
+			.primitive(FLOAT,   "Float",     "Float")
+			.primitive(DOUBLE,  "Double",    "Double")
+			.primitive(BINARY,  "ByteArray", "ByteArray")
+			.unsigned(BYTE,     "UByte",     "UByte")
+			.unsigned(SHORT,    "UShort",    "UShort")
+			.unsigned(INTEGER,  "UInt",      "UInt")
+			.unsigned(LONG,     "ULong",     "ULong")
+			.object(DECIMAL,    "BigDecimal",     "java.math.BigDecimal")
+			.object(DATE,       "LocalDate",      "java.time.LocalDate")
+			.object(TIME,       "LocalTime",      "java.time.LocalTime")
+			.object(TIMESTAMP,  "LocalDateTime",  "java.time.LocalDateTime")
+			.object(TIMESTAMPZ, "OffsetDateTime", "java.time.OffsetDateTime")
+			.build(TypeResolution.PRIMITIVE_FIRST);
+
+	public static final TypeConverter SCALA = TypeConverter.builder("Scala")
+			.primitive(BOOLEAN, "Boolean",     "Boolean")
+			.primitive(BYTE,    "Byte",        "Byte")
+			.primitive(SHORT,   "Short",       "Short")
+			.primitive(INTEGER, "Int",         "Int")
+			.primitive(LONG,    "Long",        "Long")
+			.primitive(FLOAT,   "Float",       "Float")
+			.primitive(DOUBLE,  "Double",      "Double")
+			.primitive(BINARY,  "Array[Byte]", "Array[Byte]")
+			.object(STRING,     "String",         "java.lang.String")
+			.object(DECIMAL,    "BigDecimal",     "scala.math.BigDecimal")
+			.object(DATE,       "LocalDate",      "java.time.LocalDate")
+			.object(TIME,       "LocalTime",      "java.time.LocalTime")
+			.object(TIMESTAMP,  "LocalDateTime",  "java.time.LocalDateTime")
+			.object(TIMESTAMPZ, "OffsetDateTime", "java.time.OffsetDateTime")
+			.build(TypeResolution.PRIMITIVE_FIRST);
+
+	public static final TypeConverter TYPESCRIPT = TypeConverter.builder("TypeScript")
+			.object(STRING,     "String",  "String")
+			.object(BOOLEAN,    "Boolean", "Boolean")
+			.object(BYTE,       "Number",  "Number")
+			.object(SHORT,      "Number",  "Number")
+			.object(INTEGER,    "Number",  "Number")
+			.object(LONG,       "Number",  "Number")
+			.object(FLOAT,      "Number",  "Number")
+			.object(DOUBLE,     "Number",  "Number")
+			.object(DECIMAL,    "Number",  "Number")
+			.object(DATE,       "Date",    "Date")
+			.object(TIME,       "Date",    "Date")
+			.object(TIMESTAMP,  "Date",    "Date")
+			.object(TIMESTAMPZ, "Date",    "Date")
+			.primitive(STRING,  "string",  "String")
+			.primitive(BOOLEAN, "boolean", "Boolean")
+			.primitive(BYTE,    "number",  "Number")
+			.primitive(SHORT,   "number",  "Number")
+			.primitive(INTEGER, "number",  "Number")
+			.primitive(LONG,    "number",  "Number")
+			.primitive(FLOAT,   "number",  "Number")
+			.primitive(DOUBLE,  "number",  "Number")
+			.primitive(DECIMAL, "number",  "Number")
+			.primitive(BINARY,  "any",     "Number")
+			.build(TypeResolution.TYPESCRIPT);
+
+	public static final TypeConverter PHP = TypeConverter.builder("PHP")
+			.primitive(STRING,  "string", "string")
+			.primitive(BOOLEAN, "bool",   "bool")
+			.primitive(BYTE,    "int",    "int")
+			.primitive(SHORT,   "int",    "int")
+			.primitive(INTEGER, "int",    "int")
+			.primitive(LONG,    "int",    "int")
+			.primitive(FLOAT,   "float",  "float")
+			.primitive(DOUBLE,  "float",  "float")
+			.primitive(DECIMAL, "float",  "float")
+			.object(DATE,       "", "")
+			.object(TIME,       "", "")
+			.object(TIMESTAMP,  "DateTime", "\\DateTime") // backslash is "global namespace"
+			.object(TIMESTAMPZ, "DateTime", "\\DateTime")
+			.object(BINARY,     "", "")
+			.build(TypeResolution.PRIMITIVE_FIRST);
+
+	public static final TypeConverter CPLUSPLUS = TypeConverter.builder("C++")
+			.primitive(STRING,     "string",  "string")
+			.primitive(BOOLEAN,    "bool",    "bool")
+			.primitive(BYTE,       "char",    "char")
+			.primitive(SHORT,      "short",   "short")
+			.primitive(INTEGER,    "int",     "int")
+			.primitive(LONG,       "long",    "long")
+			.primitive(FLOAT,      "float",   "float")
+			.primitive(DOUBLE,     "double",  "double")
+			.primitive(DECIMAL,    "double",  "double")
+			.primitive(DATE,       "std::tm", "std::tm")
+			.primitive(TIME,       "", "")
+			.primitive(TIMESTAMP,  "", "")
+			.primitive(TIMESTAMPZ, "", "")
+			.primitive(BINARY,     "", "")
+			.unsigned(BYTE,        "unsigned char",  "unsigned char")
+			.unsigned(SHORT,       "unsigned short", "unsigned short")
+			.unsigned(INTEGER,     "unsigned int",   "unsigned int")
+			.unsigned(LONG,        "unsigned long",  "unsigned long")
+			.build(TypeResolution.PRIMITIVE_FIRST);
+
+	// No explicit types in Python and JavaScript : void type for all the neutral types
+	public static final TypeConverter PYTHON = untyped("Python");
+
+	public static final TypeConverter JAVASCRIPT = untyped("JavaScript");
+
+	private static final Map<String, TypeConverter> CONVERTERS = new LinkedHashMap<>();
+	static {
+		for ( TypeConverter converter : new TypeConverter[] { JAVA, CSHARP, GO, KOTLIN, SCALA, TYPESCRIPT, PHP, CPLUSPLUS, PYTHON, JAVASCRIPT } ) {
+			CONVERTERS.put(key(converter.getLanguageName()), converter);
+		}
+	}
+
+	private TypeConverters() {
+	}
+
+	private static TypeConverter untyped(String languageName) {
+		TypeConverter.Builder builder = TypeConverter.builder(languageName);
+		for ( NeutralTypeCode code : NeutralTypeCode.values() ) {
+			builder.primitive(code, "", "");
+		}
+		return builder.build(TypeResolution.PRIMITIVE_FIRST);
+	}
+
+	private static String key(String languageName) {
+		return languageName.trim().toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Returns the converter for the given language name (not case sensitive)
+	 * @param languageName e.g. "Java", "C#", "TypeScript", etc
+	 * @return the converter or null if unknown language
+	 */
+	public static TypeConverter get(String languageName) {
+		return languageName != null ? CONVERTERS.get(key(languageName)) : null ;
+	}
+
+	/**
+	 * Returns the names of all the predefined languages 
+	 * @return
+	 */
+	public static List<String> getLanguageNames() {
+		List<String> names = new ArrayList<>();
+		for ( TypeConverter converter : CONVERTERS.values() ) {
+			names.add(converter.getLanguageName());
+		}
+		return Collections.unmodifiableList(names);
+	}
+}
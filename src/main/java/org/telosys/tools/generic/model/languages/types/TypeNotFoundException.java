@@ -0,0 +1,31 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.languages.types;
+
+/**
+ * Exception thrown when a neutral type cannot be converted to a target language type
+ * 
+ * @since 4.2.0
+ */
+public class TypeNotFoundException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	public TypeNotFoundException(String languageName, String neutralType) {
+		super("No type for '" + neutralType + "' (target language '" + languageName + "') ");
+	}
+
+}
@@ -0,0 +1,110 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.languages.types;
+
+import org.telosys.tools.generic.model.types.NeutralTypeCode;
+
+/**
+ * Rules used to choose between the primitive, unsigned and object types of a language <br>
+ * according to the attribute type flags (see TypeConverter constants) <br>
+ * The rules are applied only once per (neutral type, flags) when the conversion table is built
+ * 
+ * @since 4.2.0
+ */
+public enum TypeResolution {
+
+	/**
+	 * Java rules : <br>
+	 * '@PrimitiveType' and '@ObjectType' first, then primitive type if '@NotNull', else object type <br>
+	 * '@UnsignedType' has no effect
+	 */
+	JAVA {
+		@Override
+		LanguageType resolve(NeutralTypeCode code, int flags, LanguageType primitive, LanguageType unsigned, LanguageType object) {
+			if ( has(flags, TypeConverter.PRIMITIVE_TYPE) && primitive != null ) {
+				return primitive ;
+			}
+			if ( has(flags, TypeConverter.OBJECT_TYPE) && object != null ) {
+				return object ;
+			}
+			if ( has(flags, TypeConverter.NOT_NULL) ) {
+				return primitive != null ? primitive : object ;
+			}
+			else {
+				return object != null ? object : primitive ;
+			}
+		}
+	},
+
+	/**
+	 * C# rules : <br>
+	 * '@ObjectType' first, then '@UnsignedType', then primitive type, then object type <br>
+	 * '@NotNull' and '@PrimitiveType' have no effect
+	 */
+	CSHARP {
+		@Override
+		LanguageType resolve(NeutralTypeCode code, int flags, LanguageType primitive, LanguageType unsigned, LanguageType object) {
+			if ( has(flags, TypeConverter.OBJECT_TYPE) && object != null ) {
+				return object ;
+			}
+			if ( has(flags, TypeConverter.UNSIGNED_TYPE) && unsigned != null ) {
+				return unsigned ;
+			}
+			return primitive != null ? primitive : object ;
+		}
+	},
+
+	/**
+	 * Primitive type first ( unsigned if '@UnsignedType' ), then object type <br>
+	 * (Go, Kotlin, Scala, C++, PHP, Python, JavaScript)
+	 */
+	PRIMITIVE_FIRST {
+		@Override
+		LanguageType resolve(NeutralTypeCode code, int flags, LanguageType primitive, LanguageType unsigned, LanguageType object) {
+			if ( has(flags, TypeConverter.UNSIGNED_TYPE) && unsigned != null ) {
+				return unsigned ;
+			}
+			return primitive != null ? primitive : object ;
+		}
+	},
+
+	/**
+	 * TypeScript rules : <br>
+	 * object type for temporal types, else primitive type <br>
+	 * all the annotations have no effect
+	 */
+	TYPESCRIPT {
+		@Override
+		LanguageType resolve(NeutralTypeCode code, int flags, LanguageType primitive, LanguageType unsigned, LanguageType object) {
+			return code.isTemporal() ? object : primitive ;
+		}
+	};
+
+	/**
+	 * Returns the type to use for the given neutral type and flags (or null if none)
+	 * @param code
+	 * @param flags
+	 * @param primitive the primitive type declared for the neutral type (or null)
+	 * @param unsigned the unsigned primitive type declared for the neutral type (or null)
+	 * @param object the object type declared for the neutral type (or null)
+	 * @return
+	 */
+	abstract LanguageType resolve(NeutralTypeCode code, int flags, LanguageType primitive, LanguageType unsigned, LanguageType object) ;
+
+	private static boolean has(int flags, int flag) {
+		return ( flags & flag ) != 0 ;
+	}
+}
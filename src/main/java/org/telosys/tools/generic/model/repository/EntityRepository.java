@@ -0,0 +1,501 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.telosys.tools.generic.model.Attribute;
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.ForeignKey;
+import org.telosys.tools.generic.model.ForeignKeyAttribute;
+import org.telosys.tools.generic.model.types.NeutralTypeCode;
+
+/**
+ * In-memory repository for the records of an entity <br>
+ * A record is an 'Object[]' with the attribute values in the order of 'entity.getAttributes()'. <br>
+ * Indexes : <br>
+ *  . primary key : 'isKeyElement' attributes (single or composite key) <br>
+ *  . unique      : one index for each 'isUnique' attribute <br>
+ *  . foreign key : one index for each foreign key ( 'getForeignKeys()' ) <br>
+ * A single integer key ( byte, short, int, long ) is indexed in a primitive 'long' map. <br>
+ * Records are copied when stored and returned (the stored records cannot be changed by the caller). <br>
+ * Thread-safe (read/write lock shared by all the repositories of a 'ModelRepository')
+ * 
+ * @since 4.2.0
+ */
+public final class EntityRepository {
+
+	private final Entity entity ;
+	private final int fieldCount ;
+	private final Map<String, Integer> fieldIndexes = new HashMap<>();
+	private final ReadWriteLock lock ;
+
+	private final UniqueIndex primaryIndex ; // null if no key
+	private final List<Object[]> unkeyedRecords ; // used only if no key
+	private final Map<String, UniqueIndex> uniqueIndexes = new LinkedHashMap<>(); // attribute name --> index
+	private final Map<String, MultiIndex> foreignKeyIndexes = new LinkedHashMap<>(); // FK name --> index
+	private final List<ForeignKeyLink> outgoingLinks = new ArrayList<>(); // this --> parent
+	private final List<ForeignKeyLink> incomingLinks = new ArrayList<>(); // child --> this
+
+	/**
+	 * Constructor for a standalone repository (no foreign key integrity)
+	 * @param entity
+	 */
+	public EntityRepository(Entity entity) {
+		this(entity, new ReentrantReadWriteLock());
+	}
+
+	EntityRepository(Entity entity, ReadWriteLock lock) {
+		super();
+		if ( entity == null ) {
+			throw new IllegalArgumentException("Entity is null");
+		}
+		this.entity = entity;
+		this.lock = lock;
+		List<Attribute> attributes = entity.getAttributes();
+		this.fieldCount = attributes.size();
+		List<Integer> keyFields = new ArrayList<>();
+		for ( int i = 0 ; i < fieldCount ; i++ ) {
+			Attribute attribute = attributes.get(i);
+			fieldIndexes.put(attribute.getName(), i);
+			if ( attribute.isKeyElement() ) {
+				keyFields.add(i);
+			}
+		}
+		//--- Primary key
+		if ( keyFields.isEmpty() ) {
+			primaryIndex = null ;
+			unkeyedRecords = new ArrayList<>();
+		}
+		else {
+			int[] fields = toArray(keyFields);
+			primaryIndex = new UniqueIndex("PK", fields, isLongKey(attributes, fields));
+			unkeyedRecords = null ;
+		}
+		//--- Unique attributes
+		for ( int i = 0 ; i < fieldCount ; i++ ) {
+			Attribute attribute = attributes.get(i);
+			if ( attribute.isUnique() && !( keyFields.size() == 1 && keyFields.get(0) == i ) ) {
+				int[] fields = { i };
+				uniqueIndexes.put(attribute.getName(), 
+						new UniqueIndex(attribute.getName(), fields, isLongKey(attributes, fields)));
+			}
+		}
+		//--- Foreign keys
+		for ( ForeignKey fk : entity.getForeignKeys() ) {
+			List<ForeignKeyAttribute> fkAttributes = sortedAttributes(fk);
+			int[] fields = new int[fkAttributes.size()];
+			for ( int i = 0 ; i < fields.length ; i++ ) {
+				fields[i] = getFieldIndex(fkAttributes.get(i).getOriginAttributeName());
+			}
+			foreignKeyIndexes.put(fk.getName(), new MultiIndex(fk.getName(), fields, isLongKey(attributes, fields)));
+		}
+	}
+
+	private static int[] toArray(List<Integer> list) {
+		int[] array = new int[list.size()];
+		for ( int i = 0 ; i < array.length ; i++ ) {
+			array[i] = list.get(i);
+		}
+		return array;
+	}
+
+	private static boolean isLongKey(List<Attribute> attributes, int[] fields) {
+		if ( fields.length != 1 ) {
+			return false ;
+		}
+		NeutralTypeCode code = attributes.get(fields[0]).getNeutralTypeCode();
+		return code == NeutralTypeCode.BYTE || code == NeutralTypeCode.SHORT 
+				|| code == NeutralTypeCode.INTEGER || code == NeutralTypeCode.LONG ;
+	}
+
+	static List<ForeignKeyAttribute> sortedAttributes(ForeignKey fk) {
+		List<ForeignKeyAttribute> list = new ArrayList<>(fk.getAttributes());
+		list.sort(Comparator.comparingInt(ForeignKeyAttribute::getOrdinal));
+		return list;
+	}
+
+	//-------------------------------------------------------------------------------------
+	// Package-level (used by 'ModelRepository' and 'ForeignKeyLink')
+	//-------------------------------------------------------------------------------------
+	MultiIndex getForeignKeyIndex(String foreignKeyName) {
+		return foreignKeyIndexes.get(foreignKeyName);
+	}
+
+	/**
+	 * Returns the unique indexes with the primary key index first
+	 * @return
+	 */
+	List<UniqueIndex> getUniqueIndexes() {
+		List<UniqueIndex> list = new ArrayList<>(uniqueIndexes.size() + 1);
+		if ( primaryIndex != null ) {
+			list.add(primaryIndex);
+		}
+		list.addAll(uniqueIndexes.values());
+		return list;
+	}
+
+	void addOutgoingLink(ForeignKeyLink link) {
+		outgoingLinks.add(link);
+	}
+
+	void addIncomingLink(ForeignKeyLink link) {
+		incomingLinks.add(link);
+	}
+
+	/**
+	 * Returns the stored records (without copy, lock held by the caller)
+	 * @return
+	 */
+	List<Object[]> records() {
+		if ( primaryIndex == null ) {
+			return unkeyedRecords ;
+		}
+		List<Object[]> list = new ArrayList<>(primaryIndex.size());
+		primaryIndex.forEachValue(list::add);
+		return list;
+	}
+
+	void clearRecords() {
+		if ( primaryIndex != null ) {
+			primaryIndex.clear();
+		} else {
+			unkeyedRecords.clear();
+		}
+		uniqueIndexes.values().forEach(RecordIndex::clear);
+		foreignKeyIndexes.values().forEach(RecordIndex::clear);
+	}
+
+	//-------------------------------------------------------------------------------------
+	/**
+	 * Returns the entity of this repository
+	 * @return
+	 */
+	public Entity getEntity() {
+		return entity;
+	}
+
+	/**
+	 * Returns the position of the given attribute in the records
+	 * @param attributeName
+	 * @return
+	 */
+	public int getFieldIndex(String attributeName) {
+		Integer i = fieldIndexes.get(attributeName);
+		if ( i == null ) {
+			throw new IllegalArgumentException("Unknown attribute '" + attributeName + "' in entity '" + entity.getClassName() + "'");
+		}
+		return i;
+	}
+
+	/**
+	 * Returns true if the entity has a primary key
+	 * @return
+	 */
+	public boolean hasPrimaryKey() {
+		return primaryIndex != null ;
+	}
+
+	/**
+	 * Returns the number of records
+	 * @return
+	 */
+	public int size() {
+		Lock r = lock.readLock();
+		r.lock();
+		try {
+			return primaryIndex != null ? primaryIndex.size() : unkeyedRecords.size() ;
+		} finally {
+			r.unlock();
+		}
+	}
+
+	/**
+	 * Inserts a new record 
+	 * @param record
+	 * @throws IllegalArgumentException if the record is invalid (size, null key)
+	 * @throws IllegalStateException if the key or a unique value already exists or if a referenced record doesn't exist
+	 */
+	public void insert(Object[] record) {
+		Object[] copy = checkedCopy(record);
+		Lock w = lock.writeLock();
+		w.lock();
+		try {
+			if ( primaryIndex != null && primaryIndex.getForRecord(copy) != null ) {
+				throw new IllegalStateException(entity.getClassName() + " : duplicate key");
+			}
+			checkUniqueValues(copy, null);
+			checkReferencedRecords(copy);
+			addToIndexes(copy);
+		} finally {
+			w.unlock();
+		}
+	}
+
+	/**
+	 * Updates an existing record (found by its primary key)
+	 * @param record
+	 * @throws IllegalArgumentException if the record is invalid (size, null key)
+	 * @throws IllegalStateException if the record doesn't exist, if a unique value already exists, <br>
+	 *   if a referenced record doesn't exist or if a referenced value is changed while still referenced 
+	 */
+	public void update(Object[] record) {
+		checkPrimaryKey();
+		Object[] copy = checkedCopy(record);
+		Lock w = lock.writeLock();
+		w.lock();
+		try {
+			Object[] existing = primaryIndex.getForRecord(copy);
+			if ( existing == null ) {
+				throw new IllegalStateException(entity.getClassName() + " : record not found");
+			}
+			checkUniqueValues(copy, existing);
+			checkReferencedRecords(copy);
+			for ( ForeignKeyLink link : incomingLinks ) {
+				if ( !link.sameReferencedValues(existing, copy) && link.isReferenced(existing) ) {
+					throw new IllegalStateException(entity.getClassName() + " : referenced value changed (" + link.getName() + ")");
+				}
+			}
+			removeFromIndexes(existing);
+			addToIndexes(copy);
+		} finally {
+			w.unlock();
+		}
+	}
+
+	/**
+	 * Deletes the record with the given key
+	 * @param keyValues the primary key values (in the order of the key attributes)
+	 * @return true if deleted, false if not found
+	 * @throws IllegalStateException if the record is referenced by other records
+	 */
+	public boolean delete(Object... keyValues) {
+		checkPrimaryKey();
+		Lock w = lock.writeLock();
+		w.lock();
+		try {
+			Object[] existing = primaryIndex.getForKey(keyValues);
+			if ( existing == null ) {
+				return false ;
+			}
+			for ( ForeignKeyLink link : incomingLinks ) {
+				if ( link.isReferenced(existing) ) {
+					throw new IllegalStateException(entity.getClassName() + " : record referenced by '" 
+							+ link.getChild().getEntity().getClassName() + "' (" + link.getName() + ")");
+				}
+			}
+			removeFromIndexes(existing);
+			return true ;
+		} finally {
+			w.unlock();
+		}
+	}
+
+	/**
+	 * Deletes all the records 
+	 * @throws IllegalStateException if a record is referenced by records of other entities
+	 */
+	public void clear() {
+		Lock w = lock.writeLock();
+		w.lock();
+		try {
+			for ( ForeignKeyLink link : incomingLinks ) {
+				if ( link.getChild() != this && link.hasReferences() ) {
+					throw new IllegalStateException(entity.getClassName() + " : records referenced by '" 
+							+ link.getChild().getEntity().getClassName() + "' (" + link.getName() + ")");
+				}
+			}
+			clearRecords();
+		} finally {
+			w.unlock();
+		}
+	}
+
+	/**
+	 * Returns the record with the given key (or null if none)
+	 * @param keyValues the primary key values (in the order of the key attributes)
+	 * @return
+	 */
+	public Object[] findByKey(Object... keyValues) {
+		checkPrimaryKey();
+		Lock r = lock.readLock();
+		r.lock();
+		try {
+			return copy(primaryIndex.getForKey(keyValues));
+		} finally {
+			r.unlock();
+		}
+	}
+
+	/**
+	 * Returns the record with the given key (or null if none) <br>
+	 * For a single integer key (no boxing)
+	 * @param key
+	 * @return
+	 */
+	public Object[] findByKey(long key) {
+		checkPrimaryKey();
+		Lock r = lock.readLock();
+		r.lock();
+		try {
+			return copy(primaryIndex.getForLong(key));
+		} finally {
+			r.unlock();
+		}
+	}
+
+	/**
+	 * Returns the record with the given value for a unique attribute (or null if none)
+	 * @param attributeName
+	 * @param value
+	 * @return
+	 */
+	public Object[] findByUnique(String attributeName, Object value) {
+		UniqueIndex index = uniqueIndexes.get(attributeName);
+		if ( index == null ) {
+			if ( primaryIndex != null && primaryIndex.getFields().length == 1 
+					&& primaryIndex.getFields()[0] == getFieldIndex(attributeName) ) {
+				index = primaryIndex ;
+			}
+			else {
+				throw new IllegalArgumentException("No unique index for '" + attributeName + "' in entity '" + entity.getClassName() + "'");
+			}
+		}
+		Lock r = lock.readLock();
+		r.lock();
+		try {
+			return copy(index.getForKey(new Object[] { value }));
+		} finally {
+			r.unlock();
+		}
+	}
+
+	/**
+	 * Returns the records referencing the given values with the given foreign key 
+	 * @param foreignKeyName
+	 * @param referencedValues the values of the FK attributes (in the order of the FK)
+	 * @return
+	 */
+	public List<Object[]> findByForeignKey(String foreignKeyName, Object... referencedValues) {
+		MultiIndex index = foreignKeyIndexes.get(foreignKeyName);
+		if ( index == null ) {
+			throw new IllegalArgumentException("Unknown foreign key '" + foreignKeyName + "' in entity '" + entity.getClassName() + "'");
+		}
+		Lock r = lock.readLock();
+		r.lock();
+		try {
+			List<Object[]> records = index.getForKey(referencedValues);
+			return records != null ? copyAll(records) : Collections.emptyList() ;
+		} finally {
+			r.unlock();
+		}
+	}
+
+	/**
+	 * Returns all the records (no specific order)
+	 * @return
+	 */
+	public List<Object[]> findAll() {
+		Lock r = lock.readLock();
+		r.lock();
+		try {
+			return copyAll(records());
+		} finally {
+			r.unlock();
+		}
+	}
+
+	//-------------------------------------------------------------------------------------
+	private void checkPrimaryKey() {
+		if ( primaryIndex == null ) {
+			throw new IllegalStateException(entity.getClassName() + " : no primary key");
+		}
+	}
+
+	private Object[] checkedCopy(Object[] record) {
+		if ( record == null || record.length != fieldCount ) {
+			throw new IllegalArgumentException(entity.getClassName() + " : invalid record (" + fieldCount + " values expected)");
+		}
+		Object[] copy = record.clone();
+		if ( primaryIndex != null && primaryIndex.hasNullKey(copy) ) {
+			throw new IllegalArgumentException(entity.getClassName() + " : null key");
+		}
+		return copy ;
+	}
+
+	private void checkUniqueValues(Object[] record, Object[] current) {
+		for ( UniqueIndex index : uniqueIndexes.values() ) {
+			if ( index.isDuplicate(record, current) ) {
+				throw new IllegalStateException(entity.getClassName() + " : duplicate value for '" + index.getName() + "'");
+			}
+		}
+	}
+
+	private void checkReferencedRecords(Object[] record) {
+		for ( ForeignKeyLink link : outgoingLinks ) {
+			if ( link.isSet(record) 
+					&& !( link.getParent() == this && link.references(record, record) ) // self reference
+					&& link.findParent(record) == null ) {
+				throw new IllegalStateException(entity.getClassName() + " : referenced record not found (" + link.getName() + ")");
+			}
+		}
+	}
+
+	private void addToIndexes(Object[] record) {
+		if ( primaryIndex != null ) {
+			primaryIndex.add(record);
+		} else {
+			unkeyedRecords.add(record);
+		}
+		for ( UniqueIndex index : uniqueIndexes.values() ) {
+			index.add(record);
+		}
+		for ( MultiIndex index : foreignKeyIndexes.values() ) {
+			index.add(record);
+		}
+	}
+
+	private void removeFromIndexes(Object[] record) {
+		primaryIndex.remove(record);
+		for ( UniqueIndex index : uniqueIndexes.values() ) {
+			index.remove(record);
+		}
+		for ( MultiIndex index : foreignKeyIndexes.values() ) {
+			index.remove(record);
+		}
+	}
+
+	private static Object[] copy(Object[] record) {
+		return record != null ? record.clone() : null ;
+	}
+
+	private static List<Object[]> copyAll(List<Object[]> records) {
+		List<Object[]> list = new ArrayList<>(records.size());
+		for ( Object[] record : records ) {
+			list.add(record.clone());
+		}
+		return list;
+	}
+}
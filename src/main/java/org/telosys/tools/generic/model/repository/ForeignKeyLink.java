@@ -0,0 +1,189 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.repository;
+
+import java.util.List;
+
+/**
+ * Foreign key between two repositories (child --> parent) <br>
+ * The parent record is found with the primary key index or a unique index when the <br>
+ * referenced attributes match the index fields, otherwise by a scan.
+ * 
+ * @since 4.2.0
+ */
+final class ForeignKeyLink {
+
+	private final String name ;
+	private final EntityRepository child ;
+	private final MultiIndex childIndex ;
+	private final EntityRepository parent ;
+	private final int[] parentFields ;
+	private final UniqueIndex parentIndex ;
+	private final int[] parentIndexOrder ; // parentIndexOrder[j] = position in FK of the j-th index field
+
+	ForeignKeyLink(EntityRepository child, MultiIndex childIndex, EntityRepository parent, int[] parentFields) {
+		super();
+		this.name = childIndex.getName();
+		this.child = child;
+		this.childIndex = childIndex;
+		this.parent = parent;
+		this.parentFields = parentFields;
+		UniqueIndex index = null ;
+		int[] order = null ;
+		for ( UniqueIndex candidate : parent.getUniqueIndexes() ) {
+			order = match(candidate.getFields(), parentFields);
+			if ( order != null ) {
+				index = candidate ;
+				break;
+			}
+		}
+		this.parentIndex = index ;
+		this.parentIndexOrder = order ;
+	}
+
+	private static int[] match(int[] indexFields, int[] fkFields) {
+		if ( indexFields.length != fkFields.length ) {
+			return null ;
+		}
+		int[] order = new int[indexFields.length];
+		for ( int j = 0 ; j < indexFields.length ; j++ ) {
+			order[j] = -1 ;
+			for ( int i = 0 ; i < fkFields.length ; i++ ) {
+				if ( fkFields[i] == indexFields[j] ) {
+					order[j] = i ;
+				}
+			}
+			if ( order[j] < 0 ) {
+				return null ;
+			}
+		}
+		return order ;
+	}
+
+	String getName() {
+		return name;
+	}
+
+	EntityRepository getChild() {
+		return child;
+	}
+
+	EntityRepository getParent() {
+		return parent;
+	}
+
+	boolean isIndexed() {
+		return parentIndex != null ;
+	}
+
+	/**
+	 * Returns true if the FK fields of the given child record are all set 
+	 * @param childRecord
+	 * @return
+	 */
+	boolean isSet(Object[] childRecord) {
+		return !childIndex.hasNullKey(childRecord);
+	}
+
+	/**
+	 * Returns true if the child record references the parent record 
+	 * @param childRecord
+	 * @param parentRecord
+	 * @return
+	 */
+	boolean references(Object[] childRecord, Object[] parentRecord) {
+		int[] childFields = childIndex.getFields();
+		for ( int i = 0 ; i < childFields.length ; i++ ) {
+			if ( !same(childRecord[childFields[i]], parentRecord[parentFields[i]]) ) {
+				return false ;
+			}
+		}
+		return true ;
+	}
+
+	/**
+	 * Returns true if the referenced values are the same in the two versions of a parent record
+	 * @param parentRecord1
+	 * @param parentRecord2
+	 * @return
+	 */
+	boolean sameReferencedValues(Object[] parentRecord1, Object[] parentRecord2) {
+		for ( int f : parentFields ) {
+			if ( !same(parentRecord1[f], parentRecord2[f]) ) {
+				return false ;
+			}
+		}
+		return true ;
+	}
+
+	private static boolean same(Object v1, Object v2) {
+		if ( v1 == null || v2 == null ) {
+			return v1 == v2 ;
+		}
+		return RecordIndex.normalize(v1).equals(RecordIndex.normalize(v2));
+	}
+
+	/**
+	 * Returns the parent record referenced by the given child record (or null if none)
+	 * @param childRecord
+	 * @return
+	 */
+	Object[] findParent(Object[] childRecord) {
+		if ( parentIndex != null ) {
+			int[] childFields = childIndex.getFields();
+			Object[] keyValues = new Object[parentIndexOrder.length];
+			for ( int j = 0 ; j < keyValues.length ; j++ ) {
+				keyValues[j] = childRecord[childFields[parentIndexOrder[j]]];
+			}
+			return parentIndex.getForKey(keyValues);
+		}
+		for ( Object[] parentRecord : parent.records() ) {
+			if ( references(childRecord, parentRecord) ) {
+				return parentRecord ;
+			}
+		}
+		return null ;
+	}
+
+	/**
+	 * Returns true if the given parent record is referenced by a child record (other than itself)
+	 * @param parentRecord
+	 * @return
+	 */
+	boolean isReferenced(Object[] parentRecord) {
+		Object[] keyValues = new Object[parentFields.length];
+		for ( int i = 0 ; i < parentFields.length ; i++ ) {
+			keyValues[i] = parentRecord[parentFields[i]];
+		}
+		List<Object[]> children = childIndex.getForKey(keyValues);
+		if ( children != null ) {
+			for ( Object[] childRecord : children ) {
+				if ( childRecord != parentRecord ) {
+					return true ;
+				}
+			}
+		}
+		return false ;
+	}
+
+	/**
+	 * Returns true if at least one child record references a parent record
+	 * @return
+	 */
+	boolean hasReferences() {
+		return childIndex.size() > 0 ;
+	}
+}
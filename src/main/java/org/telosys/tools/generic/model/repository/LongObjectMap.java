@@ -0,0 +1,163 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.repository;
+
+import java.util.function.Consumer;
+
+/**
+ * Map with primitive 'long' keys (no boxing) <br>
+ * Open addressing with linear probing, removal by backward shift (no tombstones). <br>
+ * Null values are not allowed (null = free slot). <br>
+ * Not thread-safe
+ * 
+ * @param <V>
+ * @since 4.2.0
+ */
+final class LongObjectMap<V> {
+
+	private static final int MIN_CAPACITY = 16 ;
+
+	private long[] keys ;
+	private Object[] values ;
+	private int mask ;
+	private int size = 0 ;
+
+	LongObjectMap() {
+		super();
+		allocate(MIN_CAPACITY);
+	}
+
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		values = new Object[capacity];
+		mask = capacity - 1 ;
+	}
+
+	private static int hash(long key) {
+		long h = key * 0x9E3779B97F4A7C15L ;
+		return (int) ( h ^ ( h >>> 32 ) );
+	}
+
+	int size() {
+		return size;
+	}
+
+	@SuppressWarnings("unchecked")
+	V get(long key) {
+		int i = hash(key) & mask ;
+		while ( values[i] != null ) {
+			if ( keys[i] == key ) {
+				return (V) values[i];
+			}
+			i = ( i + 1 ) & mask ;
+		}
+		return null ;
+	}
+
+	/**
+	 * Puts a value 
+	 * @param key
+	 * @param value (not null)
+	 * @return the previous value or null
+	 */
+	@SuppressWarnings("unchecked")
+	V put(long key, V value) {
+		int i = hash(key) & mask ;
+		while ( values[i] != null ) {
+			if ( keys[i] == key ) {
+				V previous = (V) values[i];
+				values[i] = value ;
+				return previous ;
+			}
+			i = ( i + 1 ) & mask ;
+		}
+		keys[i] = key ;
+		values[i] = value ;
+		size++ ;
+		if ( size * 4 > values.length * 3 ) { // load factor 0.75
+			rehash(values.length * 2);
+		}
+		return null ;
+	}
+
+	@SuppressWarnings("unchecked")
+	V remove(long key) {
+		int i = hash(key) & mask ;
+		while ( values[i] != null ) {
+			if ( keys[i] == key ) {
+				V previous = (V) values[i];
+				shiftBack(i);
+				size-- ;
+				return previous ;
+			}
+			i = ( i + 1 ) & mask ;
+		}
+		return null ;
+	}
+
+	/**
+	 * Backward shift deletion : moves the following entries of the cluster to keep the probing chains
+	 * @param free
+	 */
+	private void shiftBack(int free) {
+		int i = free ;
+		while ( true ) {
+			i = ( i + 1 ) & mask ;
+			if ( values[i] == null ) {
+				break;
+			}
+			int home = hash(keys[i]) & mask ;
+			// move the entry if its home slot is not in ] free, i ] (cyclic)
+			boolean between = free <= i ? ( free < home && home <= i ) : ( free < home || home <= i ) ;
+			if ( !between ) {
+				keys[free] = keys[i] ;
+				values[free] = values[i] ;
+				free = i ;
+			}
+		}
+		values[free] = null ;
+	}
+
+	private void rehash(int capacity) {
+		long[] oldKeys = keys ;
+		Object[] oldValues = values ;
+		allocate(capacity);
+		for ( int i = 0 ; i < oldValues.length ; i++ ) {
+			if ( oldValues[i] != null ) {
+				int j = hash(oldKeys[i]) & mask ;
+				while ( values[j] != null ) {
+					j = ( j + 1 ) & mask ;
+				}
+				keys[j] = oldKeys[i] ;
+				values[j] = oldValues[i] ;
+			}
+		}
+	}
+
+	void clear() {
+		allocate(MIN_CAPACITY);
+		size = 0 ;
+	}
+
+	@SuppressWarnings("unchecked")
+	void forEachValue(Consumer<? super V> action) {
+		for ( Object value : values ) {
+			if ( value != null ) {
+				action.accept((V) value);
+			}
+		}
+	}
+}
@@ -0,0 +1,131 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.repository;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.ForeignKey;
+import org.telosys.tools.generic.model.ForeignKeyAttribute;
+import org.telosys.tools.generic.model.Model;
+
+/**
+ * In-memory store for the entities of a model <br>
+ * By default only the entities flagged 'isInMemoryRepository' are stored. <br>
+ * Foreign keys between stored entities are checked : <br>
+ *  . insert/update : the referenced record must exist <br>
+ *  . delete : the record must not be referenced (restrict) <br>
+ * All the repositories share the same read/write lock (no deadlock between repositories)
+ * 
+ * @since 4.2.0
+ */
+public final class ModelRepository {
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Map<String, EntityRepository> repositories = new LinkedHashMap<>();
+
+	/**
+	 * Constructor : repositories for the entities flagged 'isInMemoryRepository'
+	 * @param model
+	 */
+	public ModelRepository(Model model) {
+		this(model, false);
+	}
+
+	/**
+	 * Returns a new store with a repository for each entity of the model 
+	 * @param model
+	 * @return
+	 */
+	public static ModelRepository forAllEntities(Model model) {
+		return new ModelRepository(model, true);
+	}
+
+	private ModelRepository(Model model, boolean allEntities) {
+		super();
+		if ( model == null ) {
+			throw new IllegalArgumentException("Model is null");
+		}
+		for ( Entity entity : model.getEntities() ) {
+			if ( allEntities || entity.isInMemoryRepository() ) {
+				repositories.put(entity.getClassName(), new EntityRepository(entity, lock));
+			}
+		}
+		//--- Links between repositories (FK to an entity not stored => no check)
+		for ( EntityRepository child : repositories.values() ) {
+			for ( ForeignKey fk : child.getEntity().getForeignKeys() ) {
+				EntityRepository parent = repositories.get(fk.getReferencedEntityName());
+				if ( parent != null ) {
+					List<ForeignKeyAttribute> fkAttributes = EntityRepository.sortedAttributes(fk);
+					int[] parentFields = new int[fkAttributes.size()];
+					for ( int i = 0 ; i < parentFields.length ; i++ ) {
+						parentFields[i] = parent.getFieldIndex(fkAttributes.get(i).getReferencedAttributeName());
+					}
+					ForeignKeyLink link = new ForeignKeyLink(child, child.getForeignKeyIndex(fk.getName()), parent, parentFields);
+					child.addOutgoingLink(link);
+					parent.addIncomingLink(link);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns true if the given entity is stored
+	 * @param entityClassName
+	 * @return
+	 */
+	public boolean hasRepository(String entityClassName) {
+		return repositories.containsKey(entityClassName);
+	}
+
+	/**
+	 * Returns the repository for the given entity 
+	 * @param entityClassName
+	 * @return
+	 */
+	public EntityRepository getRepository(String entityClassName) {
+		EntityRepository repository = repositories.get(entityClassName);
+		if ( repository == null ) {
+			throw new IllegalArgumentException("No repository for entity '" + entityClassName + "'");
+		}
+		return repository;
+	}
+
+	/**
+	 * Returns the class names of the stored entities
+	 * @return
+	 */
+	public Set<String> getEntityNames() {
+		return Collections.unmodifiableSet(repositories.keySet());
+	}
+
+	/**
+	 * Deletes all the records of all the repositories
+	 */
+	public void clear() {
+		lock.writeLock().lock();
+		try {
+			repositories.values().forEach(EntityRepository::clearRecords);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+}
@@ -0,0 +1,69 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Non unique index : list of records per key (foreign keys)
+ * 
+ * @since 4.2.0
+ */
+final class MultiIndex extends RecordIndex<List<Object[]>> {
+
+	MultiIndex(String name, int[] fields, boolean longKey) {
+		super(name, fields, longKey);
+	}
+
+	void add(Object[] record) {
+		if ( !hasNullKey(record) ) {
+			List<Object[]> list = getForRecord(record);
+			if ( list == null ) {
+				list = new ArrayList<>(2);
+				setForRecord(record, list);
+			}
+			list.add(record);
+		}
+	}
+
+	void remove(Object[] record) {
+		if ( !hasNullKey(record) ) {
+			List<Object[]> list = getForRecord(record);
+			if ( list != null ) {
+				for ( int i = 0 ; i < list.size() ; i++ ) {
+					if ( list.get(i) == record ) {
+						list.remove(i);
+						break;
+					}
+				}
+				if ( list.isEmpty() ) {
+					setForRecord(record, null);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of records with the given key values
+	 * @param keyValues
+	 * @return
+	 */
+	int count(Object[] keyValues) {
+		List<Object[]> list = getForKey(keyValues);
+		return list != null ? list.size() : 0 ;
+	}
+}
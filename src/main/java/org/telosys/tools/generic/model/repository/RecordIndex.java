@@ -0,0 +1,220 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.repository;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Hash index on one or more fields of the records <br>
+ * A single integer field ( byte, short, int, long ) is indexed in a primitive 'long' map, <br>
+ * other keys in a HashMap ( normalized value or composite key ). <br>
+ * Records with a null value in the key fields are not indexed. <br>
+ * Not thread-safe (the repository lock is used)
+ * 
+ * @param <V>
+ * @since 4.2.0
+ */
+abstract class RecordIndex<V> {
+
+	private final String name ;
+	private final int[] fields ;
+	private final LongObjectMap<V> longMap ;
+	private final Map<Object, V> map ;
+
+	RecordIndex(String name, int[] fields, boolean longKey) {
+		super();
+		this.name = name;
+		this.fields = fields;
+		this.longMap = longKey ? new LongObjectMap<>() : null ;
+		this.map = longKey ? null : new HashMap<>() ;
+	}
+
+	String getName() {
+		return name;
+	}
+
+	int[] getFields() {
+		return fields;
+	}
+
+	boolean isLongKey() {
+		return longMap != null ;
+	}
+
+	/**
+	 * Returns true if a key field of the record is null 
+	 * @param record
+	 * @return
+	 */
+	boolean hasNullKey(Object[] record) {
+		for ( int f : fields ) {
+			if ( record[f] == null ) {
+				return true ;
+			}
+		}
+		return false ;
+	}
+
+	/**
+	 * Returns the value for the key of the given record 
+	 * @param record
+	 * @return
+	 */
+	V getForRecord(Object[] record) {
+		if ( longMap != null ) {
+			return longMap.get(toLong(record[fields[0]]));
+		}
+		return map.get(key(record, true));
+	}
+
+	/**
+	 * Returns the value for the given key values (same order as the fields)
+	 * @param keyValues
+	 * @return
+	 */
+	V getForKey(Object[] keyValues) {
+		if ( keyValues.length != fields.length ) {
+			throw new IllegalArgumentException("Index '" + name + "' : " + fields.length + " key value(s) expected");
+		}
+		for ( Object v : keyValues ) {
+			if ( v == null ) {
+				return null ;
+			}
+		}
+		if ( longMap != null ) {
+			return longMap.get(toLong(keyValues[0]));
+		}
+		return map.get(key(keyValues, false));
+	}
+
+	V getForLong(long key) {
+		if ( longMap == null ) {
+			throw new IllegalStateException("Index '" + name + "' : not a single integer key");
+		}
+		return longMap.get(key);
+	}
+
+	/**
+	 * Sets (or removes if null) the value for the key of the given record
+	 * @param record
+	 * @param value
+	 */
+	void setForRecord(Object[] record, V value) {
+		if ( longMap != null ) {
+			long key = toLong(record[fields[0]]);
+			if ( value != null ) {
+				longMap.put(key, value);
+			} else {
+				longMap.remove(key);
+			}
+		}
+		else {
+			Object key = key(record, true);
+			if ( value != null ) {
+				map.put(key, value);
+			} else {
+				map.remove(key);
+			}
+		}
+	}
+
+	int size() {
+		return longMap != null ? longMap.size() : map.size() ;
+	}
+
+	void clear() {
+		if ( longMap != null ) {
+			longMap.clear();
+		} else {
+			map.clear();
+		}
+	}
+
+	void forEachValue(Consumer<? super V> action) {
+		if ( longMap != null ) {
+			longMap.forEachValue(action);
+		} else {
+			map.values().forEach(action);
+		}
+	}
+
+	//-------------------------------------------------------------------------------------
+	private Object key(Object[] source, boolean record) {
+		if ( fields.length == 1 ) {
+			return normalize(record ? source[fields[0]] : source[0]);
+		}
+		Object[] values = new Object[fields.length];
+		for ( int i = 0 ; i < fields.length ; i++ ) {
+			values[i] = normalize(record ? source[fields[i]] : source[i]);
+		}
+		return new CompositeKey(values);
+	}
+
+	private long toLong(Object value) {
+		if ( value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte ) {
+			return ((Number) value).longValue();
+		}
+		throw new IllegalArgumentException("Index '" + name + "' : integer value expected (" 
+				+ ( value != null ? value.getClass().getSimpleName() : "null" ) + ")");
+	}
+
+	/**
+	 * Normalizes a key value : same key for equal numbers of different types ( 1, 1L, 1.0 BigDecimal )
+	 * @param value
+	 * @return
+	 */
+	static Object normalize(Object value) {
+		if ( value instanceof Integer || value instanceof Short || value instanceof Byte ) {
+			return ((Number) value).longValue();
+		}
+		if ( value instanceof BigDecimal ) {
+			BigDecimal bd = ((BigDecimal) value).stripTrailingZeros();
+			if ( bd.scale() <= 0 && bd.precision() - bd.scale() < 19 ) { // integer value in 'long' range
+				return bd.longValueExact();
+			}
+			return bd ;
+		}
+		if ( value instanceof BigInteger && ((BigInteger) value).bitLength() < 64 ) {
+			return ((BigInteger) value).longValue();
+		}
+		return value ;
+	}
+
+	/**
+	 * Composite key 
+	 */
+	private static final class CompositeKey {
+		private final Object[] values ;
+		private final int hash ;
+		CompositeKey(Object[] values) {
+			this.values = values;
+			this.hash = Arrays.hashCode(values);
+		}
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof CompositeKey && Arrays.equals(values, ((CompositeKey) obj).values);
+		}
+	}
+}
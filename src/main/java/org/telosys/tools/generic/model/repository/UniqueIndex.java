@@ -0,0 +1,54 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.repository;
+
+/**
+ * Unique index : one record per key (primary key or unique attribute)
+ * 
+ * @since 4.2.0
+ */
+final class UniqueIndex extends RecordIndex<Object[]> {
+
+	UniqueIndex(String name, int[] fields, boolean longKey) {
+		super(name, fields, longKey);
+	}
+
+	/**
+	 * Returns true if another record has the same key as the given record
+	 * @param record
+	 * @param current the record to ignore (updated record) or null
+	 * @return
+	 */
+	boolean isDuplicate(Object[] record, Object[] current) {
+		if ( hasNullKey(record) ) {
+			return false ;
+		}
+		Object[] existing = getForRecord(record);
+		return existing != null && existing != current ;
+	}
+
+	void add(Object[] record) {
+		if ( !hasNullKey(record) ) {
+			setForRecord(record, record);
+		}
+	}
+
+	void remove(Object[] record) {
+		if ( !hasNullKey(record) && getForRecord(record) == record ) {
+			setForRecord(record, null);
+		}
+	}
+}
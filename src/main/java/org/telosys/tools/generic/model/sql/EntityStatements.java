@@ -0,0 +1,367 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.sql;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.telosys.tools.generic.model.Attribute;
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.ForeignKey;
+import org.telosys.tools.generic.model.ForeignKeyAttribute;
+import org.telosys.tools.generic.model.enums.BooleanValue;
+import org.telosys.tools.generic.model.enums.GeneratedValueStrategy;
+
+/**
+ * Precomputed SQL statements for an entity (for a dialect) <br>
+ * Columns : <br>
+ *  . transient attributes are ignored <br>
+ *  . insert : not 'insertable=false' and not generated by an identity column <br>
+ *  . update : not 'updatable=false' and not in the primary key <br>
+ * The statements by key (update, delete, select) require a primary key. <br>
+ * Immutable (the multi-row inserts for partial batches are computed on first use) 
+ * 
+ * @since 4.2.0
+ */
+public final class EntityStatements {
+
+	private static final int[] NO_FIELDS = new int[0];
+
+	private final String entityName ;
+	private final SqlDialect dialect ;
+	private final String table ;
+	private final String[] columns ; // quoted column for each field (null if transient)
+	private final int[] insertFields ;
+	private final int[] selectFields ;
+	private final int batchSize ;
+
+	private final SqlStatement insert ;
+	private final SqlStatement batchInsert ;
+	private final SqlStatement update ; // null if no key or no column to update
+	private final SqlStatement delete ; // null if no key
+	private final SqlStatement selectByKey ; // null if no key
+	private final SqlStatement selectAll ;
+	private final Map<String, SqlStatement> selectByForeignKey = new LinkedHashMap<>();
+	private final Map<Integer, SqlStatement> partialBatchInserts = new ConcurrentHashMap<>();
+
+	EntityStatements(Entity entity, SqlDialect dialect, int batchSize) {
+		super();
+		this.entityName = entity.getClassName();
+		this.dialect = dialect;
+		this.table = tableName(entity, dialect);
+		List<Attribute> attributes = entity.getAttributes();
+		columns = new String[attributes.size()];
+		List<Integer> insertList = new ArrayList<>();
+		List<Integer> updateList = new ArrayList<>();
+		List<Integer> keyList = new ArrayList<>();
+		List<Integer> selectList = new ArrayList<>();
+		for ( int i = 0 ; i < columns.length ; i++ ) {
+			Attribute attribute = attributes.get(i);
+			if ( attribute.isTransient() ) {
+				continue;
+			}
+			String name = attribute.getDatabaseName() != null && !attribute.getDatabaseName().isEmpty() 
+					? attribute.getDatabaseName() : attribute.getName() ;
+			columns[i] = dialect.quote(name);
+			selectList.add(i);
+			boolean identity = attribute.isGeneratedValue() 
+					&& attribute.getGeneratedValueStrategy() == GeneratedValueStrategy.IDENTITY ;
+			if ( attribute.getInsertable() != BooleanValue.FALSE && !identity ) {
+				insertList.add(i);
+			}
+			if ( attribute.isKeyElement() ) {
+				keyList.add(i);
+			}
+			else if ( attribute.getUpdatable() != BooleanValue.FALSE ) {
+				updateList.add(i);
+			}
+		}
+		insertFields = toArray(insertList);
+		selectFields = toArray(selectList);
+		int[] keyFields = toArray(keyList);
+		int[] updateFields = toArray(updateList);
+		//--- Batch size limited by the max number of parameters
+		int size = insertFields.length > 0 ? Math.min(batchSize, dialect.getMaxParameters() / insertFields.length) : 1 ;
+		this.batchSize = Math.max(1, size);
+		//--- Statements
+		insert = buildInsert(1);
+		batchInsert = this.batchSize > 1 ? buildInsert(this.batchSize) : insert ;
+		String select = "SELECT " + columnList(selectFields) + " FROM " + table ;
+		selectAll = new SqlStatement(select, NO_FIELDS, 1, selectFields);
+		if ( keyFields.length > 0 ) {
+			String where = " WHERE " + conditions(keyFields);
+			delete = new SqlStatement("DELETE FROM " + table + where, keyFields, 1, NO_FIELDS);
+			selectByKey = new SqlStatement(select + where, keyFields, 1, selectFields);
+			if ( updateFields.length > 0 ) {
+				int[] parameters = new int[updateFields.length + keyFields.length];
+				System.arraycopy(updateFields, 0, parameters, 0, updateFields.length);
+				System.arraycopy(keyFields, 0, parameters, updateFields.length, keyFields.length);
+				update = new SqlStatement("UPDATE " + table + " SET " + join(updateFields, " = ?", ", ") + where, parameters, 1, NO_FIELDS);
+			}
+			else {
+				update = null ;
+			}
+		}
+		else {
+			delete = null ;
+			selectByKey = null ;
+			update = null ;
+		}
+		for ( ForeignKey fk : entity.getForeignKeys() ) {
+			List<ForeignKeyAttribute> fkAttributes = new ArrayList<>(fk.getAttributes());
+			fkAttributes.sort((a, b) -> Integer.compare(a.getOrdinal(), b.getOrdinal()));
+			int[] fkFields = new int[fkAttributes.size()];
+			for ( int i = 0 ; i < fkFields.length ; i++ ) {
+				fkFields[i] = indexOf(attributes, fkAttributes.get(i).getOriginAttributeName());
+			}
+			selectByForeignKey.put(fk.getName(), new SqlStatement(select + " WHERE " + conditions(fkFields), fkFields, 1, selectFields));
+		}
+	}
+
+	private static String tableName(Entity entity, SqlDialect dialect) {
+		String table = entity.getDatabaseTable() != null && !entity.getDatabaseTable().isEmpty() 
+				? entity.getDatabaseTable() : entity.getClassName() ;
+		String schema = entity.getDatabaseSchema();
+		return schema != null && !schema.isEmpty() ? dialect.quote(schema) + "." + dialect.quote(table) : dialect.quote(table) ;
+	}
+
+	private int indexOf(List<Attribute> attributes, String attributeName) {
+		for ( int i = 0 ; i < attributes.size() ; i++ ) {
+			if ( attributes.get(i).getName().equals(attributeName) && columns[i] != null ) {
+				return i ;
+			}
+		}
+		throw new IllegalArgumentException("Entity '" + entityName + "' : no column for FK attribute '" + attributeName + "'");
+	}
+
+	private static int[] toArray(List<Integer> list) {
+		int[] array = new int[list.size()];
+		for ( int i = 0 ; i < array.length ; i++ ) {
+			array[i] = list.get(i);
+		}
+		return array;
+	}
+
+	private String join(int[] fields, String suffix, String separator) {
+		StringBuilder sb = new StringBuilder();
+		for ( int i = 0 ; i < fields.length ; i++ ) {
+			if ( i > 0 ) {
+				sb.append(separator);
+			}
+			sb.append(columns[fields[i]]).append(suffix);
+		}
+		return sb.toString();
+	}
+
+	private String columnList(int[] fields) {
+		return join(fields, "", ", ");
+	}
+
+	private String conditions(int[] fields) {
+		return join(fields, " = ?", " AND ");
+	}
+
+	private static String values(int count) {
+		StringBuilder sb = new StringBuilder("(");
+		for ( int i = 0 ; i < count ; i++ ) {
+			sb.append(i > 0 ? ", ?" : "?");
+		}
+		return sb.append(")").toString();
+	}
+
+	private SqlStatement buildInsert(int rows) {
+		StringBuilder sb = new StringBuilder();
+		if ( insertFields.length == 0 ) {
+			sb.append("INSERT INTO ").append(table).append(dialect == SqlDialect.MYSQL ? " () VALUES ()" : " DEFAULT VALUES");
+			return new SqlStatement(sb.toString(), NO_FIELDS, 1, NO_FIELDS);
+		}
+		String into = table + " (" + columnList(insertFields) + ")" ;
+		String values = values(insertFields.length);
+		if ( rows == 1 || dialect.isMultiRowValuesSupported() ) {
+			sb.append("INSERT INTO ").append(into).append(" VALUES ");
+			for ( int r = 0 ; r < rows ; r++ ) {
+				sb.append(r > 0 ? ", " : "").append(values);
+			}
+		}
+		else {
+			sb.append("INSERT ALL");
+			for ( int r = 0 ; r < rows ; r++ ) {
+				sb.append(" INTO ").append(into).append(" VALUES ").append(values);
+			}
+			sb.append(" SELECT 1 FROM DUAL");
+		}
+		return new SqlStatement(sb.toString(), insertFields, rows, NO_FIELDS);
+	}
+
+	//-------------------------------------------------------------------------------------
+	public String getEntityName() {
+		return entityName;
+	}
+
+	public SqlDialect getDialect() {
+		return dialect;
+	}
+
+	/**
+	 * Returns the table name (with schema if any, quoted if necessary)
+	 * @return
+	 */
+	public String getTableName() {
+		return table;
+	}
+
+	/**
+	 * Returns the column name for the given record field (or null if the attribute is transient)
+	 * @param field
+	 * @return
+	 */
+	public String getColumnName(int field) {
+		return columns[field];
+	}
+
+	/**
+	 * Returns the record fields of the selected columns (not transient attributes)
+	 * @return
+	 */
+	int[] getSelectFields() {
+		return selectFields;
+	}
+
+	/**
+	 * Returns the beginning of a select ( "SELECT columns FROM table" )
+	 * @return
+	 */
+	String getSelectClause() {
+		return selectAll.getSql();
+	}
+
+	public boolean hasPrimaryKey() {
+		return selectByKey != null ;
+	}
+
+	/**
+	 * Returns the number of rows of a full batch insert (configured size limited by the max number of parameters)
+	 * @return
+	 */
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	public SqlStatement getInsert() {
+		return insert;
+	}
+
+	/**
+	 * Returns the multi-row insert for a full batch ( getBatchSize() rows )
+	 * @return
+	 */
+	public SqlStatement getBatchInsert() {
+		return batchInsert;
+	}
+
+	/**
+	 * Returns the multi-row insert for the given number of rows ( 1 to getBatchSize() )
+	 * @param rows
+	 * @return
+	 */
+	public SqlStatement getBatchInsert(int rows) {
+		if ( rows < 1 || rows > batchSize ) {
+			throw new IllegalArgumentException("Invalid number of rows " + rows + " (batch size " + batchSize + ")");
+		}
+		if ( rows == batchSize ) {
+			return batchInsert ;
+		}
+		if ( rows == 1 ) {
+			return insert ;
+		}
+		return partialBatchInserts.computeIfAbsent(rows, this::buildInsert);
+	}
+
+	/**
+	 * Returns the update by primary key 
+	 * @return
+	 * @throws IllegalStateException if no primary key or no column to update
+	 */
+	public SqlStatement getUpdate() {
+		if ( update == null ) {
+			throw new IllegalStateException("Entity '" + entityName + "' : no update statement (no key or no updatable column)");
+		}
+		return update;
+	}
+
+	/**
+	 * Returns true if the update statement exists (primary key and at least one column to update)
+	 * @return
+	 */
+	public boolean hasUpdate() {
+		return update != null ;
+	}
+
+	/**
+	 * Returns the delete by primary key 
+	 * @return
+	 * @throws IllegalStateException if no primary key
+	 */
+	public SqlStatement getDelete() {
+		checkPrimaryKey();
+		return delete;
+	}
+
+	/**
+	 * Returns the select by primary key 
+	 * @return
+	 * @throws IllegalStateException if no primary key
+	 */
+	public SqlStatement getSelectByKey() {
+		checkPrimaryKey();
+		return selectByKey;
+	}
+
+	public SqlStatement getSelectAll() {
+		return selectAll;
+	}
+
+	/**
+	 * Returns the select by foreign key ( the parameters are the FK attributes )
+	 * @param foreignKeyName
+	 * @return
+	 */
+	public SqlStatement getSelectByForeignKey(String foreignKeyName) {
+		SqlStatement statement = selectByForeignKey.get(foreignKeyName);
+		if ( statement == null ) {
+			throw new IllegalArgumentException("Entity '" + entityName + "' : unknown foreign key '" + foreignKeyName + "'");
+		}
+		return statement;
+	}
+
+	/**
+	 * Returns the names of the foreign keys 
+	 * @return
+	 */
+	public List<String> getForeignKeyNames() {
+		return Collections.unmodifiableList(new ArrayList<>(selectByForeignKey.keySet()));
+	}
+
+	private void checkPrimaryKey() {
+		if ( selectByKey == null ) {
+			throw new IllegalStateException("Entity '" + entityName + "' : no primary key");
+		}
+	}
+}
@@ -0,0 +1,213 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.sql;
+
+/**
+ * Keyset pagination ("seek method") queries for an entity <br>
+ * The pages are ordered by the seek columns (unique combination of not null columns) and the next page <br>
+ * starts after the last row of the current page ( "WHERE (a, b) &gt; (?, ?) ORDER BY a, b" ) <br>
+ * so each page is read with an index range scan whatever its position (no OFFSET). <br>
+ * The parameters of 'next' and 'previous' are the seek values of the last/first row of the current page <br>
+ * ( see 'getSeekValues' ). The rows of 'previous' and 'last' are returned in reverse order. <br>
+ * Immutable
+ * 
+ * @since 4.2.0
+ */
+public final class KeysetPagination {
+
+	private final String entityName ;
+	private final int[] seekFields ;
+	private final String[] seekColumns ;
+	private final boolean descending ;
+	private final int pageSize ;
+	private final String orderBy ;
+	private final String reverseOrderBy ;
+	private final String afterPredicate ;
+	private final SqlStatement firstPage ;
+	private final SqlStatement lastPage ;
+	private final SqlStatement nextPage ;
+	private final SqlStatement previousPage ;
+
+	KeysetPagination(EntityStatements statements, int[] seekFields, boolean descending, int pageSize) {
+		super();
+		this.entityName = statements.getEntityName();
+		this.seekFields = seekFields;
+		this.descending = descending;
+		this.pageSize = pageSize;
+		this.seekColumns = new String[seekFields.length];
+		for ( int i = 0 ; i < seekFields.length ; i++ ) {
+			seekColumns[i] = statements.getColumnName(seekFields[i]);
+		}
+		SqlDialect dialect = statements.getDialect();
+		this.orderBy = orderBy(descending);
+		this.reverseOrderBy = orderBy(!descending);
+		String select = statements.getSelectClause();
+		int[] resultFields = statements.getSelectFields();
+		String limit = dialect.limit(pageSize);
+		int[] predicateFields = predicateFields(dialect);
+		this.afterPredicate = predicate(dialect, descending ? "<" : ">");
+		String beforePredicate = predicate(dialect, descending ? ">" : "<");
+		this.firstPage = new SqlStatement(select + " " + orderBy + limit, new int[0], 1, resultFields);
+		this.lastPage = new SqlStatement(select + " " + reverseOrderBy + limit, new int[0], 1, resultFields);
+		this.nextPage = new SqlStatement(select + " WHERE " + afterPredicate + " " + orderBy + limit, predicateFields, 1, resultFields);
+		this.previousPage = new SqlStatement(select + " WHERE " + beforePredicate + " " + reverseOrderBy + limit, predicateFields, 1, resultFields);
+	}
+
+	private String orderBy(boolean desc) {
+		StringBuilder sb = new StringBuilder("ORDER BY ");
+		for ( int i = 0 ; i < seekColumns.length ; i++ ) {
+			sb.append(i > 0 ? ", " : "").append(seekColumns[i]).append(desc ? " DESC" : "");
+		}
+		return sb.toString();
+	}
+
+	private boolean rowValue(SqlDialect dialect) {
+		return seekColumns.length == 1 || dialect.isRowValueComparisonSupported() ;
+	}
+
+	/**
+	 * Returns the seek predicate : <br>
+	 *  . row value comparison : "(a, b) &gt; (?, ?)" <br>
+	 *  . otherwise : "(a &gt; ? OR (a = ? AND b &gt; ?))"
+	 */
+	private String predicate(SqlDialect dialect, String operator) {
+		StringBuilder sb = new StringBuilder();
+		if ( seekColumns.length == 1 ) {
+			sb.append(seekColumns[0]).append(" ").append(operator).append(" ?");
+		}
+		else if ( rowValue(dialect) ) {
+			sb.append("(");
+			for ( int i = 0 ; i < seekColumns.length ; i++ ) {
+				sb.append(i > 0 ? ", " : "").append(seekColumns[i]);
+			}
+			sb.append(") ").append(operator).append(" (");
+			for ( int i = 0 ; i < seekColumns.length ; i++ ) {
+				sb.append(i > 0 ? ", ?" : "?");
+			}
+			sb.append(")");
+		}
+		else {
+			sb.append("(");
+			for ( int i = 0 ; i < seekColumns.length ; i++ ) {
+				if ( i > 0 ) {
+					sb.append(" OR (");
+					for ( int j = 0 ; j < i ; j++ ) {
+						sb.append(seekColumns[j]).append(" = ? AND ");
+					}
+					sb.append(seekColumns[i]).append(" ").append(operator).append(" ?)");
+				}
+				else {
+					sb.append(seekColumns[0]).append(" ").append(operator).append(" ?");
+				}
+			}
+			sb.append(")");
+		}
+		return sb.toString();
+	}
+
+	private int[] predicateFields(SqlDialect dialect) {
+		if ( rowValue(dialect) ) {
+			return seekFields ;
+		}
+		int[] fields = new int[seekFields.length * ( seekFields.length + 1 ) / 2];
+		int p = 0 ;
+		for ( int i = 0 ; i < seekFields.length ; i++ ) {
+			for ( int j = 0 ; j <= i ; j++ ) {
+				fields[p++] = seekFields[j];
+			}
+		}
+		return fields;
+	}
+
+	//-------------------------------------------------------------------------------------
+	public String getEntityName() {
+		return entityName;
+	}
+
+	public boolean isDescending() {
+		return descending;
+	}
+
+	public int getPageSize() {
+		return pageSize;
+	}
+
+	/**
+	 * Returns the record fields of the seek columns (in order)
+	 * @return
+	 */
+	public int[] getSeekFields() {
+		return seekFields.clone();
+	}
+
+	/**
+	 * Returns the seek values of the given record (in the order of the seek columns)
+	 * @param record
+	 * @return
+	 */
+	public Object[] getSeekValues(Object[] record) {
+		Object[] values = new Object[seekFields.length];
+		for ( int i = 0 ; i < values.length ; i++ ) {
+			values[i] = record[seekFields[i]];
+		}
+		return values;
+	}
+
+	/**
+	 * Returns the 'ORDER BY' clause (to add to a custom query)
+	 * @return
+	 */
+	public String getOrderBy() {
+		return orderBy;
+	}
+
+	/**
+	 * Returns the predicate for the rows after a given row (to add to a custom query) <br>
+	 * The parameters are the same as the 'next page' statement
+	 * @return
+	 */
+	public String getSeekPredicate() {
+		return afterPredicate;
+	}
+
+	public SqlStatement getFirstPage() {
+		return firstPage;
+	}
+
+	/**
+	 * Returns the last page statement (rows in reverse order)
+	 * @return
+	 */
+	public SqlStatement getLastPage() {
+		return lastPage;
+	}
+
+	/**
+	 * Returns the next page statement (parameters from the last row of the current page)
+	 * @return
+	 */
+	public SqlStatement getNextPage() {
+		return nextPage;
+	}
+
+	/**
+	 * Returns the previous page statement (parameters from the first row of the current page, rows in reverse order)
+	 * @return
+	 */
+	public SqlStatement getPreviousPage() {
+		return previousPage;
+	}
+}
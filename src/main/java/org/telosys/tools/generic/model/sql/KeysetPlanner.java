@@ -0,0 +1,152 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.sql;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.telosys.tools.generic.model.Attribute;
+import org.telosys.tools.generic.model.Entity;
+
+/**
+ * Plans the keyset pagination queries of the entities ( see KeysetPagination ) <br>
+ * The seek columns are : <br>
+ *  . the primary key attributes (in order) <br>
+ *  . or a unique attribute <br>
+ *  . or sort attributes followed by the primary key attributes (if none of them is unique) <br>
+ * Seek attributes must be not null (the order of nulls is not the same for all databases). <br>
+ * Thread-safe
+ * 
+ * @since 4.2.0
+ */
+public final class KeysetPlanner {
+
+	private final StatementPlanner statementPlanner ;
+	private final int pageSize ;
+
+	/**
+	 * Constructor
+	 * @param dialect
+	 * @param pageSize number of rows per page
+	 */
+	public KeysetPlanner(SqlDialect dialect, int pageSize) {
+		this(new StatementPlanner(dialect), pageSize);
+	}
+
+	/**
+	 * Constructor using the statements cache of the given planner
+	 * @param statementPlanner
+	 * @param pageSize number of rows per page
+	 */
+	public KeysetPlanner(StatementPlanner statementPlanner, int pageSize) {
+		super();
+		if ( pageSize < 1 ) {
+			throw new IllegalArgumentException("Invalid page size " + pageSize);
+		}
+		this.statementPlanner = statementPlanner;
+		this.pageSize = pageSize;
+	}
+
+	public SqlDialect getDialect() {
+		return statementPlanner.getDialect();
+	}
+
+	public int getPageSize() {
+		return pageSize;
+	}
+
+	/**
+	 * Returns the pagination by primary key 
+	 * @param entity
+	 * @param descending
+	 * @return
+	 */
+	public KeysetPagination byPrimaryKey(Entity entity, boolean descending) {
+		return bySortAttributes(entity, descending);
+	}
+
+	/**
+	 * Returns the pagination by the given unique attribute 
+	 * @param entity
+	 * @param attributeName
+	 * @param descending
+	 * @return
+	 */
+	public KeysetPagination byUnique(Entity entity, String attributeName, boolean descending) {
+		Attribute attribute = entity.getAttributeByName(attributeName);
+		if ( attribute == null || !attribute.isUnique() ) {
+			throw new IllegalArgumentException("Entity '" + entity.getClassName() + "' : '" + attributeName + "' is not a unique attribute");
+		}
+		return bySortAttributes(entity, descending, attributeName);
+	}
+
+	/**
+	 * Returns the pagination by the given attributes (the primary key is added if none of them is unique)
+	 * @param entity
+	 * @param descending
+	 * @param attributeNames
+	 * @return
+	 */
+	public KeysetPagination bySortAttributes(Entity entity, boolean descending, String... attributeNames) {
+		EntityStatements statements = statementPlanner.getStatements(entity);
+		List<Attribute> attributes = entity.getAttributes();
+		List<Integer> seekFields = new ArrayList<>();
+		boolean unique = false ;
+		for ( String name : attributeNames ) {
+			int field = indexOf(attributes, name);
+			if ( field < 0 ) {
+				throw new IllegalArgumentException("Entity '" + entity.getClassName() + "' : unknown attribute '" + name + "'");
+			}
+			Attribute attribute = attributes.get(field);
+			if ( statements.getColumnName(field) == null ) {
+				throw new IllegalArgumentException("Entity '" + entity.getClassName() + "' : transient attribute '" + name + "'");
+			}
+			if ( !attribute.isNotNull() && !attribute.isKeyElement() ) {
+				throw new IllegalArgumentException("Entity '" + entity.getClassName() + "' : nullable attribute '" + name + "'");
+			}
+			if ( seekFields.contains(field) ) {
+				throw new IllegalArgumentException("Entity '" + entity.getClassName() + "' : duplicated attribute '" + name + "'");
+			}
+			seekFields.add(field);
+			unique = unique || attribute.isUnique() ;
+		}
+		if ( !unique ) {
+			//--- primary key to have a unique position for each row
+			if ( !statements.hasPrimaryKey() ) {
+				throw new IllegalArgumentException("Entity '" + entity.getClassName() + "' : no primary key and no unique attribute");
+			}
+			for ( int field = 0 ; field < attributes.size() ; field++ ) {
+				if ( attributes.get(field).isKeyElement() && !seekFields.contains(field) ) {
+					seekFields.add(field);
+				}
+			}
+		}
+		int[] fields = new int[seekFields.size()];
+		for ( int i = 0 ; i < fields.length ; i++ ) {
+			fields[i] = seekFields.get(i);
+		}
+		return new KeysetPagination(statements, fields, descending, pageSize);
+	}
+
+	private static int indexOf(List<Attribute> attributes, String name) {
+		for ( int i = 0 ; i < attributes.size() ; i++ ) {
+			if ( attributes.get(i).getName().equals(name) ) {
+				return i ;
+			}
+		}
+		return -1 ;
+	}
+}
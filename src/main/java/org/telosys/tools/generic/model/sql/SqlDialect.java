@@ -0,0 +1,183 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.sql;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * SQL dialects supported by the statement planner <br>
+ * Differences : identifier quotes, multi-row insert syntax, max number of parameters per statement, <br>
+ * row value comparison ( "(a, b) &gt; (?, ?)" ) and clause to limit the number of rows
+ * 
+ * @since 4.2.0
+ */
+public enum SqlDialect {
+
+	STANDARD("\"", "\"", true, 32767, true, " FETCH FIRST %d ROWS ONLY", ""),
+	POSTGRESQL("\"", "\"", true, 32767, true, " LIMIT %d", 
+			"ANALYSE ANALYZE CONCURRENTLY DO FREEZE ILIKE ISNULL LIMIT NOTNULL PLACING RETURNING VARIADIC VERBOSE"),
+	MYSQL("`", "`", true, 65535, true, " LIMIT %d", 
+			"ACCESSIBLE DATABASE DATABASES DIV DUAL ENCLOSED EXPLAIN FULLTEXT IF IGNORE INDEX KEY KEYS KILL LIMIT "
+			+ "LINES LOAD LOCK LONG OPTIMIZE OPTION OUTFILE PURGE READ REGEXP RENAME REPLACE REQUIRE RESTRICT RLIKE "
+			+ "SCHEMA SCHEMAS SEPARATOR SHOW SPATIAL STARTING STRAIGHT_JOIN TERMINATED UNLOCK UNSIGNED USAGE USE "
+			+ "WRITE XOR ZEROFILL"),
+	SQLSERVER("[", "]", true, 2100, false, " OFFSET 0 ROWS FETCH NEXT %d ROWS ONLY", 
+			"BACKUP BREAK BROWSE BULK CHECKPOINT CLUSTERED COMPUTE CONTAINSTABLE DATABASE DBCC DENY DISK "
+			+ "DISTRIBUTED DUMP ERRLVL EXIT FILE FILLFACTOR FREETEXT FREETEXTTABLE HOLDLOCK IDENTITY_INSERT "
+			+ "IDENTITYCOL IF INDEX KEY KILL LINENO LOAD NOCHECK NONCLUSTERED OFF OFFSETS OPENDATASOURCE OPENQUERY "
+			+ "OPENROWSET OPENXML OPTION PIVOT PLAN PRINT PROC PUBLIC RAISERROR READTEXT RECONFIGURE REPLICATION "
+			+ "RESTORE RESTRICT REVERT ROWCOUNT ROWGUIDCOL RULE SAVE SCHEMA SECURITYAUDIT SETUSER SHUTDOWN "
+			+ "STATISTICS TEXTSIZE TOP TRAN TSEQUAL UNPIVOT UPDATETEXT USE VIEW WAITFOR WHILE WRITETEXT"),
+	ORACLE("\"", "\"", false, 65535, false, " FETCH FIRST %d ROWS ONLY", // multi-row insert with 'INSERT ALL'
+			"ACCESS AUDIT CLUSTER COMMENT COMPRESS EXCLUSIVE FILE IDENTIFIED INCREMENT INDEX INITIAL LEVEL LOCK "
+			+ "LONG MAXEXTENTS MINUS MLSLABEL MODE MODIFY NOAUDIT NOCOMPRESS NOWAIT NUMBER OFFLINE ONLINE OPTION "
+			+ "PCTFREE PRIOR PRIVILEGES PUBLIC RAW RENAME RESOURCE ROWID ROWNUM SESSION SHARE SIZE SYNONYM SYSDATE "
+			+ "UID VALIDATE VARCHAR2 VIEW"),
+	SQLITE("\"", "\"", true, 32766, true, " LIMIT %d", 
+			"ABORT AUTOINCREMENT GLOB INDEX INDEXED ISNULL LIMIT NOTNULL PRAGMA REGEXP VACUUM");
+
+	private final String openQuote ;
+	private final String closeQuote ;
+	private final boolean multiRowValues ;
+	private final int maxParameters ;
+	private final boolean rowValueComparison ;
+	private final String limitFormat ;
+	private final Set<String> reservedWords ; // in addition to the SQL:2011 reserved words
+
+	private SqlDialect(String openQuote, String closeQuote, boolean multiRowValues, int maxParameters, 
+			boolean rowValueComparison, String limitFormat, String reservedWords) {
+		this.openQuote = openQuote;
+		this.closeQuote = closeQuote;
+		this.multiRowValues = multiRowValues;
+		this.maxParameters = maxParameters;
+		this.rowValueComparison = rowValueComparison;
+		this.limitFormat = limitFormat;
+		this.reservedWords = words(reservedWords);
+	}
+
+	/**
+	 * Returns true if a multi-row insert can use 'VALUES (...), (...)'
+	 * @return
+	 */
+	public boolean isMultiRowValuesSupported() {
+		return multiRowValues;
+	}
+
+	/**
+	 * Returns the max number of parameters in a statement
+	 * @return
+	 */
+	public int getMaxParameters() {
+		return maxParameters;
+	}
+
+	/**
+	 * Returns true if the row value comparison is supported ( "(a, b) &gt; (?, ?)" )
+	 * @return
+	 */
+	public boolean isRowValueComparisonSupported() {
+		return rowValueComparison;
+	}
+
+	/**
+	 * Returns the clause to limit the number of rows (at the end of a query with an 'ORDER BY')
+	 * @param rows
+	 * @return
+	 */
+	public String limit(int rows) {
+		return String.format(Locale.ROOT, limitFormat, rows);
+	}
+
+	/**
+	 * Returns the identifier, quoted only if necessary (reserved word or not a regular identifier)
+	 * @param identifier
+	 * @return
+	 */
+	public String quote(String identifier) {
+		if ( isRegular(identifier) && !isReservedWord(identifier) ) {
+			return identifier ;
+		}
+		return openQuote + identifier + closeQuote ;
+	}
+
+	/**
+	 * Returns true if the given word is reserved in this dialect (SQL:2011 reserved words and dialect keywords)
+	 * @param word
+	 * @return
+	 */
+	public boolean isReservedWord(String word) {
+		String upperCase = word.toUpperCase(Locale.ROOT);
+		return StandardWords.RESERVED.contains(upperCase) || reservedWords.contains(upperCase) ;
+	}
+
+	private static Set<String> words(String words) {
+		return words.isEmpty() ? Collections.<String>emptySet() : new HashSet<>(Arrays.asList(words.split(" ")));
+	}
+
+	private static boolean isRegular(String identifier) {
+		if ( identifier.isEmpty() || Character.isDigit(identifier.charAt(0)) ) {
+			return false ;
+		}
+		for ( int i = 0 ; i < identifier.length() ; i++ ) {
+			char c = identifier.charAt(i);
+			if ( !( ( c >= 'a' && c <= 'z' ) || ( c >= 'A' && c <= 'Z' ) || ( c >= '0' && c <= '9' ) || c == '_' ) ) {
+				return false ;
+			}
+		}
+		return true ;
+	}
+
+	/**
+	 * SQL:2011 reserved words (and 'ASC', 'DESC' reserved in all the dialects)
+	 */
+	private static final class StandardWords {
+		private static final Set<String> RESERVED = words(
+			"ABS ALL ALLOCATE ALTER AND ANY ARE ARRAY ARRAY_AGG ARRAY_MAX_CARDINALITY AS ASC ASENSITIVE ASYMMETRIC AT "
+			+ "ATOMIC AUTHORIZATION AVG BEGIN BEGIN_FRAME BEGIN_PARTITION BETWEEN BIGINT BINARY BLOB BOOLEAN BOTH BY "
+			+ "CALL CALLED CARDINALITY CASCADED CASE CAST CEIL CEILING CHAR CHAR_LENGTH CHARACTER CHARACTER_LENGTH "
+			+ "CHECK CLOB CLOSE COALESCE COLLATE COLLECT COLUMN COMMIT CONDITION CONNECT CONSTRAINT CONTAINS CONVERT "
+			+ "CORR CORRESPONDING COUNT COVAR_POP COVAR_SAMP CREATE CROSS CUBE CUME_DIST CURRENT CURRENT_CATALOG "
+			+ "CURRENT_DATE CURRENT_DEFAULT_TRANSFORM_GROUP CURRENT_PATH CURRENT_ROLE CURRENT_ROW CURRENT_SCHEMA "
+			+ "CURRENT_TIME CURRENT_TIMESTAMP CURRENT_TRANSFORM_GROUP_FOR_TYPE CURRENT_USER CURSOR CYCLE DATE DAY "
+			+ "DEALLOCATE DEC DECIMAL DECLARE DEFAULT DELETE DENSE_RANK DEREF DESC DESCRIBE DETERMINISTIC DISCONNECT "
+			+ "DISTINCT DOUBLE DROP DYNAMIC EACH ELEMENT ELSE END END_FRAME END_PARTITION END-EXEC EQUALS ESCAPE "
+			+ "EVERY EXCEPT EXEC EXECUTE EXISTS EXP EXTERNAL EXTRACT FALSE FETCH FILTER FIRST_VALUE FLOAT FLOOR FOR "
+			+ "FOREIGN FRAME_ROW FREE FROM FULL FUNCTION FUSION GET GLOBAL GRANT GROUP GROUPING GROUPS HAVING HOLD "
+			+ "HOUR IDENTITY IN INDICATOR INNER INOUT INSENSITIVE INSERT INT INTEGER INTERSECT INTERSECTION INTERVAL "
+			+ "INTO IS JOIN LAG LANGUAGE LARGE LAST_VALUE LATERAL LEAD LEADING LEFT LIKE LIKE_REGEX LN LOCAL "
+			+ "LOCALTIME LOCALTIMESTAMP LOWER MATCH MAX MEMBER MERGE METHOD MIN MINUTE MOD MODIFIES MODULE MONTH "
+			+ "MULTISET NATIONAL NATURAL NCHAR NCLOB NEW NO NONE NORMALIZE NOT NTH_VALUE NTILE NULL NULLIF NUMERIC "
+			+ "OCCURRENCES_REGEX OCTET_LENGTH OF OFFSET OLD ON ONLY OPEN OR ORDER OUT OUTER OVER OVERLAPS OVERLAY "
+			+ "PARAMETER PARTITION PERCENT PERCENT_RANK PERCENTILE_CONT PERCENTILE_DISC PERIOD PORTION POSITION "
+			+ "POSITION_REGEX POWER PRECEDES PRECISION PREPARE PRIMARY PROCEDURE RANGE RANK READS REAL RECURSIVE REF "
+			+ "REFERENCES REFERENCING REGR_AVGX REGR_AVGY REGR_COUNT REGR_INTERCEPT REGR_R2 REGR_SLOPE REGR_SXX "
+			+ "REGR_SXY REGR_SYY RELEASE RESULT RETURN RETURNS REVOKE RIGHT ROLLBACK ROLLUP ROW ROW_NUMBER ROWS "
+			+ "SAVEPOINT SCOPE SCROLL SEARCH SECOND SELECT SENSITIVE SESSION_USER SET SIMILAR SMALLINT SOME SPECIFIC "
+			+ "SPECIFICTYPE SQL SQLEXCEPTION SQLSTATE SQLWARNING SQRT START STATIC STDDEV_POP STDDEV_SAMP "
+			+ "SUBMULTISET SUBSTRING SUBSTRING_REGEX SUCCEEDS SUM SYMMETRIC SYSTEM SYSTEM_TIME SYSTEM_USER TABLE "
+			+ "TABLESAMPLE THEN TIME TIMESTAMP TIMEZONE_HOUR TIMEZONE_MINUTE TO TRAILING TRANSLATE TRANSLATE_REGEX "
+			+ "TRANSLATION TREAT TRIGGER TRIM TRIM_ARRAY TRUE TRUNCATE UESCAPE UNION UNIQUE UNKNOWN UNNEST UPDATE "
+			+ "UPPER USER USING VALUE VALUES VALUE_OF VAR_POP VAR_SAMP VARBINARY VARCHAR VARYING VERSIONING WHEN "
+			+ "WHENEVER WHERE WIDTH_BUCKET WINDOW WITH WITHIN WITHOUT YEAR");
+
+		private StandardWords() {
+		}
+	}
+}
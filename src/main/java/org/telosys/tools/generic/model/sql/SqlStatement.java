@@ -0,0 +1,131 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.sql;
+
+import java.util.Arrays;
+
+/**
+ * Precomputed SQL statement with its parameters map <br>
+ * Parameter 'i' (JDBC index, 1-based) is set with 'record[getParameterField(i)]' <br>
+ * ( records are 'Object[]' with the attribute values in the order of 'entity.getAttributes()' ) <br>
+ * For a multi-row insert the parameters of the rows follow each other. <br>
+ * Immutable
+ * 
+ * @since 4.2.0
+ */
+public final class SqlStatement {
+
+	private final String sql ;
+	private final int[] parameterFields ; // for one row
+	private final int rowCount ;
+	private final int[] resultFields ;    // for a select (empty otherwise)
+
+	SqlStatement(String sql, int[] parameterFields, int rowCount, int[] resultFields) {
+		super();
+		this.sql = sql;
+		this.parameterFields = parameterFields;
+		this.rowCount = rowCount;
+		this.resultFields = resultFields;
+	}
+
+	public String getSql() {
+		return sql;
+	}
+
+	/**
+	 * Returns the number of rows (more than 1 for a multi-row insert) 
+	 * @return
+	 */
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	/**
+	 * Returns the total number of parameters 
+	 * @return
+	 */
+	public int getParameterCount() {
+		return parameterFields.length * rowCount ;
+	}
+
+	/**
+	 * Returns the number of parameters for one row
+	 * @return
+	 */
+	public int getParametersPerRow() {
+		return parameterFields.length;
+	}
+
+	/**
+	 * Returns the record field for the given parameter (JDBC index, 1-based)
+	 * @param parameterIndex
+	 * @return
+	 */
+	public int getParameterField(int parameterIndex) {
+		if ( parameterIndex < 1 || parameterIndex > getParameterCount() ) {
+			throw new IndexOutOfBoundsException("Parameter index " + parameterIndex);
+		}
+		return parameterFields[( parameterIndex - 1 ) % parameterFields.length];
+	}
+
+	/**
+	 * Returns the record fields of the parameters of one row (in parameter order)
+	 * @return
+	 */
+	public int[] getParameterFields() {
+		return parameterFields.clone();
+	}
+
+	/**
+	 * Returns the parameter index (JDBC index, 1-based) for the given record field in the first row
+	 * @param field
+	 * @return the index or -1 if the field is not a parameter
+	 */
+	public int getParameterIndex(int field) {
+		for ( int i = 0 ; i < parameterFields.length ; i++ ) {
+			if ( parameterFields[i] == field ) {
+				return i + 1 ;
+			}
+		}
+		return -1 ;
+	}
+
+	/**
+	 * Returns the record fields of the result columns of a select (in column order)
+	 * @return
+	 */
+	public int[] getResultFields() {
+		return resultFields.clone();
+	}
+
+	/**
+	 * Returns the values of the parameters of one row (in parameter order) 
+	 * @param record
+	 * @return
+	 */
+	public Object[] getParameterValues(Object[] record) {
+		Object[] values = new Object[parameterFields.length];
+		for ( int i = 0 ; i < values.length ; i++ ) {
+			values[i] = record[parameterFields[i]];
+		}
+		return values;
+	}
+
+	@Override
+	public String toString() {
+		return sql + " " + Arrays.toString(parameterFields) + ( rowCount > 1 ? " x " + rowCount : "" );
+	}
+}
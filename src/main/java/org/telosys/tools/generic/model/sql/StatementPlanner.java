@@ -0,0 +1,137 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.sql;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.Model;
+import org.telosys.tools.generic.model.util.Fingerprint;
+import org.telosys.tools.generic.model.util.ModelFingerprinter;
+
+/**
+ * Plans the SQL statements of the entities for a dialect ( see EntityStatements ) <br>
+ * The statements are computed once and kept in a cache by entity fingerprint <br>
+ * (same statements for identical entities of different models). <br>
+ * After a change in a mutable model, the changed entity must be invalidated. <br>
+ * <br>
+ * Usage : <br>
+ *   StatementPlanner planner = new StatementPlanner(SqlDialect.POSTGRESQL, 500); <br>
+ *   SqlStatement insert = planner.getStatements(entity).getBatchInsert(); <br>
+ * <br>
+ * Thread-safe
+ * 
+ * @since 4.2.0
+ */
+public final class StatementPlanner {
+
+	public static final int DEFAULT_BATCH_SIZE = 100 ;
+
+	private final SqlDialect dialect ;
+	private final int batchSize ;
+	private final ModelFingerprinter fingerprinter = new ModelFingerprinter();
+	private final Map<Fingerprint, EntityStatements> cache = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructor with the default batch size
+	 * @param dialect
+	 */
+	public StatementPlanner(SqlDialect dialect) {
+		this(dialect, DEFAULT_BATCH_SIZE);
+	}
+
+	/**
+	 * Constructor
+	 * @param dialect
+	 * @param batchSize number of rows of the multi-row inserts
+	 */
+	public StatementPlanner(SqlDialect dialect, int batchSize) {
+		super();
+		if ( dialect == null ) {
+			throw new IllegalArgumentException("Dialect is null");
+		}
+		if ( batchSize < 1 ) {
+			throw new IllegalArgumentException("Invalid batch size " + batchSize);
+		}
+		this.dialect = dialect;
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Computes the statements for the given entity (without cache)
+	 * @param entity
+	 * @param dialect
+	 * @param batchSize
+	 * @return
+	 */
+	public static EntityStatements plan(Entity entity, SqlDialect dialect, int batchSize) {
+		return new EntityStatements(entity, dialect, batchSize);
+	}
+
+	public SqlDialect getDialect() {
+		return dialect;
+	}
+
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * Returns the statements for the given entity (computed on first use)
+	 * @param entity
+	 * @return
+	 */
+	public EntityStatements getStatements(Entity entity) {
+		return cache.computeIfAbsent(fingerprinter.fingerprint(entity), k -> plan(entity, dialect, batchSize));
+	}
+
+	/**
+	 * Returns the statements for all the entities of the given model (key = class name, in model order)
+	 * @param model
+	 * @return
+	 */
+	public Map<String, EntityStatements> getStatements(Model model) {
+		Map<String, EntityStatements> map = new LinkedHashMap<>();
+		for ( Entity entity : model.getEntities() ) {
+			map.put(entity.getClassName(), getStatements(entity));
+		}
+		return map;
+	}
+
+	/**
+	 * Invalidates the fingerprints of the given entity and of its attributes, links and foreign keys <br>
+	 * (to call after a change in a mutable model)
+	 * @param entity
+	 */
+	public void invalidate(Entity entity) {
+		fingerprinter.invalidateEntity(entity);
+	}
+
+	/**
+	 * Returns the number of entities in the cache
+	 * @return
+	 */
+	public int getCacheSize() {
+		return cache.size();
+	}
+
+	public void clear() {
+		cache.clear();
+		fingerprinter.clear();
+	}
+}
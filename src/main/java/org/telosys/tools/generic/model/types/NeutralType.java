@@ -51,33 +51,12 @@ public final class NeutralType {
     // public static final String LONGTEXT = "longtext"; // CLOB
     
     /**
-     * Returns all the neutral types
+     * Returns all the neutral types <br>
+     * (a new list at each call, use NeutralTypeCode.getAllTexts() for a cached immutable list)
      * @return
      */
     public static final List<String> getAllNeutralTypes() {
-    	List<String> list = new LinkedList<>();
-    	
-    	list.add(STRING);
-    	
-    	list.add(BYTE);
-    	list.add(SHORT);
-    	list.add(INTEGER);
-    	list.add(LONG);
-    	
-    	list.add(DECIMAL);
-    	list.add(FLOAT);
-    	list.add(DOUBLE);
-    	
-    	list.add(BOOLEAN);
-    	
-    	list.add(DATE);
-    	list.add(TIME);
-    	list.add(TIMESTAMP);
-        list.add(TIMESTAMPZ);
-
-    	list.add(BINARY);
-    	
-    	return list ;
+    	return new LinkedList<>(NeutralTypeCode.getAllTexts());
     }
 
 }
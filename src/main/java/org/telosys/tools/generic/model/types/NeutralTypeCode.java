@@ -0,0 +1,143 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.types;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Predefined neutral types as an enum <br>
+ * Allows a 'switch' on the type (tableswitch on the ordinal) instead of a chain of 'String.equals' <br>
+ * <br>
+ * Usage : <br>
+ *   switch ( attribute.getNeutralTypeCode() ) { <br>
+ *     case STRING : ... <br>
+ *     case INTEGER : ... <br>
+ *   } <br>
+ * 
+ * @since 4.2.0
+ */
+public enum NeutralTypeCode {
+
+	STRING(NeutralType.STRING),
+	BYTE(NeutralType.BYTE),
+	SHORT(NeutralType.SHORT),
+	INTEGER(NeutralType.INTEGER),
+	LONG(NeutralType.LONG),
+	DECIMAL(NeutralType.DECIMAL),
+	FLOAT(NeutralType.FLOAT),
+	DOUBLE(NeutralType.DOUBLE),
+	BOOLEAN(NeutralType.BOOLEAN),
+	DATE(NeutralType.DATE),
+	TIME(NeutralType.TIME),
+	TIMESTAMP(NeutralType.TIMESTAMP),
+	TIMESTAMPZ(NeutralType.TIMESTAMPZ),
+	BINARY(NeutralType.BINARY);
+
+	//---------------------------------------------------
+	private static final Map<String, NeutralTypeCode> BY_TEXT = new HashMap<>();
+	private static final Set<NeutralTypeCode> ALL_CODES ;
+	private static final List<String> ALL_TEXTS ;
+	static {
+		List<String> texts = new ArrayList<>();
+		for ( NeutralTypeCode code : values() ) {
+			BY_TEXT.put(code.text, code);
+			texts.add(code.text);
+		}
+		ALL_CODES = Collections.unmodifiableSet(EnumSet.allOf(NeutralTypeCode.class));
+		ALL_TEXTS = Collections.unmodifiableList(texts);
+	}
+
+	private final String text ;
+
+	private NeutralTypeCode(String text) {
+		this.text = text ;
+	}
+
+	/**
+	 * Returns the neutral type as used in the model (e.g. "string", "int", etc)
+	 * @return
+	 */
+	public String getText() {
+		return text;
+	}
+
+	/**
+	 * Returns the code for the given predefined neutral type (O(1))
+	 * @param text the neutral type (e.g. "string", "int", etc)
+	 * @return the code or null if not a predefined neutral type
+	 */
+	public static NeutralTypeCode fromText(String text) {
+		return text != null ? BY_TEXT.get(text) : null ;
+	}
+
+	/**
+	 * Returns true if the given text is a predefined neutral type 
+	 * @param text
+	 * @return
+	 */
+	public static boolean isPredefined(String text) {
+		return fromText(text) != null ;
+	}
+
+	/**
+	 * Returns all the codes (immutable and cached)
+	 * @return
+	 */
+	public static Set<NeutralTypeCode> getAllCodes() {
+		return ALL_CODES;
+	}
+
+	/**
+	 * Returns all the predefined neutral types (immutable and cached, same order as the codes)
+	 * @return
+	 */
+	public static List<String> getAllTexts() {
+		return ALL_TEXTS;
+	}
+
+	public boolean isNumber() {
+		switch ( this ) {
+		case BYTE :
+		case SHORT :
+		case INTEGER :
+		case LONG :
+		case DECIMAL :
+		case FLOAT :
+		case DOUBLE :
+			return true;
+		default :
+			return false;
+		}
+	}
+
+	public boolean isTemporal() {
+		switch ( this ) {
+		case DATE :
+		case TIME :
+		case TIMESTAMP :
+		case TIMESTAMPZ :
+			return true;
+		default :
+			return false;
+		}
+	}
+}
@@ -0,0 +1,110 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.types;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the custom neutral types (extension point) <br>
+ * A custom neutral type is a new type name based on a predefined type, <br>
+ * e.g. "uuid" based on STRING or "money" based on DECIMAL. <br>
+ * The code of a custom type is the code of its base type, <br>
+ * so all the code dispatching on NeutralTypeCode works with the custom types. <br>
+ * <br>
+ * Usage : <br>
+ *   NeutralTypeRegistry.register("uuid", NeutralTypeCode.STRING); <br>
+ *   NeutralTypeRegistry.getCode("uuid") --&gt; STRING <br>
+ * <br>
+ * Thread-safe.
+ * 
+ * @since 4.2.0
+ */
+public final class NeutralTypeRegistry {
+
+	private static final Map<String, NeutralTypeCode> CUSTOM_TYPES = new ConcurrentHashMap<>();
+
+	private NeutralTypeRegistry() {
+	}
+
+	/**
+	 * Registers a custom neutral type 
+	 * @param name the custom type name (cannot be a predefined neutral type)
+	 * @param baseType the predefined type used to handle this custom type
+	 */
+	public static void register(String name, NeutralTypeCode baseType) {
+		if ( name == null || name.trim().isEmpty() ) {
+			throw new IllegalArgumentException("Custom neutral type : name is null or void");
+		}
+		if ( baseType == null ) {
+			throw new IllegalArgumentException("Custom neutral type '" + name + "' : base type is null");
+		}
+		if ( NeutralTypeCode.isPredefined(name) ) {
+			throw new IllegalArgumentException("Custom neutral type '" + name + "' : predefined type");
+		}
+		CUSTOM_TYPES.put(name, baseType);
+	}
+
+	/**
+	 * Removes a custom neutral type 
+	 * @param name
+	 * @return true if the type was registered
+	 */
+	public static boolean unregister(String name) {
+		return name != null && CUSTOM_TYPES.remove(name) != null ;
+	}
+
+	/**
+	 * Returns the code for the given neutral type (predefined or custom)
+	 * @param name
+	 * @return the code (the base type code for a custom type) or null if unknown
+	 */
+	public static NeutralTypeCode getCode(String name) {
+		NeutralTypeCode code = NeutralTypeCode.fromText(name);
+		if ( code == null && name != null ) {
+			code = CUSTOM_TYPES.get(name);
+		}
+		return code ;
+	}
+
+	/**
+	 * Returns true if the given name is a registered custom type
+	 * @param name
+	 * @return
+	 */
+	public static boolean isCustom(String name) {
+		return name != null && CUSTOM_TYPES.containsKey(name) ;
+	}
+
+	/**
+	 * Returns true if the given name is a predefined or a custom neutral type
+	 * @param name
+	 * @return
+	 */
+	public static boolean isKnown(String name) {
+		return getCode(name) != null ;
+	}
+
+	/**
+	 * Returns a snapshot of the custom types (sorted by name)
+	 * @return
+	 */
+	public static Map<String, NeutralTypeCode> getCustomTypes() {
+		return Collections.unmodifiableMap(new TreeMap<>(CUSTOM_TYPES));
+	}
+}
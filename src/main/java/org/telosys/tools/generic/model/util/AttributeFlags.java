@@ -0,0 +1,102 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.util;
+
+import org.telosys.tools.generic.model.Attribute;
+
+/**
+ * All the boolean characteristics of an attribute packed in an int (one bit per 'isXxx' getter) <br>
+ * <br>
+ * Usage : <br>
+ *   int flags = AttributeFlags.of(attribute); <br>
+ *   if ( AttributeFlags.has(flags, AttributeFlags.KEY_ELEMENT | AttributeFlags.GENERATED_VALUE) ) { ... } <br>
+ * <br>
+ * These values are also used to store the attributes in a snapshot, they must never change.
+ * 
+ * @since 4.2.0
+ */
+public final class AttributeFlags {
+
+	public static final int DATE_FUTURE              = 1 ;
+	public static final int DATE_PAST                = 1 << 1 ;
+	public static final int GENERATED_VALUE          = 1 << 2 ;
+	public static final int KEY_ELEMENT              = 1 << 3 ;
+	public static final int LONG_TEXT                = 1 << 4 ;
+	public static final int NOT_BLANK                = 1 << 5 ;
+	public static final int NOT_EMPTY                = 1 << 6 ;
+	public static final int NOT_NULL                 = 1 << 7 ;
+	public static final int PRIMITIVE_TYPE_EXPECTED  = 1 << 8 ;
+	public static final int OBJECT_TYPE_EXPECTED     = 1 << 9 ;
+	public static final int UNSIGNED_TYPE_EXPECTED   = 1 << 10 ;
+	public static final int FK                       = 1 << 11 ;
+	public static final int FK_SIMPLE                = 1 << 12 ;
+	public static final int FK_COMPOSITE             = 1 << 13 ;
+	public static final int USED_IN_LINKS            = 1 << 14 ;
+	public static final int USED_IN_SELECTED_LINKS   = 1 << 15 ;
+	public static final int TRANSIENT                = 1 << 16 ;
+	public static final int UNIQUE                   = 1 << 17 ;
+
+	private AttributeFlags() {
+	}
+
+	/**
+	 * Returns all the boolean characteristics of the given attribute packed in an int
+	 * @param a
+	 * @return
+	 */
+	public static int of(Attribute a) {
+		int f = 0 ;
+		if ( a.isDateFuture() )              f |= DATE_FUTURE ;
+		if ( a.isDatePast() )                f |= DATE_PAST ;
+		if ( a.isGeneratedValue() )          f |= GENERATED_VALUE ;
+		if ( a.isKeyElement() )              f |= KEY_ELEMENT ;
+		if ( a.isLongText() )                f |= LONG_TEXT ;
+		if ( a.isNotBlank() )                f |= NOT_BLANK ;
+		if ( a.isNotEmpty() )                f |= NOT_EMPTY ;
+		if ( a.isNotNull() )                 f |= NOT_NULL ;
+		if ( a.isPrimitiveTypeExpected() )   f |= PRIMITIVE_TYPE_EXPECTED ;
+		if ( a.isObjectTypeExpected() )      f |= OBJECT_TYPE_EXPECTED ;
+		if ( a.isUnsignedTypeExpected() )    f |= UNSIGNED_TYPE_EXPECTED ;
+		if ( a.isFK() )                      f |= FK ;
+		if ( a.isFKSimple() )                f |= FK_SIMPLE ;
+		if ( a.isFKComposite() )             f |= FK_COMPOSITE ;
+		if ( a.isUsedInLinks() )             f |= USED_IN_LINKS ;
+		if ( a.isUsedInSelectedLinks() )     f |= USED_IN_SELECTED_LINKS ;
+		if ( a.isTransient() )               f |= TRANSIENT ;
+		if ( a.isUnique() )                  f |= UNIQUE ;
+		return f ;
+	}
+
+	/**
+	 * Returns true if all the given flags are set
+	 * @param flags the attribute flags
+	 * @param mask one or more flags
+	 * @return
+	 */
+	public static boolean has(int flags, int mask) {
+		return ( flags & mask ) == mask ;
+	}
+
+	/**
+	 * Returns true if at least one of the given flags is set
+	 * @param flags the attribute flags
+	 * @param mask one or more flags
+	 * @return
+	 */
+	public static boolean hasAny(int flags, int mask) {
+		return ( flags & mask ) != 0 ;
+	}
+}
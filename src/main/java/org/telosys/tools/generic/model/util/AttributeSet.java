@@ -0,0 +1,256 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.util;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+
+import org.telosys.tools.generic.model.Attribute;
+
+/**
+ * Immutable set of attributes of an entity, stored as a bitset over the attribute ordinals <br>
+ * (the ordinal is the position of the attribute in 'entity.getAttributes()') <br>
+ * <br>
+ * The set operations (and, or, andNot, complement) work on 64 attributes per machine word. <br>
+ * They are only allowed between sets of the same entity (see {@link EntityAttributeSets}).
+ * 
+ * @since 4.2.0
+ */
+public final class AttributeSet {
+
+	private final List<Attribute> attributes ;
+	private final long[] bits ;
+	private final int size ;
+
+	/**
+	 * Constructor
+	 * @param attributes the entity attributes (all the ordinals refer to this list)
+	 * @param bits the bitset (not copied)
+	 */
+	AttributeSet(List<Attribute> attributes, long[] bits) {
+		super();
+		this.attributes = attributes;
+		this.bits = bits;
+		int n = 0 ;
+		for ( long word : bits ) {
+			n += Long.bitCount(word);
+		}
+		this.size = n ;
+	}
+
+	static int wordsCount(int attributesCount) {
+		return ( attributesCount + 63 ) >>> 6 ;
+	}
+
+	private void checkSameEntity(AttributeSet other) {
+		if ( other.attributes != this.attributes ) {
+			throw new IllegalArgumentException("Attribute sets of different entities");
+		}
+	}
+
+	/**
+	 * Returns the attributes in both sets
+	 * @param other
+	 * @return
+	 */
+	public AttributeSet and(AttributeSet other) {
+		checkSameEntity(other);
+		long[] result = new long[bits.length];
+		for ( int i = 0 ; i < bits.length ; i++ ) {
+			result[i] = bits[i] & other.bits[i] ;
+		}
+		return new AttributeSet(attributes, result);
+	}
+
+	/**
+	 * Returns the attributes in at least one of the sets
+	 * @param other
+	 * @return
+	 */
+	public AttributeSet or(AttributeSet other) {
+		checkSameEntity(other);
+		long[] result = new long[bits.length];
+		for ( int i = 0 ; i < bits.length ; i++ ) {
+			result[i] = bits[i] | other.bits[i] ;
+		}
+		return new AttributeSet(attributes, result);
+	}
+
+	/**
+	 * Returns the attributes in this set and not in the other
+	 * @param other
+	 * @return
+	 */
+	public AttributeSet andNot(AttributeSet other) {
+		checkSameEntity(other);
+		long[] result = new long[bits.length];
+		for ( int i = 0 ; i < bits.length ; i++ ) {
+			result[i] = bits[i] & ~other.bits[i] ;
+		}
+		return new AttributeSet(attributes, result);
+	}
+
+	/**
+	 * Returns the attributes of the entity not in this set
+	 * @return
+	 */
+	public AttributeSet complement() {
+		long[] result = new long[bits.length];
+		for ( int i = 0 ; i < bits.length ; i++ ) {
+			result[i] = ~bits[i] ;
+		}
+		int extra = bits.length * 64 - attributes.size() ;
+		if ( extra > 0 ) {
+			result[bits.length - 1] &= -1L >>> extra ;
+		}
+		return new AttributeSet(attributes, result);
+	}
+
+	/**
+	 * Returns true if the attribute at the given ordinal is in the set
+	 * @param ordinal
+	 * @return
+	 */
+	public boolean contains(int ordinal) {
+		if ( ordinal < 0 || ordinal >= attributes.size() ) {
+			return false ;
+		}
+		return ( bits[ordinal >>> 6] & ( 1L << ordinal ) ) != 0 ;
+	}
+
+	/**
+	 * Returns true if the given attribute instance is in the set
+	 * @param attribute
+	 * @return
+	 */
+	public boolean contains(Attribute attribute) {
+		for ( int i = nextOrdinal(0) ; i >= 0 ; i = nextOrdinal(i + 1) ) {
+			if ( attributes.get(i) == attribute ) {
+				return true ;
+			}
+		}
+		return false ;
+	}
+
+	/**
+	 * Returns the first ordinal in the set greater than or equal to the given ordinal (or -1 if none) <br>
+	 * Usage : for ( int i = set.nextOrdinal(0) ; i &gt;= 0 ; i = set.nextOrdinal(i + 1) ) { ... }
+	 * @param from
+	 * @return
+	 */
+	public int nextOrdinal(int from) {
+		if ( from >= attributes.size() ) {
+			return -1 ;
+		}
+		int w = from >>> 6 ;
+		long word = bits[w] & ( -1L << from ) ;
+		while ( true ) {
+			if ( word != 0 ) {
+				return ( w << 6 ) + Long.numberOfTrailingZeros(word) ;
+			}
+			if ( ++w == bits.length ) {
+				return -1 ;
+			}
+			word = bits[w] ;
+		}
+	}
+
+	/**
+	 * Returns the number of attributes in the set
+	 * @return
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns true if the set is empty
+	 * @return
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Calls the given action for each attribute of the set (in ordinal order)
+	 * @param action
+	 */
+	public void forEach(Consumer<? super Attribute> action) {
+		for ( int i = nextOrdinal(0) ; i >= 0 ; i = nextOrdinal(i + 1) ) {
+			action.accept(attributes.get(i));
+		}
+	}
+
+	/**
+	 * Returns the attributes of the set (in ordinal order) 
+	 * @return an immutable list
+	 */
+	public List<Attribute> toList() {
+		final int[] ordinals = new int[size];
+		int n = 0 ;
+		for ( int i = nextOrdinal(0) ; i >= 0 ; i = nextOrdinal(i + 1) ) {
+			ordinals[n++] = i ;
+		}
+		return new OrdinalList(ordinals);
+	}
+
+	private final class OrdinalList extends AbstractList<Attribute> implements RandomAccess {
+		private final int[] ordinals ;
+		OrdinalList(int[] ordinals) {
+			this.ordinals = ordinals;
+		}
+		@Override
+		public Attribute get(int index) {
+			return attributes.get(ordinals[index]);
+		}
+		@Override
+		public int size() {
+			return ordinals.length;
+		}
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(bits);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if ( this == obj ) {
+			return true;
+		}
+		if ( !( obj instanceof AttributeSet ) ) {
+			return false;
+		}
+		AttributeSet other = (AttributeSet) obj;
+		return attributes == other.attributes && Arrays.equals(bits, other.bits);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("[");
+		for ( int i = nextOrdinal(0) ; i >= 0 ; i = nextOrdinal(i + 1) ) {
+			if ( sb.length() > 1 ) {
+				sb.append(", ");
+			}
+			sb.append(attributes.get(i).getName());
+		}
+		return sb.append("]").toString();
+	}
+}
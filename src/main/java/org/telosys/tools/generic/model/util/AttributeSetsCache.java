@@ -0,0 +1,65 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.util;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.telosys.tools.generic.model.Entity;
+
+/**
+ * Cache of the {@link EntityAttributeSets} of each entity (by entity instance) <br>
+ * Thread-safe.
+ * 
+ * @since 4.2.0
+ */
+public class AttributeSetsCache {
+
+	private final Map<Entity, EntityAttributeSets> cache = Collections.synchronizedMap(new IdentityHashMap<>());
+
+	/**
+	 * Returns the attribute sets of the given entity (created on first call)
+	 * @param entity
+	 * @return
+	 */
+	public EntityAttributeSets get(Entity entity) {
+		return cache.computeIfAbsent(entity, EntityAttributeSets::new);
+	}
+
+	/**
+	 * Removes the given entity from the cache (to be called after a change in its attributes)
+	 * @param entity
+	 */
+	public void invalidate(Entity entity) {
+		cache.remove(entity);
+	}
+
+	/**
+	 * Removes all the entities from the cache 
+	 */
+	public void clear() {
+		cache.clear();
+	}
+
+	/**
+	 * Returns the number of entities in cache
+	 * @return
+	 */
+	public int size() {
+		return cache.size();
+	}
+}
@@ -0,0 +1,163 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.ForeignKey;
+
+/**
+ * Order of the entities of a model based on their foreign keys (see {@link DependencySorter}) <br>
+ * <br>
+ * In the ordered entities each entity comes after the entities it references <br>
+ * (order for 'CREATE TABLE' and 'INSERT', the reverse order can be used for 'DELETE' and 'DROP TABLE'), <br>
+ * except for the 'deferred' foreign keys which break the cycles <br>
+ * (these FK must be created after the tables or declared as 'deferrable'). <br>
+ * Self-referencing foreign keys are ignored (they never constrain the order).
+ * 
+ * @since 4.2.0
+ */
+public final class DependencyOrder {
+
+	private final List<Entity> entities ;
+	private final int[]   order ;
+	private final int[][] cycles ;
+	private final int[]   deferredSources ;
+	private final int[]   deferredForeignKeys ;
+
+	/**
+	 * Constructor
+	 * @param entities the model entities
+	 * @param order the entity indexes in dependency order
+	 * @param cycles the entity indexes of each cycle (strongly connected component)
+	 * @param deferredSources the entity index of each deferred FK 
+	 * @param deferredForeignKeys the index of each deferred FK in its entity
+	 */
+	DependencyOrder(List<Entity> entities, int[] order, int[][] cycles, int[] deferredSources, int[] deferredForeignKeys) {
+		super();
+		this.entities = entities;
+		this.order = order;
+		this.cycles = cycles;
+		this.deferredSources = deferredSources;
+		this.deferredForeignKeys = deferredForeignKeys;
+	}
+
+	/**
+	 * Returns the same order applied to the given entities (same structure, other instances)
+	 * @param otherEntities
+	 * @return
+	 */
+	DependencyOrder withEntities(List<Entity> otherEntities) {
+		if ( otherEntities == entities ) {
+			return this;
+		}
+		return new DependencyOrder(otherEntities, order, cycles, deferredSources, deferredForeignKeys);
+	}
+
+	/**
+	 * Returns the entities in dependency order (referenced entities first)
+	 * @return a new array
+	 */
+	public Entity[] getOrderedEntities() {
+		Entity[] result = new Entity[order.length];
+		for ( int i = 0 ; i < order.length ; i++ ) {
+			result[i] = entities.get(order[i]);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the entities in reverse dependency order (referencing entities first)
+	 * @return a new array
+	 */
+	public Entity[] getReverseOrderedEntities() {
+		Entity[] result = new Entity[order.length];
+		for ( int i = 0 ; i < order.length ; i++ ) {
+			result[order.length - 1 - i] = entities.get(order[i]);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the entity class names in dependency order
+	 * @return
+	 */
+	public List<String> getOrderedClassNames() {
+		List<String> list = new ArrayList<>(order.length);
+		for ( int i : order ) {
+			list.add(entities.get(i).getClassName());
+		}
+		return list;
+	}
+
+	/**
+	 * Returns the indexes (in the model entities list) in dependency order
+	 * @return a new array
+	 */
+	public int[] getOrderedIndexes() {
+		return Arrays.copyOf(order, order.length);
+	}
+
+	/**
+	 * Returns true if at least one foreign key cycle exists
+	 * @return
+	 */
+	public boolean hasCycles() {
+		return cycles.length > 0 ;
+	}
+
+	/**
+	 * Returns the foreign key cycles (strongly connected components with more than one entity) <br>
+	 * The entities of each cycle are in model order
+	 * @return
+	 */
+	public List<List<Entity>> getCycles() {
+		if ( cycles.length == 0 ) {
+			return Collections.emptyList();
+		}
+		List<List<Entity>> list = new ArrayList<>(cycles.length);
+		for ( int[] cycle : cycles ) {
+			List<Entity> cycleEntities = new ArrayList<>(cycle.length);
+			for ( int i : cycle ) {
+				cycleEntities.add(entities.get(i));
+			}
+			list.add(cycleEntities);
+		}
+		return list;
+	}
+
+	/**
+	 * Returns the foreign keys to defer in order to break the cycles 
+	 * @return
+	 */
+	public List<ForeignKey> getDeferredForeignKeys() {
+		List<ForeignKey> list = new ArrayList<>(deferredSources.length);
+		for ( int i = 0 ; i < deferredSources.length ; i++ ) {
+			list.add(entities.get(deferredSources[i]).getForeignKeys().get(deferredForeignKeys[i]));
+		}
+		return list;
+	}
+
+	@Override
+	public String toString() {
+		return "DependencyOrder : " + getOrderedClassNames() + " (" + cycles.length + " cycle(s), " 
+				+ deferredSources.length + " deferred FK)" ;
+	}
+}
@@ -0,0 +1,353 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.ForeignKey;
+import org.telosys.tools.generic.model.Model;
+import org.telosys.tools.generic.model.util.ModelGraph.EdgeKind;
+
+/**
+ * Computes the order of the entities based on their foreign keys <br>
+ * <br>
+ * . strongly connected components (FK cycles) : Tarjan algorithm (linear time) <br>
+ * . the components are produced in dependency order (referenced entities first) <br>
+ * . inside a cycle the entities are ordered with a greedy heuristic <br>
+ *   ( the entity with the fewest remaining dependencies first ) <br>
+ *   and the foreign keys going against this order are 'deferred' <br>
+ *   ( a small set, the exact minimal set being a NP-hard problem ) <br>
+ * <br>
+ * The results are cached by foreign key edges ( entity names and referenced entity names, in model order ) <br>
+ * so repeated calls for unchanged foreign keys do not re-compute the order (the key is always rebuilt, <br>
+ * so a change in the foreign keys of a mutable model is never missed). <br>
+ * The cache keeps the most recently used results ( see 'DEFAULT_CACHE_SIZE' ). <br>
+ * Thread-safe.
+ * 
+ * @since 4.2.0
+ */
+public class DependencySorter {
+
+	public static final int DEFAULT_CACHE_SIZE = 16 ;
+
+	private final Map<EdgesKey, DependencyOrder> cache ;
+
+	/**
+	 * Constructor with the default cache size
+	 */
+	public DependencySorter() {
+		this(DEFAULT_CACHE_SIZE);
+	}
+
+	/**
+	 * Constructor
+	 * @param cacheSize the max number of results kept in cache
+	 */
+	public DependencySorter(int cacheSize) {
+		super();
+		if ( cacheSize < 1 ) {
+			throw new IllegalArgumentException("Invalid cache size " + cacheSize);
+		}
+		this.cache = new LinkedHashMap<EdgesKey, DependencyOrder>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<EdgesKey, DependencyOrder> eldest) {
+				return size() > cacheSize ;
+			}
+		};
+	}
+
+	/**
+	 * Returns the dependency order for the given model (from cache if already computed)
+	 * @param model
+	 * @return
+	 */
+	public DependencyOrder getDependencyOrder(Model model) {
+		EdgesKey key = new EdgesKey(model.getEntities());
+		DependencyOrder order ;
+		synchronized (cache) {
+			order = cache.get(key);
+		}
+		if ( order == null ) {
+			order = computeDependencyOrder(model);
+			synchronized (cache) {
+				cache.put(key, order);
+			}
+		}
+		return order.withEntities(model.getEntities());
+	}
+
+	/**
+	 * Removes all the cached results
+	 */
+	public void clear() {
+		synchronized (cache) {
+			cache.clear();
+		}
+	}
+
+	/**
+	 * Returns the number of cached results
+	 * @return
+	 */
+	public int getCacheSize() {
+		synchronized (cache) {
+			return cache.size();
+		}
+	}
+
+	/**
+	 * Computes the dependency order for the given model (without cache)
+	 * @param model
+	 * @return
+	 */
+	public static DependencyOrder computeDependencyOrder(Model model) {
+		return computeDependencyOrder(new ModelGraph(model), model);
+	}
+
+	/**
+	 * Computes the dependency order using an existing graph of the model (without cache)
+	 * @param graph
+	 * @param model
+	 * @return
+	 */
+	public static DependencyOrder computeDependencyOrder(ModelGraph graph, Model model) {
+		return new Computation(graph).run(model);
+	}
+
+	//------------------------------------------------------------------------------------------
+	private static class Computation {
+
+		private final ModelGraph graph ;
+		private final int n ;
+
+		private final int[] order ;
+		private int orderSize = 0 ;
+		private final List<int[]> cycles = new ArrayList<>();
+		private int[] deferredEdges = new int[4];
+		private int deferredCount = 0 ;
+
+		// component id of each entity (-1 until its component is emitted)
+		private final int[] component ;
+
+		Computation(ModelGraph graph) {
+			this.graph = graph;
+			this.n = graph.getEntityCount();
+			this.order = new int[n];
+			this.component = new int[n];
+			Arrays.fill(component, -1);
+		}
+
+		private boolean isDependency(int edge) {
+			return graph.getEdgeKind(edge) == EdgeKind.FOREIGN_KEY 
+					&& graph.getEdgeSource(edge) != graph.getEdgeTarget(edge) ;
+		}
+
+		DependencyOrder run(Model model) {
+			tarjan();
+			int[] deferredSources = new int[deferredCount];
+			int[] deferredForeignKeys = new int[deferredCount];
+			for ( int i = 0 ; i < deferredCount ; i++ ) {
+				deferredSources[i] = graph.getEdgeSource(deferredEdges[i]);
+				deferredForeignKeys[i] = graph.getEdgeElementIndex(deferredEdges[i]);
+			}
+			return new DependencyOrder(model.getEntities(), order, cycles.toArray(new int[cycles.size()][]), 
+					deferredSources, deferredForeignKeys);
+		}
+
+		/**
+		 * Iterative Tarjan algorithm (no recursion to support large models)
+		 */
+		private void tarjan() {
+			int[] index = new int[n];
+			int[] low = new int[n];
+			boolean[] onStack = new boolean[n];
+			int[] stack = new int[n];
+			int sp = 0 ;
+			int[] callStack = new int[n];
+			int[] edgePos = new int[n];
+			int csp = 0 ;
+			int counter = 0 ;
+			int componentId = 0 ;
+			Arrays.fill(index, -1);
+
+			for ( int s = 0 ; s < n ; s++ ) {
+				if ( index[s] >= 0 ) {
+					continue;
+				}
+				index[s] = low[s] = counter++ ;
+				stack[sp++] = s ;
+				onStack[s] = true ;
+				callStack[csp] = s ;
+				edgePos[csp++] = graph.getOutgoingStart(s);
+				while ( csp > 0 ) {
+					int v = callStack[csp - 1] ;
+					if ( edgePos[csp - 1] < graph.getOutgoingEnd(v) ) {
+						int e = edgePos[csp - 1]++ ;
+						if ( ! isDependency(e) ) {
+							continue;
+						}
+						int w = graph.getEdgeTarget(e);
+						if ( index[w] < 0 ) {
+							index[w] = low[w] = counter++ ;
+							stack[sp++] = w ;
+							onStack[w] = true ;
+							callStack[csp] = w ;
+							edgePos[csp++] = graph.getOutgoingStart(w);
+						}
+						else if ( onStack[w] ) {
+							low[v] = Math.min(low[v], index[w]);
+						}
+					}
+					else {
+						csp-- ;
+						if ( low[v] == index[v] ) {
+							// root of a component : pop it
+							int start = sp ;
+							do {
+								start-- ;
+								onStack[stack[start]] = false ;
+								component[stack[start]] = componentId ;
+							} while ( stack[start] != v );
+							emitComponent(Arrays.copyOfRange(stack, start, sp), componentId);
+							sp = start ;
+							componentId++ ;
+						}
+						if ( csp > 0 ) {
+							int u = callStack[csp - 1] ;
+							low[u] = Math.min(low[u], low[v]);
+						}
+					}
+				}
+			}
+		}
+
+		/**
+		 * Tarjan emits a component after all the components it depends on
+		 * @param members
+		 * @param componentId
+		 */
+		private void emitComponent(int[] members, int componentId) {
+			if ( members.length == 1 ) {
+				order[orderSize++] = members[0] ;
+				return;
+			}
+			Arrays.sort(members);
+			cycles.add(members);
+			// remaining dependencies of each member inside the component
+			int[] remaining = new int[members.length];
+			boolean[] placed = new boolean[members.length];
+			for ( int m = 0 ; m < members.length ; m++ ) {
+				int v = members[m] ;
+				for ( int e = graph.getOutgoingStart(v) ; e < graph.getOutgoingEnd(v) ; e++ ) {
+					if ( isDependency(e) && component[graph.getEdgeTarget(e)] == componentId ) {
+						remaining[m]++ ;
+					}
+				}
+			}
+			for ( int step = 0 ; step < members.length ; step++ ) {
+				// select the member with the fewest remaining dependencies (model order if equal)
+				int best = -1 ;
+				for ( int m = 0 ; m < members.length ; m++ ) {
+					if ( ! placed[m] && ( best < 0 || remaining[m] < remaining[best] ) ) {
+						best = m ;
+					}
+				}
+				placed[best] = true ;
+				int v = members[best] ;
+				order[orderSize++] = v ;
+				// its dependencies not yet placed are deferred
+				for ( int e = graph.getOutgoingStart(v) ; e < graph.getOutgoingEnd(v) ; e++ ) {
+					if ( isDependency(e) ) {
+						int w = graph.getEdgeTarget(e);
+						if ( component[w] == componentId && ! placed[Arrays.binarySearch(members, w)] ) {
+							addDeferredEdge(e);
+						}
+					}
+				}
+				// the members depending on it have one dependency less
+				for ( int k = graph.getIncomingStart(v) ; k < graph.getIncomingEnd(v) ; k++ ) {
+					int e = graph.getIncomingEdge(k);
+					if ( isDependency(e) && component[graph.getEdgeSource(e)] == componentId ) {
+						remaining[Arrays.binarySearch(members, graph.getEdgeSource(e))]-- ;
+					}
+				}
+			}
+		}
+
+		private void addDeferredEdge(int edge) {
+			if ( deferredCount == deferredEdges.length ) {
+				deferredEdges = Arrays.copyOf(deferredEdges, deferredCount * 2);
+			}
+			deferredEdges[deferredCount++] = edge ;
+		}
+	}
+
+	//------------------------------------------------------------------------------------------
+	/**
+	 * Cache key : the only model elements used by the computation <br>
+	 * ( class name of each entity followed by the referenced entity of each foreign key )
+	 */
+	private static final class EdgesKey {
+
+		private final String[] names ;
+		private final int[] foreignKeysCounts ;
+		private final int hash ;
+
+		EdgesKey(List<Entity> entities) {
+			int size = entities.size();
+			for ( Entity entity : entities ) {
+				size += entity.getForeignKeys().size();
+			}
+			this.names = new String[size];
+			this.foreignKeysCounts = new int[entities.size()];
+			int i = 0 ;
+			for ( int e = 0 ; e < entities.size() ; e++ ) {
+				Entity entity = entities.get(e);
+				names[i++] = entity.getClassName();
+				List<ForeignKey> foreignKeys = entity.getForeignKeys();
+				foreignKeysCounts[e] = foreignKeys.size();
+				for ( ForeignKey fk : foreignKeys ) {
+					names[i++] = fk.getReferencedEntityName();
+				}
+			}
+			this.hash = 31 * Arrays.hashCode(names) + Arrays.hashCode(foreignKeysCounts);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if ( this == obj ) {
+				return true ;
+			}
+			if ( ! ( obj instanceof EdgesKey ) ) {
+				return false ;
+			}
+			EdgesKey other = (EdgesKey) obj ;
+			return hash == other.hash && Arrays.equals(foreignKeysCounts, other.foreignKeysCounts) 
+					&& Arrays.equals(names, other.names) ;
+		}
+	}
+}
@@ -0,0 +1,174 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.util;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import org.telosys.tools.generic.model.Attribute;
+import org.telosys.tools.generic.model.Entity;
+
+/**
+ * Flags of all the attributes of an entity (see {@link AttributeFlags}) <br>
+ * and attribute sets selected by flags, computed once and cached <br>
+ * <br>
+ * Usage : <br>
+ *   EntityAttributeSets sets = new EntityAttributeSets(entity); <br>
+ *   AttributeSet fkNotKey = sets.select(AttributeFlags.FK, AttributeFlags.KEY_ELEMENT); <br>
+ *   AttributeSet s = sets.getNotNullAttributes().andNot(sets.getKeyAttributes()); <br>
+ * <br>
+ * The entity attributes must not change after the creation. Thread-safe.
+ * 
+ * @since 4.2.0
+ */
+public class EntityAttributeSets {
+
+	private final Entity entity ;
+	private final List<Attribute> attributes ;
+	private final int[] flags ;
+
+	// cached sets, key = ( required flags , excluded flags )
+	private final Map<Long, AttributeSet> cache = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructor
+	 * @param entity
+	 */
+	public EntityAttributeSets(Entity entity) {
+		super();
+		this.entity = entity ;
+		this.attributes = entity.getAttributes();
+		this.flags = new int[attributes.size()];
+		for ( int i = 0 ; i < flags.length ; i++ ) {
+			flags[i] = AttributeFlags.of(attributes.get(i));
+		}
+	}
+
+	/**
+	 * Returns the entity
+	 * @return
+	 */
+	public Entity getEntity() {
+		return entity;
+	}
+
+	/**
+	 * Returns the flags of the attribute at the given ordinal
+	 * @param ordinal
+	 * @return
+	 */
+	public int getFlags(int ordinal) {
+		return flags[ordinal];
+	}
+
+	/**
+	 * Returns the attributes having all the 'required' flags and none of the 'excluded' flags <br>
+	 * The result is cached 
+	 * @param requiredFlags flags combined with '|' (0 for no constraint)
+	 * @param excludedFlags flags combined with '|' (0 for no constraint)
+	 * @return
+	 */
+	public AttributeSet select(int requiredFlags, int excludedFlags) {
+		Long key = ( (long) requiredFlags << 32 ) | ( excludedFlags & 0xFFFFFFFFL ) ;
+		AttributeSet set = cache.get(key);
+		if ( set == null ) {
+			long[] bits = new long[AttributeSet.wordsCount(flags.length)];
+			for ( int i = 0 ; i < flags.length ; i++ ) {
+				int f = flags[i] ;
+				if ( ( f & requiredFlags ) == requiredFlags && ( f & excludedFlags ) == 0 ) {
+					bits[i >>> 6] |= 1L << i ;
+				}
+			}
+			set = new AttributeSet(attributes, bits);
+			AttributeSet previous = cache.putIfAbsent(key, set);
+			if ( previous != null ) {
+				set = previous ;
+			}
+		}
+		return set;
+	}
+
+	/**
+	 * Returns the attributes having all the given flags (cached)
+	 * @param requiredFlags
+	 * @return
+	 */
+	public AttributeSet with(int requiredFlags) {
+		return select(requiredFlags, 0);
+	}
+
+	/**
+	 * Returns the attributes having none of the given flags (cached)
+	 * @param excludedFlags
+	 * @return
+	 */
+	public AttributeSet without(int excludedFlags) {
+		return select(0, excludedFlags);
+	}
+
+	/**
+	 * Returns the attributes matching the given predicate (not cached)
+	 * @param predicate
+	 * @return
+	 */
+	public AttributeSet select(Predicate<Attribute> predicate) {
+		long[] bits = new long[AttributeSet.wordsCount(flags.length)];
+		for ( int i = 0 ; i < flags.length ; i++ ) {
+			if ( predicate.test(attributes.get(i)) ) {
+				bits[i >>> 6] |= 1L << i ;
+			}
+		}
+		return new AttributeSet(attributes, bits);
+	}
+
+	public AttributeSet getAllAttributes() {
+		return select(0, 0);
+	}
+
+	public AttributeSet getKeyAttributes() {
+		return with(AttributeFlags.KEY_ELEMENT);
+	}
+
+	public AttributeSet getNonKeyAttributes() {
+		return without(AttributeFlags.KEY_ELEMENT);
+	}
+
+	public AttributeSet getNotNullAttributes() {
+		return with(AttributeFlags.NOT_NULL);
+	}
+
+	public AttributeSet getFKAttributes() {
+		return with(AttributeFlags.FK);
+	}
+
+	public AttributeSet getGeneratedAttributes() {
+		return with(AttributeFlags.GENERATED_VALUE);
+	}
+
+	public AttributeSet getTransientAttributes() {
+		return with(AttributeFlags.TRANSIENT);
+	}
+
+	public AttributeSet getUniqueAttributes() {
+		return with(AttributeFlags.UNIQUE);
+	}
+
+	public AttributeSet getLongTextAttributes() {
+		return with(AttributeFlags.LONG_TEXT);
+	}
+}
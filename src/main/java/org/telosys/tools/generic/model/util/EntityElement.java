@@ -0,0 +1,56 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.util;
+
+import org.telosys.tools.generic.model.Entity;
+
+/**
+ * An element of an entity (attribute or link) with its entity <br>
+ * (used by the flattened streams of {@link ModelSpliterators})
+ * 
+ * @param <T> Attribute or Link
+ * 
+ * @since 4.2.0
+ */
+public final class EntityElement<T> {
+
+	private final Entity entity ;
+	private final T element ;
+
+	/**
+	 * Constructor
+	 * @param entity
+	 * @param element
+	 */
+	public EntityElement(Entity entity, T element) {
+		super();
+		this.entity = entity;
+		this.element = element;
+	}
+
+	public Entity getEntity() {
+		return entity;
+	}
+
+	public T getElement() {
+		return element;
+	}
+
+	@Override
+	public String toString() {
+		return entity.getClassName() + "." + element ;
+	}
+}
@@ -0,0 +1,188 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.telosys.tools.generic.model.Attribute;
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.ForeignKey;
+import org.telosys.tools.generic.model.Link;
+
+/**
+ * Index of the elements of an entity for O(1) lookups : <br>
+ *  . attributes by name and by database name (column) <br>
+ *  . links by field name and by referenced entity <br>
+ *  . foreign keys by name <br>
+ * Each group of tables (attributes, links, foreign keys) is built on first use, <br>
+ * so a lookup by attribute name doesn't require the links or the foreign keys. <br>
+ * The entity must not change after the first use. Thread-safe. <br>
+ * When 2 elements have the same name the first one is returned (as with a linear scan). 
+ * 
+ * @since 4.2.0
+ */
+public class EntityIndex {
+
+	private final Entity entity ;
+
+	private volatile AttributeTables attributeTables ;
+	private volatile LinkTables linkTables ;
+	private volatile NameTable<ForeignKey> foreignKeysByName ;
+
+	/**
+	 * Constructor
+	 * @param entity
+	 */
+	public EntityIndex(Entity entity) {
+		super();
+		this.entity = entity ;
+	}
+
+	private static final class AttributeTables {
+		private final NameTable<Attribute> byName ;
+		private final NameTable<Attribute> byDatabaseName ;
+		private final NameTable<Attribute> byDatabaseNameUpperCase ;
+
+		AttributeTables(List<Attribute> attributes) {
+			byName = new NameTable<>(attributes.size());
+			byDatabaseName = new NameTable<>(attributes.size());
+			byDatabaseNameUpperCase = new NameTable<>(attributes.size());
+			for ( Attribute a : attributes ) {
+				byName.putIfAbsent(a.getName(), a);
+				String databaseName = a.getDatabaseName() ;
+				if ( databaseName != null ) {
+					byDatabaseName.putIfAbsent(databaseName, a);
+					byDatabaseNameUpperCase.putIfAbsent(databaseName.toUpperCase(Locale.ROOT), a);
+				}
+			}
+		}
+	}
+
+	private static final class LinkTables {
+		private final NameTable<Link> byFieldName ;
+		private final NameTable<List<Link>> byReferencedEntity ;
+
+		LinkTables(List<Link> links) {
+			byFieldName = new NameTable<>(links.size());
+			Map<String, List<Link>> map = new LinkedHashMap<>();
+			for ( Link link : links ) {
+				byFieldName.putIfAbsent(link.getFieldName(), link);
+				if ( link.getReferencedEntityName() != null ) {
+					map.computeIfAbsent(link.getReferencedEntityName(), k -> new ArrayList<>(2)).add(link);
+				}
+			}
+			byReferencedEntity = new NameTable<>(map.size());
+			for ( Map.Entry<String, List<Link>> e : map.entrySet() ) {
+				byReferencedEntity.putIfAbsent(e.getKey(), Collections.unmodifiableList(e.getValue()));
+			}
+		}
+	}
+
+	// the tables are immutable : building them twice in case of concurrent first use is harmless
+	private AttributeTables attributeTables() {
+		AttributeTables t = attributeTables ;
+		if ( t == null ) {
+			t = new AttributeTables(entity.getAttributes());
+			attributeTables = t ;
+		}
+		return t ;
+	}
+
+	private LinkTables linkTables() {
+		LinkTables t = linkTables ;
+		if ( t == null ) {
+			t = new LinkTables(entity.getLinks());
+			linkTables = t ;
+		}
+		return t ;
+	}
+
+	private NameTable<ForeignKey> foreignKeysByName() {
+		NameTable<ForeignKey> t = foreignKeysByName ;
+		if ( t == null ) {
+			List<ForeignKey> foreignKeys = entity.getForeignKeys();
+			t = new NameTable<>(foreignKeys.size());
+			for ( ForeignKey fk : foreignKeys ) {
+				t.putIfAbsent(fk.getName(), fk);
+			}
+			foreignKeysByName = t ;
+		}
+		return t ;
+	}
+
+	/**
+	 * Returns the attribute with the given name (or null if none)
+	 * @param name
+	 * @return
+	 */
+	public Attribute getAttributeByName(String name) {
+		return attributeTables().byName.get(name);
+	}
+
+	/**
+	 * Returns the attribute with the given database name (or null if none)
+	 * @param databaseName
+	 * @return
+	 */
+	public Attribute getAttributeByDatabaseName(String databaseName) {
+		return attributeTables().byDatabaseName.get(databaseName);
+	}
+
+	/**
+	 * Returns the attribute with the given database name ignoring case (or null if none)
+	 * @param databaseName
+	 * @return
+	 */
+	public Attribute getAttributeByDatabaseNameIgnoreCase(String databaseName) {
+		if ( databaseName == null ) {
+			return null ;
+		}
+		return attributeTables().byDatabaseNameUpperCase.get(databaseName.toUpperCase(Locale.ROOT));
+	}
+
+	/**
+	 * Returns the link with the given field name (or null if none)
+	 * @param fieldName
+	 * @return
+	 */
+	public Link getLinkByFieldName(String fieldName) {
+		return linkTables().byFieldName.get(fieldName);
+	}
+
+	/**
+	 * Returns the links referencing the given entity (void list if none)
+	 * @param entityName
+	 * @return
+	 */
+	public List<Link> getLinksByReferencedEntity(String entityName) {
+		List<Link> list = linkTables().byReferencedEntity.get(entityName);
+		return list != null ? list : Collections.<Link>emptyList() ;
+	}
+
+	/**
+	 * Returns the foreign key with the given name (or null if none)
+	 * @param name
+	 * @return
+	 */
+	public ForeignKey getForeignKeyByName(String name) {
+		return foreignKeysByName().get(name);
+	}
+}
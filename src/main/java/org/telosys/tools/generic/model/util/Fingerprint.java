@@ -0,0 +1,107 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.util;
+
+/**
+ * Immutable 128-bit content fingerprint of a model element <br>
+ * (see {@link ModelFingerprinter}) <br>
+ * The hexadecimal form (32 chars) can be stored and compared later.
+ * 
+ * @since 4.2.0
+ */
+public final class Fingerprint {
+
+	private final long high ;
+	private final long low ;
+
+	/**
+	 * Constructor
+	 * @param high the 64 high bits
+	 * @param low the 64 low bits
+	 */
+	public Fingerprint(long high, long low) {
+		super();
+		this.high = high;
+		this.low = low;
+	}
+
+	/**
+	 * Returns a fingerprint from its hexadecimal form
+	 * @param hex a 32 chars hexadecimal string
+	 * @return
+	 */
+	public static Fingerprint fromHexString(String hex) {
+		if ( hex == null || hex.length() != 32 ) {
+			throw new IllegalArgumentException("Invalid fingerprint '" + hex + "' (32 hex chars expected)");
+		}
+		try {
+			return new Fingerprint(Long.parseUnsignedLong(hex.substring(0, 16), 16), 
+					Long.parseUnsignedLong(hex.substring(16), 16));
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid fingerprint '" + hex + "' (32 hex chars expected)", e);
+		}
+	}
+
+	public long getHigh() {
+		return high;
+	}
+
+	public long getLow() {
+		return low;
+	}
+
+	/**
+	 * Returns the 32 chars hexadecimal form
+	 * @return
+	 */
+	public String toHexString() {
+		char[] chars = new char[32];
+		fill(chars, 0, high);
+		fill(chars, 16, low);
+		return new String(chars);
+	}
+
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	private static void fill(char[] chars, int offset, long v) {
+		for ( int i = 15 ; i >= 0 ; i-- ) {
+			chars[offset + i] = HEX[(int) ( v & 0xf )];
+			v >>>= 4 ;
+		}
+	}
+
+	@Override
+	public int hashCode() {
+		return (int) ( low ^ ( low >>> 32 ) ) ;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if ( this == obj ) {
+			return true;
+		}
+		if ( !( obj instanceof Fingerprint ) ) {
+			return false;
+		}
+		Fingerprint other = (Fingerprint) obj;
+		return high == other.high && low == other.low ;
+	}
+
+	@Override
+	public String toString() {
+		return toHexString();
+	}
+}
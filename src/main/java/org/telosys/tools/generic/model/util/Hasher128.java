@@ -0,0 +1,234 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.util;
+
+import java.util.Collection;
+
+/**
+ * Reusable 128-bit hasher (MurmurHash3 x64 128) <br>
+ * Values are appended to an internal buffer with a type marker and a length <br>
+ * in order to avoid ambiguities (e.g. null vs "" or ["a","b"] vs ["ab"]). <br>
+ * Not thread-safe.
+ * 
+ * @since 4.2.0
+ */
+class Hasher128 {
+
+	private static final long C1 = 0x87c37b91114253d5L ;
+	private static final long C2 = 0x4cf5ad432745937fL ;
+
+	private static final byte NULL_MARKER        = 0 ;
+	private static final byte STRING_MARKER      = 1 ;
+	private static final byte COLLECTION_MARKER  = 2 ;
+	private static final byte FINGERPRINT_MARKER = 3 ;
+	private static final byte INT_MARKER         = 4 ;
+
+	private byte[] buffer = new byte[256] ;
+	private int size = 0 ;
+
+	/**
+	 * Clears the buffer (to start a new hash)
+	 * @return
+	 */
+	Hasher128 reset() {
+		size = 0 ;
+		return this;
+	}
+
+	/**
+	 * Appends a value (String, Boolean, Number, Enum, Collection or null)
+	 * @param value
+	 * @return
+	 */
+	Hasher128 putValue(Object value) {
+		if ( value == null ) {
+			ensureCapacity(1);
+			buffer[size++] = NULL_MARKER ;
+		}
+		else if ( value instanceof Collection ) {
+			Collection<?> collection = (Collection<?>) value ;
+			ensureCapacity(1);
+			buffer[size++] = COLLECTION_MARKER ;
+			writeInt(collection.size());
+			for ( Object o : collection ) {
+				putValue(o);
+			}
+		}
+		else if ( value instanceof Enum ) {
+			putString(((Enum<?>) value).name());
+		}
+		else {
+			putString(value.toString());
+		}
+		return this;
+	}
+
+	/**
+	 * Appends a string (UTF-16 chars)
+	 * @param s
+	 * @return
+	 */
+	Hasher128 putString(String s) {
+		if ( s == null ) {
+			return putValue(null);
+		}
+		int length = s.length();
+		ensureCapacity(5 + 2 * length);
+		buffer[size++] = STRING_MARKER ;
+		writeInt(length);
+		for ( int i = 0 ; i < length ; i++ ) {
+			char c = s.charAt(i);
+			buffer[size++] = (byte) c ;
+			buffer[size++] = (byte) ( c >>> 8 ) ;
+		}
+		return this;
+	}
+
+	/**
+	 * Appends an int value
+	 * @param v
+	 * @return
+	 */
+	Hasher128 putInt(int v) {
+		ensureCapacity(5);
+		buffer[size++] = INT_MARKER ;
+		writeInt(v);
+		return this;
+	}
+
+	/**
+	 * Appends a child fingerprint 
+	 * @param fingerprint
+	 * @return
+	 */
+	Hasher128 putFingerprint(Fingerprint fingerprint) {
+		ensureCapacity(17);
+		buffer[size++] = FINGERPRINT_MARKER ;
+		writeLong(fingerprint.getHigh());
+		writeLong(fingerprint.getLow());
+		return this;
+	}
+
+	/**
+	 * Returns the hash of the current buffer content
+	 * @return
+	 */
+	Fingerprint hash() {
+		return hash(buffer, size, 0L);
+	}
+
+	private void writeInt(int v) {
+		ensureCapacity(4);
+		buffer[size++] = (byte) v ;
+		buffer[size++] = (byte) ( v >>> 8 ) ;
+		buffer[size++] = (byte) ( v >>> 16 ) ;
+		buffer[size++] = (byte) ( v >>> 24 ) ;
+	}
+
+	private void writeLong(long v) {
+		ensureCapacity(8);
+		for ( int i = 0 ; i < 64 ; i += 8 ) {
+			buffer[size++] = (byte) ( v >>> i ) ;
+		}
+	}
+
+	private void ensureCapacity(int n) {
+		if ( size + n > buffer.length ) {
+			byte[] newBuffer = new byte[Math.max(buffer.length * 2, size + n)];
+			System.arraycopy(buffer, 0, newBuffer, 0, size);
+			buffer = newBuffer ;
+		}
+	}
+
+	//------------------------------------------------------------------------------------------
+	// MurmurHash3 x64 128
+	//------------------------------------------------------------------------------------------
+	static Fingerprint hash(byte[] data, int length, long seed) {
+		long h1 = seed ;
+		long h2 = seed ;
+		int blocksEnd = length - ( length & 15 ) ;
+		for ( int i = 0 ; i < blocksEnd ; i += 16 ) {
+			long k1 = getLong(data, i);
+			long k2 = getLong(data, i + 8);
+			h1 ^= mixK1(k1);
+			h1 = Long.rotateLeft(h1, 27);
+			h1 += h2 ;
+			h1 = h1 * 5 + 0x52dce729 ;
+			h2 ^= mixK2(k2);
+			h2 = Long.rotateLeft(h2, 31);
+			h2 += h1 ;
+			h2 = h2 * 5 + 0x38495ab5 ;
+		}
+		int tail = length & 15 ;
+		if ( tail > 8 ) {
+			long k2 = 0 ;
+			for ( int i = tail - 1 ; i >= 8 ; i-- ) {
+				k2 ^= ( (long) ( data[blocksEnd + i] & 0xff ) ) << ( ( i - 8 ) * 8 ) ;
+			}
+			h2 ^= mixK2(k2);
+		}
+		if ( tail > 0 ) {
+			long k1 = 0 ;
+			for ( int i = Math.min(tail, 8) - 1 ; i >= 0 ; i-- ) {
+				k1 ^= ( (long) ( data[blocksEnd + i] & 0xff ) ) << ( i * 8 ) ;
+			}
+			h1 ^= mixK1(k1);
+		}
+		h1 ^= length ;
+		h2 ^= length ;
+		h1 += h2 ;
+		h2 += h1 ;
+		h1 = fmix64(h1);
+		h2 = fmix64(h2);
+		h1 += h2 ;
+		h2 += h1 ;
+		return new Fingerprint(h1, h2);
+	}
+
+	private static long getLong(byte[] b, int i) {
+		return   ( b[i] & 0xffL ) 
+			| ( ( b[i+1] & 0xffL ) << 8 )
+			| ( ( b[i+2] & 0xffL ) << 16 )
+			| ( ( b[i+3] & 0xffL ) << 24 )
+			| ( ( b[i+4] & 0xffL ) << 32 )
+			| ( ( b[i+5] & 0xffL ) << 40 )
+			| ( ( b[i+6] & 0xffL ) << 48 )
+			| ( ( b[i+7] & 0xffL ) << 56 ) ;
+	}
+
+	private static long mixK1(long k1) {
+		k1 *= C1 ;
+		k1 = Long.rotateLeft(k1, 31);
+		k1 *= C2 ;
+		return k1;
+	}
+
+	private static long mixK2(long k2) {
+		k2 *= C2 ;
+		k2 = Long.rotateLeft(k2, 33);
+		k2 *= C1 ;
+		return k2;
+	}
+
+	private static long fmix64(long k) {
+		k ^= k >>> 33 ;
+		k *= 0xff51afd7ed558ccdL ;
+		k ^= k >>> 33 ;
+		k *= 0xc4ceb9fe1a85ec53L ;
+		k ^= k >>> 33 ;
+		return k;
+	}
+}
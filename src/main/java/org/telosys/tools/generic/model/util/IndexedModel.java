@@ -0,0 +1,137 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.util;
+
+import java.util.List;
+
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.Model;
+import org.telosys.tools.generic.model.enums.ModelType;
+
+/**
+ * Model decorator using a {@link ModelIndex} for 'getEntityByClassName' and 'getEntityByTableName' <br>
+ * All other methods are delegated to the original model <br>
+ * The index is built once when the decorator is created, so the original model <br>
+ * is not supposed to change after that.
+ * 
+ * @since 4.2.0
+ */
+public class IndexedModel implements Model {
+
+	private final Model      model ;
+	private final ModelIndex index ;
+
+	/**
+	 * Returns an indexed model for the given model (or the model itself if it's already indexed)
+	 * @param model
+	 * @return
+	 */
+	public static IndexedModel of(Model model) {
+		if ( model instanceof IndexedModel ) {
+			return (IndexedModel) model ;
+		}
+		return new IndexedModel(model);
+	}
+
+	/**
+	 * Constructor
+	 * @param model the model to be decorated
+	 */
+	public IndexedModel(Model model) {
+		super();
+		if ( model == null ) {
+			throw new IllegalArgumentException("IndexedModel constructor : model is null");
+		}
+		this.model = model ;
+		this.index = new ModelIndex(model);
+	}
+
+	/**
+	 * Returns the original model
+	 * @return
+	 */
+	public Model getModel() {
+		return model;
+	}
+
+	/**
+	 * Returns the index used by this model
+	 * @return
+	 */
+	public ModelIndex getIndex() {
+		return index;
+	}
+
+	@Override
+	public String getName() {
+		return model.getName();
+	}
+
+	@Override
+	public String getFolderName() {
+		return model.getFolderName();
+	}
+
+	@Override
+	public ModelType getType() {
+		return model.getType();
+	}
+
+	@Override
+	public String getVersion() {
+		return model.getVersion();
+	}
+
+	@Override
+	public String getTitle() {
+		return model.getTitle();
+	}
+
+	@Override
+	public String getDescription() {
+		return model.getDescription();
+	}
+
+	@Override
+	public String getDatabaseId() {
+		return model.getDatabaseId();
+	}
+
+	@Override
+	public String getDatabaseName() {
+		return model.getDatabaseName();
+	}
+
+	@Override
+	public String getDatabaseType() {
+		return model.getDatabaseType();
+	}
+
+	@Override
+	public Entity getEntityByClassName(String entityClassName) {
+		return index.getEntityByClassName(entityClassName);
+	}
+
+	@Override
+	public Entity getEntityByTableName(String entityTableName) {
+		return index.getEntityByTableName(entityTableName);
+	}
+
+	@Override
+	public List<Entity> getEntities() {
+		return model.getEntities();
+	}
+}
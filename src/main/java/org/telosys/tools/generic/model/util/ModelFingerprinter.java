@@ -0,0 +1,342 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.util;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.telosys.tools.generic.model.Attribute;
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.ForeignKey;
+import org.telosys.tools.generic.model.Link;
+import org.telosys.tools.generic.model.Model;
+import org.telosys.tools.generic.model.TagContainer;
+
+/**
+ * Computes deterministic 128-bit fingerprints (Merkle hashes) for a model and its elements <br>
+ * <br>
+ * . attribute / link / foreign key : hash of all its properties (see {@link ModelProperties}) and its tags <br>
+ * . entity : hash of its properties, its tags and the fingerprints of its attributes, links and foreign keys <br>
+ * . model : hash of its properties and the fingerprints of its entities <br>
+ * <br>
+ * The fingerprints of the entities and their children are cached (by instance, with weak references <br>
+ * so that the elements no longer used are removed from the cache). <br>
+ * After a change in a mutable model, the changed elements must be invalidated <br>
+ * ( e.g. invalidateAttribute(entity, attribute) ), then the next call to fingerprint(model) <br>
+ * only re-hashes the invalidated elements and reuses the cached fingerprints for the others. <br>
+ * <br>
+ * The fingerprints are stable across JVM runs (they only depend on the model content) <br>
+ * and can be stored to detect the entities changed since the last generation. <br>
+ * Thread-safe.
+ * 
+ * @since 4.2.0
+ */
+public class ModelFingerprinter {
+
+	private final WeakIdentityCache cache = new WeakIdentityCache();
+
+	private final Hasher128 hasher = new Hasher128();
+
+	/**
+	 * Returns the fingerprint of the given model without cache
+	 * @param model
+	 * @return
+	 */
+	public static Fingerprint fingerprintOf(Model model) {
+		return new ModelFingerprinter().fingerprint(model);
+	}
+
+	/**
+	 * Returns the fingerprint of the given model (the root of the Merkle tree) <br>
+	 * The model fingerprint itself is not cached (only the entities fingerprints)
+	 * @param model
+	 * @return
+	 */
+	public synchronized Fingerprint fingerprint(Model model) {
+		List<Fingerprint> entities = new ArrayList<>(model.getEntities().size());
+		for ( Entity entity : model.getEntities() ) {
+			entities.add(fingerprint(entity));
+		}
+		hasher.reset();
+		putValues(ModelProperties.getModelValues(model));
+		putFingerprints(entities);
+		return hasher.hash();
+	}
+
+	/**
+	 * Returns the fingerprint of each entity of the given model (key = class name, in model order)
+	 * @param model
+	 * @return
+	 */
+	public synchronized Map<String, Fingerprint> getEntityFingerprints(Model model) {
+		Map<String, Fingerprint> map = new LinkedHashMap<>();
+		for ( Entity entity : model.getEntities() ) {
+			map.put(entity.getClassName(), fingerprint(entity));
+		}
+		return map;
+	}
+
+	/**
+	 * Returns the fingerprint of the given entity 
+	 * @param entity
+	 * @return
+	 */
+	public synchronized Fingerprint fingerprint(Entity entity) {
+		Fingerprint fingerprint = cache.get(entity);
+		if ( fingerprint == null ) {
+			List<Fingerprint> attributes = new ArrayList<>(entity.getAttributes().size());
+			for ( Attribute attribute : entity.getAttributes() ) {
+				attributes.add(fingerprint(attribute));
+			}
+			List<Fingerprint> links = new ArrayList<>(entity.getLinks().size());
+			for ( Link link : entity.getLinks() ) {
+				links.add(fingerprint(link));
+			}
+			List<Fingerprint> foreignKeys = new ArrayList<>(entity.getForeignKeys().size());
+			for ( ForeignKey fk : entity.getForeignKeys() ) {
+				foreignKeys.add(fingerprint(fk));
+			}
+			hasher.reset();
+			putValues(ModelProperties.getEntityValues(entity));
+			putTags(entity.getTagContainer());
+			putFingerprints(attributes);
+			putFingerprints(links);
+			putFingerprints(foreignKeys);
+			fingerprint = hasher.hash();
+			cache.put(entity, fingerprint);
+		}
+		return fingerprint;
+	}
+
+	/**
+	 * Returns the fingerprint of the given attribute 
+	 * @param attribute
+	 * @return
+	 */
+	public synchronized Fingerprint fingerprint(Attribute attribute) {
+		Fingerprint fingerprint = cache.get(attribute);
+		if ( fingerprint == null ) {
+			hasher.reset();
+			putValues(ModelProperties.getAttributeValues(attribute));
+			putTags(attribute.getTagContainer());
+			fingerprint = hasher.hash();
+			cache.put(attribute, fingerprint);
+		}
+		return fingerprint;
+	}
+
+	/**
+	 * Returns the fingerprint of the given link 
+	 * @param link
+	 * @return
+	 */
+	public synchronized Fingerprint fingerprint(Link link) {
+		Fingerprint fingerprint = cache.get(link);
+		if ( fingerprint == null ) {
+			hasher.reset();
+			putValues(ModelProperties.getLinkValues(link));
+			putTags(link.getTagContainer());
+			fingerprint = hasher.hash();
+			cache.put(link, fingerprint);
+		}
+		return fingerprint;
+	}
+
+	/**
+	 * Returns the fingerprint of the given foreign key 
+	 * @param foreignKey
+	 * @return
+	 */
+	public synchronized Fingerprint fingerprint(ForeignKey foreignKey) {
+		Fingerprint fingerprint = cache.get(foreignKey);
+		if ( fingerprint == null ) {
+			hasher.reset();
+			putValues(ModelProperties.getForeignKeyValues(foreignKey));
+			fingerprint = hasher.hash();
+			cache.put(foreignKey, fingerprint);
+		}
+		return fingerprint;
+	}
+
+	/**
+	 * Invalidates the entity fingerprint and the fingerprints of its current attributes, links and foreign keys <br>
+	 * (to be called after any change in the entity or in its elements) 
+	 * @param entity
+	 */
+	public synchronized void invalidateEntity(Entity entity) {
+		for ( Attribute attribute : entity.getAttributes() ) {
+			cache.remove(attribute);
+		}
+		for ( Link link : entity.getLinks() ) {
+			cache.remove(link);
+		}
+		for ( ForeignKey fk : entity.getForeignKeys() ) {
+			cache.remove(fk);
+		}
+		cache.remove(entity);
+	}
+
+	/**
+	 * Invalidates the given attribute and its entity
+	 * @param entity
+	 * @param attribute
+	 */
+	public synchronized void invalidateAttribute(Entity entity, Attribute attribute) {
+		cache.remove(attribute);
+		cache.remove(entity);
+	}
+
+	/**
+	 * Invalidates the given link and its entity
+	 * @param entity
+	 * @param link
+	 */
+	public synchronized void invalidateLink(Entity entity, Link link) {
+		cache.remove(link);
+		cache.remove(entity);
+	}
+
+	/**
+	 * Invalidates the given foreign key and its entity
+	 * @param entity
+	 * @param foreignKey
+	 */
+	public synchronized void invalidateForeignKey(Entity entity, ForeignKey foreignKey) {
+		cache.remove(foreignKey);
+		cache.remove(entity);
+	}
+
+	/**
+	 * Removes all the cached fingerprints 
+	 */
+	public synchronized void clear() {
+		cache.clear();
+	}
+
+	/**
+	 * Returns the number of fingerprints currently in cache
+	 * @return
+	 */
+	public synchronized int getCacheSize() {
+		return cache.size();
+	}
+
+	//------------------------------------------------------------------------------------------
+	private void putValues(Object[] values) {
+		for ( Object value : values ) {
+			hasher.putValue(value);
+		}
+	}
+
+	private void putFingerprints(List<Fingerprint> fingerprints) {
+		hasher.putInt(fingerprints.size());
+		for ( Fingerprint f : fingerprints ) {
+			hasher.putFingerprint(f);
+		}
+	}
+
+	/**
+	 * Tags are hashed in tag name order (the declaration order is not significant)
+	 * @param tagContainer
+	 */
+	private void putTags(TagContainer tagContainer) {
+		if ( tagContainer == null || tagContainer.isEmpty() ) {
+			hasher.putInt(0);
+			return;
+		}
+		List<String> names = new ArrayList<>(tagContainer.getTagNames());
+		Collections.sort(names);
+		hasher.putInt(names.size());
+		for ( String name : names ) {
+			hasher.putString(name);
+			hasher.putString(tagContainer.getTagValue(name));
+		}
+	}
+
+	/**
+	 * Identity map with weak keys (an element collected by the GC is removed at the next access)
+	 */
+	private static final class WeakIdentityCache {
+
+		private final Map<IdentityKey, Fingerprint> map = new HashMap<>();
+		private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+
+		private Fingerprint get(Object element) {
+			expunge();
+			return map.get(new IdentityKey(element, null));
+		}
+
+		private void put(Object element, Fingerprint fingerprint) {
+			expunge();
+			map.put(new IdentityKey(element, queue), fingerprint);
+		}
+
+		private void remove(Object element) {
+			map.remove(new IdentityKey(element, null));
+		}
+
+		private void clear() {
+			map.clear();
+			expunge();
+		}
+
+		private int size() {
+			expunge();
+			return map.size();
+		}
+
+		private void expunge() {
+			Reference<?> ref ;
+			while ( ( ref = queue.poll() ) != null ) {
+				map.remove(ref);
+			}
+		}
+	}
+
+	private static final class IdentityKey extends WeakReference<Object> {
+
+		private final int hash ;
+
+		private IdentityKey(Object element, ReferenceQueue<Object> queue) {
+			super(element, queue);
+			this.hash = System.identityHashCode(element);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if ( this == obj ) {
+				return true ;
+			}
+			if ( ! ( obj instanceof IdentityKey ) ) {
+				return false ;
+			}
+			Object element = get();
+			return element != null && element == ((IdentityKey) obj).get() ;
+		}
+	}
+}
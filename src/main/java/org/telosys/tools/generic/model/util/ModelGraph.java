@@ -0,0 +1,413 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.ForeignKey;
+import org.telosys.tools.generic.model.Link;
+import org.telosys.tools.generic.model.Model;
+
+/**
+ * Immutable graph of the references between the entities of a model <br>
+ * <br>
+ * Each entity is a node identified by its index in 'model.getEntities()'. <br>
+ * Each reference is an edge identified by an int (edge id) : <br>
+ *  . LINK        : entity --> link.getReferencedEntityName() <br>
+ *  . JOIN_ENTITY : entity --> link.getJoinEntityName() <br>
+ *  . FOREIGN_KEY : entity --> foreignKey.getReferencedEntityName() <br>
+ * References to an entity not defined in the model are ignored. <br>
+ * <br>
+ * Forward and reverse adjacencies are stored in primitive arrays (CSR layout) : <br>
+ * the outgoing edges of the entity 'i' are the edge ids in [ getOutgoingStart(i), getOutgoingEnd(i) ) <br>
+ * the incoming edges of the entity 'i' are getIncomingEdge(k) for k in [ getIncomingStart(i), getIncomingEnd(i) ) <br>
+ * <br>
+ * Usage : <br>
+ *   ModelGraph graph = new ModelGraph(model); <br>
+ *   int i = graph.getEntityIndex("Book"); <br>
+ *   for ( int k = graph.getIncomingStart(i) ; k &lt; graph.getIncomingEnd(i) ; k++ ) { <br>
+ *     int e = graph.getIncomingEdge(k); <br>
+ *     Entity origin = graph.getEntity( graph.getEdgeSource(e) ); <br>
+ *   } <br>
+ * 
+ * @since 4.2.0
+ */
+public class ModelGraph {
+
+	/**
+	 * Type of reference 
+	 */
+	public enum EdgeKind {
+		LINK, 
+		JOIN_ENTITY, 
+		FOREIGN_KEY 
+	}
+
+	private static final EdgeKind[] EDGE_KINDS = EdgeKind.values();
+
+	private final Entity[] entities ;
+	private final Map<String, Integer> entityIndexes ;
+
+	// edges sorted by source (edge id = position in these arrays)
+	private final int[]  edgeSource ;
+	private final int[]  edgeTarget ;
+	private final byte[] edgeKind ;
+	private final int[]  edgeElement ;  // index of the link or foreign key in its entity
+
+	// forward adjacency : edges of entity i in [ outOffsets[i], outOffsets[i+1] )
+	private final int[] outOffsets ;
+
+	// reverse adjacency : edge ids sorted by target
+	private final int[] inOffsets ;
+	private final int[] inEdges ;
+
+	/**
+	 * Constructor
+	 * @param model
+	 */
+	public ModelGraph(Model model) {
+		this(model.getEntities());
+	}
+
+	/**
+	 * Constructor
+	 * @param entitiesList
+	 */
+	public ModelGraph(List<Entity> entitiesList) {
+		super();
+		int n = entitiesList.size();
+		this.entities = entitiesList.toArray(new Entity[n]);
+		this.entityIndexes = new HashMap<>(ModelIndex.capacity(n));
+		for ( int i = 0 ; i < n ; i++ ) {
+			entityIndexes.putIfAbsent(entities[i].getClassName(), i);
+		}
+
+		// 1) count the edges
+		int edgesCount = 0 ;
+		for ( Entity entity : entities ) {
+			for ( Link link : entity.getLinks() ) {
+				edgesCount += indexOf(link.getReferencedEntityName()) >= 0 ? 1 : 0 ;
+				edgesCount += indexOf(link.getJoinEntityName()) >= 0 ? 1 : 0 ;
+			}
+			for ( ForeignKey fk : entity.getForeignKeys() ) {
+				edgesCount += indexOf(fk.getReferencedEntityName()) >= 0 ? 1 : 0 ;
+			}
+		}
+		this.edgeSource  = new int[edgesCount];
+		this.edgeTarget  = new int[edgesCount];
+		this.edgeKind    = new byte[edgesCount];
+		this.edgeElement = new int[edgesCount];
+		this.outOffsets  = new int[n + 1];
+
+		// 2) fill the edges (sorted by source)
+		int e = 0 ;
+		for ( int i = 0 ; i < n ; i++ ) {
+			outOffsets[i] = e ;
+			List<Link> links = entities[i].getLinks();
+			for ( int j = 0 ; j < links.size() ; j++ ) {
+				Link link = links.get(j);
+				e = addEdge(e, i, indexOf(link.getReferencedEntityName()), EdgeKind.LINK, j);
+				e = addEdge(e, i, indexOf(link.getJoinEntityName()), EdgeKind.JOIN_ENTITY, j);
+			}
+			List<ForeignKey> foreignKeys = entities[i].getForeignKeys();
+			for ( int j = 0 ; j < foreignKeys.size() ; j++ ) {
+				e = addEdge(e, i, indexOf(foreignKeys.get(j).getReferencedEntityName()), EdgeKind.FOREIGN_KEY, j);
+			}
+		}
+		outOffsets[n] = e ;
+
+		// 3) reverse adjacency (counting sort by target)
+		this.inOffsets = new int[n + 1];
+		for ( int k = 0 ; k < edgesCount ; k++ ) {
+			inOffsets[edgeTarget[k] + 1]++ ;
+		}
+		for ( int i = 0 ; i < n ; i++ ) {
+			inOffsets[i + 1] += inOffsets[i] ;
+		}
+		this.inEdges = new int[edgesCount];
+		int[] next = Arrays.copyOf(inOffsets, n);
+		for ( int k = 0 ; k < edgesCount ; k++ ) {
+			inEdges[next[edgeTarget[k]]++] = k ;
+		}
+	}
+
+	private int indexOf(String entityName) {
+		if ( entityName == null ) {
+			return -1 ;
+		}
+		Integer i = entityIndexes.get(entityName);
+		return i != null ? i : -1 ;
+	}
+
+	private int addEdge(int e, int source, int target, EdgeKind kind, int element) {
+		if ( target < 0 ) {
+			return e ;
+		}
+		edgeSource[e]  = source ;
+		edgeTarget[e]  = target ;
+		edgeKind[e]    = (byte) kind.ordinal() ;
+		edgeElement[e] = element ;
+		return e + 1 ;
+	}
+
+	//------------------------------------------------------------------------------------------
+	// Nodes
+	//------------------------------------------------------------------------------------------
+	/**
+	 * Returns the number of entities (nodes)
+	 * @return
+	 */
+	public int getEntityCount() {
+		return entities.length;
+	}
+
+	/**
+	 * Returns the entity for the given index
+	 * @param index
+	 * @return
+	 */
+	public Entity getEntity(int index) {
+		return entities[index];
+	}
+
+	/**
+	 * Returns the index of the given entity class name (or -1 if unknown)
+	 * @param className
+	 * @return
+	 */
+	public int getEntityIndex(String className) {
+		return indexOf(className);
+	}
+
+	//------------------------------------------------------------------------------------------
+	// Edges
+	//------------------------------------------------------------------------------------------
+	/**
+	 * Returns the number of edges
+	 * @return
+	 */
+	public int getEdgeCount() {
+		return edgeSource.length;
+	}
+
+	/**
+	 * Returns the index of the entity holding the reference 
+	 * @param edge
+	 * @return
+	 */
+	public int getEdgeSource(int edge) {
+		return edgeSource[edge];
+	}
+
+	/**
+	 * Returns the index of the referenced entity 
+	 * @param edge
+	 * @return
+	 */
+	public int getEdgeTarget(int edge) {
+		return edgeTarget[edge];
+	}
+
+	/**
+	 * Returns the kind of reference 
+	 * @param edge
+	 * @return
+	 */
+	public EdgeKind getEdgeKind(int edge) {
+		return EDGE_KINDS[edgeKind[edge]];
+	}
+
+	/**
+	 * Returns the index of the link (LINK or JOIN_ENTITY) or foreign key (FOREIGN_KEY) <br>
+	 * in the source entity list ( getLinks() or getForeignKeys() )
+	 * @param edge
+	 * @return
+	 */
+	public int getEdgeElementIndex(int edge) {
+		return edgeElement[edge];
+	}
+
+	/**
+	 * Returns the link at the origin of the given edge (or null for a FOREIGN_KEY edge)
+	 * @param edge
+	 * @return
+	 */
+	public Link getEdgeLink(int edge) {
+		if ( edgeKind[edge] == EdgeKind.FOREIGN_KEY.ordinal() ) {
+			return null ;
+		}
+		return entities[edgeSource[edge]].getLinks().get(edgeElement[edge]);
+	}
+
+	/**
+	 * Returns the foreign key at the origin of the given edge (or null for a LINK or JOIN_ENTITY edge)
+	 * @param edge
+	 * @return
+	 */
+	public ForeignKey getEdgeForeignKey(int edge) {
+		if ( edgeKind[edge] != EdgeKind.FOREIGN_KEY.ordinal() ) {
+			return null ;
+		}
+		return entities[edgeSource[edge]].getForeignKeys().get(edgeElement[edge]);
+	}
+
+	//------------------------------------------------------------------------------------------
+	// Adjacency
+	//------------------------------------------------------------------------------------------
+	/**
+	 * Returns the first outgoing edge id of the given entity
+	 * @param entityIndex
+	 * @return
+	 */
+	public int getOutgoingStart(int entityIndex) {
+		return outOffsets[entityIndex];
+	}
+
+	/**
+	 * Returns the outgoing edge id upper bound (exclusive) of the given entity
+	 * @param entityIndex
+	 * @return
+	 */
+	public int getOutgoingEnd(int entityIndex) {
+		return outOffsets[entityIndex + 1];
+	}
+
+	/**
+	 * Returns the number of outgoing edges (references held by the entity)
+	 * @param entityIndex
+	 * @return
+	 */
+	public int getOutgoingCount(int entityIndex) {
+		return outOffsets[entityIndex + 1] - outOffsets[entityIndex];
+	}
+
+	/**
+	 * Returns the first position of the incoming edges of the given entity
+	 * @param entityIndex
+	 * @return
+	 */
+	public int getIncomingStart(int entityIndex) {
+		return inOffsets[entityIndex];
+	}
+
+	/**
+	 * Returns the incoming edges upper bound position (exclusive) of the given entity
+	 * @param entityIndex
+	 * @return
+	 */
+	public int getIncomingEnd(int entityIndex) {
+		return inOffsets[entityIndex + 1];
+	}
+
+	/**
+	 * Returns the number of incoming edges (references to the entity)
+	 * @param entityIndex
+	 * @return
+	 */
+	public int getIncomingCount(int entityIndex) {
+		return inOffsets[entityIndex + 1] - inOffsets[entityIndex];
+	}
+
+	/**
+	 * Returns the edge id at the given position in the reverse adjacency
+	 * @param position a position in [ getIncomingStart(i), getIncomingEnd(i) )
+	 * @return
+	 */
+	public int getIncomingEdge(int position) {
+		return inEdges[position];
+	}
+
+	//------------------------------------------------------------------------------------------
+	// Convenience methods (with allocation)
+	//------------------------------------------------------------------------------------------
+	/**
+	 * Returns the distinct indexes of the entities referenced by the given entity
+	 * @param entityIndex
+	 * @return
+	 */
+	public int[] getReferencedIndexes(int entityIndex) {
+		int start = outOffsets[entityIndex];
+		int end = outOffsets[entityIndex + 1];
+		int[] result = new int[end - start];
+		for ( int e = start ; e < end ; e++ ) {
+			result[e - start] = edgeTarget[e];
+		}
+		return distinct(result);
+	}
+
+	/**
+	 * Returns the distinct indexes of the entities referencing the given entity
+	 * @param entityIndex
+	 * @return
+	 */
+	public int[] getReferencingIndexes(int entityIndex) {
+		int start = inOffsets[entityIndex];
+		int end = inOffsets[entityIndex + 1];
+		int[] result = new int[end - start];
+		for ( int k = start ; k < end ; k++ ) {
+			result[k - start] = edgeSource[inEdges[k]];
+		}
+		return distinct(result);
+	}
+
+	/**
+	 * Returns the entities referenced by the given entity (in model order, without duplicates)
+	 * @param className
+	 * @return
+	 */
+	public List<Entity> getReferencedEntities(String className) {
+		int i = indexOf(className);
+		return i >= 0 ? toEntities(getReferencedIndexes(i)) : Collections.<Entity>emptyList() ;
+	}
+
+	/**
+	 * Returns the entities referencing the given entity (in model order, without duplicates)
+	 * @param className
+	 * @return
+	 */
+	public List<Entity> getReferencingEntities(String className) {
+		int i = indexOf(className);
+		return i >= 0 ? toEntities(getReferencingIndexes(i)) : Collections.<Entity>emptyList() ;
+	}
+
+	private List<Entity> toEntities(int[] indexes) {
+		List<Entity> list = new ArrayList<>(indexes.length);
+		for ( int i : indexes ) {
+			list.add(entities[i]);
+		}
+		return list;
+	}
+
+	private static int[] distinct(int[] values) {
+		if ( values.length < 2 ) {
+			return values ;
+		}
+		Arrays.sort(values);
+		int n = 1 ;
+		for ( int i = 1 ; i < values.length ; i++ ) {
+			if ( values[i] != values[n - 1] ) {
+				values[n++] = values[i] ;
+			}
+		}
+		return n == values.length ? values : Arrays.copyOf(values, n);
+	}
+}
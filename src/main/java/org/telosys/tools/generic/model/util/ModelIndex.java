@@ -0,0 +1,200 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.util;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.Model;
+
+/**
+ * Hash index of the entities of a model <br>
+ * Built once (in a single pass over 'getEntities()') then provides O(1) lookups : <br>
+ *  . by class name (exact or case-insensitive) <br>
+ *  . by table name (exact or case-insensitive) <br>
+ *  . by schema-qualified table name ( 'schema.table' ) <br>
+ * If 2 entities have the same key the first one wins (as with a linear search) <br>
+ * The index is immutable and can be shared between threads 
+ * 
+ * @since 4.2.0
+ */
+public class ModelIndex {
+
+	private static final char SCHEMA_SEPARATOR = '.' ;
+
+	private final Map<String, Entity> byClassName ;
+	private final Map<String, Entity> byClassNameIgnoreCase ;
+	private final Map<String, Entity> byTableName ;
+	private final Map<String, Entity> byTableNameIgnoreCase ;
+	private final Map<String, Entity> byQualifiedTableName ;
+	private final Map<String, Entity> byQualifiedTableNameIgnoreCase ;
+	private final int size ;
+
+	/**
+	 * Constructor
+	 * @param model
+	 */
+	public ModelIndex(Model model) {
+		this(model.getEntities());
+	}
+
+	/**
+	 * Constructor
+	 * @param entities
+	 */
+	public ModelIndex(List<Entity> entities) {
+		super();
+		int capacity = capacity(entities.size());
+		byClassName           = new HashMap<>(capacity);
+		byClassNameIgnoreCase = new HashMap<>(capacity);
+		byTableName           = new HashMap<>(capacity);
+		byTableNameIgnoreCase = new HashMap<>(capacity);
+		byQualifiedTableName           = new HashMap<>(capacity);
+		byQualifiedTableNameIgnoreCase = new HashMap<>(capacity);
+		for ( Entity entity : entities ) {
+			String className = entity.getClassName();
+			if ( className != null ) {
+				byClassName.putIfAbsent(className, entity);
+				byClassNameIgnoreCase.putIfAbsent(ignoreCaseKey(className), entity);
+			}
+			String tableName = entity.getDatabaseTable();
+			if ( tableName != null && ! tableName.isEmpty() ) {
+				byTableName.putIfAbsent(tableName, entity);
+				byTableNameIgnoreCase.putIfAbsent(ignoreCaseKey(tableName), entity);
+				String schema = entity.getDatabaseSchema();
+				if ( schema != null && ! schema.isEmpty() ) {
+					String qualifiedName = qualifiedName(schema, tableName);
+					byQualifiedTableName.putIfAbsent(qualifiedName, entity);
+					byQualifiedTableNameIgnoreCase.putIfAbsent(ignoreCaseKey(qualifiedName), entity);
+				}
+			}
+		}
+		this.size = entities.size();
+	}
+
+	/**
+	 * Returns the initial capacity of a HashMap able to store the given number of keys without rehashing
+	 * @param expectedSize
+	 * @return
+	 */
+	protected static int capacity(int expectedSize) {
+		return ( expectedSize < 3 ) ? 4 : (int) ( expectedSize / 0.75f + 1.0f ) ;
+	}
+
+	private static String ignoreCaseKey(String s) {
+		return s.toLowerCase(Locale.ROOT);
+	}
+
+	private static String qualifiedName(String schema, String tableName) {
+		return schema + SCHEMA_SEPARATOR + tableName ;
+	}
+
+	/**
+	 * Returns the number of entities indexed
+	 * @return
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the entity having the given class name (or null if none)
+	 * @param className
+	 * @return
+	 */
+	public Entity getEntityByClassName(String className) {
+		return className != null ? byClassName.get(className) : null ;
+	}
+
+	/**
+	 * Returns the entity having the given class name ignoring case (or null if none)
+	 * @param className
+	 * @return
+	 */
+	public Entity getEntityByClassNameIgnoreCase(String className) {
+		return className != null ? byClassNameIgnoreCase.get(ignoreCaseKey(className)) : null ;
+	}
+
+	/**
+	 * Returns the entity mapped with the given table name (or null if none) <br>
+	 * If not found and the name is qualified ( 'schema.table' ) the search is done with the schema
+	 * @param tableName
+	 * @return
+	 */
+	public Entity getEntityByTableName(String tableName) {
+		if ( tableName == null ) {
+			return null;
+		}
+		Entity entity = byTableName.get(tableName);
+		if ( entity == null && tableName.indexOf(SCHEMA_SEPARATOR) > 0 ) {
+			entity = byQualifiedTableName.get(tableName);
+		}
+		return entity;
+	}
+
+	/**
+	 * Returns the entity mapped with the given table name ignoring case (or null if none) <br>
+	 * If not found and the name is qualified ( 'schema.table' ) the search is done with the schema
+	 * @param tableName
+	 * @return
+	 */
+	public Entity getEntityByTableNameIgnoreCase(String tableName) {
+		if ( tableName == null ) {
+			return null;
+		}
+		String key = ignoreCaseKey(tableName);
+		Entity entity = byTableNameIgnoreCase.get(key);
+		if ( entity == null && key.indexOf(SCHEMA_SEPARATOR) > 0 ) {
+			entity = byQualifiedTableNameIgnoreCase.get(key);
+		}
+		return entity;
+	}
+
+	/**
+	 * Returns the entity mapped with the given schema and table (or null if none)
+	 * @param schema the database schema (if null or void the search is done with the table name only)
+	 * @param tableName
+	 * @return
+	 */
+	public Entity getEntityBySchemaAndTable(String schema, String tableName) {
+		if ( tableName == null ) {
+			return null;
+		}
+		if ( schema == null || schema.isEmpty() ) {
+			return byTableName.get(tableName);
+		}
+		return byQualifiedTableName.get(qualifiedName(schema, tableName));
+	}
+
+	/**
+	 * Returns the entity mapped with the given schema and table ignoring case (or null if none)
+	 * @param schema the database schema (if null or void the search is done with the table name only)
+	 * @param tableName
+	 * @return
+	 */
+	public Entity getEntityBySchemaAndTableIgnoreCase(String schema, String tableName) {
+		if ( tableName == null ) {
+			return null;
+		}
+		if ( schema == null || schema.isEmpty() ) {
+			return byTableNameIgnoreCase.get(ignoreCaseKey(tableName));
+		}
+		return byQualifiedTableNameIgnoreCase.get(ignoreCaseKey(qualifiedName(schema, tableName)));
+	}
+}
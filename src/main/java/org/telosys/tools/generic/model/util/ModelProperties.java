@@ -0,0 +1,252 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.telosys.tools.generic.model.Attribute;
+import org.telosys.tools.generic.model.CascadeOptions;
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.ForeignKey;
+import org.telosys.tools.generic.model.ForeignKeyAttribute;
+import org.telosys.tools.generic.model.ForeignKeyPart;
+import org.telosys.tools.generic.model.Link;
+import org.telosys.tools.generic.model.LinkAttribute;
+import org.telosys.tools.generic.model.Model;
+
+/**
+ * Values of all the properties exposed by the model interfaces, in a fixed order <br>
+ * (one array of names and one method returning the values in the same order for each interface) <br>
+ * Used to compare or hash model elements property by property. <br>
+ * The children (entities, attributes, links, foreign keys, tags) are not included, <br>
+ * except the small structures owned by an element : FK parts, link attributes, FK attributes, cascade options <br>
+ * which are converted to a list of strings.
+ * 
+ * @since 4.2.0
+ */
+public final class ModelProperties {
+
+	private ModelProperties() {
+	}
+
+	//------------------------------------------------------------------------------------------
+	// MODEL
+	//------------------------------------------------------------------------------------------
+	private static final String[] MODEL_PROPERTIES = { 
+			"name", "folderName", "type", "version", "title", "description", 
+			"databaseId", "databaseName", "databaseType" };
+	private static final List<String> MODEL_PROPERTY_NAMES = names(MODEL_PROPERTIES);
+
+	/**
+	 * Returns the names of the model properties
+	 * @return
+	 */
+	public static List<String> getModelPropertyNames() {
+		return MODEL_PROPERTY_NAMES;
+	}
+
+	/**
+	 * Returns the values of the model properties (same order as the names)
+	 * @param m
+	 * @return
+	 */
+	public static Object[] getModelValues(Model m) {
+		return new Object[] { 
+			m.getName(), m.getFolderName(), m.getType(), m.getVersion(), m.getTitle(), m.getDescription(),
+			m.getDatabaseId(), m.getDatabaseName(), m.getDatabaseType() };
+	}
+
+	//------------------------------------------------------------------------------------------
+	// ENTITY
+	//------------------------------------------------------------------------------------------
+	private static final String[] ENTITY_PROPERTIES = { 
+			"className", "fullName", "packageName", "superClass", "domain", "context",
+			"databaseCatalog", "databaseComment", "databaseSchema", "databaseTable", "databaseType", "databaseTablespace",
+			"tableType", "viewType", "abstract", "inMemoryRepository", "readOnly", "aggregateRoot", "databaseView", 
+			"joinEntity", "warnings" };
+	private static final List<String> ENTITY_PROPERTY_NAMES = names(ENTITY_PROPERTIES);
+
+	/**
+	 * Returns the names of the entity properties
+	 * @return
+	 */
+	public static List<String> getEntityPropertyNames() {
+		return ENTITY_PROPERTY_NAMES;
+	}
+
+	/**
+	 * Returns the values of the entity properties (same order as the names)
+	 * @param e
+	 * @return
+	 */
+	public static Object[] getEntityValues(Entity e) {
+		return new Object[] { 
+			e.getClassName(), e.getFullName(), e.getPackageName(), e.getSuperClass(), e.getDomain(), e.getContext(),
+			e.getDatabaseCatalog(), e.getDatabaseComment(), e.getDatabaseSchema(), e.getDatabaseTable(), 
+			e.getDatabaseType(), e.getDatabaseTablespace(),
+			e.isTableType(), e.isViewType(), e.isAbstract(), e.isInMemoryRepository(), e.isReadOnly(), 
+			e.isAggregateRoot(), e.isDatabaseView(), e.isJoinEntity(), e.getWarnings() };
+	}
+
+	//------------------------------------------------------------------------------------------
+	// ATTRIBUTE
+	//------------------------------------------------------------------------------------------
+	private static final String[] ATTRIBUTE_PROPERTIES = { 
+			"name", "neutralType", "booleanFalseValue", "booleanTrueValue", "databaseComment", "databaseDefaultValue",
+			"databaseName", "databaseSize", "databaseType", "dateAfterValue", "dateBeforeValue", "dateType",
+			"defaultValue", "initialValue", "inputType", "label", "pattern", "size", "referencedEntityClassName",
+			"maxLength", "minLength", "maxValue", "minValue", "scale", "precision",
+			"generatedValueStrategy", "generatedValueAllocationSize", "generatedValueInitialValue", 
+			"generatedValueSequenceName", "generatedValueTablePkColumnValue", "generatedValueTableName",
+			"insertable", "updatable",
+			"dateFuture", "datePast", "generatedValue", "keyElement", "longText", "notBlank", "notEmpty", "notNull",
+			"primitiveTypeExpected", "objectTypeExpected", "unsignedTypeExpected", 
+			"fk", "fkSimple", "fkComposite", "usedInLinks", "usedInSelectedLinks", "transient", "unique", 
+			"fkParts" };
+	private static final List<String> ATTRIBUTE_PROPERTY_NAMES = names(ATTRIBUTE_PROPERTIES);
+
+	/**
+	 * Returns the names of the attribute properties
+	 * @return
+	 */
+	public static List<String> getAttributePropertyNames() {
+		return ATTRIBUTE_PROPERTY_NAMES;
+	}
+
+	/**
+	 * Returns the values of the attribute properties (same order as the names)
+	 * @param a
+	 * @return
+	 */
+	public static Object[] getAttributeValues(Attribute a) {
+		return new Object[] {
+			a.getName(), a.getNeutralType(), a.getBooleanFalseValue(), a.getBooleanTrueValue(), 
+			a.getDatabaseComment(), a.getDatabaseDefaultValue(),
+			a.getDatabaseName(), a.getDatabaseSize(), a.getDatabaseType(), a.getDateAfterValue(), 
+			a.getDateBeforeValue(), a.getDateType(),
+			a.getDefaultValue(), a.getInitialValue(), a.getInputType(), a.getLabel(), a.getPattern(), a.getSize(), 
+			a.getReferencedEntityClassName(),
+			a.getMaxLength(), a.getMinLength(), a.getMaxValue(), a.getMinValue(), a.getScale(), a.getPrecision(),
+			a.getGeneratedValueStrategy(), a.getGeneratedValueAllocationSize(), a.getGeneratedValueInitialValue(),
+			a.getGeneratedValueSequenceName(), a.getGeneratedValueTablePkColumnValue(), a.getGeneratedValueTableName(),
+			a.getInsertable(), a.getUpdatable(),
+			a.isDateFuture(), a.isDatePast(), a.isGeneratedValue(), a.isKeyElement(), a.isLongText(), 
+			a.isNotBlank(), a.isNotEmpty(), a.isNotNull(),
+			a.isPrimitiveTypeExpected(), a.isObjectTypeExpected(), a.isUnsignedTypeExpected(),
+			a.isFK(), a.isFKSimple(), a.isFKComposite(), a.isUsedInLinks(), a.isUsedInSelectedLinks(), 
+			a.isTransient(), a.isUnique(),
+			fkPartsAsStrings(a.getFKParts()) };
+	}
+
+	private static List<String> fkPartsAsStrings(List<ForeignKeyPart> parts) {
+		if ( parts == null || parts.isEmpty() ) {
+			return Collections.emptyList();
+		}
+		List<String> list = new ArrayList<>(parts.size());
+		for ( ForeignKeyPart part : parts ) {
+			list.add(part.getFkName() + ":" + part.getReferencedEntityName() + "." + part.getReferencedAttributeName());
+		}
+		return list;
+	}
+
+	//------------------------------------------------------------------------------------------
+	// LINK
+	//------------------------------------------------------------------------------------------
+	private static final String[] LINK_PROPERTIES = { 
+			"fieldName", "referencedEntityName", "mappedBy", "foreignKeyName", "joinEntityName",
+			"optional", "cardinality", "fetchType", "insertable", "updatable", 
+			"selected", "basedOnForeignKey", "basedOnJoinEntity", "embedded", "transient", "orphanRemoval",
+			"cascadeOptions", "attributes" };
+	private static final List<String> LINK_PROPERTY_NAMES = names(LINK_PROPERTIES);
+
+	/**
+	 * Returns the names of the link properties
+	 * @return
+	 */
+	public static List<String> getLinkPropertyNames() {
+		return LINK_PROPERTY_NAMES;
+	}
+
+	/**
+	 * Returns the values of the link properties (same order as the names)
+	 * @param link
+	 * @return
+	 */
+	public static Object[] getLinkValues(Link link) {
+		CascadeOptions cascadeOptions = link.getCascadeOptions();
+		return new Object[] {
+			link.getFieldName(), link.getReferencedEntityName(), link.getMappedBy(), link.getForeignKeyName(), 
+			link.getJoinEntityName(),
+			link.getOptional(), link.getCardinality(), link.getFetchType(), link.getInsertable(), link.getUpdatable(),
+			link.isSelected(), link.isBasedOnForeignKey(), link.isBasedOnJoinEntity(), link.isEmbedded(), 
+			link.isTransient(), link.isOrphanRemoval(),
+			cascadeOptions != null ? cascadeOptions.toString() : null,
+			linkAttributesAsStrings(link.getAttributes()) };
+	}
+
+	private static List<String> linkAttributesAsStrings(List<LinkAttribute> attributes) {
+		if ( attributes == null ) {
+			return null ;
+		}
+		List<String> list = new ArrayList<>(attributes.size());
+		for ( LinkAttribute la : attributes ) {
+			list.add(la.getOriginAttributeName() + ":" + la.getReferencedAttributeName() 
+				+ ( la.isInsertable() ? ":I" : "" ) + ( la.isNullable() ? ":N" : "" )
+				+ ( la.isUnique() ? ":U" : "" ) + ( la.isUpdatable() ? ":M" : "" ) );
+		}
+		return list;
+	}
+
+	//------------------------------------------------------------------------------------------
+	// FOREIGN KEY
+	//------------------------------------------------------------------------------------------
+	private static final String[] FOREIGN_KEY_PROPERTIES = { 
+			"name", "originEntityName", "referencedEntityName", "composite", "explicit", "attributes" };
+	private static final List<String> FOREIGN_KEY_PROPERTY_NAMES = names(FOREIGN_KEY_PROPERTIES);
+
+	/**
+	 * Returns the names of the foreign key properties
+	 * @return
+	 */
+	public static List<String> getForeignKeyPropertyNames() {
+		return FOREIGN_KEY_PROPERTY_NAMES;
+	}
+
+	/**
+	 * Returns the values of the foreign key properties (same order as the names)
+	 * @param fk
+	 * @return
+	 */
+	public static Object[] getForeignKeyValues(ForeignKey fk) {
+		List<ForeignKeyAttribute> attributes = fk.getAttributes();
+		List<String> list = new ArrayList<>(attributes.size());
+		for ( ForeignKeyAttribute fka : attributes ) {
+			list.add(fka.getOrdinal() + ":" + fka.getOriginAttributeName() + ":" + fka.getReferencedAttributeName());
+		}
+		return new Object[] {
+			fk.getName(), fk.getOriginEntityName(), fk.getReferencedEntityName(), fk.isComposite(), fk.isExplicit(),
+			list };
+	}
+
+	//------------------------------------------------------------------------------------------
+	private static List<String> names(String[] names) {
+		List<String> list = new ArrayList<>(names.length);
+		Collections.addAll(list, names);
+		return Collections.unmodifiableList(list);
+	}
+}
@@ -0,0 +1,267 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.util;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.telosys.tools.generic.model.Attribute;
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.Link;
+import org.telosys.tools.generic.model.Model;
+
+/**
+ * Spliterators and streams to traverse a model in parallel <br>
+ * <br>
+ * The spliterators are SIZED and SUBSIZED : they split in halves of equal size <br>
+ * (the attributes and links spliterators split on the number of elements, not on the number of entities, <br>
+ * so a big entity does not end up in a single task). <br>
+ * The model must not be modified during the traversal. <br>
+ * <br>
+ * Usage : <br>
+ *   ModelSpliterators.attributes(model, true).filter(p -> p.getElement().isKeyElement()).count(); <br>
+ *   ModelSpliterators.forEachParallel(model, entity -> generate(entity)); <br>
+ * <br>
+ * The parallel operations use the common fork-join pool, or the current pool <br>
+ * if called from a task submitted to a specific ForkJoinPool.
+ * 
+ * @since 4.2.0
+ */
+public final class ModelSpliterators {
+
+	private ModelSpliterators() {
+	}
+
+	private static final int CHARACTERISTICS = Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED 
+			| Spliterator.NONNULL | Spliterator.IMMUTABLE ;
+
+	//------------------------------------------------------------------------------------------
+	// Spliterators
+	//------------------------------------------------------------------------------------------
+	/**
+	 * Returns a spliterator over the entities of the model 
+	 * @param model
+	 * @return
+	 */
+	public static Spliterator<Entity> entitySpliterator(Model model) {
+		List<Entity> entities = model.getEntities();
+		return Arrays.spliterator(entities.toArray(new Entity[entities.size()]));
+	}
+
+	/**
+	 * Returns a spliterator over all the (entity, attribute) pairs of the model 
+	 * @param model
+	 * @return
+	 */
+	public static Spliterator<EntityElement<Attribute>> attributeSpliterator(Model model) {
+		return new FlatSpliterator<>(model.getEntities(), Entity::getAttributes);
+	}
+
+	/**
+	 * Returns a spliterator over all the (entity, link) pairs of the model 
+	 * @param model
+	 * @return
+	 */
+	public static Spliterator<EntityElement<Link>> linkSpliterator(Model model) {
+		return new FlatSpliterator<>(model.getEntities(), Entity::getLinks);
+	}
+
+	//------------------------------------------------------------------------------------------
+	// Streams
+	//------------------------------------------------------------------------------------------
+	/**
+	 * Returns a stream of the entities 
+	 * @param model
+	 * @param parallel
+	 * @return
+	 */
+	public static Stream<Entity> entities(Model model, boolean parallel) {
+		return StreamSupport.stream(entitySpliterator(model), parallel);
+	}
+
+	/**
+	 * Returns a stream of all the (entity, attribute) pairs 
+	 * @param model
+	 * @param parallel
+	 * @return
+	 */
+	public static Stream<EntityElement<Attribute>> attributes(Model model, boolean parallel) {
+		return StreamSupport.stream(attributeSpliterator(model), parallel);
+	}
+
+	/**
+	 * Returns a stream of all the (entity, link) pairs 
+	 * @param model
+	 * @param parallel
+	 * @return
+	 */
+	public static Stream<EntityElement<Link>> links(Model model, boolean parallel) {
+		return StreamSupport.stream(linkSpliterator(model), parallel);
+	}
+
+	//------------------------------------------------------------------------------------------
+	// Parallel visitors
+	//------------------------------------------------------------------------------------------
+	/**
+	 * Applies the given action to each entity in parallel <br>
+	 * (the action must be thread-safe, the order is not defined)
+	 * @param model
+	 * @param action
+	 */
+	public static void forEachParallel(Model model, Consumer<? super Entity> action) {
+		entities(model, true).forEach(action);
+	}
+
+	/**
+	 * Applies the given action to each (entity, attribute) pair in parallel 
+	 * @param model
+	 * @param action
+	 */
+	public static void forEachAttributeParallel(Model model, BiConsumer<? super Entity, ? super Attribute> action) {
+		attributes(model, true).forEach(p -> action.accept(p.getEntity(), p.getElement()));
+	}
+
+	/**
+	 * Applies the given action to each (entity, link) pair in parallel 
+	 * @param model
+	 * @param action
+	 */
+	public static void forEachLinkParallel(Model model, BiConsumer<? super Entity, ? super Link> action) {
+		links(model, true).forEach(p -> action.accept(p.getEntity(), p.getElement()));
+	}
+
+	//------------------------------------------------------------------------------------------
+	/**
+	 * Spliterator over the elements of all the entities, flattened <br>
+	 * The element at the global position 'p' belongs to the entity 'i' where offsets[i] &lt;= p &lt; offsets[i+1] 
+	 * @param <T>
+	 */
+	private static final class FlatSpliterator<T> implements Spliterator<EntityElement<T>> {
+
+		private final Entity[] entities ;
+		private final List<T>[] elements ;
+		private final int[] offsets ;
+		private int position ;    // current global position
+		private final int fence ; // global position upper bound (exclusive)
+		private int entityIndex ; // entity of the current position
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		FlatSpliterator(List<Entity> entitiesList, Function<Entity, List<T>> elementsFunction) {
+			int n = entitiesList.size();
+			this.entities = entitiesList.toArray(new Entity[n]);
+			this.elements = new List[n];
+			this.offsets = new int[n + 1];
+			for ( int i = 0 ; i < n ; i++ ) {
+				elements[i] = elementsFunction.apply(entities[i]);
+				offsets[i + 1] = offsets[i] + elements[i].size() ;
+			}
+			this.position = 0 ;
+			this.fence = offsets[n] ;
+			this.entityIndex = entityOf(0);
+		}
+
+		private FlatSpliterator(FlatSpliterator<T> parent, int position, int fence) {
+			this.entities = parent.entities ;
+			this.elements = parent.elements ;
+			this.offsets = parent.offsets ;
+			this.position = position ;
+			this.fence = fence ;
+			this.entityIndex = entityOf(position);
+		}
+
+		/**
+		 * Returns the index of the entity holding the element at the given position 
+		 * (the last entity with offsets[i] &lt;= position, skipping entities without element)
+		 * @param p
+		 * @return
+		 */
+		private int entityOf(int p) {
+			int lo = 0 ;
+			int hi = entities.length - 1 ;
+			while ( lo < hi ) {
+				int mid = ( lo + hi + 1 ) >>> 1 ;
+				if ( offsets[mid] <= p ) {
+					lo = mid ;
+				}
+				else {
+					hi = mid - 1 ;
+				}
+			}
+			return lo ;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super EntityElement<T>> action) {
+			if ( position >= fence ) {
+				return false;
+			}
+			while ( offsets[entityIndex + 1] <= position ) {
+				entityIndex++ ;
+			}
+			Entity entity = entities[entityIndex];
+			action.accept(new EntityElement<>(entity, elements[entityIndex].get(position - offsets[entityIndex])));
+			position++ ;
+			return true;
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super EntityElement<T>> action) {
+			int p = position ;
+			int i = entityIndex ;
+			while ( p < fence ) {
+				while ( offsets[i + 1] <= p ) {
+					i++ ;
+				}
+				Entity entity = entities[i];
+				List<T> list = elements[i];
+				int end = Math.min(offsets[i + 1], fence);
+				for ( ; p < end ; p++ ) {
+					action.accept(new EntityElement<>(entity, list.get(p - offsets[i])));
+				}
+			}
+			position = fence ;
+			entityIndex = i ;
+		}
+
+		@Override
+		public Spliterator<EntityElement<T>> trySplit() {
+			int mid = ( position + fence ) >>> 1 ;
+			if ( mid <= position ) {
+				return null;
+			}
+			FlatSpliterator<T> prefix = new FlatSpliterator<>(this, position, mid);
+			this.position = mid ;
+			this.entityIndex = entityOf(mid);
+			return prefix;
+		}
+
+		@Override
+		public long estimateSize() {
+			return (long) fence - position ;
+		}
+
+		@Override
+		public int characteristics() {
+			return CHARACTERISTICS;
+		}
+	}
+}
@@ -0,0 +1,102 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.util;
+
+/**
+ * Minimal immutable hash table with String keys (open addressing, linear probing) <br>
+ * The keys and the values are stored in 2 flat arrays (no entry objects), <br>
+ * the capacity is a power of 2 at least twice the number of keys. <br>
+ * When a key is added more than once the first value is kept. 
+ * 
+ * @param <V>
+ * 
+ * @since 4.2.0
+ */
+final class NameTable<V> {
+
+	private final String[] keys ;
+	private final Object[] values ;
+	private final int mask ;
+	private int size = 0 ;
+
+	/**
+	 * Constructor
+	 * @param expectedSize the maximum number of keys 
+	 */
+	NameTable(int expectedSize) {
+		super();
+		int capacity = Integer.highestOneBit(Math.max(2, expectedSize) * 2 - 1) << 1 ;
+		this.keys = new String[capacity];
+		this.values = new Object[capacity];
+		this.mask = capacity - 1 ;
+	}
+
+	private static int hash(String key) {
+		int h = key.hashCode();
+		return h ^ ( h >>> 16 ) ;
+	}
+
+	/**
+	 * Adds the given key if not already present (null keys are ignored)
+	 * @param key
+	 * @param value
+	 * @return true if added
+	 */
+	boolean putIfAbsent(String key, V value) {
+		if ( key == null ) {
+			return false ;
+		}
+		int i = hash(key) & mask ;
+		while ( keys[i] != null ) {
+			if ( keys[i].equals(key) ) {
+				return false ;
+			}
+			i = ( i + 1 ) & mask ;
+		}
+		if ( size + 1 > keys.length / 2 ) {
+			throw new IllegalStateException("NameTable capacity exceeded");
+		}
+		keys[i] = key ;
+		values[i] = value ;
+		size++ ;
+		return true ;
+	}
+
+	/**
+	 * Returns the value for the given key (or null if none)
+	 * @param key
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	V get(String key) {
+		if ( key == null ) {
+			return null ;
+		}
+		int i = hash(key) & mask ;
+		String k ;
+		while ( ( k = keys[i] ) != null ) {
+			if ( k == key || k.equals(key) ) {
+				return (V) values[i] ;
+			}
+			i = ( i + 1 ) & mask ;
+		}
+		return null ;
+	}
+
+	int size() {
+		return size;
+	}
+}
@@ -0,0 +1,225 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.util;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.telosys.tools.generic.model.Attribute;
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.Link;
+import org.telosys.tools.generic.model.Model;
+import org.telosys.tools.generic.model.TagContainer;
+
+/**
+ * Inverted index of all the tags of a model, built in one pass <br>
+ * <br>
+ * For each tag name : the entities, attributes and links having this tag <br>
+ * For each element (entity, attribute or link) : its tag values, parsed once (see {@link TagValue}) <br>
+ * <br>
+ * Usage : <br>
+ *   TagIndex tagIndex = new TagIndex(model); <br>
+ *   for ( EntityElement&lt;Attribute&gt; e : tagIndex.getAttributesWithTag("Searchable") ) { ... } <br>
+ *   int w = tagIndex.getIntValue(attribute, "Weight", 1); <br>
+ * <br>
+ * The index is immutable (it must be rebuilt if the model tags change) and thread-safe.
+ * 
+ * @since 4.2.0
+ */
+public class TagIndex {
+
+	private final Map<String, List<Entity>> entitiesByTag = new HashMap<>();
+	private final Map<String, List<EntityElement<Attribute>>> attributesByTag = new HashMap<>();
+	private final Map<String, List<EntityElement<Link>>> linksByTag = new HashMap<>();
+
+	// tag values by element (entity, attribute or link instance)
+	private final Map<Object, Map<String, TagValue>> valuesByElement = new IdentityHashMap<>();
+
+	private final List<String> tagNames ;
+
+	/**
+	 * Constructor
+	 * @param model
+	 */
+	public TagIndex(Model model) {
+		super();
+		// the same raw value is parsed only once for the whole model
+		Map<String, TagValue> parsedValues = new HashMap<>();
+		TreeSet<String> names = new TreeSet<>();
+		for ( Entity entity : model.getEntities() ) {
+			if ( indexTags(entity, entity.getTagContainer(), parsedValues, names) ) {
+				for ( String tagName : valuesByElement.get(entity).keySet() ) {
+					entitiesByTag.computeIfAbsent(tagName, k -> new ArrayList<>()).add(entity);
+				}
+			}
+			for ( Attribute attribute : entity.getAttributes() ) {
+				if ( indexTags(attribute, attribute.getTagContainer(), parsedValues, names) ) {
+					EntityElement<Attribute> element = new EntityElement<>(entity, attribute);
+					for ( String tagName : valuesByElement.get(attribute).keySet() ) {
+						attributesByTag.computeIfAbsent(tagName, k -> new ArrayList<>()).add(element);
+					}
+				}
+			}
+			for ( Link link : entity.getLinks() ) {
+				if ( indexTags(link, link.getTagContainer(), parsedValues, names) ) {
+					EntityElement<Link> element = new EntityElement<>(entity, link);
+					for ( String tagName : valuesByElement.get(link).keySet() ) {
+						linksByTag.computeIfAbsent(tagName, k -> new ArrayList<>()).add(element);
+					}
+				}
+			}
+		}
+		this.tagNames = Collections.unmodifiableList(new ArrayList<>(names));
+	}
+
+	/**
+	 * Stores the tag values of the given element 
+	 * @return true if the element has at least one tag
+	 */
+	private boolean indexTags(Object element, TagContainer tags, Map<String, TagValue> parsedValues, TreeSet<String> names) {
+		if ( tags == null || tags.isEmpty() ) {
+			return false;
+		}
+		List<String> elementTagNames = tags.getTagNames();
+		Map<String, TagValue> values = new HashMap<>(ModelIndex.capacity(elementTagNames.size()));
+		for ( String tagName : elementTagNames ) {
+			String raw = tags.getTagValue(tagName);
+			TagValue tagValue = parsedValues.computeIfAbsent(raw != null ? raw : "", TagValue::new);
+			values.put(tagName, tagValue);
+			names.add(tagName);
+		}
+		valuesByElement.put(element, values);
+		return true;
+	}
+
+	/**
+	 * Returns all the tag names used in the model (sorted)
+	 * @return
+	 */
+	public List<String> getTagNames() {
+		return tagNames;
+	}
+
+	/**
+	 * Returns the entities having the given tag (in model order)
+	 * @param tagName
+	 * @return
+	 */
+	public List<Entity> getEntitiesWithTag(String tagName) {
+		return unmodifiable(entitiesByTag.get(tagName));
+	}
+
+	/**
+	 * Returns the attributes having the given tag, with their entity (in model order)
+	 * @param tagName
+	 * @return
+	 */
+	public List<EntityElement<Attribute>> getAttributesWithTag(String tagName) {
+		return unmodifiable(attributesByTag.get(tagName));
+	}
+
+	/**
+	 * Returns the links having the given tag, with their entity (in model order)
+	 * @param tagName
+	 * @return
+	 */
+	public List<EntityElement<Link>> getLinksWithTag(String tagName) {
+		return unmodifiable(linksByTag.get(tagName));
+	}
+
+	/**
+	 * Returns the number of elements (entities, attributes and links) having the given tag
+	 * @param tagName
+	 * @return
+	 */
+	public int countTag(String tagName) {
+		return size(entitiesByTag.get(tagName)) + size(attributesByTag.get(tagName)) + size(linksByTag.get(tagName));
+	}
+
+	/**
+	 * Returns the parsed tag value for the given element (or null if the element doesn't have this tag)
+	 * @param element an entity, an attribute or a link of the model
+	 * @param tagName
+	 * @return
+	 */
+	public TagValue getTagValue(Object element, String tagName) {
+		Map<String, TagValue> values = valuesByElement.get(element);
+		return values != null ? values.get(tagName) : null ;
+	}
+
+	/**
+	 * Returns true if the given element has the given tag
+	 * @param element an entity, an attribute or a link of the model
+	 * @param tagName
+	 * @return
+	 */
+	public boolean hasTag(Object element, String tagName) {
+		return getTagValue(element, tagName) != null ;
+	}
+
+	/**
+	 * Returns the tag value as an int (or the default value if no tag or not an int) 
+	 * @param element an entity, an attribute or a link of the model
+	 * @param tagName
+	 * @param defaultValue
+	 * @return
+	 */
+	public int getIntValue(Object element, String tagName, int defaultValue) {
+		TagValue v = getTagValue(element, tagName);
+		return v != null ? v.getIntValue(defaultValue) : defaultValue ;
+	}
+
+	/**
+	 * Returns the tag value as a boolean (or the default value if no tag or not a boolean) 
+	 * @param element an entity, an attribute or a link of the model
+	 * @param tagName
+	 * @param defaultValue
+	 * @return
+	 */
+	public boolean getBooleanValue(Object element, String tagName, boolean defaultValue) {
+		TagValue v = getTagValue(element, tagName);
+		return v != null ? v.getBooleanValue(defaultValue) : defaultValue ;
+	}
+
+	/**
+	 * Returns the tag value as a decimal (or the default value if no tag or not a decimal) 
+	 * @param element an entity, an attribute or a link of the model
+	 * @param tagName
+	 * @param defaultValue
+	 * @return
+	 */
+	public BigDecimal getDecimalValue(Object element, String tagName, BigDecimal defaultValue) {
+		TagValue v = getTagValue(element, tagName);
+		if ( v != null && v.getDecimalValue() != null ) {
+			return v.getDecimalValue();
+		}
+		return defaultValue ;
+	}
+
+	private static <T> List<T> unmodifiable(List<T> list) {
+		return list != null ? Collections.unmodifiableList(list) : Collections.<T>emptyList() ;
+	}
+
+	private static int size(List<?> list) {
+		return list != null ? list.size() : 0 ;
+	}
+}
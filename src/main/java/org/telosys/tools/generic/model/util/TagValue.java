@@ -0,0 +1,146 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.util;
+
+import java.math.BigDecimal;
+
+/**
+ * Tag value parsed once (see {@link TagIndex}) <br>
+ * The typed values follow the same rules as 'TagContainer' : <br>
+ * . int : Integer.parseInt(value.trim()) <br>
+ * . boolean : 'true' or 'false' ignoring case (after trim) <br>
+ * . decimal : new BigDecimal(value.trim())
+ * 
+ * @since 4.2.0
+ */
+public final class TagValue {
+
+	private final String value ;
+
+	private final boolean intValid ;
+	private final int intValue ;
+
+	private final Boolean booleanValue ;
+
+	private final BigDecimal decimalValue ;
+
+	/**
+	 * Constructor
+	 * @param value the raw value (null is considered as "")
+	 */
+	public TagValue(String value) {
+		super();
+		this.value = value != null ? value : "" ;
+		String v = this.value.trim();
+		boolean numeric = looksNumeric(v);
+		int i = 0 ;
+		boolean iValid = false ;
+		BigDecimal d = null ;
+		if ( numeric ) {
+			try {
+				d = new BigDecimal(v);
+			} catch (NumberFormatException e) {
+				d = null ;
+			}
+			try {
+				i = Integer.parseInt(v);
+				iValid = true ;
+			} catch (NumberFormatException e) {
+				iValid = false ;
+			}
+		}
+		this.intValid = iValid ;
+		this.intValue = i ;
+		this.decimalValue = d ;
+		if ( "true".equalsIgnoreCase(v) ) {
+			this.booleanValue = Boolean.TRUE ;
+		}
+		else if ( "false".equalsIgnoreCase(v) ) {
+			this.booleanValue = Boolean.FALSE ;
+		}
+		else {
+			this.booleanValue = null ;
+		}
+	}
+
+	/**
+	 * Quick check to avoid exceptions for the usual non-numeric values
+	 * @param v
+	 * @return
+	 */
+	private static boolean looksNumeric(String v) {
+		if ( v.isEmpty() ) {
+			return false;
+		}
+		char c = v.charAt(0);
+		return ( c >= '0' && c <= '9' ) || c == '-' || c == '+' || c == '.' ;
+	}
+
+	/**
+	 * Returns the raw value (never null, "" if the tag has no value)
+	 * @return
+	 */
+	public String getValue() {
+		return value;
+	}
+
+	/**
+	 * Returns true if the value is a valid int
+	 * @return
+	 */
+	public boolean isInt() {
+		return intValid;
+	}
+
+	/**
+	 * Returns the int value or the given default value if not a valid int
+	 * @param defaultValue
+	 * @return
+	 */
+	public int getIntValue(int defaultValue) {
+		return intValid ? intValue : defaultValue ;
+	}
+
+	/**
+	 * Returns true if the value is 'true' or 'false'
+	 * @return
+	 */
+	public boolean isBoolean() {
+		return booleanValue != null;
+	}
+
+	/**
+	 * Returns the boolean value or the given default value if not a valid boolean
+	 * @param defaultValue
+	 * @return
+	 */
+	public boolean getBooleanValue(boolean defaultValue) {
+		return booleanValue != null ? booleanValue : defaultValue ;
+	}
+
+	/**
+	 * Returns the decimal value (or null if not a valid decimal)
+	 * @return
+	 */
+	public BigDecimal getDecimalValue() {
+		return decimalValue;
+	}
+
+	@Override
+	public String toString() {
+		return value;
+	}
+}
@@ -0,0 +1,48 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.validation;
+
+/**
+ * Constraints checked by the validators (also used as instructions in the validator programs)
+ * 
+ * @since 4.2.0
+ */
+public enum Constraint {
+
+	NOT_NULL("must not be null"),
+	TYPE("unexpected value type"),
+	NOT_EMPTY("must not be empty"),
+	NOT_BLANK("must not be blank"),
+	MIN_LENGTH("too short"),
+	MAX_LENGTH("too long"),
+	PATTERN("does not match the pattern"),
+	MIN_VALUE("less than the minimum value"),
+	MAX_VALUE("greater than the maximum value"),
+	DATE_PAST("must be in the past"),
+	DATE_FUTURE("must be in the future"),
+	DATE_AFTER("must be after the date"),
+	DATE_BEFORE("must be before the date");
+
+	private final String message ;
+
+	private Constraint(String message) {
+		this.message = message;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+}
@@ -0,0 +1,444 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.validation;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.telosys.tools.generic.model.Attribute;
+import org.telosys.tools.generic.model.Entity;
+
+/**
+ * Validator for the records of an entity, compiled from the attributes constraints ( see ValidatorCompiler ) <br>
+ * <br>
+ * A record is an array of values with the same order as the entity attributes. <br>
+ * The validator is a flat program : a list of instructions ( constraint, field, argument ) grouped by field, <br>
+ * the arguments are indexes in constant pools (compiled patterns, numeric bounds, dates as epoch days). <br>
+ * The attributes are never read during the validation and no object is created per field <br>
+ * (the pattern matchers are created once per batch). <br>
+ * <br>
+ * 'past' and 'future' are checked with the day for a DATE attribute and with the current instant <br>
+ * for a TIMESTAMP attribute. Days are computed in the default time zone. <br>
+ * As usual, a null value is only checked by the NOT_NULL constraint. <br>
+ * Immutable and thread-safe
+ * 
+ * @since 4.2.0
+ */
+public final class EntityValidator {
+
+	// argument of 'past' and 'future' instructions
+	static final int DAY_PRECISION = 0 ;
+	static final int INSTANT_PRECISION = 1 ;
+
+	private static final int TYPE_ERROR = Integer.MIN_VALUE ;
+	private static final long NO_VALUE = Long.MIN_VALUE ;
+	private static final long MILLIS_PER_DAY = 86400000L ;
+
+	private final Entity entity ;
+	private final Attribute[] attributes ;
+
+	//--- program : blocks of instructions, one block per field with constraints
+	private final int[] blockFields ; // field index for each block
+	private final int[] blockStarts ; // first instruction of each block ( size = blocks + 1 )
+	private final Constraint[] ops ;
+	private final int[] args ;
+
+	//--- constant pools
+	private final Pattern[] patterns ;
+	private final int[] ints ;
+	private final long[] longs ; // numeric bounds rounded for integer values, epoch days
+	private final double[] doubles ;
+	private final BigDecimal[] decimals ;
+
+	EntityValidator(Entity entity, Attribute[] attributes, int[] blockFields, int[] blockStarts, Constraint[] ops, int[] args,
+			Pattern[] patterns, int[] ints, long[] longs, double[] doubles, BigDecimal[] decimals) {
+		super();
+		this.entity = entity;
+		this.attributes = attributes;
+		this.blockFields = blockFields;
+		this.blockStarts = blockStarts;
+		this.ops = ops;
+		this.args = args;
+		this.patterns = patterns;
+		this.ints = ints;
+		this.longs = longs;
+		this.doubles = doubles;
+		this.decimals = decimals;
+	}
+
+	public Entity getEntity() {
+		return entity;
+	}
+
+	/**
+	 * Returns the number of fields expected in a record (number of attributes)
+	 * @return
+	 */
+	public int getFieldCount() {
+		return attributes.length;
+	}
+
+	/**
+	 * Returns the attribute for the given field index
+	 * @param fieldIndex
+	 * @return
+	 */
+	public Attribute getAttribute(int fieldIndex) {
+		return attributes[fieldIndex];
+	}
+
+	/**
+	 * Returns the field index for the given attribute name (or -1 if unknown)
+	 * @param attributeName
+	 * @return
+	 */
+	public int getFieldIndex(String attributeName) {
+		for ( int i = 0 ; i < attributes.length ; i++ ) {
+			if ( attributes[i].getName().equals(attributeName) ) {
+				return i ;
+			}
+		}
+		return -1 ;
+	}
+
+	/**
+	 * Returns the number of instructions in the program 
+	 * @return
+	 */
+	public int getInstructionCount() {
+		return ops.length;
+	}
+
+	//-------------------------------------------------------------------------------------
+	// Validation
+	//-------------------------------------------------------------------------------------
+	/**
+	 * Returns true if the given record is valid
+	 * @param record
+	 * @return
+	 */
+	public boolean isValid(Object[] record) {
+		return run(record, 0, null, new Context(Instant.now())) == 0 ;
+	}
+
+	/**
+	 * Validates a single record 
+	 * @param record
+	 * @return
+	 */
+	public ValidationResult validate(Object[] record) {
+		ValidationResult result = new ValidationResult(this);
+		run(record, 0, result, new Context(Instant.now()));
+		return result ;
+	}
+
+	/**
+	 * Validates a batch of records 
+	 * @param records
+	 * @return
+	 */
+	public ValidationResult validate(Object[][] records) {
+		ValidationResult result = new ValidationResult(this);
+		validate(records, result, Instant.now());
+		return result ;
+	}
+
+	/**
+	 * Validates a batch of records 
+	 * @param records
+	 * @return
+	 */
+	public ValidationResult validate(List<Object[]> records) {
+		ValidationResult result = new ValidationResult(this);
+		Context context = new Context(Instant.now());
+		for ( int r = 0 ; r < records.size() ; r++ ) {
+			run(records.get(r), r, result, context);
+		}
+		return result ;
+	}
+
+	/**
+	 * Validates a batch of records, the violations are added in the given result
+	 * @param records
+	 * @param result a result created for this validator (reusable)
+	 * @param now the reference instant for 'past' and 'future' constraints
+	 */
+	public void validate(Object[][] records, ValidationResult result, Instant now) {
+		if ( result.getValidator() != this ) {
+			throw new IllegalArgumentException("Validation result created for another validator");
+		}
+		Context context = new Context(now);
+		for ( int r = 0 ; r < records.length ; r++ ) {
+			run(records[r], r, result, context);
+		}
+	}
+
+	/**
+	 * Per batch objects : pattern matchers (reset for each value), time zone, now 
+	 */
+	private final class Context {
+		private final Matcher[] matchers = new Matcher[patterns.length];
+		private final TimeZone timeZone = TimeZone.getDefault();
+		private final long nowMillis ;
+		private final long nowLocalMillis ; // 'now' in the default time zone (for LocalDateTime values)
+		private final long today ;
+		Context(Instant now) {
+			for ( int i = 0 ; i < patterns.length ; i++ ) {
+				matchers[i] = patterns[i].matcher("");
+			}
+			this.nowMillis = now.toEpochMilli();
+			this.nowLocalMillis = nowMillis + timeZone.getOffset(nowMillis);
+			this.today = Math.floorDiv(nowLocalMillis, MILLIS_PER_DAY);
+		}
+	}
+
+	/**
+	 * Runs the program for a record 
+	 * @param record
+	 * @param recordIndex
+	 * @param result the result or null to stop at the first violation
+	 * @param context
+	 * @return the number of violations
+	 */
+	private int run(Object[] record, int recordIndex, ValidationResult result, Context context) {
+		if ( record == null || record.length < attributes.length ) {
+			throw new IllegalArgumentException("Record " + recordIndex + " : " + attributes.length + " values expected");
+		}
+		int violations = 0 ;
+		for ( int b = 0 ; b < blockFields.length ; b++ ) {
+			int field = blockFields[b];
+			Object value = record[field];
+			for ( int i = blockStarts[b] ; i < blockStarts[b + 1] ; i++ ) {
+				Constraint op = ops[i];
+				if ( value == null ) {
+					if ( op == Constraint.NOT_NULL ) {
+						violations++ ;
+						if ( result == null ) return violations ;
+						result.add(recordIndex, field, op);
+					}
+					break; // nothing else to check for a null value
+				}
+				int check = check(op, args[i], value, context);
+				if ( check != 0 ) {
+					violations++ ;
+					if ( result == null ) return violations ;
+					if ( check == TYPE_ERROR ) {
+						result.add(recordIndex, field, Constraint.TYPE);
+						break; // other constraints not applicable
+					}
+					result.add(recordIndex, field, op);
+				}
+			}
+		}
+		return violations ;
+	}
+
+	/**
+	 * Executes an instruction 
+	 * @return 0 if OK, TYPE_ERROR if unexpected value type, 1 if violation
+	 */
+	private int check(Constraint op, int arg, Object value, Context context) {
+		switch ( op ) {
+		case NOT_NULL :
+			return 0 ;
+		case NOT_EMPTY :
+			if ( !( value instanceof CharSequence ) ) return TYPE_ERROR ;
+			return ((CharSequence) value).length() > 0 ? 0 : 1 ;
+		case NOT_BLANK :
+			if ( !( value instanceof CharSequence ) ) return TYPE_ERROR ;
+			return isBlank((CharSequence) value) ? 1 : 0 ;
+		case MIN_LENGTH :
+			if ( !( value instanceof CharSequence ) ) return TYPE_ERROR ;
+			return ((CharSequence) value).length() >= ints[arg] ? 0 : 1 ;
+		case MAX_LENGTH :
+			if ( !( value instanceof CharSequence ) ) return TYPE_ERROR ;
+			return ((CharSequence) value).length() <= ints[arg] ? 0 : 1 ;
+		case PATTERN :
+			if ( !( value instanceof CharSequence ) ) return TYPE_ERROR ;
+			return context.matchers[arg].reset((CharSequence) value).matches() ? 0 : 1 ;
+		case MIN_VALUE :
+			int min = compareNumber(value, arg);
+			return result(min != TYPE_ERROR && min >= 0, min);
+		case MAX_VALUE :
+			int max = compareNumber(value, arg);
+			return result(max != TYPE_ERROR && max <= 0, max);
+		case DATE_PAST :
+			if ( arg == INSTANT_PRECISION ) return compareNow(value, context, true);
+			return compareDay(value, context.today, context, true);
+		case DATE_FUTURE :
+			if ( arg == INSTANT_PRECISION ) return compareNow(value, context, false);
+			return compareDay(value, context.today, context, false);
+		case DATE_AFTER :
+			return compareDay(value, longs[arg], context, false);
+		case DATE_BEFORE :
+			return compareDay(value, longs[arg], context, true);
+		default :
+			return 0 ;
+		}
+	}
+
+	private static int result(boolean ok, int cmp) {
+		if ( cmp == TYPE_ERROR ) {
+			return TYPE_ERROR ;
+		}
+		return ok ? 0 : 1 ;
+	}
+
+	private static boolean isBlank(CharSequence cs) {
+		for ( int i = 0 ; i < cs.length() ; i++ ) {
+			if ( !Character.isWhitespace(cs.charAt(i)) ) {
+				return false ;
+			}
+		}
+		return true ;
+	}
+
+	/**
+	 * Compares a number with a bound (long bound already rounded for integer values)
+	 * @return the comparison result or TYPE_ERROR
+	 */
+	private int compareNumber(Object value, int k) {
+		if ( value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte ) {
+			long v = ((Number) value).longValue();
+			return v < longs[k] ? -1 : ( v > longs[k] ? 1 : 0 ) ;
+		}
+		if ( value instanceof Double || value instanceof Float ) {
+			double d = ((Number) value).doubleValue();
+			if ( Double.isNaN(d) ) {
+				return TYPE_ERROR ;
+			}
+			return d < doubles[k] ? -1 : ( d > doubles[k] ? 1 : 0 ) ;
+		}
+		if ( value instanceof BigDecimal ) {
+			return ((BigDecimal) value).compareTo(decimals[k]);
+		}
+		if ( value instanceof BigInteger ) {
+			return new BigDecimal((BigInteger) value).compareTo(decimals[k]);
+		}
+		if ( value instanceof Number ) {
+			try {
+				return new BigDecimal(value.toString()).compareTo(decimals[k]);
+			} catch (NumberFormatException e) {
+				return TYPE_ERROR ;
+			}
+		}
+		return TYPE_ERROR ;
+	}
+
+	/**
+	 * Compares the day of a temporal value with a day (strictly before or strictly after)
+	 * @return 0 if OK, 1 if violation, TYPE_ERROR if not a date
+	 */
+	private static int compareDay(Object value, long day, Context context, boolean before) {
+		long valueDay = epochDay(value, context.timeZone);
+		if ( valueDay == NO_VALUE ) {
+			return TYPE_ERROR ;
+		}
+		boolean ok = before ? valueDay < day : valueDay > day ;
+		return ok ? 0 : 1 ;
+	}
+
+	/**
+	 * Returns the epoch day of a temporal value (without intermediate object)
+	 * @param value
+	 * @param timeZone the time zone for the instants ( Instant, java.util.Date )
+	 * @return the epoch day or NO_VALUE if not a temporal value
+	 */
+	private static long epochDay(Object value, TimeZone timeZone) {
+		if ( value instanceof LocalDate ) {
+			return ((LocalDate) value).toEpochDay();
+		}
+		if ( value instanceof LocalDateTime ) {
+			return ((LocalDateTime) value).toLocalDate().toEpochDay();
+		}
+		if ( value instanceof OffsetDateTime ) {
+			return ((OffsetDateTime) value).toLocalDate().toEpochDay();
+		}
+		if ( value instanceof ZonedDateTime ) {
+			return ((ZonedDateTime) value).toLocalDate().toEpochDay();
+		}
+		long millis = epochMillis(value);
+		if ( millis == NO_VALUE ) {
+			return NO_VALUE ;
+		}
+		return Math.floorDiv(millis + timeZone.getOffset(millis), MILLIS_PER_DAY);
+	}
+
+	/**
+	 * Compares a temporal value with the current instant (strictly before or strictly after) <br>
+	 * A LocalDate value is compared with the current day 
+	 * @return 0 if OK, 1 if violation, TYPE_ERROR if not a date
+	 */
+	private static int compareNow(Object value, Context context, boolean before) {
+		if ( value instanceof LocalDate ) {
+			return compareDay(value, context.today, context, before);
+		}
+		long valueMillis ;
+		long now ;
+		if ( value instanceof LocalDateTime ) {
+			LocalDateTime dateTime = (LocalDateTime) value ;
+			valueMillis = dateTime.toEpochSecond(ZoneOffset.UTC) * 1000 + dateTime.getNano() / 1000000 ;
+			now = context.nowLocalMillis ;
+		} else {
+			valueMillis = epochMillis(value);
+			if ( valueMillis == NO_VALUE ) {
+				return TYPE_ERROR ;
+			}
+			now = context.nowMillis ;
+		}
+		boolean ok = before ? valueMillis < now : valueMillis > now ;
+		return ok ? 0 : 1 ;
+	}
+
+	/**
+	 * Returns the epoch milliseconds of an instant (without intermediate object)
+	 * @param value
+	 * @return the epoch milliseconds or NO_VALUE if not an instant
+	 */
+	private static long epochMillis(Object value) {
+		if ( value instanceof Instant ) {
+			return ((Instant) value).toEpochMilli();
+		}
+		if ( value instanceof OffsetDateTime ) {
+			OffsetDateTime dateTime = (OffsetDateTime) value ;
+			return dateTime.toEpochSecond() * 1000 + dateTime.getNano() / 1000000 ;
+		}
+		if ( value instanceof ZonedDateTime ) {
+			ZonedDateTime dateTime = (ZonedDateTime) value ;
+			return dateTime.toEpochSecond() * 1000 + dateTime.getNano() / 1000000 ;
+		}
+		if ( value instanceof Date ) { // java.util.Date, java.sql.Date, java.sql.Timestamp
+			return ((Date) value).getTime();
+		}
+		return NO_VALUE ;
+	}
+
+	@Override
+	public String toString() {
+		return "EntityValidator : " + entity.getClassName() + " (" + ops.length + " instructions)" ;
+	}
+}
@@ -0,0 +1,157 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.validation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Result of a validation : list of violations stored in primitive arrays <br>
+ * (record index, field index, constraint) <br>
+ * Can be reused for several batches ( see 'clear' ) <br>
+ * Not thread-safe
+ * 
+ * @since 4.2.0
+ */
+public final class ValidationResult {
+
+	private static final int INITIAL_CAPACITY = 16 ;
+	private static final Constraint[] CONSTRAINTS = Constraint.values();
+
+	private final EntityValidator validator ;
+
+	private int[] records = new int[INITIAL_CAPACITY] ;
+	private int[] fields = new int[INITIAL_CAPACITY] ;
+	private byte[] constraints = new byte[INITIAL_CAPACITY] ;
+	private int size = 0 ;
+	private int invalidRecords = 0 ;
+
+	/**
+	 * Constructor 
+	 * @param validator the validator producing this result
+	 */
+	public ValidationResult(EntityValidator validator) {
+		super();
+		this.validator = validator;
+	}
+
+	void add(int record, int field, Constraint constraint) {
+		if ( size == records.length ) {
+			int capacity = size * 2 ;
+			records = Arrays.copyOf(records, capacity);
+			fields = Arrays.copyOf(fields, capacity);
+			constraints = Arrays.copyOf(constraints, capacity);
+		}
+		if ( size == 0 || records[size - 1] != record ) {
+			invalidRecords++ ; // records are validated in order
+		}
+		records[size] = record ;
+		fields[size] = field ;
+		constraints[size] = (byte) constraint.ordinal() ;
+		size++ ;
+	}
+
+	/**
+	 * Removes all the violations 
+	 */
+	public void clear() {
+		size = 0 ;
+		invalidRecords = 0 ;
+	}
+
+	public EntityValidator getValidator() {
+		return validator;
+	}
+
+	/**
+	 * Returns true if no violation 
+	 * @return
+	 */
+	public boolean isValid() {
+		return size == 0 ;
+	}
+
+	/**
+	 * Returns the number of violations
+	 * @return
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the number of records with at least one violation
+	 * @return
+	 */
+	public int getInvalidRecordCount() {
+		return invalidRecords;
+	}
+
+	/**
+	 * Returns the index of the record for the given violation 
+	 * @param i violation index
+	 * @return
+	 */
+	public int getRecordIndex(int i) {
+		checkIndex(i);
+		return records[i];
+	}
+
+	/**
+	 * Returns the index of the field (attribute position in the entity) for the given violation 
+	 * @param i violation index
+	 * @return
+	 */
+	public int getFieldIndex(int i) {
+		checkIndex(i);
+		return fields[i];
+	}
+
+	/**
+	 * Returns the constraint for the given violation 
+	 * @param i violation index
+	 * @return
+	 */
+	public Constraint getConstraint(int i) {
+		checkIndex(i);
+		return CONSTRAINTS[constraints[i]];
+	}
+
+	private void checkIndex(int i) {
+		if ( i < 0 || i >= size ) {
+			throw new IndexOutOfBoundsException("Violation index " + i + " (size " + size + ")");
+		}
+	}
+
+	/**
+	 * Returns a message for each violation ( e.g. "record 12 : Book.title : too long" )
+	 * @return
+	 */
+	public List<String> getMessages() {
+		List<String> messages = new ArrayList<>(size);
+		for ( int i = 0 ; i < size ; i++ ) {
+			messages.add("record " + records[i] + " : " + validator.getEntity().getClassName() + "." 
+					+ validator.getAttribute(fields[i]).getName() + " : " + CONSTRAINTS[constraints[i]].getMessage() );
+		}
+		return messages ;
+	}
+
+	@Override
+	public String toString() {
+		return "ValidationResult : " + size + " violation(s) in " + invalidRecords + " record(s)" ;
+	}
+}
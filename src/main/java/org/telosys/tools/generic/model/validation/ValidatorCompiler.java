@@ -0,0 +1,271 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.validation;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.telosys.tools.generic.model.Attribute;
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.types.NeutralTypeCode;
+
+/**
+ * Compiles the attributes constraints of an entity in a validator program ( see EntityValidator ) <br>
+ * <br>
+ * Constraints : not null, not empty, not blank, min/max length, pattern (for strings), <br>
+ * min/max value (for numbers), past, future, date after/before (for dates and timestamps). <br>
+ * The dates after/before must be ISO dates ( "yyyy-mm-dd" ), other values are ignored. <br>
+ * <br>
+ * Usage : <br>
+ *   EntityValidator validator = ValidatorCompiler.compile(entity); <br>
+ *   ValidationResult result = validator.validate(records); <br>
+ * <br>
+ * The compiled validators can be kept in a compiler instance (cache by entity identity). <br>
+ * Thread-safe
+ * 
+ * @since 4.2.0
+ */
+public final class ValidatorCompiler {
+
+	private final Map<Entity, EntityValidator> cache = new IdentityHashMap<>();
+
+	/**
+	 * Returns the validator for the given entity (compiled on first use)
+	 * @param entity
+	 * @return
+	 */
+	public synchronized EntityValidator getValidator(Entity entity) {
+		return cache.computeIfAbsent(entity, ValidatorCompiler::compile);
+	}
+
+	/**
+	 * Removes the validator of the given entity (to be called if the entity has changed)
+	 * @param entity
+	 */
+	public synchronized void invalidate(Entity entity) {
+		cache.remove(entity);
+	}
+
+	public synchronized void clear() {
+		cache.clear();
+	}
+
+	public synchronized int size() {
+		return cache.size();
+	}
+
+	//-------------------------------------------------------------------------------------
+	/**
+	 * Compiles a validator for the given entity
+	 * @param entity
+	 * @return
+	 * @throws IllegalArgumentException if an attribute has an invalid pattern
+	 */
+	public static EntityValidator compile(Entity entity) {
+		return new Program(entity).build();
+	}
+
+	/**
+	 * Program under construction
+	 */
+	private static final class Program {
+		private final Entity entity ;
+		private final Attribute[] attributes ;
+		private final List<Integer> blockFields = new ArrayList<>();
+		private final List<Integer> blockStarts = new ArrayList<>();
+		private final List<Constraint> ops = new ArrayList<>();
+		private final List<Integer> args = new ArrayList<>();
+		private final List<Pattern> patterns = new ArrayList<>();
+		private final List<Integer> ints = new ArrayList<>();
+		private final List<Long> longs = new ArrayList<>();
+		private final List<Double> doubles = new ArrayList<>();
+		private final List<BigDecimal> decimals = new ArrayList<>();
+
+		Program(Entity entity) {
+			this.entity = entity ;
+			this.attributes = entity.getAttributes().toArray(new Attribute[0]);
+		}
+
+		EntityValidator build() {
+			for ( int field = 0 ; field < attributes.length ; field++ ) {
+				int start = ops.size();
+				compileAttribute(attributes[field]);
+				if ( ops.size() > start ) {
+					blockFields.add(field);
+					blockStarts.add(start);
+				}
+			}
+			blockStarts.add(ops.size());
+			Pattern[] patternArray = patterns.toArray(new Pattern[0]);
+			long[] longArray = new long[longs.size()];
+			for ( int i = 0 ; i < longArray.length ; i++ ) {
+				longArray[i] = longs.get(i);
+			}
+			double[] doubleArray = new double[doubles.size()];
+			for ( int i = 0 ; i < doubleArray.length ; i++ ) {
+				doubleArray[i] = doubles.get(i);
+			}
+			return new EntityValidator(entity, attributes, toIntArray(blockFields), toIntArray(blockStarts),
+					ops.toArray(new Constraint[0]), toIntArray(args), patternArray, toIntArray(ints),
+					longArray, doubleArray, decimals.toArray(new BigDecimal[0]));
+		}
+
+		private void compileAttribute(Attribute attribute) {
+			//--- NOT_NULL must be the first instruction of the block
+			if ( attribute.isNotNull() ) {
+				add(Constraint.NOT_NULL, 0);
+			}
+			NeutralTypeCode code = attribute.getNeutralTypeCode();
+			if ( code == null ) {
+				return ;
+			}
+			switch ( code ) {
+			case STRING :
+				compileString(attribute);
+				break;
+			case BYTE :
+			case SHORT :
+			case INTEGER :
+			case LONG :
+			case DECIMAL :
+			case FLOAT :
+			case DOUBLE :
+				if ( attribute.getMinValue() != null ) {
+					add(Constraint.MIN_VALUE, bound(attribute.getMinValue(), RoundingMode.CEILING));
+				}
+				if ( attribute.getMaxValue() != null ) {
+					add(Constraint.MAX_VALUE, bound(attribute.getMaxValue(), RoundingMode.FLOOR));
+				}
+				break;
+			case DATE :
+			case TIMESTAMP :
+			case TIMESTAMPZ :
+				compileDate(attribute, code == NeutralTypeCode.DATE 
+						? EntityValidator.DAY_PRECISION : EntityValidator.INSTANT_PRECISION);
+				break;
+			default :
+				break;
+			}
+		}
+
+		private void compileString(Attribute attribute) {
+			if ( attribute.isNotEmpty() ) {
+				add(Constraint.NOT_EMPTY, 0);
+			}
+			if ( attribute.isNotBlank() ) {
+				add(Constraint.NOT_BLANK, 0);
+			}
+			if ( attribute.getMinLength() != null && attribute.getMinLength() > 0 ) {
+				ints.add(attribute.getMinLength());
+				add(Constraint.MIN_LENGTH, ints.size() - 1);
+			}
+			if ( attribute.getMaxLength() != null ) {
+				ints.add(attribute.getMaxLength());
+				add(Constraint.MAX_LENGTH, ints.size() - 1);
+			}
+			String pattern = attribute.getPattern();
+			if ( pattern != null && !pattern.isEmpty() ) {
+				try {
+					patterns.add(Pattern.compile(pattern));
+				} catch (PatternSyntaxException e) {
+					throw new IllegalArgumentException("Entity '" + entity.getClassName() + "', attribute '" 
+							+ attribute.getName() + "' : invalid pattern '" + pattern + "'", e);
+				}
+				add(Constraint.PATTERN, patterns.size() - 1);
+			}
+		}
+
+		private void compileDate(Attribute attribute, int precision) {
+			if ( attribute.isDatePast() ) {
+				add(Constraint.DATE_PAST, precision);
+			}
+			if ( attribute.isDateFuture() ) {
+				add(Constraint.DATE_FUTURE, precision);
+			}
+			Long after = parseDay(attribute.getDateAfterValue());
+			if ( after != null ) {
+				add(Constraint.DATE_AFTER, constant(after));
+			}
+			Long before = parseDay(attribute.getDateBeforeValue());
+			if ( before != null ) {
+				add(Constraint.DATE_BEFORE, constant(before));
+			}
+		}
+
+		private static Long parseDay(String date) {
+			if ( date != null ) {
+				try {
+					return LocalDate.parse(date.trim()).toEpochDay();
+				} catch (DateTimeParseException e) {
+					// not an ISO date : ignored
+				}
+			}
+			return null ;
+		}
+
+		/**
+		 * Adds a numeric bound in the constant pools ( same index in 'longs', 'doubles' and 'decimals' )
+		 * @param value
+		 * @param roundingMode rounding for the comparison with integer values
+		 * @return the index
+		 */
+		private int bound(BigDecimal value, RoundingMode roundingMode) {
+			BigDecimal rounded = value.setScale(0, roundingMode);
+			long asLong ;
+			if ( rounded.compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) > 0 ) {
+				asLong = Long.MAX_VALUE ;
+			}
+			else if ( rounded.compareTo(BigDecimal.valueOf(Long.MIN_VALUE)) < 0 ) {
+				asLong = Long.MIN_VALUE ;
+			}
+			else {
+				asLong = rounded.longValue() ;
+			}
+			int index = constant(asLong);
+			doubles.set(index, value.doubleValue());
+			decimals.set(index, value);
+			return index ;
+		}
+
+		private int constant(long value) {
+			longs.add(value);
+			doubles.add(0.0);
+			decimals.add(null);
+			return longs.size() - 1 ;
+		}
+
+		private void add(Constraint op, int arg) {
+			ops.add(op);
+			args.add(arg);
+		}
+
+		private static int[] toIntArray(List<Integer> list) {
+			int[] array = new int[list.size()];
+			for ( int i = 0 ; i < array.length ; i++ ) {
+				array[i] = list.get(i);
+			}
+			return array ;
+		}
+	}
+}
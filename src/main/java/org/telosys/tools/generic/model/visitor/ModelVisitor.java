@@ -0,0 +1,147 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.visitor;
+
+import org.telosys.tools.generic.model.Attribute;
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.ForeignKey;
+import org.telosys.tools.generic.model.ForeignKeyAttribute;
+import org.telosys.tools.generic.model.Link;
+import org.telosys.tools.generic.model.LinkAttribute;
+import org.telosys.tools.generic.model.Model;
+import org.telosys.tools.generic.model.enums.CascadeOption;
+
+/**
+ * Callbacks called by {@link ModelWalker} for each element of a model <br>
+ * All the methods have a default implementation doing nothing, <br>
+ * a visitor only overrides the methods for the elements it is interested in.
+ * 
+ * @since 4.2.0
+ */
+public interface ModelVisitor {
+
+	/**
+	 * Called at the beginning of the model 
+	 * @param model
+	 * @return false to skip all the entities
+	 */
+	public default boolean visitModel(Model model) {
+		return true;
+	}
+
+	/**
+	 * Called at the end of the model 
+	 * @param model
+	 */
+	public default void endModel(Model model) {
+	}
+
+	/**
+	 * Called at the beginning of each entity 
+	 * @param entity
+	 * @return false to skip the elements of this entity
+	 */
+	public default boolean visitEntity(Entity entity) {
+		return true;
+	}
+
+	/**
+	 * Called at the end of each entity (even if its elements have been skipped)
+	 * @param entity
+	 */
+	public default void endEntity(Entity entity) {
+	}
+
+	/**
+	 * Called for each tag of the entity
+	 * @param entity
+	 * @param tagName
+	 * @param tagValue
+	 */
+	public default void visitEntityTag(Entity entity, String tagName, String tagValue) {
+	}
+
+	/**
+	 * Called for each attribute of the entity
+	 * @param entity
+	 * @param attribute
+	 */
+	public default void visitAttribute(Entity entity, Attribute attribute) {
+	}
+
+	/**
+	 * Called for each tag of an attribute
+	 * @param entity
+	 * @param attribute
+	 * @param tagName
+	 * @param tagValue
+	 */
+	public default void visitAttributeTag(Entity entity, Attribute attribute, String tagName, String tagValue) {
+	}
+
+	/**
+	 * Called for each link of the entity
+	 * @param entity
+	 * @param link
+	 */
+	public default void visitLink(Entity entity, Link link) {
+	}
+
+	/**
+	 * Called for each attribute of a link
+	 * @param entity
+	 * @param link
+	 * @param linkAttribute
+	 */
+	public default void visitLinkAttribute(Entity entity, Link link, LinkAttribute linkAttribute) {
+	}
+
+	/**
+	 * Called for each active cascade option of a link
+	 * @param entity
+	 * @param link
+	 * @param cascadeOption
+	 */
+	public default void visitCascadeOption(Entity entity, Link link, CascadeOption cascadeOption) {
+	}
+
+	/**
+	 * Called for each tag of a link
+	 * @param entity
+	 * @param link
+	 * @param tagName
+	 * @param tagValue
+	 */
+	public default void visitLinkTag(Entity entity, Link link, String tagName, String tagValue) {
+	}
+
+	/**
+	 * Called for each foreign key of the entity
+	 * @param entity
+	 * @param foreignKey
+	 */
+	public default void visitForeignKey(Entity entity, ForeignKey foreignKey) {
+	}
+
+	/**
+	 * Called for each attribute of a foreign key
+	 * @param entity
+	 * @param foreignKey
+	 * @param foreignKeyAttribute
+	 */
+	public default void visitForeignKeyAttribute(Entity entity, ForeignKey foreignKey, ForeignKeyAttribute foreignKeyAttribute) {
+	}
+}
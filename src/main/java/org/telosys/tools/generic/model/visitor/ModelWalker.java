@@ -0,0 +1,235 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.generic.model.visitor;
+
+import java.util.List;
+import java.util.RandomAccess;
+
+import org.telosys.tools.generic.model.Attribute;
+import org.telosys.tools.generic.model.CascadeOptions;
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.ForeignKey;
+import org.telosys.tools.generic.model.ForeignKeyAttribute;
+import org.telosys.tools.generic.model.Link;
+import org.telosys.tools.generic.model.LinkAttribute;
+import org.telosys.tools.generic.model.Model;
+import org.telosys.tools.generic.model.TagContainer;
+import org.telosys.tools.generic.model.enums.CascadeOption;
+import org.telosys.tools.generic.model.frozen.FrozenLink;
+import org.telosys.tools.generic.model.frozen.FrozenTagContainer;
+
+/**
+ * Walks through a model and calls a {@link ModelVisitor} for each element <br>
+ * <br>
+ * Order : entity, entity tags, attributes (each followed by its tags), <br>
+ * links (each followed by its attributes, cascade options and tags), foreign keys (each followed by its attributes) <br>
+ * <br>
+ * The walker itself does not allocate : <br>
+ * . the lists are traversed by index when they are 'RandomAccess' (no iterator) <br>
+ * . the cascade options are tested one by one (no 'getActiveOptions()' list) <br>
+ * . the tags of a frozen model are read by position (no 'getTagNames()' list) <br>
+ * So walking a frozen or mapped model (see ModelFreezer) allocates nothing. <br>
+ * For other implementations the only allocations are those done by the model itself <br>
+ * (e.g. a 'getAttributes()' creating a new list). <br>
+ * The walker is stateless and thread-safe.
+ * 
+ * @since 4.2.0
+ */
+public final class ModelWalker {
+
+	private static final CascadeOption[] CASCADE_OPTIONS = CascadeOption.values();
+
+	private static final int ENTITY_TAG    = 0 ;
+	private static final int ATTRIBUTE_TAG = 1 ;
+	private static final int LINK_TAG      = 2 ;
+
+	private ModelWalker() {
+	}
+
+	/**
+	 * Walks through all the entities of the given model
+	 * @param model
+	 * @param visitor
+	 */
+	public static void walk(Model model, ModelVisitor visitor) {
+		if ( visitor.visitModel(model) ) {
+			List<Entity> entities = model.getEntities();
+			if ( entities instanceof RandomAccess ) {
+				for ( int i = 0, n = entities.size() ; i < n ; i++ ) {
+					walk(entities.get(i), visitor);
+				}
+			}
+			else {
+				for ( Entity entity : entities ) {
+					walk(entity, visitor);
+				}
+			}
+		}
+		visitor.endModel(model);
+	}
+
+	/**
+	 * Walks through the given entity
+	 * @param entity
+	 * @param visitor
+	 */
+	public static void walk(Entity entity, ModelVisitor visitor) {
+		if ( visitor.visitEntity(entity) ) {
+			walkTags(entity.getTagContainer(), ENTITY_TAG, entity, null, null, visitor);
+			walkAttributes(entity, visitor);
+			walkLinks(entity, visitor);
+			walkForeignKeys(entity, visitor);
+		}
+		visitor.endEntity(entity);
+	}
+
+	private static void walkAttributes(Entity entity, ModelVisitor visitor) {
+		List<Attribute> attributes = entity.getAttributes();
+		if ( attributes instanceof RandomAccess ) {
+			for ( int i = 0, n = attributes.size() ; i < n ; i++ ) {
+				walkAttribute(entity, attributes.get(i), visitor);
+			}
+		}
+		else {
+			for ( Attribute attribute : attributes ) {
+				walkAttribute(entity, attribute, visitor);
+			}
+		}
+	}
+
+	private static void walkAttribute(Entity entity, Attribute attribute, ModelVisitor visitor) {
+		visitor.visitAttribute(entity, attribute);
+		walkTags(attribute.getTagContainer(), ATTRIBUTE_TAG, entity, attribute, null, visitor);
+	}
+
+	private static void walkLinks(Entity entity, ModelVisitor visitor) {
+		List<Link> links = entity.getLinks();
+		if ( links instanceof RandomAccess ) {
+			for ( int i = 0, n = links.size() ; i < n ; i++ ) {
+				walkLink(entity, links.get(i), visitor);
+			}
+		}
+		else {
+			for ( Link link : links ) {
+				walkLink(entity, link, visitor);
+			}
+		}
+	}
+
+	private static void walkLink(Entity entity, Link link, ModelVisitor visitor) {
+		visitor.visitLink(entity, link);
+		List<LinkAttribute> linkAttributes = link.getAttributes();
+		if ( linkAttributes != null ) {
+			if ( linkAttributes instanceof RandomAccess ) {
+				for ( int i = 0, n = linkAttributes.size() ; i < n ; i++ ) {
+					visitor.visitLinkAttribute(entity, link, linkAttributes.get(i));
+				}
+			}
+			else {
+				for ( LinkAttribute linkAttribute : linkAttributes ) {
+					visitor.visitLinkAttribute(entity, link, linkAttribute);
+				}
+			}
+		}
+		walkCascadeOptions(entity, link, visitor);
+		walkTags(link.getTagContainer(), LINK_TAG, entity, null, link, visitor);
+	}
+
+	private static void walkCascadeOptions(Entity entity, Link link, ModelVisitor visitor) {
+		if ( link instanceof FrozenLink ) {
+			// no new CascadeOptions instance
+			FrozenLink frozenLink = (FrozenLink) link ;
+			for ( CascadeOption option : CASCADE_OPTIONS ) {
+				if ( frozenLink.hasCascadeOption(option) ) {
+					visitor.visitCascadeOption(entity, link, option);
+				}
+			}
+		}
+		else {
+			CascadeOptions cascadeOptions = link.getCascadeOptions();
+			if ( cascadeOptions != null && ! cascadeOptions.isEmpty() ) {
+				for ( CascadeOption option : CASCADE_OPTIONS ) {
+					if ( cascadeOptions.contains(option) ) {
+						visitor.visitCascadeOption(entity, link, option);
+					}
+				}
+			}
+		}
+	}
+
+	private static void walkForeignKeys(Entity entity, ModelVisitor visitor) {
+		List<ForeignKey> foreignKeys = entity.getForeignKeys();
+		if ( foreignKeys instanceof RandomAccess ) {
+			for ( int i = 0, n = foreignKeys.size() ; i < n ; i++ ) {
+				walkForeignKey(entity, foreignKeys.get(i), visitor);
+			}
+		}
+		else {
+			for ( ForeignKey foreignKey : foreignKeys ) {
+				walkForeignKey(entity, foreignKey, visitor);
+			}
+		}
+	}
+
+	private static void walkForeignKey(Entity entity, ForeignKey foreignKey, ModelVisitor visitor) {
+		visitor.visitForeignKey(entity, foreignKey);
+		List<ForeignKeyAttribute> fkAttributes = foreignKey.getAttributes();
+		if ( fkAttributes instanceof RandomAccess ) {
+			for ( int i = 0, n = fkAttributes.size() ; i < n ; i++ ) {
+				visitor.visitForeignKeyAttribute(entity, foreignKey, fkAttributes.get(i));
+			}
+		}
+		else {
+			for ( ForeignKeyAttribute fkAttribute : fkAttributes ) {
+				visitor.visitForeignKeyAttribute(entity, foreignKey, fkAttribute);
+			}
+		}
+	}
+
+	private static void walkTags(TagContainer tags, int kind, Entity entity, Attribute attribute, Link link, 
+			ModelVisitor visitor) {
+		if ( tags == null || tags.isEmpty() ) {
+			return;
+		}
+		if ( tags instanceof FrozenTagContainer ) {
+			// tags read by position (no list)
+			FrozenTagContainer frozenTags = (FrozenTagContainer) tags ;
+			for ( int i = 0, n = frozenTags.size() ; i < n ; i++ ) {
+				visitTag(kind, entity, attribute, link, frozenTags.getTagName(i), frozenTags.getTagValue(i), visitor);
+			}
+		}
+		else {
+			for ( String name : tags.getTagNames() ) {
+				visitTag(kind, entity, attribute, link, name, tags.getTagValue(name), visitor);
+			}
+		}
+	}
+
+	private static void visitTag(int kind, Entity entity, Attribute attribute, Link link, String name, String value, 
+			ModelVisitor visitor) {
+		switch ( kind ) {
+		case ATTRIBUTE_TAG :
+			visitor.visitAttributeTag(entity, attribute, name, value);
+			break;
+		case LINK_TAG :
+			visitor.visitLinkTag(entity, link, name, value);
+			break;
+		default :
+			visitor.visitEntityTag(entity, name, value);
+			break;
+		}
+	}
+}
@@ -52,6 +52,8 @@ public class CascadeOptionsTest {
 		assertTrue(cascadeOptions.isCascadePersist());
 		assertFalse(cascadeOptions.isCascadeRefresh());
 		assertFalse(cascadeOptions.isCascadeRemove());
+		assertTrue(cascadeOptions.contains(CascadeOption.PERSIST));
+		assertFalse(cascadeOptions.contains(CascadeOption.REMOVE));
 		assertEquals(2, cascadeOptions.size());
 		assertFalse(cascadeOptions.isEmpty());
 
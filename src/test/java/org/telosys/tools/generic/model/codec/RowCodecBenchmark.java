@@ -0,0 +1,84 @@
+package org.telosys.tools.generic.model.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.Locale;
+
+import org.telosys.tools.generic.model.fake.FakeModels;
+
+/**
+ * Throughput benchmark (not a unit test) : encode + decode with the row codec and with Java serialization <br>
+ * Run with 'java ... RowCodecBenchmark'
+ */
+public class RowCodecBenchmark {
+
+	private static final int ROWS = 20000 ;
+	private static final int ROUNDS = 5 ;
+
+	public static void main(String[] args) throws IOException, ClassNotFoundException {
+		RowCodec codec = RowCodec.compile(FakeModels.buildBookstoreModel().getEntityByClassName("Book"));
+		Object[][] records = new Object[ROWS][];
+		for ( int i = 0 ; i < ROWS ; i++ ) {
+			records[i] = new Object[] { (long) i, "1234567890", "Les Mis\u00e9rables", new BigDecimal("12.50"), 
+					LocalDate.of(1862, 4, 3), 1, 7, null };
+		}
+		for ( int warmUp = 0 ; warmUp < 3 ; warmUp++ ) {
+			runCodec(codec, records);
+			runSerialization(records);
+		}
+
+		long t0 = System.nanoTime();
+		int codecSize = 0 ;
+		for ( int k = 0 ; k < ROUNDS ; k++ ) {
+			codecSize = runCodec(codec, records);
+		}
+		long codecTime = System.nanoTime() - t0 ;
+
+		t0 = System.nanoTime();
+		int serialSize = 0 ;
+		for ( int k = 0 ; k < ROUNDS ; k++ ) {
+			serialSize = runSerialization(records);
+		}
+		long serialTime = System.nanoTime() - t0 ;
+
+		System.out.println("RowCodec : " + codecSize / ROWS + " bytes/row, " + codecTime / 1000000 + " ms");
+		System.out.println("Java serialization : " + serialSize / ROWS + " bytes/row, " + serialTime / 1000000 + " ms");
+		System.out.println("Encode + decode : Java serialization " 
+				+ String.format(Locale.ROOT, "%.1f", (double) serialTime / Math.max(1, codecTime)) + "x slower");
+	}
+
+	private static int runCodec(RowCodec codec, Object[][] records) {
+		ByteBuffer buffer = ByteBuffer.allocate(records.length * 128);
+		for ( Object[] record : records ) {
+			codec.encode(record, buffer);
+		}
+		int size = buffer.position();
+		buffer.flip();
+		for ( int i = 0 ; i < records.length ; i++ ) {
+			codec.decode(buffer);
+		}
+		return size ;
+	}
+
+	private static int runSerialization(Object[][] records) throws IOException, ClassNotFoundException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		try ( ObjectOutputStream out = new ObjectOutputStream(baos) ) {
+			for ( Object[] record : records ) {
+				out.writeObject(record);
+				out.reset(); // no back-references between rows
+			}
+		}
+		try ( ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray())) ) {
+			for ( int i = 0 ; i < records.length ; i++ ) {
+				in.readObject();
+			}
+		}
+		return baos.size();
+	}
+}
@@ -0,0 +1,213 @@
+package org.telosys.tools.generic.model.codec;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.telosys.tools.generic.model.fake.ModelAssert.expectFailure;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import org.junit.Test;
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.fake.FakeAttribute;
+import org.telosys.tools.generic.model.fake.FakeEntity;
+import org.telosys.tools.generic.model.fake.FakeModels;
+import org.telosys.tools.generic.model.types.NeutralType;
+
+public class RowCodecTest {
+
+	private Entity entity(String className) {
+		return FakeModels.buildBookstoreModel().getEntityByClassName(className);
+	}
+
+	private Object[] book(long id) {
+		return new Object[] { id, "1234567890", "Les Mis\u00e9rables", new BigDecimal("12.50"), LocalDate.of(1862, 4, 3), 1, 7, null };
+	}
+
+	@Test
+	public void testLayout() {
+		RowLayout book = RowLayout.of(entity("Book"));
+		assertEquals(8, book.getFieldCount());
+		assertEquals(FieldKind.LONG, book.getFieldKind(0));
+		assertEquals(FieldKind.STRING, book.getFieldKind(1));
+		assertEquals(FieldKind.DECIMAL32, book.getFieldKind(3)); // precision 5, scale 2
+		assertEquals(FieldKind.DATE, book.getFieldKind(4));
+		assertFalse(book.isNullable(0));
+		assertTrue(book.isNullable(3));
+		assertEquals(1, book.getBitmapSize()); // 4 nullable fields
+		assertEquals(4, book.getSlotWidth());  // 'summary' is unbounded
+		assertEquals(4 + 1 + 8 + 8 + 8 + 4 + 4 + 4 + 4 + 8, book.getFixedRowSize());
+		assertEquals(-1, book.getMaxRowSize());
+
+		RowLayout country = RowLayout.of(entity("Country"));
+		assertEquals(0, country.getBitmapSize());
+		assertEquals(2, country.getSlotWidth());
+		assertEquals(4 + 4 + 4, country.getFixedRowSize());
+		assertEquals(12 + 2 * 3 + 45 * 3, country.getMaxRowSize());
+	}
+
+	@Test
+	public void testRoundTrip() {
+		RowCodec codec = RowCodec.compile(entity("Book"));
+		ByteBuffer buffer = ByteBuffer.allocate(1024);
+		int size = codec.encode(book(1), buffer);
+		assertEquals(codec.getLayout().getFixedRowSize() + 10 + 15, size); // '\u00e9' = 2 bytes
+		assertEquals(size, buffer.position());
+		Object[] other = { 2L, "9876543210", "T", null, null, null, 8, "Summary" };
+		codec.encode(other, buffer);
+		buffer.flip();
+		assertArrayEquals(book(1), codec.decode(buffer));
+		assertArrayEquals(other, codec.decode(buffer));
+		assertFalse(buffer.hasRemaining());
+	}
+
+	@Test
+	public void testAllKinds() {
+		FakeEntity entity = new FakeEntity("All", "ALL");
+		entity.addAttribute(new FakeAttribute("b", NeutralType.BOOLEAN).notNull());
+		entity.addAttribute(new FakeAttribute("by", NeutralType.BYTE));
+		entity.addAttribute(new FakeAttribute("s", NeutralType.SHORT));
+		entity.addAttribute(new FakeAttribute("f", NeutralType.FLOAT));
+		entity.addAttribute(new FakeAttribute("d", NeutralType.DOUBLE));
+		entity.addAttribute(new FakeAttribute("dec64", NeutralType.DECIMAL).precision(15).scale(3));
+		entity.addAttribute(new FakeAttribute("dec", NeutralType.DECIMAL));
+		entity.addAttribute(new FakeAttribute("t", NeutralType.TIME));
+		entity.addAttribute(new FakeAttribute("ts", NeutralType.TIMESTAMP));
+		entity.addAttribute(new FakeAttribute("tsz", NeutralType.TIMESTAMPZ));
+		entity.addAttribute(new FakeAttribute("bin", NeutralType.BINARY).maxLength(4));
+		entity.addAttribute(new FakeAttribute("emoji", NeutralType.STRING));
+		RowCodec codec = RowCodec.compile(entity);
+		assertEquals(FieldKind.DECIMAL64, codec.getLayout().getFieldKind(5));
+		assertEquals(FieldKind.DECIMAL, codec.getLayout().getFieldKind(6));
+		Object[] record = { true, (byte) -3, (short) 300, 1.5f, -2.25d, new BigDecimal("123456789012.345"), 
+				new BigDecimal("-98765432109876543210.0123456789"), LocalTime.of(23, 59, 58, 123456789),
+				LocalDateTime.of(1969, 12, 31, 23, 0, 1, 5), OffsetDateTime.of(2024, 2, 29, 12, 0, 0, 0, ZoneOffset.ofHours(-5)),
+				new byte[] { 1, 2, 3 }, "a\uD83D\uDE00b" };
+		ByteBuffer buffer = ByteBuffer.allocateDirect(512); // no backing array
+		codec.encode(record, buffer);
+		buffer.flip();
+		Object[] decoded = codec.decode(buffer);
+		assertArrayEquals((byte[]) record[10], (byte[]) decoded[10]);
+		record[10] = decoded[10] = null ;
+		assertArrayEquals(record, decoded);
+		// integer values are converted to the attribute type
+		buffer.clear();
+		codec.encode(new Object[] { false, 1, 2L, 1, 2, 3, 4, null, null, null, null, null }, buffer);
+		buffer.flip();
+		decoded = codec.decode(buffer);
+		assertEquals((byte) 1, decoded[1]);
+		assertEquals((short) 2, decoded[2]);
+		assertEquals(new BigDecimal("3.000"), decoded[5]);
+		assertEquals(new BigDecimal("4"), decoded[6]);
+	}
+
+	@Test
+	public void testInvalidValues() {
+		RowCodec codec = RowCodec.compile(entity("Book"));
+		ByteBuffer buffer = ByteBuffer.allocate(1024);
+		Object[] record = book(1);
+		record[2] = null ; // title not null
+		expectFailure(() -> codec.encode(record, buffer), IllegalArgumentException.class);
+		record[2] = "T" ;
+		record[1] = "12345678901234" ; // max 13
+		expectFailure(() -> codec.encode(record, buffer), IllegalArgumentException.class);
+		record[1] = "1234567890" ;
+		record[3] = new BigDecimal("1.234"); // scale 2
+		expectFailure(() -> codec.encode(record, buffer), IllegalArgumentException.class);
+		record[3] = new BigDecimal("12345.67"); // precision 5
+		expectFailure(() -> codec.encode(record, buffer), IllegalArgumentException.class);
+		record[3] = 1000 ; // 1000.00 : precision 6
+		expectFailure(() -> codec.encode(record, buffer), IllegalArgumentException.class);
+		record[3] = new BigDecimal("999.99");
+		codec.encode(record, buffer);
+		buffer.clear();
+		record[3] = new BigDecimal("1.2");
+		record[5] = "1" ; // integer expected
+		expectFailure(() -> codec.encode(record, buffer), IllegalArgumentException.class);
+		record[5] = 1L << 40 ; // int range
+		expectFailure(() -> codec.encode(record, buffer), IllegalArgumentException.class);
+		assertEquals(0, buffer.position());
+		record[5] = 1 ;
+		expectFailure(() -> codec.encode(record, ByteBuffer.allocate(60)), BufferOverflowException.class);
+		expectFailure(() -> codec.encode(new Object[2], buffer), IllegalArgumentException.class);
+		codec.encode(record, buffer);
+		buffer.flip();
+		assertEquals(new BigDecimal("1.20"), codec.decode(buffer)[3]);
+	}
+
+	@Test
+	public void testReaderAndWriter() {
+		RowCodec codec = RowCodec.compile(entity("Book"));
+		RowLayout layout = codec.getLayout();
+		int id = layout.getFieldIndex("id");
+		int title = layout.getFieldIndex("title");
+		int price = layout.getFieldIndex("price");
+		int date = layout.getFieldIndex("publicationDate");
+		int author = layout.getFieldIndex("authorId");
+		ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+		RowWriter writer = codec.newWriter();
+		for ( int i = 0 ; i < 100 ; i++ ) {
+			writer.begin(buffer)
+				.setLong(id, i)
+				.setString(layout.getFieldIndex("isbn"), "isbn" + i)
+				.setString(title, "Title " + i)
+				.setLong(price, i * 100 + 99) // unscaled value : i.99
+				.setInt(author, i % 3);
+			if ( i % 2 == 0 ) {
+				writer.setLong(date, 18000 + i);
+			}
+			writer.end();
+		}
+		expectFailure(() -> writer.begin(buffer).setLong(id, 1).end(), IllegalStateException.class); // not null fields
+		expectFailure(() -> writer.setLong(id, 2), IllegalStateException.class); // already set
+		expectFailure(() -> writer.setDouble(author, 2), IllegalArgumentException.class);
+		expectFailure(() -> writer.setNull(title), IllegalArgumentException.class);
+
+		buffer.flip();
+		RowReader reader = codec.newReader();
+		long sum = 0 ;
+		int rows = 0 ;
+		while ( reader.next(buffer) ) {
+			assertEquals(rows, reader.getLong(id));
+			assertEquals("Title " + rows, reader.getString(title));
+			assertEquals(rows % 3, reader.getInt(author));
+			assertEquals(rows % 2 != 0, reader.isNull(date));
+			assertEquals(BigDecimal.valueOf(rows * 100 + 99, 2), reader.getDecimal(price));
+			assertNull(reader.getObject(layout.getFieldIndex("summary")));
+			sum += reader.getLong(price);
+			rows++ ;
+		}
+		assertEquals(100, rows);
+		assertEquals(495000 + 9900, sum);
+		expectFailure(() -> reader.getDouble(id), IllegalArgumentException.class);
+		assertEquals(LocalDate.ofEpochDay(18000), reader.at(buffer, 0).getObject(date));
+	}
+
+	@Test
+	public void testSizeComparedWithSerialization() throws IOException {
+		RowCodec codec = RowCodec.compile(entity("Book"));
+		int n = 100 ;
+		ByteBuffer buffer = ByteBuffer.allocate(n * 128);
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		for ( int i = 0 ; i < n ; i++ ) {
+			Object[] record = book(i);
+			codec.encode(record, buffer);
+			try ( ObjectOutputStream out = new ObjectOutputStream(baos) ) {
+				out.writeObject(record);
+			}
+		}
+		assertTrue(buffer.position() < baos.size());
+	}
+}
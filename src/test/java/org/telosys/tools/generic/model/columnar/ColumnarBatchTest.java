@@ -0,0 +1,172 @@
+package org.telosys.tools.generic.model.columnar;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.telosys.tools.generic.model.fake.ModelAssert.expectFailure;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.fake.FakeModels;
+
+public class ColumnarBatchTest {
+
+	private Entity book() {
+		return FakeModels.buildBookstoreModel().getEntityByClassName("Book");
+	}
+
+	private List<Object[]> books(int n) {
+		List<Object[]> list = new ArrayList<>();
+		for ( int i = 0 ; i < n ; i++ ) {
+			list.add(new Object[] { (long) i, "isbn" + i, "Title " + ( i % 10 ), BigDecimal.valueOf(i, 2), 
+					i % 2 == 0 ? LocalDate.of(2000, 1, 1).plusDays(i) : null, i % 3 == 0 ? null : i % 5, i % 7, null });
+		}
+		return list;
+	}
+
+	@Test
+	public void testSchema() {
+		ColumnarSchema schema = ColumnarSchema.of(book());
+		assertEquals(8, schema.getColumnCount());
+		assertEquals(VectorType.LONG, schema.getVectorType(0));
+		assertEquals(VectorType.DICTIONARY, schema.getVectorType(1));
+		assertEquals(VectorType.INT, schema.getVectorType(schema.getColumnIndex("price"))); // decimal(5,2)
+		assertEquals(2, schema.getScale(schema.getColumnIndex("price")));
+		assertEquals(VectorType.INT, schema.getVectorType(schema.getColumnIndex("publicationDate")));
+		assertFalse(schema.isNullable(0));
+		assertTrue(schema.isNullable(schema.getColumnIndex("publisherId")));
+
+		ColumnarSchema projection = ColumnarSchema.builder(book()).columns("authorId", "id").build();
+		assertEquals(2, projection.getColumnCount());
+		assertEquals(6, projection.getFieldIndex(0));
+		assertEquals(0, projection.getFieldIndex(1));
+		assertEquals(8, projection.getRecordSize());
+		expectFailure(() -> ColumnarSchema.builder(book()).columns("foo"), IllegalArgumentException.class);
+		expectFailure(() -> ColumnarSchema.builder(book()).columns("id", "id"), IllegalArgumentException.class);
+		expectFailure(() -> projection.getColumnIndex("title"), IllegalArgumentException.class);
+	}
+
+	@Test
+	public void testTranspose() {
+		ColumnarSchema schema = ColumnarSchema.of(book());
+		List<Object[]> records = books(250);
+		List<ColumnarBatch> batches = ColumnarBatch.fromRows(schema, records, 100);
+		assertEquals(3, batches.size());
+		assertEquals(100, batches.get(0).getSize());
+		assertEquals(50, batches.get(2).getSize());
+		int i = 0 ;
+		for ( ColumnarBatch batch : batches ) {
+			for ( Object[] record : batch.toRows() ) {
+				assertArrayEquals(records.get(i++), record);
+			}
+		}
+		ColumnarBatch batch = batches.get(0);
+		assertArrayEquals(records.get(42), batch.getRow(42));
+		assertEquals(10, batch.getVector("title").getDictionary().size());
+		assertEquals(3, batch.getVector("title").getCodes()[3]);
+		assertEquals(-1, batch.getVector("title").getDictionary().codeOf("none"));
+		assertTrue(batch.getVector("publisherId").isNull(0));
+		assertFalse(batch.getVector("publisherId").isNull(1));
+		assertNull(batch.getValue(0, schema.getColumnIndex("publisherId")));
+		expectFailure(() -> batch.getRow(100), IndexOutOfBoundsException.class);
+		expectFailure(() -> batch.getVector("id").getInts(), IllegalStateException.class);
+	}
+
+	@Test
+	public void testAppend() {
+		ColumnarSchema schema = ColumnarSchema.builder(book()).columns("id", "price").build();
+		ColumnarBatch batch = schema.newBatch(2);
+		assertTrue(batch.appendRow(books(1).get(0)));
+		Object[] invalid = books(2).get(1);
+		invalid[0] = null ; // key
+		expectFailure(() -> batch.appendRow(invalid), IllegalArgumentException.class);
+		invalid[0] = 1L ;
+		invalid[3] = new BigDecimal("1.001");
+		expectFailure(() -> batch.appendRow(invalid), IllegalArgumentException.class);
+		invalid[3] = "1" ;
+		expectFailure(() -> batch.appendRow(invalid), IllegalArgumentException.class);
+		invalid[3] = new BigDecimal("12345.67"); // precision 5
+		expectFailure(() -> batch.appendRow(invalid), IllegalArgumentException.class);
+		invalid[3] = 1000 ; // 1000.00 : precision 6
+		expectFailure(() -> batch.appendRow(invalid), IllegalArgumentException.class);
+		assertEquals(1, batch.getSize());
+		invalid[3] = 2 ;
+		assertTrue(batch.appendRow(invalid));
+		assertFalse(batch.appendRow(invalid));
+		assertEquals(200, batch.getVector("price").getInts()[1]); // unscaled
+		Object[] row = batch.getRow(1);
+		assertEquals(new BigDecimal("2.00"), row[3]);
+		assertNull(row[1]); // no column
+		batch.clear();
+		assertEquals(0, batch.getSize());
+		assertEquals(2, batch.appendRows(books(5), 1));
+
+		ColumnarBatch dates = ColumnarSchema.builder(book()).columns("publicationDate").build().newBatch(2);
+		invalid[4] = LocalDate.MAX ; // epoch day out of the int range
+		expectFailure(() -> dates.appendRow(invalid), IllegalArgumentException.class);
+		invalid[4] = LocalDate.of(9999, 12, 31);
+		assertTrue(dates.appendRow(invalid));
+	}
+
+	@Test
+	public void testInvalidValueInRows() {
+		ColumnarSchema schema = ColumnarSchema.of(book());
+		ColumnarBatch batch = schema.newBatch(10);
+		batch.appendRows(books(2), 0);
+		StringDictionary isbn = batch.getVector("isbn").getDictionary();
+		assertEquals(2, isbn.size());
+
+		// 'isbn' column written before the invalid 'price' 
+		List<Object[]> records = books(5);
+		records.get(4)[3] = new BigDecimal("1.001");
+		expectFailure(() -> batch.appendRows(records, 2), IllegalArgumentException.class);
+		assertEquals(2, batch.getSize());
+		assertEquals(2, isbn.size());
+		assertEquals(-1, isbn.codeOf("isbn3"));
+		expectFailure(() -> batch.appendRow(records.get(4)), IllegalArgumentException.class);
+		assertEquals(-1, isbn.codeOf("isbn4"));
+
+		records.get(4)[3] = new BigDecimal("1.00");
+		assertEquals(3, batch.appendRows(records, 2));
+		assertEquals(5, isbn.size());
+		assertEquals(4, isbn.codeOf("isbn4"));
+		assertArrayEquals(records.get(4), batch.getRow(4));
+	}
+
+	@Test
+	public void testScan() {
+		// filter and aggregation on primitive arrays
+		ColumnarSchema schema = ColumnarSchema.of(book());
+		List<Object[]> records = books(100000);
+		ColumnarBatch batch = schema.newBatch(records.size());
+		batch.appendRows(records, 0);
+		int[] authors = batch.getVector("authorId").getInts();
+		int[] prices = batch.getVector("price").getInts();
+		long[] publisherValidity = batch.getVector("publisherId").getValidity();
+		long sum = 0 ;
+		int count = 0 ;
+		for ( int row = 0 ; row < batch.getSize() ; row++ ) {
+			if ( authors[row] == 3 && ( publisherValidity[row >> 6] & ( 1L << row ) ) != 0 ) {
+				sum += prices[row];
+				count++ ;
+			}
+		}
+		long expectedSum = 0 ;
+		int expectedCount = 0 ;
+		for ( Object[] record : records ) {
+			if ( (Integer) record[6] == 3 && record[5] != null ) {
+				expectedSum += ((BigDecimal) record[3]).unscaledValue().longValue();
+				expectedCount++ ;
+			}
+		}
+		assertEquals(expectedCount, count);
+		assertEquals(expectedSum, sum);
+	}
+}
@@ -0,0 +1,229 @@
+package org.telosys.tools.generic.model.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.telosys.tools.generic.model.fake.FakeAttribute;
+import org.telosys.tools.generic.model.fake.FakeEntity;
+import org.telosys.tools.generic.model.fake.FakeModel;
+import org.telosys.tools.generic.model.fake.FakeModels;
+import org.telosys.tools.generic.model.types.NeutralType;
+
+public class DatasetGeneratorTest {
+
+	private DatasetGenerator newGenerator() {
+		DatasetGenerator generator = new DatasetGenerator(FakeModels.buildBookstoreModel());
+		generator.setSeed(42);
+		generator.setDefaultRowCount(50);
+		generator.setRowCount("Country", 20);
+		generator.setRowCount("Book", 1000);
+		generator.setRowCount("Review", 3000);
+		generator.setChunkSize(128);
+		generator.setReferenceDate(LocalDate.of(2025, 1, 1));
+		return generator ;
+	}
+
+	private DatasetGenerator newItemGenerator(FakeAttribute attribute, long rowCount) {
+		FakeModel model = FakeModels.buildBookstoreModel();
+		FakeEntity item = model.addEntity(new FakeEntity("Item", "ITEM"));
+		item.addAttribute(new FakeAttribute("id", NeutralType.INTEGER).keyElement());
+		item.addAttribute(attribute);
+		DatasetGenerator generator = new DatasetGenerator(model);
+		generator.setSeed(42);
+		generator.setRowCount("Item", rowCount);
+		generator.setReferenceDate(LocalDate.of(2025, 1, 1));
+		return generator ;
+	}
+
+	private String[] values(DatasetGenerator generator, String entity, int index) throws IOException {
+		String[] lines = write(generator, entity, DataFormat.CSV).split("\n");
+		String[] values = new String[lines.length - 1];
+		for ( int i = 1 ; i < lines.length ; i++ ) {
+			values[i - 1] = lines[i].split(",", -1)[index];
+		}
+		return values ;
+	}
+
+	private String write(DatasetGenerator generator, String entity, DataFormat format) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		generator.write(entity, Channels.newChannel(out), format);
+		return new String(out.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void testCsv() throws IOException {
+		String csv = write(newGenerator(), "Book", DataFormat.CSV);
+		String[] lines = csv.split("\n");
+		assertEquals(1001, lines.length);
+		assertEquals("ID,ISBN,TITLE,PRICE,PUBLICATION_DATE,PUBLISHER_ID,AUTHOR_ID,SUMMARY", lines[0]);
+		Set<String> ids = new HashSet<>();
+		Set<String> isbns = new HashSet<>();
+		for ( int i = 1 ; i < lines.length ; i++ ) {
+			String[] values = lines[i].split(",", -1);
+			assertEquals(8, values.length);
+			ids.add(values[0]);
+			isbns.add(values[1]);
+			assertTrue(values[1], values[1].matches("[0-9]{10,13}"));
+			assertTrue(values[2].length() >= 1 && values[2].length() <= 120);
+			if ( !values[3].isEmpty() ) {
+				BigDecimal price = new BigDecimal(values[3]);
+				assertEquals(2, price.scale());
+				assertTrue(price.signum() >= 0 && price.compareTo(new BigDecimal("999.99")) <= 0);
+			}
+			if ( !values[4].isEmpty() ) {
+				assertTrue(LocalDate.parse(values[4]).isBefore(LocalDate.of(2025, 1, 1)));
+			}
+			assertTrue("author is not null", !values[6].isEmpty());
+			int authorId = Integer.parseInt(values[6]);
+			assertTrue(authorId >= 1 && authorId <= 50);
+		}
+		assertEquals(1000, ids.size());
+		assertEquals(1000, isbns.size());
+	}
+
+	@Test
+	public void testDeterministic() throws IOException {
+		DatasetGenerator generator = newGenerator();
+		generator.setParallelism(1);
+		String s1 = write(generator, "Review", DataFormat.CSV);
+		generator.setParallelism(7);
+		String s2 = write(generator, "Review", DataFormat.CSV);
+		assertEquals(s1, s2);
+		generator.setSeed(43);
+		assertTrue(!s1.equals(write(generator, "Review", DataFormat.CSV)));
+	}
+
+	@Test
+	public void testSql() throws IOException {
+		String sql = write(newGenerator(), "Country", DataFormat.SQL);
+		String[] lines = sql.split("\n");
+		assertEquals(20, lines.length);
+		assertTrue(lines[0], lines[0].startsWith("INSERT INTO SHOP.COUNTRY (CODE, NAME) VALUES ('00', '"));
+		assertTrue(lines[19], lines[19].startsWith("INSERT INTO SHOP.COUNTRY (CODE, NAME) VALUES ('19', '"));
+		assertTrue(lines[19].endsWith("');"));
+	}
+
+	@Test
+	public void testFilesAndForeignKeys() throws IOException {
+		Path directory = Files.createTempDirectory("dataset");
+		List<Path> files = newGenerator().generate(directory, DataFormat.CSV);
+		assertEquals(5, files.size());
+		// dependency order
+		assertTrue(indexOf(files, "Country.csv") < indexOf(files, "Publisher.csv"));
+		assertTrue(indexOf(files, "Book.csv") < indexOf(files, "Review.csv"));
+
+		Set<String> bookIds = column(directory.resolve("Book.csv"), 0);
+		assertEquals(1000, bookIds.size());
+		Set<String> reviewBookIds = column(directory.resolve("Review.csv"), 0);
+		assertTrue(bookIds.containsAll(reviewBookIds));
+		Set<String> countryCodes = column(directory.resolve("Country.csv"), 0);
+		Set<String> publisherCountries = column(directory.resolve("Publisher.csv"), 2);
+		publisherCountries.remove("");
+		assertTrue(countryCodes.containsAll(publisherCountries));
+		for ( Path file : files ) {
+			Files.delete(file);
+		}
+		Files.delete(directory);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testTooManyUniqueValues() throws IOException {
+		DatasetGenerator generator = newGenerator();
+		generator.setRowCount("Country", 101); // key : 2 digits
+		write(generator, "Country", DataFormat.CSV);
+	}
+
+	@Test
+	public void testUniqueDecimal() throws IOException {
+		FakeAttribute amount = new FakeAttribute("amount", NeutralType.DECIMAL).unique().precision(5).scale(2);
+		String[] values = values(newItemGenerator(amount, 999), "Item", 1);
+		assertEquals(999, values.length);
+		assertEquals("1.00", values[0]);
+		assertEquals("999.00", values[998]);
+		assertEquals(999, new HashSet<>(Arrays.asList(values)).size());
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testTooManyUniqueDecimals() throws IOException {
+		FakeAttribute amount = new FakeAttribute("amount", NeutralType.DECIMAL).unique().precision(5).scale(2);
+		write(newItemGenerator(amount, 1000), "Item", DataFormat.CSV); // 1000.00 > 999.99
+	}
+
+	@Test
+	public void testUniquePastDates() throws IOException {
+		FakeAttribute day = new FakeAttribute("day", NeutralType.DATE).unique().datePast();
+		String[] values = values(newItemGenerator(day, 10000), "Item", 1);
+		assertEquals("1995-01-01", values[0]);
+		for ( String value : values ) {
+			assertTrue(value, LocalDate.parse(value).isBefore(LocalDate.of(2025, 1, 1)));
+		}
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testTooManyUniquePastDates() throws IOException {
+		FakeAttribute day = new FakeAttribute("day", NeutralType.DATE).unique().datePast();
+		write(newItemGenerator(day, 20000), "Item", DataFormat.CSV); // 1995-01-01 to 2024-12-31 : 10958 days
+	}
+
+	@Test
+	public void testUniqueTimestampsInRange() throws IOException {
+		FakeAttribute time = new FakeAttribute("time", NeutralType.TIMESTAMP).unique()
+				.dateAfter("2024-12-30").dateBefore("2025-01-01");
+		String[] values = values(newItemGenerator(time, 86400), "Item", 1);
+		assertEquals("2024-12-31 00:00:00", values[0]);
+		assertEquals("2024-12-31 23:59:59", values[86399]);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testTooManyUniqueTimestamps() throws IOException {
+		FakeAttribute time = new FakeAttribute("time", NeutralType.TIMESTAMP).unique()
+				.dateAfter("2024-12-30").dateBefore("2025-01-01");
+		write(newItemGenerator(time, 86401), "Item", DataFormat.CSV); // one day : 86400 seconds
+	}
+
+	@Test
+	public void testPatternWithMaxLength() throws IOException {
+		FakeAttribute code = new FakeAttribute("code", NeutralType.STRING).notNull().pattern("[a-z]+").maxLength(5);
+		for ( String value : values(newItemGenerator(code, 500), "Item", 1) ) {
+			assertTrue(value, value.matches("[a-z]{1,5}"));
+		}
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testPatternLongerThanMaxLength() throws IOException {
+		FakeAttribute code = new FakeAttribute("code", NeutralType.STRING).pattern("[0-9]{10}").maxLength(5);
+		write(newItemGenerator(code, 10), "Item", DataFormat.CSV);
+	}
+
+	private int indexOf(List<Path> files, String name) {
+		for ( int i = 0 ; i < files.size() ; i++ ) {
+			if ( files.get(i).getFileName().toString().equals(name) ) {
+				return i ;
+			}
+		}
+		return -1 ;
+	}
+
+	private Set<String> column(Path file, int index) throws IOException {
+		Set<String> values = new HashSet<>();
+		List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+		for ( String line : lines.subList(1, lines.size()) ) {
+			values.add(line.split(",", -1)[index]);
+		}
+		return values ;
+	}
+}
@@ -0,0 +1,71 @@
+package org.telosys.tools.generic.model.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+
+public class PatternGeneratorTest {
+
+	private void check(String regex) {
+		PatternGenerator generator = PatternGenerator.compile(regex);
+		assertNotNull(regex, generator);
+		SplittableRandom random = new SplittableRandom(1);
+		for ( int i = 0 ; i < 200 ; i++ ) {
+			StringBuilder sb = new StringBuilder();
+			generator.generate(sb, random);
+			assertTrue(regex + " : '" + sb + "'", sb.toString().matches(regex));
+		}
+	}
+
+	@Test
+	public void testSupported() {
+		check("[0-9]+");
+		check("^[A-Z]{2}-\\d{3,5}$");
+		check("[a-z_]*@[a-z]+\\.(com|org|net)");
+		check("(?:ab|c)?x{2,}");
+		check("\\w\\s\\.");
+		check("[-+]?[0-9]{1,3}");
+	}
+
+	private void check(String regex, int minLength, int maxLength) {
+		PatternGenerator generator = PatternGenerator.compile(regex);
+		SplittableRandom random = new SplittableRandom(1);
+		for ( int i = 0 ; i < 200 ; i++ ) {
+			StringBuilder sb = new StringBuilder();
+			generator.generate(sb, random, minLength, maxLength);
+			String s = sb.toString();
+			assertTrue(regex + " : '" + s + "'", s.matches(regex));
+			assertTrue(regex + " : '" + s + "'", s.length() >= minLength && s.length() <= maxLength);
+		}
+	}
+
+	@Test
+	public void testLengthBounds() {
+		PatternGenerator generator = PatternGenerator.compile("[A-Z]{2}-\\d{3,5}(x|yz)?");
+		assertEquals(6, generator.getMinLength());
+		assertEquals(10, generator.getMaxLength());
+		assertEquals(Integer.MAX_VALUE, PatternGenerator.compile("a{2000000000}b{2000000000}").getMaxLength());
+		check("[a-z]+", 1, 5);
+		check("[a-z]*", 3, 3);
+		check("[0-9]{1,}-[a-z]+", 4, 6);
+		check("(ab|c)+", 5, 7);
+		check("(?:abc|d|efgh)*x?", 2, 4);
+		check("[A-Z]{2}-\\d{3,5}(x|yz)?", 9, 10);
+	}
+
+	@Test
+	public void testNotSupported() {
+		assertNull(PatternGenerator.compile(null));
+		assertNull(PatternGenerator.compile(""));
+		assertNull(PatternGenerator.compile("[^a-z]+"));
+		assertNull(PatternGenerator.compile("(a)\\1"));
+		assertNull(PatternGenerator.compile("(?=a)b"));
+		assertNull(PatternGenerator.compile("ab)"));
+		assertNull(PatternGenerator.compile("*a"));
+	}
+}
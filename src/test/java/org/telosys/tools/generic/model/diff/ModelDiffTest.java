@@ -0,0 +1,111 @@
+package org.telosys.tools.generic.model.diff;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.telosys.tools.generic.model.enums.Cardinality;
+import org.telosys.tools.generic.model.fake.FakeAttribute;
+import org.telosys.tools.generic.model.fake.FakeEntity;
+import org.telosys.tools.generic.model.fake.FakeLink;
+import org.telosys.tools.generic.model.fake.FakeModel;
+import org.telosys.tools.generic.model.fake.FakeModels;
+import org.telosys.tools.generic.model.types.NeutralType;
+
+public class ModelDiffTest {
+
+	@Test
+	public void testNoChange() {
+		ModelDiff diff = ModelDiff.compare(FakeModels.buildBookstoreModel(), FakeModels.buildBookstoreModel());
+		assertFalse(diff.hasChanges());
+		assertTrue(diff.getChangedEntityNames().isEmpty());
+	}
+
+	@Test
+	public void testModelProperties() {
+		FakeModel newModel = FakeModels.buildBookstoreModel();
+		newModel.setTitle("New title");
+		ModelDiff diff = ModelDiff.compare(FakeModels.buildBookstoreModel(), newModel);
+		assertTrue(diff.hasChanges());
+		assertEquals(Arrays.asList("title"), diff.getModifiedProperties());
+		assertTrue(diff.getModifiedEntities().isEmpty());
+	}
+
+	@Test
+	public void testAddedAndRemovedEntities() {
+		FakeModel oldModel = FakeModels.buildBookstoreModel();
+		FakeModel newModel = FakeModels.buildBookstoreModel();
+		newModel.getEntities().remove(newModel.getEntityByClassName("Review"));
+		newModel.addEntity(new FakeEntity("Shop", "SHOP"));
+		ModelDiff diff = ModelDiff.compare(oldModel, newModel);
+		assertEquals(Arrays.asList("Shop"), diff.getAddedEntities());
+		assertEquals(Arrays.asList("Review"), diff.getRemovedEntities());
+		assertTrue(diff.getModifiedEntities().isEmpty());
+		assertEquals(Arrays.asList("Shop"), diff.getChangedEntityNames());
+	}
+
+	@Test
+	public void testModifiedAttributes() {
+		FakeModel newModel = FakeModels.buildBookstoreModel();
+		FakeEntity book = (FakeEntity) newModel.getEntityByClassName("Book");
+		((FakeAttribute) book.getAttributeByName("title")).maxLength(200).notBlank();
+		book.getAttributes().remove(book.getAttributeByName("summary"));
+		book.addAttribute(new FakeAttribute("edition", NeutralType.INTEGER));
+
+		ModelDiff diff = ModelDiff.compare(FakeModels.buildBookstoreModel(), newModel);
+		assertEquals(Arrays.asList("Book"), diff.getChangedEntityNames());
+		EntityDiff entityDiff = diff.getEntityDiff("Book");
+		assertNotNull(entityDiff);
+		assertTrue(entityDiff.getModifiedProperties().isEmpty());
+		assertEquals(3, entityDiff.getAttributeChanges().size());
+
+		ElementChange c = entityDiff.getAttributeChanges().get(0);
+		assertEquals("title", c.getName());
+		assertEquals(ChangeType.MODIFIED, c.getChangeType());
+		assertEquals(Arrays.asList("maxLength", "notBlank"), c.getModifiedProperties());
+
+		c = entityDiff.getAttributeChanges().get(1);
+		assertEquals("edition", c.getName());
+		assertEquals(ChangeType.ADDED, c.getChangeType());
+
+		c = entityDiff.getAttributeChanges().get(2);
+		assertEquals("summary", c.getName());
+		assertEquals(ChangeType.REMOVED, c.getChangeType());
+		assertTrue(c.getModifiedProperties().isEmpty());
+
+		assertNull(diff.getEntityDiff("Author"));
+	}
+
+	@Test
+	public void testLinksAndTags() {
+		FakeModel newModel = FakeModels.buildBookstoreModel();
+		FakeEntity country = (FakeEntity) newModel.getEntityByClassName("Country");
+		country.addLink(new FakeLink("publishers", "Publisher", Cardinality.ONE_TO_MANY).mappedBy("country"));
+		FakeEntity book = (FakeEntity) newModel.getEntityByClassName("Book");
+		book.getTagContainer().addTag("Audit", "full");
+		book.getTagContainer().addTag("Cache", "");
+		((FakeAttribute) book.getAttributeByName("isbn")).tag("Searchable", "");
+
+		ModelDiff diff = ModelDiff.compare(FakeModels.buildBookstoreModel(), newModel);
+		assertEquals(Arrays.asList("Country", "Book"), diff.getChangedEntityNames());
+
+		EntityDiff countryDiff = diff.getEntityDiff("Country");
+		assertEquals(1, countryDiff.getLinkChanges().size());
+		assertEquals(ChangeType.ADDED, countryDiff.getLinkChanges().get(0).getChangeType());
+		assertEquals("publishers", countryDiff.getLinkChanges().get(0).getName());
+
+		EntityDiff bookDiff = diff.getEntityDiff("Book");
+		assertEquals(2, bookDiff.getTagChanges().size());
+		assertEquals("Audit", bookDiff.getTagChanges().get(0).getName());
+		assertEquals(ChangeType.MODIFIED, bookDiff.getTagChanges().get(0).getChangeType());
+		assertEquals("Cache", bookDiff.getTagChanges().get(1).getName());
+		assertEquals(ChangeType.ADDED, bookDiff.getTagChanges().get(1).getChangeType());
+		assertEquals(1, bookDiff.getAttributeChanges().size());
+		assertEquals(Arrays.asList("@Searchable"), bookDiff.getAttributeChanges().get(0).getModifiedProperties());
+	}
+}
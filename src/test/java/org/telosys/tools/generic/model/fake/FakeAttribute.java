@@ -0,0 +1,219 @@
+package org.telosys.tools.generic.model.fake;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.telosys.tools.generic.model.Attribute;
+import org.telosys.tools.generic.model.ForeignKeyPart;
+import org.telosys.tools.generic.model.enums.BooleanValue;
+import org.telosys.tools.generic.model.enums.DateType;
+import org.telosys.tools.generic.model.enums.GeneratedValueStrategy;
+
+/**
+ * Fake attribute for tests (setters return 'this' to chain calls)
+ */
+public class FakeAttribute implements Attribute {
+
+	private final String name ;
+	private final String neutralType ;
+	private String databaseName ;
+	private String databaseType ;
+	private String defaultValue ;
+	private String label ;
+	private String pattern ;
+	private String size ;
+	private Integer maxLength ;
+	private Integer minLength ;
+	private BigDecimal maxValue ;
+	private BigDecimal minValue ;
+	private Integer precision ;
+	private Integer scale ;
+	private boolean keyElement = false ;
+	private boolean notNull = false ;
+	private boolean notBlank = false ;
+	private boolean notEmpty = false ;
+	private boolean unique = false ;
+	private boolean longText = false ;
+	private boolean transientField = false ;
+	private boolean primitiveTypeExpected = false ;
+	private boolean objectTypeExpected = false ;
+	private boolean unsignedTypeExpected = false ;
+	private boolean datePast = false ;
+	private boolean dateFuture = false ;
+	private String dateBeforeValue ;
+	private String dateAfterValue ;
+	private DateType dateType = DateType.UNDEFINED ;
+	private boolean generatedValue = false ;
+	private GeneratedValueStrategy generatedValueStrategy = GeneratedValueStrategy.UNDEFINED ;
+	private String generatedValueSequenceName ;
+	private String generatedValueTableName ;
+	private String generatedValueTablePkColumnValue ;
+	private Integer generatedValueAllocationSize ;
+	private Integer generatedValueInitialValue ;
+	private String referencedEntityClassName ;
+	private BooleanValue insertable = BooleanValue.UNDEFINED ;
+	private BooleanValue updatable = BooleanValue.UNDEFINED ;
+	private final List<ForeignKeyPart> fkParts = new ArrayList<>();
+	private final FakeTagContainer tagContainer = new FakeTagContainer();
+
+	public FakeAttribute(String name, String neutralType) {
+		super();
+		this.name = name;
+		this.neutralType = neutralType;
+		this.databaseName = name.toUpperCase();
+	}
+
+	//--- setters
+	public FakeAttribute databaseName(String v) { this.databaseName = v; return this; }
+	public FakeAttribute databaseType(String v) { this.databaseType = v; return this; }
+	public FakeAttribute defaultValue(String v) { this.defaultValue = v; return this; }
+	public FakeAttribute label(String v) { this.label = v; return this; }
+	public FakeAttribute pattern(String v) { this.pattern = v; return this; }
+	public FakeAttribute size(String v) { this.size = v; return this; }
+	public FakeAttribute maxLength(Integer v) { this.maxLength = v; return this; }
+	public FakeAttribute minLength(Integer v) { this.minLength = v; return this; }
+	public FakeAttribute maxValue(String v) { this.maxValue = new BigDecimal(v); return this; }
+	public FakeAttribute minValue(String v) { this.minValue = new BigDecimal(v); return this; }
+	public FakeAttribute precision(Integer v) { this.precision = v; return this; }
+	public FakeAttribute scale(Integer v) { this.scale = v; return this; }
+	public FakeAttribute keyElement() { this.keyElement = true; this.notNull = true; return this; }
+	public FakeAttribute notNull() { this.notNull = true; return this; }
+	public FakeAttribute notBlank() { this.notBlank = true; return this; }
+	public FakeAttribute notEmpty() { this.notEmpty = true; return this; }
+	public FakeAttribute unique() { this.unique = true; return this; }
+	public FakeAttribute longText() { this.longText = true; return this; }
+	public FakeAttribute transientField() { this.transientField = true; return this; }
+	public FakeAttribute primitiveTypeExpected() { this.primitiveTypeExpected = true; return this; }
+	public FakeAttribute objectTypeExpected() { this.objectTypeExpected = true; return this; }
+	public FakeAttribute unsignedTypeExpected() { this.unsignedTypeExpected = true; return this; }
+	public FakeAttribute datePast() { this.datePast = true; return this; }
+	public FakeAttribute dateFuture() { this.dateFuture = true; return this; }
+	public FakeAttribute dateBefore(String v) { this.dateBeforeValue = v; return this; }
+	public FakeAttribute dateAfter(String v) { this.dateAfterValue = v; return this; }
+	public FakeAttribute dateType(DateType v) { this.dateType = v; return this; }
+	public FakeAttribute generatedValue(GeneratedValueStrategy strategy) { 
+		this.generatedValue = true; this.generatedValueStrategy = strategy; return this; }
+	public FakeAttribute sequence(String name, Integer initialValue, Integer allocationSize) {
+		this.generatedValueSequenceName = name;
+		this.generatedValueInitialValue = initialValue;
+		this.generatedValueAllocationSize = allocationSize; return this; }
+	public FakeAttribute table(String tableName, String pkColumnValue) {
+		this.generatedValueTableName = tableName;
+		this.generatedValueTablePkColumnValue = pkColumnValue; return this; }
+	public FakeAttribute referencedEntity(String v) { this.referencedEntityClassName = v; return this; }
+	public FakeAttribute insertable(BooleanValue v) { this.insertable = v; return this; }
+	public FakeAttribute updatable(BooleanValue v) { this.updatable = v; return this; }
+	public FakeAttribute fkPart(ForeignKeyPart part) { this.fkParts.add(part); return this; }
+	public FakeAttribute tag(String name, String value) { this.tagContainer.addTag(name, value); return this; }
+
+	//--- getters
+	@Override
+	public String getBooleanFalseValue() { return null; }
+	@Override
+	public String getBooleanTrueValue() { return null; }
+	@Override
+	public String getDatabaseComment() { return ""; }
+	@Override
+	public String getDatabaseDefaultValue() { return null; }
+	@Override
+	public String getDatabaseName() { return databaseName; }
+	@Override
+	public String getDatabaseSize() { return size; }
+	@Override
+	public String getDatabaseType() { return databaseType; }
+	@Override
+	public String getDateAfterValue() { return dateAfterValue; }
+	@Override
+	public String getDateBeforeValue() { return dateBeforeValue; }
+	@Override
+	public DateType getDateType() { return dateType; }
+	@Override
+	public String getDefaultValue() { return defaultValue; }
+	@Override
+	public GeneratedValueStrategy getGeneratedValueStrategy() { return generatedValueStrategy; }
+	@Override
+	public String getInitialValue() { return null; }
+	@Override
+	public String getInputType() { return null; }
+	@Override
+	public String getLabel() { return label; }
+	@Override
+	public Integer getMaxLength() { return maxLength; }
+	@Override
+	public BigDecimal getMaxValue() { return maxValue; }
+	@Override
+	public Integer getMinLength() { return minLength; }
+	@Override
+	public BigDecimal getMinValue() { return minValue; }
+	@Override
+	public String getName() { return name; }
+	@Override
+	public String getNeutralType() { return neutralType; }
+	@Override
+	public String getPattern() { return pattern; }
+	@Override
+	public Integer getGeneratedValueAllocationSize() { return generatedValueAllocationSize; }
+	@Override
+	public Integer getGeneratedValueInitialValue() { return generatedValueInitialValue; }
+	@Override
+	public String getGeneratedValueSequenceName() { return generatedValueSequenceName; }
+	@Override
+	public String getGeneratedValueTablePkColumnValue() { return generatedValueTablePkColumnValue; }
+	@Override
+	public String getGeneratedValueTableName() { return generatedValueTableName; }
+	@Override
+	public boolean isDateFuture() { return dateFuture; }
+	@Override
+	public boolean isDatePast() { return datePast; }
+	@Override
+	public boolean isGeneratedValue() { return generatedValue; }
+	@Override
+	public boolean isKeyElement() { return keyElement; }
+	@Override
+	public boolean isLongText() { return longText; }
+	@Override
+	public boolean isNotBlank() { return notBlank; }
+	@Override
+	public boolean isNotEmpty() { return notEmpty; }
+	@Override
+	public boolean isNotNull() { return notNull; }
+	@Override
+	public boolean isPrimitiveTypeExpected() { return primitiveTypeExpected; }
+	@Override
+	public boolean isObjectTypeExpected() { return objectTypeExpected; }
+	@Override
+	public boolean isUnsignedTypeExpected() { return unsignedTypeExpected; }
+	@Override
+	public boolean isFK() { return !fkParts.isEmpty(); }
+	@Override
+	public boolean hasFKParts() { return !fkParts.isEmpty(); }
+	@Override
+	public List<ForeignKeyPart> getFKParts() { return fkParts; }
+	@Override
+	public boolean isFKSimple() { return fkParts.size() == 1; }
+	@Override
+	public boolean isFKComposite() { return fkParts.size() > 1; }
+	@Override
+	public String getReferencedEntityClassName() { return referencedEntityClassName; }
+	@Override
+	public boolean isUsedInLinks() { return false; }
+	@Override
+	public boolean isUsedInSelectedLinks() { return false; }
+	@Override
+	public FakeTagContainer getTagContainer() { return tagContainer; }
+	@Override
+	public BooleanValue getInsertable() { return insertable; }
+	@Override
+	public BooleanValue getUpdatable() { return updatable; }
+	@Override
+	public boolean isTransient() { return transientField; }
+	@Override
+	public String getSize() { return size; }
+	@Override
+	public boolean isUnique() { return unique; }
+	@Override
+	public Integer getScale() { return scale; }
+	@Override
+	public Integer getPrecision() { return precision; }
+}
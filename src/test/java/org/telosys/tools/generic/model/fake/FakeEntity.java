@@ -0,0 +1,193 @@
+package org.telosys.tools.generic.model.fake;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.telosys.tools.generic.model.Attribute;
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.ForeignKey;
+import org.telosys.tools.generic.model.Link;
+import org.telosys.tools.generic.model.TagContainer;
+
+/**
+ * Fake entity for tests
+ */
+public class FakeEntity implements Entity {
+
+	private final String className ;
+	private String databaseTable ;
+	private String databaseSchema ;
+	private String packageName = "org.demo.bean" ;
+	private boolean inMemoryRepository = false ;
+	private boolean readOnly = false ;
+	private final List<Attribute> attributes = new ArrayList<>();
+	private final List<Link> links = new ArrayList<>();
+	private final List<ForeignKey> foreignKeys = new ArrayList<>();
+	private final FakeTagContainer tagContainer = new FakeTagContainer();
+
+	public FakeEntity(String className, String databaseTable) {
+		super();
+		this.className = className;
+		this.databaseTable = databaseTable;
+	}
+
+	public FakeAttribute addAttribute(FakeAttribute attribute) {
+		attributes.add(attribute);
+		return attribute;
+	}
+	public FakeLink addLink(FakeLink link) {
+		links.add(link);
+		return link;
+	}
+	public FakeForeignKey addForeignKey(FakeForeignKey fk) {
+		foreignKeys.add(fk);
+		return fk;
+	}
+
+	@Override
+	public String getClassName() {
+		return className;
+	}
+
+	@Override
+	public List<Attribute> getAttributes() {
+		return attributes;
+	}
+
+	@Override
+	public Attribute getAttributeByName(String name) {
+		for ( Attribute a : attributes ) {
+			if ( a.getName().equals(name) ) {
+				return a;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public String getDatabaseCatalog() {
+		return "";
+	}
+
+	@Override
+	public String getDatabaseComment() {
+		return null;
+	}
+
+	@Override
+	public List<ForeignKey> getForeignKeys() {
+		return foreignKeys;
+	}
+
+	@Override
+	public String getDatabaseSchema() {
+		return databaseSchema;
+	}
+	public void setDatabaseSchema(String databaseSchema) {
+		this.databaseSchema = databaseSchema;
+	}
+
+	@Override
+	public String getDatabaseTable() {
+		return databaseTable;
+	}
+	public void setDatabaseTable(String databaseTable) {
+		this.databaseTable = databaseTable;
+	}
+
+	@Override
+	public String getDatabaseType() {
+		return "TABLE";
+	}
+
+	@Override
+	public String getFullName() {
+		return packageName + "." + className;
+	}
+
+	@Override
+	public List<Link> getLinks() {
+		return links;
+	}
+
+	@Override
+	public String getPackageName() {
+		return packageName;
+	}
+
+	@Override
+	public Boolean isTableType() {
+		return Boolean.TRUE;
+	}
+
+	@Override
+	public Boolean isViewType() {
+		return Boolean.FALSE;
+	}
+
+	@Override
+	public List<String> getWarnings() {
+		return null;
+	}
+
+	@Override
+	public FakeTagContainer getTagContainer() {
+		return tagContainer;
+	}
+
+	@Override
+	public String getSuperClass() {
+		return null;
+	}
+
+	@Override
+	public boolean isAbstract() {
+		return false;
+	}
+
+	@Override
+	public boolean isInMemoryRepository() {
+		return inMemoryRepository;
+	}
+	public void setInMemoryRepository(boolean inMemoryRepository) {
+		this.inMemoryRepository = inMemoryRepository;
+	}
+
+	@Override
+	public boolean isReadOnly() {
+		return readOnly;
+	}
+	public void setReadOnly(boolean readOnly) {
+		this.readOnly = readOnly;
+	}
+
+	@Override
+	public boolean isAggregateRoot() {
+		return false;
+	}
+
+	@Override
+	public String getDomain() {
+		return null;
+	}
+
+	@Override
+	public String getContext() {
+		return null;
+	}
+
+	@Override
+	public boolean isDatabaseView() {
+		return false;
+	}
+
+	@Override
+	public String getDatabaseTablespace() {
+		return null;
+	}
+
+	@Override
+	public boolean isJoinEntity() {
+		return false;
+	}
+}
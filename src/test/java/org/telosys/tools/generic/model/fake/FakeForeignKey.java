@@ -0,0 +1,51 @@
+package org.telosys.tools.generic.model.fake;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.telosys.tools.generic.model.ForeignKey;
+import org.telosys.tools.generic.model.ForeignKeyAttribute;
+
+/**
+ * Fake foreign key for tests
+ */
+public class FakeForeignKey implements ForeignKey {
+
+	private final String name ;
+	private final String originEntityName ;
+	private final String referencedEntityName ;
+	private final List<ForeignKeyAttribute> attributes = new ArrayList<>();
+
+	public FakeForeignKey(String name, String originEntityName, String referencedEntityName) {
+		super();
+		this.name = name;
+		this.originEntityName = originEntityName;
+		this.referencedEntityName = referencedEntityName;
+	}
+
+	public FakeForeignKey attribute(final String originAttributeName, final String referencedAttributeName) {
+		final int ordinal = attributes.size() + 1 ;
+		attributes.add(new ForeignKeyAttribute() {
+			@Override
+			public int getOrdinal() { return ordinal; }
+			@Override
+			public String getOriginAttributeName() { return originAttributeName; }
+			@Override
+			public String getReferencedAttributeName() { return referencedAttributeName; }
+		});
+		return this;
+	}
+
+	@Override
+	public String getName() { return name; }
+	@Override
+	public String getOriginEntityName() { return originEntityName; }
+	@Override
+	public String getReferencedEntityName() { return referencedEntityName; }
+	@Override
+	public List<ForeignKeyAttribute> getAttributes() { return attributes; }
+	@Override
+	public boolean isComposite() { return attributes.size() > 1; }
+	@Override
+	public boolean isExplicit() { return true; }
+}
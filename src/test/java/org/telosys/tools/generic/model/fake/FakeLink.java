@@ -0,0 +1,91 @@
+package org.telosys.tools.generic.model.fake;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.telosys.tools.generic.model.CascadeOptions;
+import org.telosys.tools.generic.model.Link;
+import org.telosys.tools.generic.model.LinkAttribute;
+import org.telosys.tools.generic.model.TagContainer;
+import org.telosys.tools.generic.model.enums.BooleanValue;
+import org.telosys.tools.generic.model.enums.Cardinality;
+import org.telosys.tools.generic.model.enums.FetchType;
+import org.telosys.tools.generic.model.enums.Optional;
+
+/**
+ * Fake link for tests (setters return 'this' to chain calls)
+ */
+public class FakeLink implements Link {
+
+	private final String fieldName ;
+	private final String referencedEntityName ;
+	private final Cardinality cardinality ;
+	private FetchType fetchType = FetchType.DEFAULT ;
+	private Optional optional = Optional.UNDEFINED ;
+	private String mappedBy ;
+	private String foreignKeyName ;
+	private String joinEntityName ;
+	private boolean embedded = false ;
+	private boolean transientField = false ;
+	private boolean orphanRemoval = false ;
+	private final CascadeOptions cascadeOptions = new CascadeOptions();
+	private final List<LinkAttribute> attributes = new ArrayList<>();
+	private final FakeTagContainer tagContainer = new FakeTagContainer();
+
+	public FakeLink(String fieldName, String referencedEntityName, Cardinality cardinality) {
+		super();
+		this.fieldName = fieldName;
+		this.referencedEntityName = referencedEntityName;
+		this.cardinality = cardinality;
+	}
+
+	public FakeLink fetchType(FetchType v) { this.fetchType = v; return this; }
+	public FakeLink optional(Optional v) { this.optional = v; return this; }
+	public FakeLink mappedBy(String v) { this.mappedBy = v; return this; }
+	public FakeLink foreignKey(String v) { this.foreignKeyName = v; return this; }
+	public FakeLink joinEntity(String v) { this.joinEntityName = v; return this; }
+	public FakeLink embedded() { this.embedded = true; return this; }
+	public FakeLink transientField() { this.transientField = true; return this; }
+	public FakeLink orphanRemoval() { this.orphanRemoval = true; return this; }
+	public FakeLink attribute(LinkAttribute v) { this.attributes.add(v); return this; }
+	public FakeLink tag(String name, String value) { this.tagContainer.addTag(name, value); return this; }
+
+	@Override
+	public List<LinkAttribute> getAttributes() { return attributes; }
+	@Override
+	public String getReferencedEntityName() { return referencedEntityName; }
+	@Override
+	public String getFieldName() { return fieldName; }
+	@Override
+	public String getMappedBy() { return mappedBy; }
+	@Override
+	public boolean isSelected() { return true; }
+	@Override
+	public Optional getOptional() { return optional; }
+	@Override
+	public Cardinality getCardinality() { return cardinality; }
+	@Override
+	public CascadeOptions getCascadeOptions() { return cascadeOptions; }
+	@Override
+	public FetchType getFetchType() { return fetchType; }
+	@Override
+	public boolean isBasedOnForeignKey() { return foreignKeyName != null; }
+	@Override
+	public String getForeignKeyName() { return foreignKeyName; }
+	@Override
+	public boolean isBasedOnJoinEntity() { return joinEntityName != null; }
+	@Override
+	public String getJoinEntityName() { return joinEntityName; }
+	@Override
+	public boolean isEmbedded() { return embedded; }
+	@Override
+	public boolean isTransient() { return transientField; }
+	@Override
+	public BooleanValue getInsertable() { return BooleanValue.UNDEFINED; }
+	@Override
+	public BooleanValue getUpdatable() { return BooleanValue.UNDEFINED; }
+	@Override
+	public TagContainer getTagContainer() { return tagContainer; }
+	@Override
+	public boolean isOrphanRemoval() { return orphanRemoval; }
+}
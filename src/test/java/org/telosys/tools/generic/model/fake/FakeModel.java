@@ -0,0 +1,105 @@
+package org.telosys.tools.generic.model.fake;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.Model;
+import org.telosys.tools.generic.model.enums.ModelType;
+
+/**
+ * Fake model for tests (linear search for entities)
+ */
+public class FakeModel implements Model {
+
+	private final String name ;
+	private String title = "" ;
+	private String description = "" ;
+	private final List<Entity> entities = new ArrayList<>();
+
+	public FakeModel(String name) {
+		super();
+		this.name = name;
+	}
+
+	public FakeEntity addEntity(FakeEntity entity) {
+		entities.add(entity);
+		return entity;
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public String getFolderName() {
+		return name + "_model";
+	}
+
+	@Override
+	public ModelType getType() {
+		return ModelType.DOMAIN_SPECIFIC_LANGUAGE;
+	}
+
+	@Override
+	public String getVersion() {
+		return "4.1";
+	}
+
+	@Override
+	public String getTitle() {
+		return title;
+	}
+	public void setTitle(String title) {
+		this.title = title;
+	}
+
+	@Override
+	public String getDescription() {
+		return description;
+	}
+	public void setDescription(String description) {
+		this.description = description;
+	}
+
+	@Override
+	public String getDatabaseId() {
+		return null;
+	}
+
+	@Override
+	public String getDatabaseName() {
+		return null;
+	}
+
+	@Override
+	public String getDatabaseType() {
+		return null;
+	}
+
+	@Override
+	public Entity getEntityByClassName(String entityClassName) {
+		for ( Entity e : entities ) {
+			if ( e.getClassName().equals(entityClassName) ) {
+				return e;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public Entity getEntityByTableName(String entityTableName) {
+		for ( Entity e : entities ) {
+			if ( entityTableName.equals(e.getDatabaseTable()) ) {
+				return e;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public List<Entity> getEntities() {
+		return entities;
+	}
+}
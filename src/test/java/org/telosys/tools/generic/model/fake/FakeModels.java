@@ -0,0 +1,103 @@
+package org.telosys.tools.generic.model.fake;
+
+import org.telosys.tools.generic.model.ForeignKeyPart;
+import org.telosys.tools.generic.model.enums.Cardinality;
+import org.telosys.tools.generic.model.enums.DateType;
+import org.telosys.tools.generic.model.enums.FetchType;
+import org.telosys.tools.generic.model.enums.GeneratedValueStrategy;
+import org.telosys.tools.generic.model.types.NeutralType;
+
+/**
+ * Sample models for tests
+ */
+public class FakeModels {
+
+	private FakeModels() {
+	}
+
+	private static ForeignKeyPart fkPart(final String fkName, final String referencedEntity, final String referencedAttribute) {
+		return new ForeignKeyPart() {
+			@Override
+			public String getFkName() { return fkName; }
+			@Override
+			public String getReferencedEntityName() { return referencedEntity; }
+			@Override
+			public String getReferencedAttributeName() { return referencedAttribute; }
+		};
+	}
+
+	/**
+	 * Builds a small 'bookstore' model with 5 entities : <br>
+	 * Country <-- Publisher <-- Book --> Author <br>
+	 * Review --> Book (composite primary key) 
+	 * @return
+	 */
+	public static FakeModel buildBookstoreModel() {
+		FakeModel model = new FakeModel("bookstore");
+		model.setTitle("Bookstore");
+
+		//--- Country
+		FakeEntity country = model.addEntity(new FakeEntity("Country", "COUNTRY"));
+		country.setDatabaseSchema("SHOP");
+		country.addAttribute(new FakeAttribute("code", NeutralType.STRING).keyElement().maxLength(2).minLength(2));
+		country.addAttribute(new FakeAttribute("name", NeutralType.STRING).notNull().maxLength(45));
+
+		//--- Publisher
+		FakeEntity publisher = model.addEntity(new FakeEntity("Publisher", "PUBLISHER"));
+		publisher.setDatabaseSchema("SHOP");
+		publisher.addAttribute(new FakeAttribute("id", NeutralType.INTEGER).keyElement());
+		publisher.addAttribute(new FakeAttribute("name", NeutralType.STRING).notNull().unique().maxLength(60));
+		publisher.addAttribute(new FakeAttribute("countryCode", NeutralType.STRING).databaseName("COUNTRY_CODE")
+				.maxLength(2).fkPart(fkPart("FK_PUBLISHER_COUNTRY", "Country", "code")));
+		publisher.addForeignKey(new FakeForeignKey("FK_PUBLISHER_COUNTRY", "Publisher", "Country").attribute("countryCode", "code"));
+		publisher.addLink(new FakeLink("country", "Country", Cardinality.MANY_TO_ONE).foreignKey("FK_PUBLISHER_COUNTRY"));
+
+		//--- Author
+		FakeEntity author = model.addEntity(new FakeEntity("Author", "AUTHOR"));
+		author.setDatabaseSchema("SHOP");
+		author.addAttribute(new FakeAttribute("id", NeutralType.INTEGER).keyElement());
+		author.addAttribute(new FakeAttribute("firstName", NeutralType.STRING).databaseName("FIRST_NAME").maxLength(40));
+		author.addAttribute(new FakeAttribute("lastName", NeutralType.STRING).databaseName("LAST_NAME").notNull().notBlank().maxLength(40));
+		author.addLink(new FakeLink("books", "Book", Cardinality.ONE_TO_MANY).mappedBy("author").fetchType(FetchType.LAZY));
+
+		//--- Book
+		FakeEntity book = model.addEntity(new FakeEntity("Book", "BOOK"));
+		book.setDatabaseSchema("SHOP");
+		book.getTagContainer().addTag("Audit", "");
+		book.addAttribute(new FakeAttribute("id", NeutralType.LONG).keyElement()
+				.generatedValue(GeneratedValueStrategy.SEQUENCE).sequence("BOOK_SEQ", 1, 50));
+		book.addAttribute(new FakeAttribute("isbn", NeutralType.STRING).notNull().unique().maxLength(13).minLength(10)
+				.pattern("[0-9]+"));
+		book.addAttribute(new FakeAttribute("title", NeutralType.STRING).notNull().maxLength(120).tag("Searchable", ""));
+		book.addAttribute(new FakeAttribute("price", NeutralType.DECIMAL).minValue("0").maxValue("999.99")
+				.precision(5).scale(2));
+		book.addAttribute(new FakeAttribute("publicationDate", NeutralType.DATE).databaseName("PUBLICATION_DATE")
+				.datePast().dateType(DateType.DATE_ONLY));
+		book.addAttribute(new FakeAttribute("publisherId", NeutralType.INTEGER).databaseName("PUBLISHER_ID")
+				.fkPart(fkPart("FK_BOOK_PUBLISHER", "Publisher", "id")));
+		book.addAttribute(new FakeAttribute("authorId", NeutralType.INTEGER).databaseName("AUTHOR_ID").notNull()
+				.fkPart(fkPart("FK_BOOK_AUTHOR", "Author", "id")));
+		book.addAttribute(new FakeAttribute("summary", NeutralType.STRING).longText());
+		book.addForeignKey(new FakeForeignKey("FK_BOOK_PUBLISHER", "Book", "Publisher").attribute("publisherId", "id"));
+		book.addForeignKey(new FakeForeignKey("FK_BOOK_AUTHOR", "Book", "Author").attribute("authorId", "id"));
+		book.addLink(new FakeLink("publisher", "Publisher", Cardinality.MANY_TO_ONE).foreignKey("FK_BOOK_PUBLISHER")
+				.fetchType(FetchType.EAGER));
+		book.addLink(new FakeLink("author", "Author", Cardinality.MANY_TO_ONE).foreignKey("FK_BOOK_AUTHOR"));
+		book.addLink(new FakeLink("reviews", "Review", Cardinality.ONE_TO_MANY).mappedBy("book").fetchType(FetchType.LAZY));
+
+		//--- Review (composite primary key)
+		FakeEntity review = model.addEntity(new FakeEntity("Review", "REVIEW"));
+		review.setDatabaseSchema("SHOP");
+		review.addAttribute(new FakeAttribute("bookId", NeutralType.LONG).databaseName("BOOK_ID").keyElement()
+				.fkPart(fkPart("FK_REVIEW_BOOK", "Book", "id")));
+		review.addAttribute(new FakeAttribute("reviewer", NeutralType.STRING).keyElement().maxLength(30));
+		review.addAttribute(new FakeAttribute("rating", NeutralType.SHORT).notNull().minValue("1").maxValue("5")
+				.tag("Weight", "3"));
+		review.addAttribute(new FakeAttribute("comment", NeutralType.STRING).maxLength(500));
+		review.addAttribute(new FakeAttribute("visible", NeutralType.BOOLEAN).notNull().defaultValue("true"));
+		review.addForeignKey(new FakeForeignKey("FK_REVIEW_BOOK", "Review", "Book").attribute("bookId", "id"));
+		review.addLink(new FakeLink("book", "Book", Cardinality.MANY_TO_ONE).foreignKey("FK_REVIEW_BOOK"));
+
+		return model;
+	}
+}
@@ -0,0 +1,76 @@
+package org.telosys.tools.generic.model.fake;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.telosys.tools.generic.model.TagContainer;
+
+/**
+ * Fake tag container for tests
+ */
+public class FakeTagContainer implements TagContainer {
+
+	private final Map<String, String> tags = new LinkedHashMap<>();
+
+	public FakeTagContainer addTag(String name, String value) {
+		tags.put(name, value);
+		return this;
+	}
+
+	public Map<String, String> getTags() {
+		return tags;
+	}
+
+	@Override
+	public int size() {
+		return tags.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return tags.isEmpty();
+	}
+
+	@Override
+	public boolean containsTag(String tagName) {
+		return tags.containsKey(tagName);
+	}
+
+	@Override
+	public String getTagValue(String tagName) {
+		return getTagValue(tagName, "");
+	}
+
+	@Override
+	public String getTagValue(String tagName, String defaultValue) {
+		String v = tags.get(tagName);
+		return ( v != null && !v.isEmpty() ) ? v : defaultValue ;
+	}
+
+	@Override
+	public int getTagValueAsInt(String tagName, int defaultValue) {
+		String v = tags.get(tagName);
+		try {
+			return v != null ? Integer.parseInt(v.trim()) : defaultValue ;
+		} catch (NumberFormatException e) {
+			return defaultValue;
+		}
+	}
+
+	@Override
+	public boolean getTagValueAsBoolean(String tagName, boolean defaultValue) {
+		String v = tags.get(tagName);
+		if ( v == null ) return defaultValue;
+		String s = v.trim();
+		if ( "true".equalsIgnoreCase(s) ) return true;
+		if ( "false".equalsIgnoreCase(s) ) return false;
+		return defaultValue;
+	}
+
+	@Override
+	public List<String> getTagNames() {
+		return new ArrayList<>(tags.keySet());
+	}
+}
@@ -0,0 +1,120 @@
+package org.telosys.tools.generic.model.fake;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.List;
+
+import org.telosys.tools.generic.model.Attribute;
+import org.telosys.tools.generic.model.CascadeOptions;
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.ForeignKey;
+import org.telosys.tools.generic.model.ForeignKeyAttribute;
+import org.telosys.tools.generic.model.ForeignKeyPart;
+import org.telosys.tools.generic.model.Link;
+import org.telosys.tools.generic.model.LinkAttribute;
+import org.telosys.tools.generic.model.Model;
+import org.telosys.tools.generic.model.TagContainer;
+
+/**
+ * Assertions shared by the tests : <br>
+ * . deep comparison of 2 models (all the getters of the model interfaces are compared) <br>
+ * . expected failures 
+ */
+public class ModelAssert {
+
+	private static final Class<?>[] MODEL_INTERFACES = { Model.class, Entity.class, Attribute.class, Link.class,
+			LinkAttribute.class, ForeignKey.class, ForeignKeyAttribute.class, ForeignKeyPart.class };
+
+	private ModelAssert() {
+	}
+
+	/**
+	 * Runs the given action and checks that it throws an exception of the given class (exactly)
+	 * @param action
+	 * @param exceptionClass
+	 */
+	public static void expectFailure(Runnable action, Class<? extends RuntimeException> exceptionClass) {
+		try {
+			action.run();
+		} catch ( RuntimeException e ) {
+			assertEquals(exceptionClass, e.getClass());
+			return;
+		}
+		fail(exceptionClass.getSimpleName() + " expected");
+	}
+
+	public static void assertSameContent(Model expected, Model actual) {
+		assertSameContent("model", Model.class, expected, actual);
+	}
+
+	private static Class<?> modelInterface(Object o) {
+		for ( Class<?> c : MODEL_INTERFACES ) {
+			if ( c.isInstance(o) ) {
+				return c ;
+			}
+		}
+		return null ;
+	}
+
+	private static void assertSameContent(String path, Class<?> type, Object expected, Object actual) {
+		if ( expected == null ) {
+			assertNull(path, actual);
+			return;
+		}
+		assertNotNull(path, actual);
+		for ( Method m : type.getMethods() ) {
+			if ( m.getParameterCount() > 0 || m.isDefault() ) {
+				continue;
+			}
+			assertValue(path + "." + m.getName(), invoke(m, expected), invoke(m, actual));
+		}
+	}
+
+	private static void assertValue(String path, Object expected, Object actual) {
+		if ( expected instanceof List ) {
+			assertNotNull(path, actual);
+			List<?> l1 = (List<?>) expected;
+			List<?> l2 = (List<?>) actual;
+			assertEquals(path + ".size", l1.size(), l2.size());
+			for ( int i = 0 ; i < l1.size() ; i++ ) {
+				assertValue(path + "[" + i + "]", l1.get(i), l2.get(i));
+			}
+		}
+		else if ( expected instanceof TagContainer ) {
+			assertTags(path, (TagContainer) expected, (TagContainer) actual);
+		}
+		else if ( expected instanceof CascadeOptions ) {
+			assertEquals(path, expected.toString(), actual.toString());
+		}
+		else if ( modelInterface(expected) != null ) {
+			assertSameContent(path, modelInterface(expected), expected, actual);
+		}
+		else {
+			assertEquals(path, expected, actual);
+		}
+	}
+
+	private static void assertTags(String path, TagContainer expected, TagContainer actual) {
+		assertNotNull(path, actual);
+		assertEquals(path + ".size", expected.size(), actual.size());
+		for ( String name : expected.getTagNames() ) {
+			if ( ! actual.containsTag(name) ) {
+				fail(path + " : tag '" + name + "' not found");
+			}
+			assertEquals(path + "." + name, expected.getTagValue(name), actual.getTagValue(name));
+		}
+	}
+
+	private static Object invoke(Method m, Object o) {
+		try {
+			return m.invoke(o);
+		} catch (IllegalAccessException | InvocationTargetException e) {
+			throw new IllegalStateException("Cannot invoke " + m.getName(), e);
+		}
+	}
+}
@@ -0,0 +1,195 @@
+package org.telosys.tools.generic.model.fetch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.telosys.tools.generic.model.fake.ModelAssert.expectFailure;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.telosys.tools.generic.model.enums.Cardinality;
+import org.telosys.tools.generic.model.enums.FetchType;
+import org.telosys.tools.generic.model.fake.FakeEntity;
+import org.telosys.tools.generic.model.fake.FakeLink;
+import org.telosys.tools.generic.model.fake.FakeModel;
+import org.telosys.tools.generic.model.fake.FakeModels;
+
+public class FetchAnalyzerTest {
+
+	/**
+	 * Customer --orders(EAGER)--> Order --lines(EAGER)--> Line --product(LAZY)--> Product --category(LAZY)--> Category
+	 *                                   --payments(EAGER)--> Payment                  Category --parent--> Category
+	 */
+	private FakeModel buildOrdersModel() {
+		FakeModel model = new FakeModel("orders");
+		FakeEntity customer = model.addEntity(new FakeEntity("Customer", "CUSTOMER"));
+		customer.addLink(new FakeLink("orders", "Order", Cardinality.ONE_TO_MANY).mappedBy("customer").fetchType(FetchType.EAGER));
+		FakeEntity order = model.addEntity(new FakeEntity("Order", "ORDERS"));
+		order.addLink(new FakeLink("customer", "Customer", Cardinality.MANY_TO_ONE));
+		order.addLink(new FakeLink("lines", "Line", Cardinality.ONE_TO_MANY).mappedBy("order").fetchType(FetchType.EAGER));
+		order.addLink(new FakeLink("payments", "Payment", Cardinality.ONE_TO_MANY).mappedBy("order").fetchType(FetchType.EAGER));
+		order.addLink(new FakeLink("notes", "Note", Cardinality.ONE_TO_MANY).fetchType(FetchType.EAGER).transientField());
+		FakeEntity line = model.addEntity(new FakeEntity("Line", "LINE"));
+		line.addLink(new FakeLink("order", "Order", Cardinality.MANY_TO_ONE).fetchType(FetchType.EAGER));
+		line.addLink(new FakeLink("product", "Product", Cardinality.MANY_TO_ONE).fetchType(FetchType.LAZY));
+		FakeEntity payment = model.addEntity(new FakeEntity("Payment", "PAYMENT"));
+		payment.addLink(new FakeLink("order", "Order", Cardinality.MANY_TO_ONE).fetchType(FetchType.UNDEFINED));
+		FakeEntity product = model.addEntity(new FakeEntity("Product", "PRODUCT"));
+		product.addLink(new FakeLink("category", "Category", Cardinality.MANY_TO_ONE).fetchType(FetchType.LAZY));
+		FakeEntity category = model.addEntity(new FakeEntity("Category", "CATEGORY"));
+		category.addLink(new FakeLink("parent", "Category", Cardinality.MANY_TO_ONE));
+		model.addEntity(new FakeEntity("Note", "NOTE"));
+		return model;
+	}
+
+	private FetchFinding single(FetchReport report, FetchIssue issue) {
+		List<FetchFinding> list = report.getFindings(issue);
+		assertEquals(1, list.size());
+		return list.get(0);
+	}
+
+	@Test
+	public void testIsEager() {
+		assertTrue(FetchAnalyzer.isEager(new FakeLink("a", "A", Cardinality.MANY_TO_ONE)));
+		assertTrue(FetchAnalyzer.isEager(new FakeLink("a", "A", Cardinality.ONE_TO_ONE).fetchType(FetchType.UNDEFINED)));
+		assertFalse(FetchAnalyzer.isEager(new FakeLink("a", "A", Cardinality.MANY_TO_ONE).fetchType(FetchType.LAZY)));
+		assertFalse(FetchAnalyzer.isEager(new FakeLink("a", "A", Cardinality.ONE_TO_MANY)));
+		assertFalse(FetchAnalyzer.isEager(new FakeLink("a", "A", Cardinality.MANY_TO_MANY)));
+		assertTrue(FetchAnalyzer.isEager(new FakeLink("a", "A", Cardinality.ONE_TO_MANY).fetchType(FetchType.EAGER)));
+	}
+
+	@Test
+	public void testBookstore() {
+		FetchReport report = new FetchAnalyzer().analyze(FakeModels.buildBookstoreModel());
+		assertEquals(5, report.getPlans().size());
+		assertFalse(report.hasErrors());
+
+		EntityFetchPlan book = report.getPlan("Book");
+		assertEquals(Arrays.asList("publisher", "publisher.country", "author"), book.getEagerPaths());
+		assertEquals(Arrays.asList("Publisher", "Country", "Author"), book.getEagerEntities());
+		assertEquals(2, book.getMaxDepth());
+		assertEquals(1, book.getEstimatedRows());
+		assertEquals(book.getEagerPaths(), book.getFetchJoins());
+		assertTrue(book.getBatchFetches().isEmpty());
+
+		EntityFetchPlan review = report.getPlan("Review");
+		assertEquals(Arrays.asList("book", "book.publisher", "book.publisher.country", "book.author"), review.getEagerPaths());
+		assertEquals(3, review.getMaxDepth());
+
+		// lazy collections of a lazy collection 
+		EntityFetchPlan author = report.getPlan("Author");
+		assertTrue(author.getEagerPaths().isEmpty());
+		assertEquals(0, author.getMaxDepth());
+		assertEquals(Collections.singletonList("books.reviews"), author.getBatchFetches());
+		FetchFinding f = single(report, FetchIssue.N_PLUS_ONE);
+		assertEquals("Author", f.getEntityName());
+		assertEquals(FetchSeverity.WARNING, f.getSeverity());
+		assertEquals(FetchStrategy.BATCH_FETCH, f.getStrategy());
+		assertEquals(1, report.getFindings().size());
+		assertEquals(1, report.count(FetchSeverity.WARNING));
+		assertEquals(null, report.getPlan("Unknown"));
+	}
+
+	@Test
+	public void testEagerClosure() {
+		FetchReport report = new FetchAnalyzer().analyze(buildOrdersModel());
+
+		// references to the parent ( 'lines.order' ) are not loaded again, transient links are ignored
+		EntityFetchPlan order = report.getPlan("Order");
+		assertEquals(Arrays.asList("customer", "customer.orders", "lines", "payments"), order.getEagerPaths());
+		assertEquals(Arrays.asList("Customer", "Line", "Payment"), order.getEagerEntities());
+		assertEquals(1000, order.getEstimatedRows());
+		assertEquals(Collections.singletonList("customer"), order.getFetchJoins());
+		assertEquals(Arrays.asList("customer.orders", "lines", "payments", "lines.product"), order.getBatchFetches());
+
+		EntityFetchPlan customer = report.getPlan("Customer");
+		assertEquals(Arrays.asList("orders", "orders.lines", "orders.payments"), customer.getEagerPaths());
+		assertEquals(Arrays.asList("Order", "Line", "Payment"), customer.getEagerEntities());
+		assertEquals(1000, customer.getEstimatedRows());
+		assertTrue(customer.getFetchJoins().isEmpty());
+
+		// 'order' (UNDEFINED) is eager 
+		EntityFetchPlan payment = report.getPlan("Payment");
+		assertEquals(Arrays.asList("order", "order.customer", "order.customer.orders", "order.lines", "order.payments"), 
+				payment.getEagerPaths());
+		assertEquals(Arrays.asList("Order", "Customer", "Line"), payment.getEagerEntities());
+		assertEquals(3, payment.getMaxDepth());
+		assertEquals(Arrays.asList("order", "order.customer"), payment.getFetchJoins());
+		assertEquals(Arrays.asList("order.customer.orders", "order.lines", "order.payments"), payment.getBatchFetches());
+	}
+
+	@Test
+	public void testFindings() {
+		FetchReport report = new FetchAnalyzer().analyze(buildOrdersModel());
+
+		assertEquals(3, report.getFindings(FetchIssue.EAGER_TO_MANY).size());
+
+		List<FetchFinding> cartesian = report.getFindings(FetchIssue.CARTESIAN_PRODUCT);
+		assertEquals(4, cartesian.size()); // Customer, Order, Line, Payment
+		assertEquals("Customer", cartesian.get(0).getEntityName());
+		assertEquals(Arrays.asList("orders.lines", "orders.payments"), cartesian.get(0).getPaths());
+		assertEquals(1000, cartesian.get(0).getEstimatedRows());
+		assertTrue(report.hasErrors());
+
+		assertTrue(report.getFindings(FetchIssue.FAN_OUT_LIMIT).isEmpty()); // 1000 is the limit 
+
+		FetchFinding cycle = single(report, FetchIssue.EAGER_CYCLE);
+		assertEquals("Category", cycle.getEntityName());
+		assertEquals(Collections.singletonList("parent"), cycle.getPaths());
+		assertEquals(FetchStrategy.LAZY, cycle.getStrategy());
+
+		FetchFinding nPlusOne = single(report, FetchIssue.N_PLUS_ONE);
+		assertEquals("Order", nPlusOne.getEntityName());
+		assertEquals(Collections.singletonList("lines.product"), nPlusOne.getPaths());
+
+		FetchFinding chain = single(report, FetchIssue.LAZY_CHAIN);
+		assertEquals("Line", chain.getEntityName());
+		assertEquals(Collections.singletonList("product.category"), chain.getPaths());
+		assertEquals(FetchSeverity.INFO, chain.getSeverity());
+		assertEquals(Arrays.asList("product.category"), report.getPlan("Line").getFetchJoins().subList(2, 3));
+	}
+
+	@Test
+	public void testFanOutLimit() {
+		FetchReport report = new FetchAnalyzer(10, 500).analyze(buildOrdersModel());
+		List<FetchFinding> list = report.getFindings(FetchIssue.FAN_OUT_LIMIT);
+		assertEquals(4, list.size()); // Customer, Order, Line, Payment
+		FetchFinding f = list.get(0);
+		assertEquals("Customer", f.getEntityName());
+		assertEquals(1000, f.getEstimatedRows());
+		assertEquals(Arrays.asList("orders", "orders.lines", "orders.payments"), f.getPaths());
+		assertEquals(FetchSeverity.ERROR, f.getSeverity());
+
+		report = new FetchAnalyzer(2, 1000).analyze(buildOrdersModel());
+		assertEquals(8, report.getPlan("Customer").getEstimatedRows());
+		assertTrue(report.getFindings(FetchIssue.FAN_OUT_LIMIT).isEmpty());
+	}
+
+	@Test
+	public void testJson() {
+		FetchReport report = new FetchAnalyzer().analyze(FakeModels.buildBookstoreModel());
+		String json = report.toJson();
+		assertTrue(json.startsWith("{\"collectionSize\":10,\"maxRows\":1000,"
+				+ "\"summary\":{\"entities\":5,\"errors\":0,\"warnings\":1,\"infos\":0},\"entities\":[{\"entity\":\"Country\","));
+		assertTrue(json.contains("{\"entity\":\"Book\",\"eagerEntities\":[\"Publisher\",\"Country\",\"Author\"],"
+				+ "\"eagerPaths\":[\"publisher\",\"publisher.country\",\"author\"],\"maxDepth\":2,\"estimatedRows\":1,"
+				+ "\"fetchJoins\":[\"publisher\",\"publisher.country\",\"author\"],\"batchFetches\":[]}"));
+		assertTrue(json.endsWith(",\"findings\":[{\"issue\":\"N_PLUS_ONE\",\"severity\":\"WARNING\",\"entity\":\"Author\","
+				+ "\"paths\":[\"books.reviews\"],\"estimatedRows\":10,\"strategy\":\"BATCH_FETCH\","
+				+ "\"message\":\"lazy link loaded for each element of a collection\"}]}"));
+		assertEquals(json, report.toJson());
+
+		FakeModel model = new FakeModel("json");
+		model.addEntity(new FakeEntity("A\"b", "A"));
+		assertTrue(new FetchAnalyzer().analyze(model).toJson().contains("\"entity\":\"A\\\"b\""));
+	}
+
+	@Test
+	public void testInvalidParameters() {
+		expectFailure(() -> new FetchAnalyzer(0, 10), IllegalArgumentException.class);
+		expectFailure(() -> new FetchAnalyzer(10, 0), IllegalArgumentException.class);
+	}
+}
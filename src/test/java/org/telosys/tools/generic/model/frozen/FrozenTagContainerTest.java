@@ -0,0 +1,83 @@
+package org.telosys.tools.generic.model.frozen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.Model;
+import org.telosys.tools.generic.model.TagContainer;
+import org.telosys.tools.generic.model.fake.FakeModels;
+
+public class FrozenTagContainerTest {
+
+	@Test
+	public void testContainer() {
+		TagDictionary dictionary = new TagDictionary();
+		FrozenTagContainer tags = FrozenTagContainer.of(dictionary, 
+				new String[] { "Size", "Audit", "Max" }, new String[] { "12", "", "true" });
+		assertEquals(3, tags.size());
+		assertEquals(3, dictionary.size());
+		assertTrue(tags.containsTag("Audit"));
+		assertFalse(tags.containsTag("Foo"));
+		assertEquals("12", tags.getTagValue("Size"));
+		assertEquals(12, tags.getTagValueAsInt("Size", 0));
+		assertEquals("", tags.getTagValue("Audit"));
+		assertEquals("dflt", tags.getTagValue("Audit", "dflt"));
+		assertTrue(tags.getTagValueAsBoolean("Max", false));
+		assertEquals(Arrays.asList("Size", "Audit", "Max"), tags.getTagNames());
+
+		// the names are shared through the dictionary
+		FrozenTagContainer tags2 = FrozenTagContainer.of(dictionary, 
+				new String[] { "Max", "Other" }, new String[] { "1", "x" });
+		assertEquals(4, dictionary.size());
+		assertEquals(Arrays.asList("Max", "Other"), tags2.getTagNames());
+		assertEquals(1, tags2.getTagValueAsInt("Max", 0));
+		assertFalse(tags.containsTag("Other"));
+		assertSame(dictionary, tags2.getDictionary());
+	}
+
+	@Test
+	public void testEmpty() {
+		TagContainer tags = FrozenTagContainer.of(new TagDictionary(), new String[0], new String[0]);
+		assertSame(FrozenTagContainer.EMPTY, tags);
+		assertTrue(tags.isEmpty());
+		assertFalse(tags.containsTag("Foo"));
+		assertEquals("", tags.getTagValue("Foo"));
+		assertTrue(tags.getTagNames().isEmpty());
+	}
+
+	@Test
+	public void testSharedDictionary() throws IOException {
+		ModelFreezer freezer = new ModelFreezer();
+		FrozenModel model = freezer.freezeModel(FakeModels.buildBookstoreModel());
+		checkSharedDictionary(model, freezer.getTagDictionary());
+
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		ModelSnapshot.write(model, Channels.newChannel(baos));
+		Model loaded = ModelSnapshot.read(Channels.newChannel(new ByteArrayInputStream(baos.toByteArray())));
+		FrozenTagContainer bookTags = (FrozenTagContainer) loaded.getEntityByClassName("Book").getTagContainer();
+		checkSharedDictionary(loaded, bookTags.getDictionary());
+	}
+
+	private void checkSharedDictionary(Model model, TagDictionary dictionary) {
+		// Audit, Searchable, Weight
+		assertEquals(3, dictionary.size());
+		Entity book = model.getEntityByClassName("Book");
+		FrozenTagContainer bookTags = (FrozenTagContainer) book.getTagContainer();
+		FrozenTagContainer titleTags = (FrozenTagContainer) book.getAttributeByName("title").getTagContainer();
+		assertSame(dictionary, bookTags.getDictionary());
+		assertSame(dictionary, titleTags.getDictionary());
+		assertTrue(titleTags.containsTag("Searchable"));
+		assertEquals(3, model.getEntityByClassName("Review").getAttributeByName("rating")
+				.getTagContainer().getTagValueAsInt("Weight", 0));
+	}
+}
@@ -0,0 +1,53 @@
+package org.telosys.tools.generic.model.frozen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.Model;
+import org.telosys.tools.generic.model.fake.FakeModels;
+import org.telosys.tools.generic.model.fake.ModelAssert;
+
+public class MappedModelTest {
+
+	@Test
+	public void testLazyDecoding() throws IOException {
+		Model model = FakeModels.buildBookstoreModel();
+		Path file = Files.createTempFile("model", ".snapshot");
+		try {
+			ModelSnapshot.save(model, file);
+			MappedModel mappedModel = MappedModel.open(file);
+			assertEquals("bookstore", mappedModel.getName());
+			assertEquals(5, mappedModel.getEntities().size());
+			assertEquals(0, mappedModel.getDecodedEntitiesCount());
+
+			Entity book = mappedModel.getEntityByClassName("Book");
+			assertEquals(1, mappedModel.getDecodedEntitiesCount());
+			assertEquals("BOOK", book.getDatabaseTable());
+			assertFalse(((MappedEntity) book).isAttributesDecoded());
+			assertEquals(8, book.getAttributes().size());
+			assertTrue(((MappedEntity) book).isAttributesDecoded());
+			assertSame(book.getAttributes(), book.getAttributes());
+
+			// same instance whatever the access
+			assertSame(book, mappedModel.getEntityByTableName("BOOK"));
+			assertSame(book, mappedModel.getEntities().get(3));
+			assertNull(mappedModel.getEntityByClassName("Foo"));
+			assertNull(mappedModel.getEntityByTableName("FOO"));
+
+			// full content
+			ModelAssert.assertSameContent(model, mappedModel);
+			assertEquals(5, mappedModel.getDecodedEntitiesCount());
+		} finally {
+			Files.delete(file);
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package org.telosys.tools.generic.model.frozen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.telosys.tools.generic.model.Attribute;
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.Model;
+import org.telosys.tools.generic.model.TagContainer;
+import org.telosys.tools.generic.model.enums.CascadeOption;
+import org.telosys.tools.generic.model.fake.FakeEntity;
+import org.telosys.tools.generic.model.fake.FakeLink;
+import org.telosys.tools.generic.model.fake.FakeModels;
+import org.telosys.tools.generic.model.fake.ModelAssert;
+
+public class ModelFreezerTest {
+
+	@Test
+	public void testFreeze() {
+		Model model = FakeModels.buildBookstoreModel();
+		FrozenModel frozenModel = ModelFreezer.freeze(model);
+		ModelAssert.assertSameContent(model, frozenModel);
+		assertSame(frozenModel, ModelFreezer.freeze(frozenModel));
+		assertEquals("Book", frozenModel.getEntityByClassName("Book").getClassName());
+		assertEquals("Book", frozenModel.getEntityByTableName("BOOK").getClassName());
+	}
+
+	@Test
+	public void testImmutableLists() {
+		FrozenModel frozenModel = ModelFreezer.freeze(FakeModels.buildBookstoreModel());
+		List<Attribute> attributes = frozenModel.getEntityByClassName("Book").getAttributes();
+		try {
+			attributes.remove(0);
+			fail("list is supposed to be unmodifiable");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+		try {
+			frozenModel.getEntities().clear();
+			fail("list is supposed to be unmodifiable");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testSharedStrings() {
+		FrozenModel frozenModel = ModelFreezer.freeze(FakeModels.buildBookstoreModel());
+		Entity book = frozenModel.getEntityByClassName("Book");
+		Entity review = frozenModel.getEntityByClassName("Review");
+		// same neutral type => same String instance 
+		assertSame(book.getAttributeByName("id").getNeutralType(), review.getAttributeByName("bookId").getNeutralType());
+		// the referenced entity name is the class name instance
+		assertSame(book.getClassName(), review.getForeignKeys().get(0).getReferencedEntityName());
+	}
+
+	@Test
+	public void testTags() {
+		FrozenModel frozenModel = ModelFreezer.freeze(FakeModels.buildBookstoreModel());
+		Entity review = frozenModel.getEntityByClassName("Review");
+		TagContainer tags = review.getAttributeByName("rating").getTagContainer();
+		assertTrue(tags.containsTag("Weight"));
+		assertEquals(3, tags.getTagValueAsInt("Weight", 0));
+		assertEquals(0, tags.getTagValueAsInt("Foo", 0));
+		// no tag => shared empty container
+		assertSame(FrozenTagContainer.EMPTY, review.getAttributeByName("comment").getTagContainer());
+	}
+
+	@Test
+	public void testCascadeOptions() {
+		Model model = FakeModels.buildBookstoreModel();
+		FakeLink link = (FakeLink) model.getEntityByClassName("Book").getLinks().get(0);
+		link.getCascadeOptions().add(CascadeOption.MERGE);
+		link.getCascadeOptions().add(CascadeOption.PERSIST);
+		FrozenModel frozenModel = ModelFreezer.freeze(model);
+		FrozenLink frozenLink = (FrozenLink) frozenModel.getEntityByClassName("Book").getLinks().get(0);
+		assertTrue(frozenLink.getCascadeOptions().isCascadeMerge());
+		assertTrue(frozenLink.getCascadeOptions().isCascadePersist());
+		assertFalse(frozenLink.getCascadeOptions().isCascadeRemove());
+		// a change in the returned options has no effect on the frozen link
+		frozenLink.getCascadeOptions().add(CascadeOption.REMOVE);
+		assertFalse(frozenLink.getCascadeOptions().isCascadeRemove());
+		// the original model changes have no effect on the frozen model
+		((FakeEntity) model.getEntityByClassName("Book")).setReadOnly(true);
+		assertFalse(frozenModel.getEntityByClassName("Book").isReadOnly());
+	}
+}
@@ -0,0 +1,96 @@
+package org.telosys.tools.generic.model.frozen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+import org.telosys.tools.generic.model.Model;
+import org.telosys.tools.generic.model.enums.CascadeOption;
+import org.telosys.tools.generic.model.fake.FakeAttribute;
+import org.telosys.tools.generic.model.fake.FakeEntity;
+import org.telosys.tools.generic.model.fake.FakeLink;
+import org.telosys.tools.generic.model.fake.FakeModels;
+import org.telosys.tools.generic.model.fake.ModelAssert;
+import org.telosys.tools.generic.model.types.NeutralType;
+
+public class ModelSnapshotTest {
+
+	private byte[] write(Model model) throws IOException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		long n = ModelSnapshot.write(model, Channels.newChannel(baos));
+		assertEquals(baos.size(), n);
+		return baos.toByteArray();
+	}
+
+	private FrozenModel read(byte[] bytes) throws IOException {
+		return ModelSnapshot.read(Channels.newChannel(new ByteArrayInputStream(bytes)));
+	}
+
+	@Test
+	public void testWriteRead() throws IOException {
+		Model model = FakeModels.buildBookstoreModel();
+		// special values
+		FakeEntity book = (FakeEntity) model.getEntityByClassName("Book");
+		book.addAttribute(new FakeAttribute("delta", NeutralType.INTEGER).minLength(-12345).maxLength(Integer.MAX_VALUE)
+				.minValue("-0.00100").sequence("S", Integer.MIN_VALUE, 0).label("Libell\u00E9 \u2603"));
+		FakeLink link = (FakeLink) book.getLinks().get(0);
+		link.getCascadeOptions().add(CascadeOption.ALL);
+		
+		byte[] bytes = write(model);
+		System.out.println("Snapshot size : " + bytes.length + " bytes");
+		FrozenModel model2 = read(bytes);
+		ModelAssert.assertSameContent(model, model2);
+		assertTrue(model2.getEntityByClassName("Book").getLinks().get(0).getCascadeOptions().isCascadeAll());
+		assertTrue(model2.getEntityByClassName("Book").getLinks().get(1).getCascadeOptions().isEmpty());
+		// strings are shared 
+		assertSame(model2.getEntityByClassName("Book").getClassName(), 
+				model2.getEntityByClassName("Review").getLinks().get(0).getReferencedEntityName());
+	}
+
+	@Test
+	public void testSaveLoad() throws IOException {
+		Model model = FakeModels.buildBookstoreModel();
+		Path file = Files.createTempFile("model", ".snapshot");
+		try {
+			ModelSnapshot.save(model, file);
+			FrozenModel model2 = ModelSnapshot.load(file);
+			ModelAssert.assertSameContent(model, model2);
+			// snapshot of a snapshot 
+			ModelAssert.assertSameContent(model, read(write(model2)));
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	public void testInvalidSnapshot() throws IOException {
+		byte[] bytes = write(FakeModels.buildBookstoreModel());
+		// bad magic number 
+		bytes[0] = 'X' ;
+		try {
+			read(bytes);
+			fail("IOException expected");
+		} catch (IOException e) {
+			// expected
+		}
+		// truncated 
+		bytes = write(FakeModels.buildBookstoreModel());
+		byte[] truncated = new byte[bytes.length - 10];
+		System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+		try {
+			read(truncated);
+			fail("IOException expected");
+		} catch (IOException e) {
+			// expected
+		}
+	}
+}
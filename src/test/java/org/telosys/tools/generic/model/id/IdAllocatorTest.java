@@ -0,0 +1,124 @@
+package org.telosys.tools.generic.model.id;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.enums.GeneratedValueStrategy;
+import org.telosys.tools.generic.model.fake.FakeAttribute;
+import org.telosys.tools.generic.model.fake.FakeEntity;
+import org.telosys.tools.generic.model.fake.FakeModels;
+import org.telosys.tools.generic.model.types.NeutralType;
+
+public class IdAllocatorTest {
+
+	private FakeEntity entity(String name, FakeAttribute id) {
+		FakeEntity entity = new FakeEntity(name, name.toUpperCase());
+		entity.addAttribute(id);
+		return entity ;
+	}
+
+	@Test
+	public void testKeys() {
+		Entity book = FakeModels.buildBookstoreModel().getEntityByClassName("Book");
+		assertEquals("SEQUENCE:BOOK_SEQ", IdAllocator.keyOf(book, book.getAttributeByName("id")));
+
+		FakeAttribute a = new FakeAttribute("id", NeutralType.LONG).keyElement().generatedValue(GeneratedValueStrategy.SEQUENCE);
+		assertEquals("SEQUENCE:FOO_SEQ", IdAllocator.keyOf(entity("Foo", a), a));
+		a = new FakeAttribute("id", NeutralType.LONG).keyElement().generatedValue(GeneratedValueStrategy.TABLE).table("GEN", "foo");
+		assertEquals("TABLE:GEN:foo", IdAllocator.keyOf(entity("Foo", a), a));
+		a = new FakeAttribute("id", NeutralType.LONG).keyElement().generatedValue(GeneratedValueStrategy.TABLE);
+		assertEquals("TABLE:ID_GEN:FOO", IdAllocator.keyOf(entity("Foo", a), a));
+		a = new FakeAttribute("id", NeutralType.LONG).keyElement().generatedValue(GeneratedValueStrategy.IDENTITY);
+		assertEquals("IDENTITY:FOO.ID", IdAllocator.keyOf(entity("Foo", a), a));
+	}
+
+	@Test
+	public void testMetadata() {
+		Entity book = FakeModels.buildBookstoreModel().getEntityByClassName("Book");
+		IdAllocator allocator = new IdAllocator();
+		IdGenerator generator = allocator.getGenerator(book);
+		assertEquals(1, generator.getInitialValue());
+		assertEquals(50, generator.getBlockSize());
+		assertSame(generator, allocator.getGenerator(book));
+		assertEquals(1, allocator.nextId(book));
+		assertEquals(2, allocator.nextId(book));
+		assertEquals(Long.valueOf(51), ((InMemoryIdBlockStore) allocator.getStore()).getNextFreeValue("SEQUENCE:BOOK_SEQ"));
+	}
+
+	@Test
+	public void testSharedSequence() {
+		FakeAttribute a1 = new FakeAttribute("id", NeutralType.LONG).keyElement()
+				.generatedValue(GeneratedValueStrategy.SEQUENCE).sequence("SHARED", 1000, 10);
+		FakeAttribute a2 = new FakeAttribute("id", NeutralType.LONG).keyElement()
+				.generatedValue(GeneratedValueStrategy.SEQUENCE).sequence("SHARED", 1, 1);
+		IdAllocator allocator = new IdAllocator();
+		Entity e1 = entity("A", a1);
+		Entity e2 = entity("B", a2);
+		assertSame(allocator.getGenerator(e1), allocator.getGenerator(e2));
+		assertEquals(1000, allocator.nextId(e1));
+		assertEquals(1001, allocator.nextId(e2));
+		assertEquals(1, allocator.getGenerators().size());
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testNoGeneratedKey() {
+		new IdAllocator().getGenerator(FakeModels.buildBookstoreModel().getEntityByClassName("Country"));
+	}
+
+	@Test
+	public void testStoreHook() {
+		AtomicInteger calls = new AtomicInteger();
+		InMemoryIdBlockStore memory = new InMemoryIdBlockStore();
+		IdBlockStore store = (key, initialValue, size) -> {
+			calls.incrementAndGet();
+			return memory.reserveBlock(key, initialValue, size);
+		};
+		IdGenerator generator = new IdGenerator("K", 1, 100, store);
+		long[] ids = new long[250];
+		generator.nextIds(ids);
+		assertEquals(3, calls.get());
+		for ( int i = 0 ; i < ids.length ; i++ ) {
+			assertEquals(i + 1, ids[i]);
+		}
+		generator.releaseThreadBlock();
+		assertEquals(301, generator.nextId());
+	}
+
+	@Test
+	public void testConcurrentUniqueness() throws InterruptedException {
+		IdGenerator generator = new IdGenerator("K", 0, 64, new InMemoryIdBlockStore());
+		int threads = 8 ;
+		int perThread = 100000 ;
+		long[][] results = new long[threads][perThread];
+		List<Thread> list = new ArrayList<>();
+		for ( int t = 0 ; t < threads ; t++ ) {
+			long[] ids = results[t];
+			Thread thread = new Thread(() -> {
+				for ( int i = 0 ; i < ids.length ; i++ ) {
+					ids[i] = generator.nextId();
+				}
+			});
+			list.add(thread);
+			thread.start();
+		}
+		for ( Thread thread : list ) {
+			thread.join();
+		}
+		BitSet seen = new BitSet();
+		for ( long[] ids : results ) {
+			for ( long id : ids ) {
+				assertTrue("duplicate id " + id, !seen.get((int) id));
+				seen.set((int) id);
+			}
+		}
+		assertEquals(threads * perThread, seen.cardinality());
+	}
+}
@@ -0,0 +1,97 @@
+package org.telosys.tools.generic.model.languages.types;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.telosys.tools.generic.model.Model;
+import org.telosys.tools.generic.model.fake.FakeAttribute;
+import org.telosys.tools.generic.model.fake.FakeModels;
+import org.telosys.tools.generic.model.frozen.ModelFreezer;
+import org.telosys.tools.generic.model.types.NeutralType;
+import org.telosys.tools.generic.model.types.NeutralTypeCode;
+import org.telosys.tools.generic.model.types.NeutralTypeRegistry;
+
+public class TypeConverterTest {
+
+	@Test
+	public void testJava() {
+		TypeConverter java = TypeConverters.JAVA ;
+		assertEquals("Integer", java.getType(NeutralTypeCode.INTEGER, TypeConverter.NONE).getSimpleType());
+		assertEquals("java.lang.Integer", java.getType(NeutralTypeCode.INTEGER, TypeConverter.NONE).getFullType());
+		assertEquals("int", java.getType(NeutralTypeCode.INTEGER, TypeConverter.NOT_NULL).getSimpleType());
+		assertEquals("int", java.getType(NeutralTypeCode.INTEGER, TypeConverter.PRIMITIVE_TYPE).getSimpleType());
+		assertEquals("Integer", java.getType(NeutralTypeCode.INTEGER, TypeConverter.NOT_NULL | TypeConverter.OBJECT_TYPE).getSimpleType());
+		assertEquals("Integer", java.getType(NeutralTypeCode.INTEGER, TypeConverter.NOT_NULL).getWrapperType());
+		// unsigned : no effect in Java
+		assertEquals("long", java.getType(NeutralTypeCode.LONG, TypeConverter.NOT_NULL | TypeConverter.UNSIGNED_TYPE).getSimpleType());
+		// no primitive type
+		assertEquals("BigDecimal", java.getType(NeutralTypeCode.DECIMAL, TypeConverter.PRIMITIVE_TYPE).getSimpleType());
+		assertEquals("java.time.LocalDate", java.getType(NeutralType.DATE, TypeConverter.NOT_NULL).getFullType());
+		assertEquals("byte[]", java.getType(NeutralTypeCode.BINARY, TypeConverter.OBJECT_TYPE).getSimpleType());
+	}
+
+	@Test
+	public void testCSharpAndGo() {
+		assertEquals("int", TypeConverters.CSHARP.getType(NeutralTypeCode.INTEGER, TypeConverter.NONE).getSimpleType());
+		assertEquals("uint", TypeConverters.CSHARP.getType(NeutralTypeCode.INTEGER, TypeConverter.UNSIGNED_TYPE).getSimpleType());
+		assertEquals("System.Int32", TypeConverters.CSHARP.getType(NeutralTypeCode.INTEGER, TypeConverter.OBJECT_TYPE | TypeConverter.UNSIGNED_TYPE).getFullType());
+		assertEquals("DateTime", TypeConverters.CSHARP.getType(NeutralTypeCode.TIMESTAMP, TypeConverter.NONE).getSimpleType());
+		assertEquals("uint64", TypeConverters.GO.getType(NeutralTypeCode.LONG, TypeConverter.UNSIGNED_TYPE).getSimpleType());
+		assertEquals("float64", TypeConverters.GO.getType(NeutralTypeCode.DECIMAL, TypeConverter.UNSIGNED_TYPE).getSimpleType());
+		assertEquals("time.Time", TypeConverters.GO.getType(NeutralTypeCode.DATE, TypeConverter.NONE).getSimpleType());
+		assertEquals("Date", TypeConverters.TYPESCRIPT.getType(NeutralTypeCode.DATE, TypeConverter.NOT_NULL).getSimpleType());
+		assertEquals("number", TypeConverters.TYPESCRIPT.getType(NeutralTypeCode.SHORT, TypeConverter.OBJECT_TYPE).getSimpleType());
+		assertTrue(TypeConverters.PYTHON.getType(NeutralTypeCode.STRING, TypeConverter.NONE).isEmpty());
+	}
+
+	@Test(expected=TypeNotFoundException.class)
+	public void testNotFound() {
+		TypeConverters.JAVA.getType("foo", TypeConverter.NONE);
+	}
+
+	@Test
+	public void testRegistry() {
+		assertSame(TypeConverters.CSHARP, TypeConverters.get("c#"));
+		assertSame(TypeConverters.TYPESCRIPT, TypeConverters.get(" TYPESCRIPT "));
+		assertNull(TypeConverters.get("cobol"));
+		assertEquals(10, TypeConverters.getLanguageNames().size());
+		assertTrue(TypeConverters.SCALA.hasType(NeutralTypeCode.STRING, TypeConverter.NONE));
+		assertFalse(TypeConverters.SCALA.hasType(null, TypeConverter.NONE));
+	}
+
+	@Test
+	public void testAttribute() {
+		FakeAttribute id = new FakeAttribute("id", NeutralType.LONG).notNull();
+		assertEquals(TypeConverter.NOT_NULL, TypeConverter.typeFlags(id));
+		assertEquals("long", TypeConverters.JAVA.getType(id).getSimpleType());
+		assertEquals("Long", TypeConverters.JAVA.getType(new FakeAttribute("id", NeutralType.LONG)).getSimpleType());
+
+		NeutralTypeRegistry.register("uuid", NeutralTypeCode.STRING);
+		try {
+			assertEquals("String", TypeConverters.JAVA.getType(new FakeAttribute("code", "uuid")).getSimpleType());
+		}
+		finally {
+			NeutralTypeRegistry.unregister("uuid");
+		}
+	}
+
+	@Test
+	public void testConvertModel() {
+		Model model = FakeModels.buildBookstoreModel();
+		ModelTypes types = TypeConverters.JAVA.convertModel(model);
+		assertEquals(5, types.getEntityCount());
+		assertEquals(21, types.getAttributeCount());
+		assertEquals("String", types.getType("Book", "title").getSimpleType());
+		assertNull(types.getType("Book", "foo"));
+
+		// same result with a frozen model (flags taken from the packed attribute flags)
+		ModelTypes frozenTypes = TypeConverters.JAVA.convertModel(ModelFreezer.freeze(model));
+		for ( int e = 0 ; e < types.getEntityCount() ; e++ ) {
+			assertEquals(types.getTypes(e), frozenTypes.getTypes(e));
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package org.telosys.tools.generic.model.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+
+public class LongObjectMapTest {
+
+	@Test
+	public void testPutGetRemove() {
+		LongObjectMap<String> map = new LongObjectMap<>();
+		assertNull(map.put(1L, "a"));
+		assertNull(map.put(-1L, "b"));
+		assertNull(map.put(Long.MAX_VALUE, "c"));
+		assertEquals("a", map.put(1L, "aa"));
+		assertEquals(3, map.size());
+		assertEquals("aa", map.get(1L));
+		assertEquals("b", map.get(-1L));
+		assertEquals("c", map.get(Long.MAX_VALUE));
+		assertNull(map.get(2L));
+		assertEquals("b", map.remove(-1L));
+		assertNull(map.remove(-1L));
+		assertEquals(2, map.size());
+		map.clear();
+		assertEquals(0, map.size());
+		assertNull(map.get(1L));
+	}
+
+	@Test
+	public void testRandomOperations() {
+		// compared with a HashMap (checks rehash and backward shift removal)
+		LongObjectMap<Long> map = new LongObjectMap<>();
+		Map<Long, Long> reference = new HashMap<>();
+		SplittableRandom random = new SplittableRandom(42);
+		for ( int i = 0 ; i < 200000 ; i++ ) {
+			long key = random.nextInt(5000);
+			if ( random.nextInt(3) == 0 ) {
+				assertEquals(reference.remove(key), map.remove(key));
+			}
+			else {
+				assertEquals(reference.put(key, (long) i), map.put(key, (long) i));
+			}
+		}
+		assertEquals(reference.size(), map.size());
+		for ( long key = 0 ; key < 5000 ; key++ ) {
+			assertEquals(reference.get(key), map.get(key));
+		}
+		long[] count = { 0 };
+		map.forEachValue(v -> count[0]++);
+		assertEquals(reference.size(), count[0]);
+	}
+}
@@ -0,0 +1,207 @@
+package org.telosys.tools.generic.model.repository;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.telosys.tools.generic.model.fake.ModelAssert.expectFailure;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.Test;
+import org.telosys.tools.generic.model.fake.FakeAttribute;
+import org.telosys.tools.generic.model.fake.FakeEntity;
+import org.telosys.tools.generic.model.fake.FakeForeignKey;
+import org.telosys.tools.generic.model.fake.FakeModel;
+import org.telosys.tools.generic.model.fake.FakeModels;
+import org.telosys.tools.generic.model.types.NeutralType;
+
+public class ModelRepositoryTest {
+
+	private ModelRepository buildStore() {
+		ModelRepository store = ModelRepository.forAllEntities(FakeModels.buildBookstoreModel());
+		store.getRepository("Country").insert(new Object[] { "FR", "France" });
+		store.getRepository("Country").insert(new Object[] { "US", "United States" });
+		store.getRepository("Publisher").insert(new Object[] { 1, "Gallimard", "FR" });
+		store.getRepository("Publisher").insert(new Object[] { 2, "Penguin", "US" });
+		store.getRepository("Author").insert(new Object[] { 1, "Victor", "Hugo" });
+		store.getRepository("Book").insert(new Object[] { 10L, "1234567890", "Les Miserables", new BigDecimal("12.50"), null, 1, 1, null });
+		store.getRepository("Book").insert(new Object[] { 11L, "1234567891", "Notre-Dame", null, null, null, 1, null });
+		return store ;
+	}
+
+	@Test
+	public void testRepositories() {
+		FakeModel model = FakeModels.buildBookstoreModel();
+		assertEquals(0, new ModelRepository(model).getEntityNames().size());
+		((FakeEntity) model.getEntityByClassName("Book")).setInMemoryRepository(true);
+		ModelRepository store = new ModelRepository(model);
+		assertEquals(1, store.getEntityNames().size());
+		assertTrue(store.hasRepository("Book"));
+		assertFalse(store.hasRepository("Author"));
+		// referenced entities not stored => no FK check
+		store.getRepository("Book").insert(new Object[] { 1L, "1234567890", "T", null, null, 99, 99, null });
+		assertEquals(1, store.getRepository("Book").size());
+		expectFailure(() -> store.getRepository("Author"), IllegalArgumentException.class);
+	}
+
+	@Test
+	public void testFindByKey() {
+		ModelRepository store = buildStore();
+		EntityRepository books = store.getRepository("Book");
+		assertEquals(2, books.size());
+		assertEquals("Les Miserables", books.findByKey(10L)[2]);
+		assertEquals("Les Miserables", books.findByKey(10)[2]); // int => long key
+		assertEquals("Notre-Dame", books.findByKey(Long.valueOf(11))[2]);
+		assertNull(books.findByKey(12L));
+		assertEquals("France", store.getRepository("Country").findByKey("FR")[1]);
+		assertNull(store.getRepository("Country").findByKey("IT"));
+		expectFailure(() -> store.getRepository("Country").findByKey(1L), IllegalStateException.class);
+		expectFailure(() -> books.findByKey("10"), IllegalArgumentException.class);
+	}
+
+	@Test
+	public void testRecordsAreCopied() {
+		EntityRepository countries = buildStore().getRepository("Country");
+		Object[] record = { "IT", "Italy" };
+		countries.insert(record);
+		record[1] = "changed";
+		Object[] found = countries.findByKey("IT");
+		assertEquals("Italy", found[1]);
+		found[1] = "changed";
+		assertEquals("Italy", countries.findByKey("IT")[1]);
+	}
+
+	@Test
+	public void testCompositeKey() {
+		ModelRepository store = buildStore();
+		EntityRepository reviews = store.getRepository("Review");
+		reviews.insert(new Object[] { 10L, "bob", (short) 4, "good", true });
+		reviews.insert(new Object[] { 10L, "alice", (short) 5, null, true });
+		reviews.insert(new Object[] { 11L, "bob", (short) 3, null, false });
+		assertEquals(3, reviews.size());
+		assertEquals("good", reviews.findByKey(10L, "bob")[3]);
+		assertEquals((short) 5, reviews.findByKey(10, "alice")[2]); // normalized key value
+		assertNull(reviews.findByKey(11L, "alice"));
+		expectFailure(() -> reviews.insert(new Object[] { 10L, "bob", (short) 1, null, true }), IllegalStateException.class);
+		expectFailure(() -> reviews.findByKey(10L), IllegalStateException.class); // not a single integer key
+		expectFailure(() -> reviews.findByKey(10L, "bob", "x"), IllegalArgumentException.class);
+		expectFailure(() -> reviews.insert(new Object[] { 10L, null, (short) 1, null, true }), IllegalArgumentException.class);
+	}
+
+	@Test
+	public void testUniqueIndex() {
+		ModelRepository store = buildStore();
+		EntityRepository books = store.getRepository("Book");
+		assertEquals(11L, books.findByUnique("isbn", "1234567891")[0]);
+		assertNull(books.findByUnique("isbn", "0000000000"));
+		assertEquals("Hugo", store.getRepository("Author").findByUnique("id", 1)[2]); // single key
+		expectFailure(() -> books.insert(new Object[] { 12L, "1234567890", "Dup", null, null, null, 1, null }), IllegalStateException.class);
+		expectFailure(() -> books.findByUnique("title", "Notre-Dame"), IllegalArgumentException.class);
+		// update : same unique value for the same record is allowed
+		books.update(new Object[] { 11L, "1234567891", "Notre-Dame de Paris", null, null, null, 1, null });
+		assertEquals("Notre-Dame de Paris", books.findByUnique("isbn", "1234567891")[2]);
+		books.update(new Object[] { 11L, "1234567892", "Notre-Dame de Paris", null, null, null, 1, null });
+		assertNull(books.findByUnique("isbn", "1234567891"));
+		assertEquals(11L, books.findByUnique("isbn", "1234567892")[0]);
+		expectFailure(() -> books.update(new Object[] { 11L, "1234567890", "T", null, null, null, 1, null }), IllegalStateException.class);
+		expectFailure(() -> books.update(new Object[] { 99L, "9", "T", null, null, null, 1, null }), IllegalStateException.class);
+	}
+
+	@Test
+	public void testForeignKeys() {
+		ModelRepository store = buildStore();
+		EntityRepository books = store.getRepository("Book");
+		List<Object[]> list = books.findByForeignKey("FK_BOOK_AUTHOR", 1);
+		assertEquals(2, list.size());
+		assertEquals(1, books.findByForeignKey("FK_BOOK_PUBLISHER", 1L).size());
+		assertEquals(0, books.findByForeignKey("FK_BOOK_PUBLISHER", 2).size());
+		assertEquals(1, store.getRepository("Publisher").findByForeignKey("FK_PUBLISHER_COUNTRY", "US").size());
+		expectFailure(() -> books.findByForeignKey("FK_NONE", 1), IllegalArgumentException.class);
+
+		// referenced record must exist
+		expectFailure(() -> books.insert(new Object[] { 12L, "1234567899", "T", null, null, 1, 2, null }), IllegalStateException.class);
+		expectFailure(() -> store.getRepository("Publisher").insert(new Object[] { 3, "X", "IT" }), IllegalStateException.class);
+		store.getRepository("Publisher").insert(new Object[] { 3, "X", null }); // null FK
+		// update moves the record in the FK index
+		books.update(new Object[] { 11L, "1234567891", "Notre-Dame", null, null, 2, 1, null });
+		assertEquals(1, books.findByForeignKey("FK_BOOK_PUBLISHER", 2).size());
+		assertEquals(1, books.findByForeignKey("FK_BOOK_PUBLISHER", 1).size());
+	}
+
+	@Test
+	public void testDeleteRestrict() {
+		ModelRepository store = buildStore();
+		EntityRepository authors = store.getRepository("Author");
+		EntityRepository books = store.getRepository("Book");
+		expectFailure(() -> authors.delete(1), IllegalStateException.class);
+		expectFailure(() -> authors.clear(), IllegalStateException.class);
+		assertFalse(authors.delete(2));
+		assertTrue(books.delete(10L));
+		assertTrue(books.delete(11));
+		assertFalse(books.delete(11L));
+		assertEquals(0, books.findByForeignKey("FK_BOOK_AUTHOR", 1).size());
+		assertNull(books.findByUnique("isbn", "1234567890"));
+		assertTrue(authors.delete(1));
+		assertEquals(0, authors.size());
+		assertTrue(store.getRepository("Publisher").delete(1)); // no longer referenced
+		store.clear();
+		assertEquals(0, store.getRepository("Country").size());
+	}
+
+	@Test
+	public void testSelfReferenceAndScan() {
+		FakeModel model = new FakeModel("test");
+		FakeEntity node = model.addEntity(new FakeEntity("Node", "NODE"));
+		node.addAttribute(new FakeAttribute("code", NeutralType.STRING).keyElement());
+		node.addAttribute(new FakeAttribute("label", NeutralType.STRING));
+		node.addAttribute(new FakeAttribute("parentLabel", NeutralType.STRING));
+		// FK on a non unique attribute => parent found by scan
+		node.addForeignKey(new FakeForeignKey("FK_NODE_PARENT", "Node", "Node").attribute("parentLabel", "label"));
+		EntityRepository nodes = ModelRepository.forAllEntities(model).getRepository("Node");
+		nodes.insert(new Object[] { "A", "root", "root" }); // references itself
+		nodes.insert(new Object[] { "B", "child", "root" });
+		expectFailure(() -> nodes.insert(new Object[] { "C", "x", "none" }), IllegalStateException.class);
+		assertEquals(2, nodes.findByForeignKey("FK_NODE_PARENT", "root").size());
+		expectFailure(() -> nodes.delete("A"), IllegalStateException.class);
+		// referenced value cannot be changed
+		expectFailure(() -> nodes.update(new Object[] { "A", "root2", "root2" }), IllegalStateException.class);
+		assertTrue(nodes.delete("B"));
+		nodes.update(new Object[] { "A", "root2", "root2" });
+		assertTrue(nodes.delete("A"));
+		assertEquals(0, nodes.size());
+	}
+
+	@Test
+	public void testNoKey() {
+		FakeModel model = new FakeModel("test");
+		FakeEntity log = model.addEntity(new FakeEntity("Log", "LOG"));
+		log.addAttribute(new FakeAttribute("message", NeutralType.STRING));
+		EntityRepository logs = ModelRepository.forAllEntities(model).getRepository("Log");
+		assertFalse(logs.hasPrimaryKey());
+		logs.insert(new Object[] { "a" });
+		logs.insert(new Object[] { "a" });
+		assertEquals(2, logs.findAll().size());
+		assertArrayEquals(new Object[] { "a" }, logs.findAll().get(0));
+		expectFailure(() -> logs.findByKey("a"), IllegalStateException.class);
+		expectFailure(() -> logs.insert(new Object[] { "a", "b" }), IllegalArgumentException.class);
+		logs.clear();
+		assertEquals(0, logs.size());
+	}
+
+	@Test
+	public void testStandalone() {
+		EntityRepository books = new EntityRepository(FakeModels.buildBookstoreModel().getEntityByClassName("Book"));
+		for ( long i = 0 ; i < 10000 ; i++ ) {
+			books.insert(new Object[] { i, "isbn" + i, "Title " + i, null, null, 1, (int) ( i % 7 ), null });
+		}
+		assertEquals(10000, books.size());
+		assertNotNull(books.findByKey(9999L));
+		assertEquals(1429, books.findByForeignKey("FK_BOOK_AUTHOR", 0).size());
+		assertEquals(1234L, books.findByUnique("isbn", "isbn1234")[0]);
+		assertEquals(6, books.getFieldIndex("authorId"));
+	}
+}
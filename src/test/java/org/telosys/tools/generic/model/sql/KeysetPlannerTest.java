@@ -0,0 +1,76 @@
+package org.telosys.tools.generic.model.sql;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.telosys.tools.generic.model.fake.ModelAssert.expectFailure;
+
+import org.junit.Test;
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.Model;
+import org.telosys.tools.generic.model.fake.FakeModels;
+
+public class KeysetPlannerTest {
+
+	private static final String REVIEW_SELECT = "SELECT BOOK_ID, REVIEWER, RATING, COMMENT, VISIBLE FROM SHOP.REVIEW" ;
+
+	private final Model model = FakeModels.buildBookstoreModel();
+
+	private Entity entity(String className) {
+		return model.getEntityByClassName(className);
+	}
+
+	@Test
+	public void testSingleKey() {
+		KeysetPagination p = new KeysetPlanner(SqlDialect.POSTGRESQL, 50).byPrimaryKey(entity("Country"), false);
+		assertEquals("SELECT CODE, NAME FROM SHOP.COUNTRY ORDER BY CODE LIMIT 50", p.getFirstPage().getSql());
+		assertEquals("SELECT CODE, NAME FROM SHOP.COUNTRY WHERE CODE > ? ORDER BY CODE LIMIT 50", p.getNextPage().getSql());
+		assertEquals("SELECT CODE, NAME FROM SHOP.COUNTRY WHERE CODE < ? ORDER BY CODE DESC LIMIT 50", p.getPreviousPage().getSql());
+		assertEquals("SELECT CODE, NAME FROM SHOP.COUNTRY ORDER BY CODE DESC LIMIT 50", p.getLastPage().getSql());
+		assertArrayEquals(new int[] { 0 }, p.getNextPage().getParameterFields());
+		assertArrayEquals(new Object[] { "FR" }, p.getSeekValues(new Object[] { "FR", "France" }));
+
+		p = new KeysetPlanner(SqlDialect.SQLSERVER, 20).byPrimaryKey(entity("Country"), true);
+		assertEquals("SELECT CODE, NAME FROM SHOP.COUNTRY WHERE CODE < ? ORDER BY CODE DESC OFFSET 0 ROWS FETCH NEXT 20 ROWS ONLY", 
+				p.getNextPage().getSql());
+	}
+
+	@Test
+	public void testCompositeKey() {
+		KeysetPagination p = new KeysetPlanner(SqlDialect.STANDARD, 100).byPrimaryKey(entity("Review"), false);
+		assertEquals("ORDER BY BOOK_ID, REVIEWER", p.getOrderBy());
+		assertEquals("(BOOK_ID, REVIEWER) > (?, ?)", p.getSeekPredicate());
+		assertEquals(REVIEW_SELECT + " WHERE (BOOK_ID, REVIEWER) > (?, ?) ORDER BY BOOK_ID, REVIEWER FETCH FIRST 100 ROWS ONLY", 
+				p.getNextPage().getSql());
+		assertArrayEquals(new int[] { 0, 1 }, p.getNextPage().getParameterFields());
+		assertEquals(REVIEW_SELECT + " WHERE (BOOK_ID, REVIEWER) < (?, ?) ORDER BY BOOK_ID DESC, REVIEWER DESC FETCH FIRST 100 ROWS ONLY", 
+				p.getPreviousPage().getSql());
+
+		// no row value comparison
+		p = new KeysetPlanner(SqlDialect.ORACLE, 100).byPrimaryKey(entity("Review"), false);
+		assertEquals("(BOOK_ID > ? OR (BOOK_ID = ? AND REVIEWER > ?))", p.getSeekPredicate());
+		assertArrayEquals(new int[] { 0, 0, 1 }, p.getNextPage().getParameterFields());
+		assertEquals(3, p.getNextPage().getParameterCount());
+	}
+
+	@Test
+	public void testSortAttributes() {
+		KeysetPlanner planner = new KeysetPlanner(new StatementPlanner(SqlDialect.SQLSERVER), 10);
+		// unique attribute alone
+		KeysetPagination p = planner.byUnique(entity("Book"), "isbn", false);
+		assertArrayEquals(new int[] { 1 }, p.getSeekFields());
+		// not unique => primary key added
+		p = planner.bySortAttributes(entity("Book"), true, "title");
+		assertArrayEquals(new int[] { 2, 0 }, p.getSeekFields());
+		assertEquals("ORDER BY TITLE DESC, ID DESC", p.getOrderBy());
+		assertEquals("(TITLE < ? OR (TITLE = ? AND ID < ?))", p.getSeekPredicate());
+		// part of the key
+		p = planner.bySortAttributes(entity("Review"), false, "rating", "reviewer");
+		assertArrayEquals(new int[] { 2, 1, 0 }, p.getSeekFields());
+
+		expectFailure(() -> planner.byUnique(entity("Book"), "title", false), IllegalArgumentException.class);
+		expectFailure(() -> planner.bySortAttributes(entity("Book"), false, "publisherId"), IllegalArgumentException.class); // nullable
+		expectFailure(() -> planner.bySortAttributes(entity("Book"), false, "foo"), IllegalArgumentException.class);
+		expectFailure(() -> planner.bySortAttributes(entity("Book"), false, "title", "title"), IllegalArgumentException.class);
+		expectFailure(() -> new KeysetPlanner(SqlDialect.STANDARD, 0), IllegalArgumentException.class);
+	}
+}
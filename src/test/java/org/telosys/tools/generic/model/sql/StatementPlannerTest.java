@@ -0,0 +1,181 @@
+package org.telosys.tools.generic.model.sql;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.telosys.tools.generic.model.fake.ModelAssert.expectFailure;
+
+import java.util.Map;
+
+import org.junit.Test;
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.enums.BooleanValue;
+import org.telosys.tools.generic.model.enums.GeneratedValueStrategy;
+import org.telosys.tools.generic.model.fake.FakeAttribute;
+import org.telosys.tools.generic.model.fake.FakeEntity;
+import org.telosys.tools.generic.model.fake.FakeModels;
+import org.telosys.tools.generic.model.types.NeutralType;
+
+public class StatementPlannerTest {
+
+	private static final String BOOK_COLUMNS = "ID, ISBN, TITLE, PRICE, PUBLICATION_DATE, PUBLISHER_ID, AUTHOR_ID, SUMMARY" ;
+
+	private Entity book() {
+		return FakeModels.buildBookstoreModel().getEntityByClassName("Book");
+	}
+
+	@Test
+	public void testCrudStatements() {
+		EntityStatements s = StatementPlanner.plan(book(), SqlDialect.STANDARD, 10);
+		assertEquals("SHOP.BOOK", s.getTableName());
+		assertEquals("INSERT INTO SHOP.BOOK (" + BOOK_COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?)", s.getInsert().getSql());
+		assertEquals(8, s.getInsert().getParameterCount());
+		assertEquals("UPDATE SHOP.BOOK SET ISBN = ?, TITLE = ?, PRICE = ?, PUBLICATION_DATE = ?, PUBLISHER_ID = ?, AUTHOR_ID = ?, SUMMARY = ? WHERE ID = ?", 
+				s.getUpdate().getSql());
+		assertEquals(0, s.getUpdate().getParameterField(8)); // key last
+		assertEquals(8, s.getUpdate().getParameterIndex(0));
+		assertEquals(-1, s.getDelete().getParameterIndex(1));
+		assertEquals("DELETE FROM SHOP.BOOK WHERE ID = ?", s.getDelete().getSql());
+		assertEquals("SELECT " + BOOK_COLUMNS + " FROM SHOP.BOOK WHERE ID = ?", s.getSelectByKey().getSql());
+		assertArrayEquals(new int[] { 0, 1, 2, 3, 4, 5, 6, 7 }, s.getSelectByKey().getResultFields());
+		assertEquals("SELECT " + BOOK_COLUMNS + " FROM SHOP.BOOK", s.getSelectAll().getSql());
+		assertEquals("SELECT " + BOOK_COLUMNS + " FROM SHOP.BOOK WHERE AUTHOR_ID = ?", s.getSelectByForeignKey("FK_BOOK_AUTHOR").getSql());
+		assertArrayEquals(new int[] { 6 }, s.getSelectByForeignKey("FK_BOOK_AUTHOR").getParameterFields());
+		assertEquals(2, s.getForeignKeyNames().size());
+		expectFailure(() -> s.getSelectByForeignKey("FK_NONE"), IllegalArgumentException.class);
+		Object[] record = { 1L, "isbn", "title", null, null, 2, 3, null };
+		assertArrayEquals(new Object[] { 1L }, s.getSelectByKey().getParameterValues(record));
+
+		EntityStatements review = StatementPlanner.plan(FakeModels.buildBookstoreModel().getEntityByClassName("Review"), SqlDialect.STANDARD, 10);
+		assertEquals("UPDATE SHOP.REVIEW SET RATING = ?, COMMENT = ?, VISIBLE = ? WHERE BOOK_ID = ? AND REVIEWER = ?", 
+				review.getUpdate().getSql());
+		assertArrayEquals(new int[] { 2, 3, 4, 0, 1 }, review.getUpdate().getParameterFields());
+	}
+
+	@Test
+	public void testColumnSelection() {
+		FakeEntity entity = new FakeEntity("Order", "ORDER");
+		entity.addAttribute(new FakeAttribute("id", NeutralType.LONG).keyElement().generatedValue(GeneratedValueStrategy.IDENTITY));
+		entity.addAttribute(new FakeAttribute("user", NeutralType.STRING));
+		entity.addAttribute(new FakeAttribute("created", NeutralType.TIMESTAMP).updatable(BooleanValue.FALSE));
+		entity.addAttribute(new FakeAttribute("computed", NeutralType.INTEGER).insertable(BooleanValue.FALSE).updatable(BooleanValue.FALSE));
+		entity.addAttribute(new FakeAttribute("cache", NeutralType.STRING).transientField());
+		entity.addAttribute(new FakeAttribute("line count", NeutralType.INTEGER).databaseName("line count"));
+		EntityStatements s = StatementPlanner.plan(entity, SqlDialect.MYSQL, 10);
+		assertEquals("`ORDER`", s.getTableName());
+		assertEquals("INSERT INTO `ORDER` (`USER`, CREATED, `line count`) VALUES (?, ?, ?)", s.getInsert().getSql());
+		assertArrayEquals(new int[] { 1, 2, 5 }, s.getInsert().getParameterFields());
+		assertEquals("UPDATE `ORDER` SET `USER` = ?, `line count` = ? WHERE ID = ?", s.getUpdate().getSql());
+		assertEquals("SELECT ID, `USER`, CREATED, COMPUTED, `line count` FROM `ORDER` WHERE ID = ?", s.getSelectByKey().getSql());
+		assertEquals(null, s.getColumnName(4));
+		assertEquals("[USER]", StatementPlanner.plan(entity, SqlDialect.SQLSERVER, 10).getColumnName(1));
+
+		FakeEntity log = new FakeEntity("Log", "LOG");
+		log.addAttribute(new FakeAttribute("message", NeutralType.STRING));
+		EntityStatements logStatements = StatementPlanner.plan(log, SqlDialect.STANDARD, 10);
+		assertFalse(logStatements.hasPrimaryKey());
+		assertFalse(logStatements.hasUpdate());
+		expectFailure(() -> logStatements.getSelectByKey(), IllegalStateException.class);
+		expectFailure(() -> logStatements.getUpdate(), IllegalStateException.class);
+		expectFailure(() -> logStatements.getDelete(), IllegalStateException.class);
+	}
+
+	@Test
+	public void testReservedWords() {
+		// SQL:2011 reserved words in all the dialects
+		for ( SqlDialect dialect : SqlDialect.values() ) {
+			assertTrue(dialect.isReservedWord("date"));
+			assertTrue(dialect.isReservedWord("USER"));
+			assertTrue(dialect.isReservedWord("Timestamp"));
+			assertTrue(dialect.isReservedWord("VALUE"));
+			assertFalse(dialect.isReservedWord("TITLE"));
+		}
+		assertEquals("\"DATE\"", SqlDialect.POSTGRESQL.quote("DATE"));
+		assertEquals("[TIME]", SqlDialect.SQLSERVER.quote("TIME"));
+		assertEquals("`VALUE`", SqlDialect.MYSQL.quote("VALUE"));
+		// dialect keywords
+		assertEquals("\"COMMENT\"", SqlDialect.ORACLE.quote("COMMENT"));
+		assertEquals("\"LEVEL\"", SqlDialect.ORACLE.quote("LEVEL"));
+		assertEquals("\"SIZE\"", SqlDialect.ORACLE.quote("SIZE"));
+		assertEquals("\"NUMBER\"", SqlDialect.ORACLE.quote("NUMBER"));
+		assertEquals("COMMENT", SqlDialect.POSTGRESQL.quote("COMMENT"));
+		assertEquals("\"LIMIT\"", SqlDialect.POSTGRESQL.quote("LIMIT"));
+		assertEquals("LIMIT", SqlDialect.ORACLE.quote("LIMIT"));
+		assertEquals("[TOP]", SqlDialect.SQLSERVER.quote("TOP"));
+
+		SqlStatement insert = StatementPlanner.plan(FakeModels.buildBookstoreModel().getEntityByClassName("Review"), 
+				SqlDialect.ORACLE, 1).getInsert();
+		assertEquals("INSERT INTO SHOP.REVIEW (BOOK_ID, REVIEWER, RATING, \"COMMENT\", VISIBLE) VALUES (?, ?, ?, ?, ?)", 
+				insert.getSql());
+	}
+
+	@Test
+	public void testBatchInsert() {
+		EntityStatements s = StatementPlanner.plan(book(), SqlDialect.POSTGRESQL, 3);
+		assertEquals(3, s.getBatchSize());
+		SqlStatement batch = s.getBatchInsert();
+		assertEquals(3, batch.getRowCount());
+		assertEquals(24, batch.getParameterCount());
+		assertEquals(8, batch.getParametersPerRow());
+		assertEquals(1, batch.getParameterField(18)); // row 3, 'isbn'
+		assertTrue(batch.getSql().endsWith("VALUES (?, ?, ?, ?, ?, ?, ?, ?), (?, ?, ?, ?, ?, ?, ?, ?), (?, ?, ?, ?, ?, ?, ?, ?)"));
+		assertEquals(2, s.getBatchInsert(2).getRowCount());
+		assertSame(s.getBatchInsert(2), s.getBatchInsert(2));
+		assertSame(s.getInsert(), s.getBatchInsert(1));
+		assertSame(batch, s.getBatchInsert(3));
+		expectFailure(() -> s.getBatchInsert(4), IllegalArgumentException.class);
+		expectFailure(() -> batch.getParameterField(25), IndexOutOfBoundsException.class);
+
+		// limited by the max number of parameters
+		assertEquals(2100 / 8, StatementPlanner.plan(book(), SqlDialect.SQLSERVER, 1000).getBatchSize());
+
+		SqlStatement oracle = StatementPlanner.plan(FakeModels.buildBookstoreModel().getEntityByClassName("Country"), SqlDialect.ORACLE, 2).getBatchInsert();
+		assertEquals("INSERT ALL INTO SHOP.COUNTRY (CODE, NAME) VALUES (?, ?) INTO SHOP.COUNTRY (CODE, NAME) VALUES (?, ?) SELECT 1 FROM DUAL", oracle.getSql());
+	}
+
+	@Test
+	public void testCache() {
+		StatementPlanner planner = new StatementPlanner(SqlDialect.STANDARD);
+		Map<String, EntityStatements> statements = planner.getStatements(FakeModels.buildBookstoreModel());
+		assertEquals(5, statements.size());
+		assertEquals(5, planner.getCacheSize());
+		// identical entities of another model => same statements (same fingerprint)
+		EntityStatements book = planner.getStatements(book());
+		assertSame(statements.get("Book"), book);
+		assertEquals(5, planner.getCacheSize());
+		// changed entity
+		FakeEntity entity = (FakeEntity) book();
+		planner.getStatements(entity);
+		entity.addAttribute(new FakeAttribute("edition", NeutralType.INTEGER));
+		planner.invalidate(entity);
+		EntityStatements changed = planner.getStatements(entity);
+		assertTrue(changed.getInsert().getSql().contains("EDITION"));
+		assertEquals(6, planner.getCacheSize());
+		planner.clear();
+		assertEquals(0, planner.getCacheSize());
+		expectFailure(() -> new StatementPlanner(SqlDialect.STANDARD, 0), IllegalArgumentException.class);
+	}
+
+	@Test
+	public void testInvalidateChangedAttribute() {
+		StatementPlanner planner = new StatementPlanner(SqlDialect.STANDARD);
+		FakeEntity entity = (FakeEntity) book();
+		EntityStatements before = planner.getStatements(entity);
+		assertTrue(before.getInsert().getSql().contains("TITLE"));
+
+		((FakeAttribute) entity.getAttributeByName("title")).databaseName("BOOK_TITLE");
+		// not invalidated : cached statements
+		assertSame(before, planner.getStatements(entity));
+		planner.invalidate(entity);
+		EntityStatements after = planner.getStatements(entity);
+		assertTrue(after.getInsert().getSql().contains("BOOK_TITLE"));
+		assertTrue(after.getSelectAll().getSql().contains("BOOK_TITLE"));
+
+		// change in the key column name 
+		((FakeAttribute) entity.getAttributeByName("id")).databaseName("BOOK_ID");
+		planner.invalidate(entity);
+		assertTrue(planner.getStatements(entity).getSelectByKey().getSql().endsWith("WHERE BOOK_ID = ?"));
+	}
+}
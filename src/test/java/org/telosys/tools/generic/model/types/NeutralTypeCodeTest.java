@@ -0,0 +1,93 @@
+package org.telosys.tools.generic.model.types;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.telosys.tools.generic.model.Attribute;
+import org.telosys.tools.generic.model.fake.FakeAttribute;
+import org.telosys.tools.generic.model.fake.FakeModels;
+import org.telosys.tools.generic.model.frozen.FrozenAttribute;
+import org.telosys.tools.generic.model.frozen.ModelFreezer;
+
+public class NeutralTypeCodeTest {
+
+	@Test
+	public void testFromText() {
+		for ( String type : NeutralType.getAllNeutralTypes() ) {
+			NeutralTypeCode code = NeutralTypeCode.fromText(type);
+			assertEquals(type, code.getText());
+		}
+		assertEquals(NeutralTypeCode.INTEGER, NeutralTypeCode.fromText("int"));
+		assertEquals(NeutralTypeCode.TIMESTAMPZ, NeutralTypeCode.fromText("timestampz"));
+		assertNull(NeutralTypeCode.fromText("integer"));
+		assertNull(NeutralTypeCode.fromText(null));
+		assertTrue(NeutralTypeCode.INTEGER.isNumber());
+		assertFalse(NeutralTypeCode.STRING.isNumber());
+		assertTrue(NeutralTypeCode.DATE.isTemporal());
+	}
+
+	@Test
+	public void testCachedLists() {
+		List<String> texts = NeutralTypeCode.getAllTexts();
+		assertSame(texts, NeutralTypeCode.getAllTexts());
+		assertEquals(14, texts.size());
+		assertEquals(NeutralTypeCode.values().length, NeutralTypeCode.getAllCodes().size());
+		// legacy method : same order, still a new list
+		assertEquals(texts, NeutralType.getAllNeutralTypes());
+		NeutralType.getAllNeutralTypes().add("foo");
+		assertEquals(14, NeutralType.getAllNeutralTypes().size());
+	}
+
+	@Test(expected=UnsupportedOperationException.class)
+	public void testCachedListImmutable() {
+		NeutralTypeCode.getAllTexts().add("foo");
+	}
+
+	@Test
+	public void testRegistry() {
+		assertFalse(NeutralTypeRegistry.isKnown("uuid"));
+		NeutralTypeRegistry.register("uuid", NeutralTypeCode.STRING);
+		try {
+			assertTrue(NeutralTypeRegistry.isCustom("uuid"));
+			assertEquals(NeutralTypeCode.STRING, NeutralTypeRegistry.getCode("uuid"));
+			assertEquals(NeutralTypeCode.LONG, NeutralTypeRegistry.getCode("long"));
+			assertFalse(NeutralTypeRegistry.isCustom("long"));
+			assertEquals(1, NeutralTypeRegistry.getCustomTypes().size());
+		}
+		finally {
+			assertTrue(NeutralTypeRegistry.unregister("uuid"));
+		}
+		assertNull(NeutralTypeRegistry.getCode("uuid"));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testRegistryPredefined() {
+		NeutralTypeRegistry.register("string", NeutralTypeCode.BINARY);
+	}
+
+	@Test
+	public void testAttributeCode() {
+		FakeAttribute attribute = new FakeAttribute("id", NeutralType.INTEGER);
+		assertEquals(NeutralTypeCode.INTEGER, attribute.getNeutralTypeCode());
+		Attribute frozen = ModelFreezer.freeze(FakeModels.buildBookstoreModel())
+				.getEntityByClassName("Book").getAttributeByName("title");
+		assertTrue(frozen instanceof FrozenAttribute);
+		assertEquals(NeutralTypeCode.STRING, frozen.getNeutralTypeCode());
+
+		FakeAttribute money = new FakeAttribute("price", "money");
+		assertNull(money.getNeutralTypeCode());
+		NeutralTypeRegistry.register("money", NeutralTypeCode.DECIMAL);
+		try {
+			assertEquals(NeutralTypeCode.DECIMAL, money.getNeutralTypeCode());
+		}
+		finally {
+			NeutralTypeRegistry.unregister("money");
+		}
+	}
+}
@@ -0,0 +1,128 @@
+package org.telosys.tools.generic.model.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.ForeignKey;
+import org.telosys.tools.generic.model.fake.FakeEntity;
+import org.telosys.tools.generic.model.fake.FakeForeignKey;
+import org.telosys.tools.generic.model.fake.FakeModel;
+import org.telosys.tools.generic.model.fake.FakeModels;
+
+public class DependencySorterTest {
+
+	@Test
+	public void testOrder() {
+		FakeModel model = FakeModels.buildBookstoreModel();
+		// reverse the model order to check the sort
+		Collections.reverse(model.getEntities());
+		DependencyOrder order = DependencySorter.computeDependencyOrder(model);
+		assertFalse(order.hasCycles());
+		assertTrue(order.getDeferredForeignKeys().isEmpty());
+		List<String> names = order.getOrderedClassNames();
+		assertEquals(5, names.size());
+		assertBefore(names, "Country", "Publisher");
+		assertBefore(names, "Publisher", "Book");
+		assertBefore(names, "Author", "Book");
+		assertBefore(names, "Book", "Review");
+
+		Entity[] reverse = order.getReverseOrderedEntities();
+		assertEquals("Review", reverse[0].getClassName());
+	}
+
+	@Test
+	public void testCycle() {
+		FakeModel model = FakeModels.buildBookstoreModel();
+		FakeEntity country = (FakeEntity) model.getEntityByClassName("Country");
+		country.addForeignKey(new FakeForeignKey("FK_COUNTRY_PUBLISHER", "Country", "Publisher").attribute("mainPublisher", "id"));
+		// self reference : ignored
+		FakeEntity author = (FakeEntity) model.getEntityByClassName("Author");
+		author.addForeignKey(new FakeForeignKey("FK_AUTHOR_MENTOR", "Author", "Author").attribute("mentorId", "id"));
+
+		DependencyOrder order = DependencySorter.computeDependencyOrder(model);
+		assertTrue(order.hasCycles());
+		assertEquals(1, order.getCycles().size());
+		List<Entity> cycle = order.getCycles().get(0);
+		assertEquals(2, cycle.size());
+		assertEquals("Country", cycle.get(0).getClassName());
+		assertEquals("Publisher", cycle.get(1).getClassName());
+
+		List<ForeignKey> deferred = order.getDeferredForeignKeys();
+		assertEquals(1, deferred.size());
+		assertEquals("FK_COUNTRY_PUBLISHER", deferred.get(0).getName());
+		assertEquals(Arrays.asList("Country", "Publisher", "Author", "Book", "Review"), order.getOrderedClassNames());
+	}
+
+	@Test
+	public void testLargeCycle() {
+		FakeModel model = new FakeModel("chain");
+		int n = 2000 ;
+		for ( int i = 0 ; i < n ; i++ ) {
+			FakeEntity e = new FakeEntity("E" + i, "T" + i);
+			e.addForeignKey(new FakeForeignKey("FK" + i, "E" + i, "E" + ( ( i + 1 ) % n )).attribute("next", "id"));
+			model.addEntity(e);
+		}
+		DependencyOrder order = DependencySorter.computeDependencyOrder(model);
+		assertEquals(1, order.getCycles().size());
+		assertEquals(n, order.getCycles().get(0).size());
+		assertEquals(1, order.getDeferredForeignKeys().size());
+		assertEquals(n, order.getOrderedEntities().length);
+	}
+
+	@Test
+	public void testCache() {
+		DependencySorter sorter = new DependencySorter();
+		FakeModel model1 = FakeModels.buildBookstoreModel();
+		DependencyOrder order1 = sorter.getDependencyOrder(model1);
+		assertSame(order1, sorter.getDependencyOrder(model1));
+		assertEquals(1, sorter.getCacheSize());
+
+		FakeModel model2 = FakeModels.buildBookstoreModel();
+		DependencyOrder order2 = sorter.getDependencyOrder(model2);
+		assertEquals(1, sorter.getCacheSize());
+		assertSame(model2.getEntityByClassName("Country"), order2.getOrderedEntities()[0]);
+		assertEquals(order1.getOrderedClassNames(), order2.getOrderedClassNames());
+	}
+
+	@Test
+	public void testCacheWithChangedForeignKeys() {
+		DependencySorter sorter = new DependencySorter();
+		FakeModel model = FakeModels.buildBookstoreModel();
+		DependencyOrder order1 = sorter.getDependencyOrder(model);
+		assertFalse(order1.hasCycles());
+
+		// new foreign key in the same model instance : Author -> Book (cycle Author / Book)
+		((FakeEntity) model.getEntityByClassName("Author"))
+				.addForeignKey(new FakeForeignKey("FK_AUTHOR_BOOK", "Author", "Book").attribute("id", "id"));
+		DependencyOrder order2 = sorter.getDependencyOrder(model);
+		assertEquals(DependencySorter.computeDependencyOrder(model).getOrderedClassNames(), order2.getOrderedClassNames());
+		assertEquals(1, order2.getCycles().size());
+		assertEquals(1, order2.getDeferredForeignKeys().size());
+		assertEquals(2, sorter.getCacheSize());
+	}
+
+	@Test
+	public void testCacheSize() {
+		DependencySorter sorter = new DependencySorter(2);
+		for ( int i = 0 ; i < 5 ; i++ ) {
+			FakeModel model = new FakeModel("m" + i);
+			model.addEntity(new FakeEntity("E" + i, "E" + i));
+			sorter.getDependencyOrder(model);
+		}
+		assertEquals(2, sorter.getCacheSize());
+		sorter.clear();
+		assertEquals(0, sorter.getCacheSize());
+	}
+
+	private static void assertBefore(List<String> names, String first, String second) {
+		assertTrue(first + " before " + second, names.indexOf(first) < names.indexOf(second));
+	}
+}
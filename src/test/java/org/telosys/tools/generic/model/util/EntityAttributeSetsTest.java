@@ -0,0 +1,110 @@
+package org.telosys.tools.generic.model.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.Model;
+import org.telosys.tools.generic.model.fake.FakeAttribute;
+import org.telosys.tools.generic.model.fake.FakeEntity;
+import org.telosys.tools.generic.model.fake.FakeModels;
+import org.telosys.tools.generic.model.frozen.FrozenAttribute;
+import org.telosys.tools.generic.model.frozen.ModelFreezer;
+import org.telosys.tools.generic.model.types.NeutralType;
+
+public class EntityAttributeSetsTest {
+
+	@Test
+	public void testFlags() {
+		Entity book = FakeModels.buildBookstoreModel().getEntityByClassName("Book");
+		int flags = AttributeFlags.of(book.getAttributeByName("id"));
+		assertTrue(AttributeFlags.has(flags, AttributeFlags.KEY_ELEMENT | AttributeFlags.NOT_NULL));
+		assertTrue(AttributeFlags.has(flags, AttributeFlags.GENERATED_VALUE));
+		assertFalse(AttributeFlags.has(flags, AttributeFlags.KEY_ELEMENT | AttributeFlags.FK));
+		assertTrue(AttributeFlags.hasAny(flags, AttributeFlags.KEY_ELEMENT | AttributeFlags.FK));
+
+		Model frozen = ModelFreezer.freeze(FakeModels.buildBookstoreModel());
+		for ( Entity e : frozen.getEntities() ) {
+			for ( int i = 0 ; i < e.getAttributes().size() ; i++ ) {
+				FrozenAttribute a = (FrozenAttribute) e.getAttributes().get(i);
+				assertEquals(AttributeFlags.of(a), a.getFlags());
+			}
+		}
+	}
+
+	@Test
+	public void testSelections() {
+		Entity book = FakeModels.buildBookstoreModel().getEntityByClassName("Book");
+		EntityAttributeSets sets = new EntityAttributeSets(book);
+		assertEquals(8, sets.getAllAttributes().size());
+		assertEquals("[id]", sets.getKeyAttributes().toString());
+		assertEquals("[id]", sets.getGeneratedAttributes().toString());
+		assertEquals("[summary]", sets.getLongTextAttributes().toString());
+		assertEquals("[isbn, title, authorId]", 
+				sets.getNotNullAttributes().andNot(sets.getKeyAttributes()).toString());
+		assertEquals("[publisherId, authorId]", sets.select(AttributeFlags.FK, AttributeFlags.KEY_ELEMENT).toString());
+		assertEquals("[id, publisherId, authorId]", sets.getKeyAttributes().or(sets.getFKAttributes()).toString());
+		assertEquals("[authorId]", sets.getNotNullAttributes().and(sets.getFKAttributes()).toString());
+		assertEquals(sets.getNonKeyAttributes(), sets.getKeyAttributes().complement());
+		assertTrue(sets.getTransientAttributes().isEmpty());
+		// cached
+		assertSame(sets.getKeyAttributes(), sets.with(AttributeFlags.KEY_ELEMENT));
+
+		AttributeSet unique = sets.getUniqueAttributes();
+		assertTrue(unique.contains(1));
+		assertTrue(unique.contains(book.getAttributeByName("isbn")));
+		assertFalse(unique.contains(book.getAttributeByName("id")));
+		assertEquals("isbn", unique.toList().get(0).getName());
+
+		assertEquals("[price, summary]", sets.select(a -> NeutralType.DECIMAL.equals(a.getNeutralType()) 
+				|| a.isLongText()).toString());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDifferentEntities() {
+		Model model = FakeModels.buildBookstoreModel();
+		EntityAttributeSets s1 = new EntityAttributeSets(model.getEntityByClassName("Book"));
+		EntityAttributeSets s2 = new EntityAttributeSets(model.getEntityByClassName("Review"));
+		s1.getKeyAttributes().and(s2.getKeyAttributes());
+	}
+
+	@Test
+	public void testLargeEntity() {
+		FakeEntity entity = new FakeEntity("Big", "BIG");
+		for ( int i = 0 ; i < 150 ; i++ ) {
+			FakeAttribute a = new FakeAttribute("a" + i, NeutralType.STRING);
+			if ( i % 3 == 0 ) {
+				a.notNull();
+			}
+			entity.addAttribute(a);
+		}
+		EntityAttributeSets sets = new EntityAttributeSets(entity);
+		AttributeSet notNull = sets.getNotNullAttributes();
+		assertEquals(50, notNull.size());
+		assertEquals(100, notNull.complement().size());
+		assertEquals(150, notNull.or(notNull.complement()).size());
+		assertTrue(notNull.contains(129));
+		assertFalse(notNull.contains(130));
+		assertEquals(129, notNull.nextOrdinal(127));
+		assertEquals(-1, notNull.nextOrdinal(148));
+		int[] count = { 0 };
+		notNull.forEach(a -> count[0]++);
+		assertEquals(50, count[0]);
+	}
+
+	@Test
+	public void testCache() {
+		Model model = FakeModels.buildBookstoreModel();
+		AttributeSetsCache cache = new AttributeSetsCache();
+		Entity book = model.getEntityByClassName("Book");
+		EntityAttributeSets sets = cache.get(book);
+		assertSame(sets, cache.get(book));
+		assertSame(book, sets.getEntity());
+		assertEquals(1, cache.size());
+		cache.invalidate(book);
+		assertEquals(0, cache.size());
+	}
+}
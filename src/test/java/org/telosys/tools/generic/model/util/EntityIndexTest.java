@@ -0,0 +1,64 @@
+package org.telosys.tools.generic.model.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.fake.FakeAttribute;
+import org.telosys.tools.generic.model.fake.FakeEntity;
+import org.telosys.tools.generic.model.fake.FakeModels;
+import org.telosys.tools.generic.model.frozen.FrozenEntity;
+import org.telosys.tools.generic.model.frozen.ModelFreezer;
+import org.telosys.tools.generic.model.types.NeutralType;
+
+public class EntityIndexTest {
+
+	@Test
+	public void testLookups() {
+		Entity book = FakeModels.buildBookstoreModel().getEntityByClassName("Book");
+		EntityIndex index = new EntityIndex(book);
+		assertSame(book.getAttributes().get(1), index.getAttributeByName("isbn"));
+		assertNull(index.getAttributeByName("ISBN"));
+		assertNull(index.getAttributeByName(null));
+		assertSame(book.getAttributeByName("publisherId"), index.getAttributeByDatabaseName("PUBLISHER_ID"));
+		assertNull(index.getAttributeByDatabaseName("publisher_id"));
+		assertSame(book.getAttributeByName("publisherId"), index.getAttributeByDatabaseNameIgnoreCase("publisher_id"));
+
+		assertSame(book.getLinks().get(1), index.getLinkByFieldName("author"));
+		assertNull(index.getLinkByFieldName("foo"));
+		assertEquals(1, index.getLinksByReferencedEntity("Review").size());
+		assertTrue(index.getLinksByReferencedEntity("Country").isEmpty());
+
+		assertSame(book.getForeignKeys().get(1), index.getForeignKeyByName("FK_BOOK_AUTHOR"));
+		assertNull(index.getForeignKeyByName("FK_FOO"));
+	}
+
+	@Test
+	public void testWideEntity() {
+		FakeEntity entity = new FakeEntity("Wide", "WIDE");
+		for ( int i = 0 ; i < 400 ; i++ ) {
+			entity.addAttribute(new FakeAttribute("col" + i, NeutralType.STRING));
+		}
+		// duplicated name : the first one is kept
+		entity.addAttribute(new FakeAttribute("col0", NeutralType.INTEGER));
+		EntityIndex index = new EntityIndex(entity);
+		for ( int i = 0 ; i < 400 ; i++ ) {
+			assertSame(entity.getAttributes().get(i), index.getAttributeByName("col" + i));
+			assertSame(entity.getAttributes().get(i), index.getAttributeByDatabaseName("COL" + i));
+		}
+		assertEquals(NeutralType.STRING, index.getAttributeByName("col0").getNeutralType());
+		assertNull(index.getAttributeByName("col400"));
+	}
+
+	@Test
+	public void testFrozenEntity() {
+		FrozenEntity book = (FrozenEntity) ModelFreezer.freeze(FakeModels.buildBookstoreModel()).getEntityByClassName("Book");
+		assertSame(book.getEntityIndex(), book.getEntityIndex());
+		assertSame(book.getAttributes().get(2), book.getAttributeByName("title"));
+		assertNull(book.getAttributeByName("foo"));
+		assertSame(book.getLinks().get(0), book.getEntityIndex().getLinkByFieldName("publisher"));
+	}
+}
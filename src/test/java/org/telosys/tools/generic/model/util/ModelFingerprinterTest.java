@@ -0,0 +1,116 @@
+package org.telosys.tools.generic.model.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.junit.Test;
+import org.telosys.tools.generic.model.fake.FakeAttribute;
+import org.telosys.tools.generic.model.fake.FakeEntity;
+import org.telosys.tools.generic.model.fake.FakeModel;
+import org.telosys.tools.generic.model.fake.FakeModels;
+import org.telosys.tools.generic.model.frozen.ModelFreezer;
+
+public class ModelFingerprinterTest {
+
+	@Test
+	public void testMurmur3() {
+		byte[] bytes = "hello".getBytes(StandardCharsets.UTF_8);
+		Fingerprint f = Hasher128.hash(bytes, bytes.length, 0L);
+		assertEquals(0xcbd8a7b341bd9b02L, f.getHigh());
+		assertEquals(0x5b1e906a48ae1d19L, f.getLow());
+		assertEquals(new Fingerprint(0L, 0L), Hasher128.hash(new byte[0], 0, 0L));
+	}
+
+	@Test
+	public void testHexString() {
+		Fingerprint f = new Fingerprint(0x0123456789abcdefL, -1L);
+		assertEquals("0123456789abcdefffffffffffffffff", f.toHexString());
+		assertEquals(f, Fingerprint.fromHexString(f.toHexString()));
+	}
+
+	@Test
+	public void testStable() {
+		Fingerprint f1 = ModelFingerprinter.fingerprintOf(FakeModels.buildBookstoreModel());
+		Fingerprint f2 = ModelFingerprinter.fingerprintOf(FakeModels.buildBookstoreModel());
+		assertEquals(f1, f2);
+		// same content => same fingerprint whatever the implementation
+		assertEquals(f1, ModelFingerprinter.fingerprintOf(ModelFreezer.freeze(FakeModels.buildBookstoreModel())));
+	}
+
+	@Test
+	public void testChangeDetection() {
+		ModelFingerprinter fingerprinter = new ModelFingerprinter();
+		Map<String, Fingerprint> before = fingerprinter.getEntityFingerprints(FakeModels.buildBookstoreModel());
+
+		FakeModel model = FakeModels.buildBookstoreModel();
+		FakeEntity book = (FakeEntity) model.getEntityByClassName("Book");
+		((FakeAttribute) book.getAttributeByName("title")).maxLength(200);
+		Map<String, Fingerprint> after = fingerprinter.getEntityFingerprints(model);
+
+		assertEquals(before.keySet(), after.keySet());
+		for ( String name : before.keySet() ) {
+			if ( "Book".equals(name) ) {
+				assertNotEquals(before.get(name), after.get(name));
+			}
+			else {
+				assertEquals(before.get(name), after.get(name));
+			}
+		}
+	}
+
+	@Test
+	public void testTags() {
+		FakeModel model = FakeModels.buildBookstoreModel();
+		Fingerprint f1 = ModelFingerprinter.fingerprintOf(model);
+		FakeEntity author = (FakeEntity) model.getEntityByClassName("Author");
+		author.getTagContainer().addTag("Audit", "");
+		assertNotEquals(f1, ModelFingerprinter.fingerprintOf(model));
+	}
+
+	@Test
+	public void testIncremental() {
+		FakeModel model = FakeModels.buildBookstoreModel();
+		ModelFingerprinter fingerprinter = new ModelFingerprinter();
+		Fingerprint f1 = fingerprinter.fingerprint(model);
+		int cacheSize = fingerprinter.getCacheSize();
+
+		FakeEntity book = (FakeEntity) model.getEntityByClassName("Book");
+		FakeEntity author = (FakeEntity) model.getEntityByClassName("Author");
+		Fingerprint authorFingerprint = fingerprinter.fingerprint(author);
+		FakeAttribute title = (FakeAttribute) book.getAttributeByName("title");
+		title.maxLength(200);
+		// not invalidated : cached value
+		assertEquals(f1, fingerprinter.fingerprint(model));
+
+		fingerprinter.invalidateAttribute(book, title);
+		assertEquals(cacheSize - 2, fingerprinter.getCacheSize());
+		Fingerprint f2 = fingerprinter.fingerprint(model);
+		assertNotEquals(f1, f2);
+		assertEquals(cacheSize, fingerprinter.getCacheSize());
+		assertSame(authorFingerprint, fingerprinter.fingerprint(author));
+		// same result as a full computation
+		assertEquals(ModelFingerprinter.fingerprintOf(model), f2);
+	}
+
+	@Test
+	public void testInvalidateEntity() {
+		FakeModel model = FakeModels.buildBookstoreModel();
+		ModelFingerprinter fingerprinter = new ModelFingerprinter();
+		Fingerprint f1 = fingerprinter.fingerprint(model);
+		int cacheSize = fingerprinter.getCacheSize();
+
+		FakeEntity book = (FakeEntity) model.getEntityByClassName("Book");
+		((FakeAttribute) book.getAttributeByName("title")).databaseName("BOOK_TITLE");
+		// entity + 8 attributes + 3 links + 2 foreign keys
+		fingerprinter.invalidateEntity(book);
+		assertEquals(cacheSize - 14, fingerprinter.getCacheSize());
+		Fingerprint f2 = fingerprinter.fingerprint(model);
+		assertNotEquals(f1, f2);
+		assertEquals(ModelFingerprinter.fingerprintOf(model), f2);
+		assertEquals(cacheSize, fingerprinter.getCacheSize());
+	}
+}
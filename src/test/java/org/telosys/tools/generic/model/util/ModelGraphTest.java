@@ -0,0 +1,91 @@
+package org.telosys.tools.generic.model.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.enums.Cardinality;
+import org.telosys.tools.generic.model.fake.FakeEntity;
+import org.telosys.tools.generic.model.fake.FakeLink;
+import org.telosys.tools.generic.model.fake.FakeModel;
+import org.telosys.tools.generic.model.fake.FakeModels;
+import org.telosys.tools.generic.model.util.ModelGraph.EdgeKind;
+
+public class ModelGraphTest {
+
+	@Test
+	public void testEdges() {
+		FakeModel model = FakeModels.buildBookstoreModel();
+		ModelGraph graph = new ModelGraph(model);
+		assertEquals(5, graph.getEntityCount());
+		assertEquals(10, graph.getEdgeCount());
+		int country = graph.getEntityIndex("Country");
+		int publisher = graph.getEntityIndex("Publisher");
+		int book = graph.getEntityIndex("Book");
+		assertEquals(-1, graph.getEntityIndex("Foo"));
+		assertSame(model.getEntityByClassName("Book"), graph.getEntity(book));
+
+		assertEquals(0, graph.getOutgoingCount(country));
+		assertEquals(2, graph.getIncomingCount(country));
+		assertEquals(2, graph.getOutgoingCount(publisher));
+		for ( int e = graph.getOutgoingStart(publisher) ; e < graph.getOutgoingEnd(publisher) ; e++ ) {
+			assertEquals(publisher, graph.getEdgeSource(e));
+			assertEquals(country, graph.getEdgeTarget(e));
+		}
+		int linkEdge = graph.getOutgoingStart(publisher);
+		assertEquals(EdgeKind.LINK, graph.getEdgeKind(linkEdge));
+		assertEquals("country", graph.getEdgeLink(linkEdge).getFieldName());
+		assertNull(graph.getEdgeForeignKey(linkEdge));
+		int fkEdge = linkEdge + 1 ;
+		assertEquals(EdgeKind.FOREIGN_KEY, graph.getEdgeKind(fkEdge));
+		assertEquals("FK_PUBLISHER_COUNTRY", graph.getEdgeForeignKey(fkEdge).getName());
+		assertNull(graph.getEdgeLink(fkEdge));
+
+		assertEquals(5, graph.getOutgoingCount(book));
+		// Author.books, Review.book, FK_REVIEW_BOOK
+		assertEquals(3, graph.getIncomingCount(book));
+		for ( int k = graph.getIncomingStart(book) ; k < graph.getIncomingEnd(book) ; k++ ) {
+			assertEquals(book, graph.getEdgeTarget(graph.getIncomingEdge(k)));
+		}
+	}
+
+	@Test
+	public void testReferences() {
+		ModelGraph graph = new ModelGraph(FakeModels.buildBookstoreModel());
+		int book = graph.getEntityIndex("Book");
+		assertArrayEquals(new int[] { 1, 2, 4 }, graph.getReferencedIndexes(book));
+		assertArrayEquals(new int[] { 2, 4 }, graph.getReferencingIndexes(book));
+
+		List<Entity> list = graph.getReferencingEntities("Country");
+		assertEquals(1, list.size());
+		assertEquals("Publisher", list.get(0).getClassName());
+		assertTrue(graph.getReferencedEntities("Country").isEmpty());
+		assertTrue(graph.getReferencingEntities("Foo").isEmpty());
+	}
+
+	@Test
+	public void testJoinEntity() {
+		FakeModel model = FakeModels.buildBookstoreModel();
+		model.addEntity(new FakeEntity("Tag", "TAG"));
+		model.addEntity(new FakeEntity("BookTag", "BOOK_TAG"));
+		FakeEntity book = (FakeEntity) model.getEntityByClassName("Book");
+		book.addLink(new FakeLink("tags", "Tag", Cardinality.MANY_TO_MANY).joinEntity("BookTag"));
+		// unknown entity : ignored
+		book.addLink(new FakeLink("foo", "Foo", Cardinality.MANY_TO_ONE));
+
+		ModelGraph graph = new ModelGraph(model);
+		assertEquals(12, graph.getEdgeCount());
+		int bookTag = graph.getEntityIndex("BookTag");
+		assertEquals(1, graph.getIncomingCount(bookTag));
+		int e = graph.getIncomingEdge(graph.getIncomingStart(bookTag));
+		assertEquals(EdgeKind.JOIN_ENTITY, graph.getEdgeKind(e));
+		assertEquals("tags", graph.getEdgeLink(e).getFieldName());
+		assertEquals(1, graph.getIncomingCount(graph.getEntityIndex("Tag")));
+	}
+}
@@ -0,0 +1,70 @@
+package org.telosys.tools.generic.model.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.Model;
+import org.telosys.tools.generic.model.fake.FakeEntity;
+import org.telosys.tools.generic.model.fake.FakeModel;
+import org.telosys.tools.generic.model.fake.FakeModels;
+
+public class ModelIndexTest {
+
+	@Test
+	public void testClassName() {
+		Model model = FakeModels.buildBookstoreModel();
+		ModelIndex index = new ModelIndex(model);
+		assertEquals(5, index.size());
+		assertSame(model.getEntityByClassName("Book"), index.getEntityByClassName("Book"));
+		assertNull(index.getEntityByClassName("book"));
+		assertSame(model.getEntityByClassName("Book"), index.getEntityByClassNameIgnoreCase("book"));
+		assertSame(model.getEntityByClassName("Book"), index.getEntityByClassNameIgnoreCase("BOOK"));
+		assertNull(index.getEntityByClassName("Foo"));
+		assertNull(index.getEntityByClassName(null));
+	}
+
+	@Test
+	public void testTableName() {
+		Model model = FakeModels.buildBookstoreModel();
+		ModelIndex index = new ModelIndex(model);
+		Entity author = model.getEntityByClassName("Author");
+		assertSame(author, index.getEntityByTableName("AUTHOR"));
+		assertNull(index.getEntityByTableName("author"));
+		assertSame(author, index.getEntityByTableNameIgnoreCase("author"));
+		assertSame(author, index.getEntityByTableName("SHOP.AUTHOR"));
+		assertSame(author, index.getEntityByTableNameIgnoreCase("shop.author"));
+		assertNull(index.getEntityByTableName("OTHER.AUTHOR"));
+	}
+
+	@Test
+	public void testSchemaAndTable() {
+		FakeModel model = new FakeModel("test");
+		FakeEntity e1 = model.addEntity(new FakeEntity("Customer1", "CUSTOMER"));
+		e1.setDatabaseSchema("S1");
+		FakeEntity e2 = model.addEntity(new FakeEntity("Customer2", "CUSTOMER"));
+		e2.setDatabaseSchema("S2");
+		ModelIndex index = new ModelIndex(model);
+		assertSame(e1, index.getEntityByTableName("CUSTOMER")); // first wins
+		assertSame(e1, index.getEntityBySchemaAndTable("S1", "CUSTOMER"));
+		assertSame(e2, index.getEntityBySchemaAndTable("S2", "CUSTOMER"));
+		assertSame(e2, index.getEntityBySchemaAndTableIgnoreCase("s2", "customer"));
+		assertSame(e1, index.getEntityBySchemaAndTable(null, "CUSTOMER"));
+		assertNull(index.getEntityBySchemaAndTable("S3", "CUSTOMER"));
+	}
+
+	@Test
+	public void testIndexedModel() {
+		Model model = FakeModels.buildBookstoreModel();
+		IndexedModel indexedModel = IndexedModel.of(model);
+		assertSame(indexedModel, IndexedModel.of(indexedModel));
+		assertEquals(model.getName(), indexedModel.getName());
+		assertSame(model.getEntities(), indexedModel.getEntities());
+		for ( Entity entity : model.getEntities() ) {
+			assertSame(entity, indexedModel.getEntityByClassName(entity.getClassName()));
+			assertSame(entity, indexedModel.getEntityByTableName(entity.getDatabaseTable()));
+		}
+	}
+}
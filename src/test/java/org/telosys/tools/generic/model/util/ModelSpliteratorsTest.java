@@ -0,0 +1,113 @@
+package org.telosys.tools.generic.model.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.telosys.tools.generic.model.Attribute;
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.Link;
+import org.telosys.tools.generic.model.Model;
+import org.telosys.tools.generic.model.fake.FakeAttribute;
+import org.telosys.tools.generic.model.fake.FakeEntity;
+import org.telosys.tools.generic.model.fake.FakeModel;
+import org.telosys.tools.generic.model.fake.FakeModels;
+import org.telosys.tools.generic.model.types.NeutralType;
+
+public class ModelSpliteratorsTest {
+
+	private static int countAttributes(Model model) {
+		int n = 0 ;
+		for ( Entity e : model.getEntities() ) {
+			n += e.getAttributes().size();
+		}
+		return n ;
+	}
+
+	@Test
+	public void testSequential() {
+		Model model = FakeModels.buildBookstoreModel();
+		assertEquals(5, ModelSpliterators.entities(model, false).count());
+		List<String> names = ModelSpliterators.attributes(model, false)
+				.map(p -> p.getEntity().getClassName() + "." + p.getElement().getName())
+				.collect(Collectors.toList());
+		assertEquals(countAttributes(model), names.size());
+		assertEquals("Country.code", names.get(0));
+		assertEquals("Review.visible", names.get(names.size() - 1));
+		assertEquals(6, ModelSpliterators.links(model, false).count());
+	}
+
+	@Test
+	public void testSplit() {
+		Model model = FakeModels.buildBookstoreModel();
+		int total = countAttributes(model);
+		Spliterator<EntityElement<Attribute>> s1 = ModelSpliterators.attributeSpliterator(model);
+		assertEquals(total, s1.estimateSize());
+		Spliterator<EntityElement<Attribute>> s2 = s1.trySplit();
+		assertNotNull(s2);
+		assertEquals(total / 2, s2.estimateSize());
+		assertEquals(total - total / 2, s1.estimateSize());
+		List<String> all = new ArrayList<>();
+		s2.forEachRemaining(p -> all.add(p.getElement().getName()));
+		while ( s1.tryAdvance(p -> all.add(p.getElement().getName())) ) {
+			// continue
+		}
+		assertEquals(total, all.size());
+		assertEquals("code", all.get(0));
+	}
+
+	@Test
+	public void testEmptyEntities() {
+		FakeModel model = new FakeModel("test");
+		model.addEntity(new FakeEntity("A", "A"));
+		FakeEntity b = model.addEntity(new FakeEntity("B", "B"));
+		b.addAttribute(new FakeAttribute("x", NeutralType.INTEGER));
+		model.addEntity(new FakeEntity("C", "C"));
+		Spliterator<EntityElement<Attribute>> s = ModelSpliterators.attributeSpliterator(model);
+		assertNull(s.trySplit());
+		List<String> list = new ArrayList<>();
+		s.forEachRemaining(p -> list.add(p.getEntity().getClassName() + "." + p.getElement().getName()));
+		assertEquals("[B.x]", list.toString());
+		assertEquals(0, ModelSpliterators.links(model, true).count());
+		assertEquals(0, ModelSpliterators.attributes(new FakeModel("void"), true).count());
+	}
+
+	@Test
+	public void testParallel() {
+		FakeModel model = new FakeModel("big");
+		for ( int i = 0 ; i < 200 ; i++ ) {
+			FakeEntity e = model.addEntity(new FakeEntity("E" + i, "T" + i));
+			for ( int j = 0 ; j < i % 17 ; j++ ) {
+				e.addAttribute(new FakeAttribute("a" + j, NeutralType.STRING));
+			}
+		}
+		int total = countAttributes(model);
+		AtomicInteger counter = new AtomicInteger();
+		ModelSpliterators.forEachAttributeParallel(model, (e, a) -> counter.incrementAndGet());
+		assertEquals(total, counter.get());
+
+		ConcurrentHashMap<String, Boolean> visited = new ConcurrentHashMap<>();
+		ModelSpliterators.forEachParallel(model, e -> visited.put(e.getClassName(), Boolean.TRUE));
+		assertEquals(200, visited.size());
+
+		List<String> ordered = ModelSpliterators.attributes(model, true)
+				.map(p -> p.getEntity().getClassName() + "." + p.getElement().getName())
+				.collect(Collectors.toList());
+		List<String> expected = ModelSpliterators.attributes(model, false)
+				.map(p -> p.getEntity().getClassName() + "." + p.getElement().getName())
+				.collect(Collectors.toList());
+		assertEquals(expected, ordered);
+
+		AtomicInteger links = new AtomicInteger();
+		ModelSpliterators.forEachLinkParallel(FakeModels.buildBookstoreModel(), (Entity e, Link l) -> links.incrementAndGet());
+		assertEquals(6, links.get());
+	}
+}
@@ -0,0 +1,113 @@
+package org.telosys.tools.generic.model.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.telosys.tools.generic.model.Attribute;
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.fake.FakeAttribute;
+import org.telosys.tools.generic.model.fake.FakeEntity;
+import org.telosys.tools.generic.model.fake.FakeLink;
+import org.telosys.tools.generic.model.fake.FakeModel;
+import org.telosys.tools.generic.model.fake.FakeModels;
+
+public class TagIndexTest {
+
+	private FakeModel buildModel() {
+		FakeModel model = FakeModels.buildBookstoreModel();
+		FakeEntity author = (FakeEntity) model.getEntityByClassName("Author");
+		author.getTagContainer().addTag("Audit", "false");
+		((FakeAttribute) author.getAttributeByName("lastName")).tag("Searchable", "").tag("Ratio", "0.75");
+		((FakeLink) author.getLinks().get(0)).tag("Fetch", "true");
+		return model;
+	}
+
+	@Test
+	public void testTagNames() {
+		TagIndex index = new TagIndex(buildModel());
+		assertEquals(Arrays.asList("Audit", "Fetch", "Ratio", "Searchable", "Weight"), index.getTagNames());
+	}
+
+	@Test
+	public void testLookups() {
+		FakeModel model = buildModel();
+		TagIndex index = new TagIndex(model);
+
+		List<Entity> entities = index.getEntitiesWithTag("Audit");
+		assertEquals(2, entities.size());
+		assertEquals("Author", entities.get(0).getClassName());
+		assertEquals("Book", entities.get(1).getClassName());
+
+		List<EntityElement<Attribute>> attributes = index.getAttributesWithTag("Searchable");
+		assertEquals(2, attributes.size());
+		assertEquals("lastName", attributes.get(0).getElement().getName());
+		assertEquals("Author", attributes.get(0).getEntity().getClassName());
+		assertEquals("title", attributes.get(1).getElement().getName());
+
+		assertEquals(1, index.getLinksWithTag("Fetch").size());
+		assertEquals("books", index.getLinksWithTag("Fetch").get(0).getElement().getFieldName());
+		assertTrue(index.getAttributesWithTag("Foo").isEmpty());
+		assertEquals(3, index.countTag("Audit") + index.countTag("Fetch"));
+	}
+
+	@Test
+	public void testValues() {
+		FakeModel model = buildModel();
+		TagIndex index = new TagIndex(model);
+		Entity review = model.getEntityByClassName("Review");
+		Attribute rating = review.getAttributeByName("rating");
+		assertTrue(index.hasTag(rating, "Weight"));
+		assertEquals(3, index.getIntValue(rating, "Weight", 1));
+		assertEquals(1, index.getIntValue(rating, "Foo", 1));
+		assertEquals(new BigDecimal("3"), index.getDecimalValue(rating, "Weight", null));
+		assertNull(index.getTagValue(review, "Weight"));
+
+		Entity author = model.getEntityByClassName("Author");
+		assertFalse(index.getBooleanValue(author, "Audit", true));
+		assertTrue(index.getBooleanValue(model.getEntityByClassName("Book"), "Audit", true));
+		Attribute lastName = author.getAttributeByName("lastName");
+		assertEquals(new BigDecimal("0.75"), index.getDecimalValue(lastName, "Ratio", null));
+		assertEquals(-1, index.getIntValue(lastName, "Ratio", -1));
+		assertEquals("", index.getTagValue(lastName, "Searchable").getValue());
+		assertTrue(index.getBooleanValue(author.getLinks().get(0), "Fetch", false));
+	}
+
+	@Test
+	public void testSharedValues() {
+		FakeModel model = buildModel();
+		TagIndex index = new TagIndex(model);
+		Entity author = model.getEntityByClassName("Author");
+		Attribute title = model.getEntityByClassName("Book").getAttributeByName("title");
+		// same raw value => parsed once
+		assertSame(index.getTagValue(title, "Searchable"), 
+				index.getTagValue(author.getAttributeByName("lastName"), "Searchable"));
+	}
+
+	@Test
+	public void testTagValue() {
+		TagValue v = new TagValue(" 12 ");
+		assertTrue(v.isInt());
+		assertEquals(12, v.getIntValue(0));
+		assertFalse(v.isBoolean());
+		assertEquals(new BigDecimal("12"), v.getDecimalValue());
+		v = new TagValue("TRUE");
+		assertTrue(v.isBoolean());
+		assertTrue(v.getBooleanValue(false));
+		assertFalse(v.isInt());
+		assertNull(v.getDecimalValue());
+		v = new TagValue(null);
+		assertEquals("", v.getValue());
+		assertEquals(5, v.getIntValue(5));
+		v = new TagValue("-1.5e3");
+		assertEquals(new BigDecimal("-1.5e3"), v.getDecimalValue());
+		assertFalse(v.isInt());
+	}
+}
@@ -0,0 +1,49 @@
+package org.telosys.tools.generic.model.validation;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import org.telosys.tools.generic.model.fake.FakeModels;
+
+/**
+ * Allocation benchmark (not a unit test) : no allocation per field for valid records <br>
+ * Run with 'java ... EntityValidatorBenchmark' on a HotSpot JVM
+ */
+public class EntityValidatorBenchmark {
+
+	public static void main(String[] args) {
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if ( ! ( bean instanceof com.sun.management.ThreadMXBean ) 
+				|| ! ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported() ) {
+			System.out.println("Allocation measurement not supported by this JVM");
+			return;
+		}
+		com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean ;
+		threadBean.setThreadAllocatedMemoryEnabled(true);
+
+		EntityValidator validator = ValidatorCompiler.compile(FakeModels.buildBookstoreModel().getEntityByClassName("Book"));
+		Object[][] records = new Object[10000][];
+		for ( int i = 0 ; i < records.length ; i++ ) {
+			records[i] = new Object[] { (long) i, "9780000000001", "Title", new BigDecimal("12.50"), 
+					LocalDate.of(2020, 1, 1), 1, 2, null };
+		}
+		Instant now = Instant.now();
+		ValidationResult result = new ValidationResult(validator);
+		for ( int i = 0 ; i < 50 ; i++ ) { // warm-up
+			validator.validate(records, result, now);
+		}
+		int batches = 20 ;
+		long threadId = Thread.currentThread().getId();
+		long before = threadBean.getThreadAllocatedBytes(threadId);
+		for ( int i = 0 ; i < batches ; i++ ) {
+			validator.validate(records, result, now);
+		}
+		long allocated = threadBean.getThreadAllocatedBytes(threadId) - before ;
+		long fields = (long) batches * records.length * validator.getFieldCount() ;
+		System.out.println("EntityValidator : " + fields + " fields validated, " + allocated + " bytes allocated ("
+				+ (double) allocated / fields + " bytes per field), valid=" + result.isValid());
+	}
+}
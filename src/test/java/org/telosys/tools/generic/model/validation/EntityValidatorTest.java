@@ -0,0 +1,153 @@
+package org.telosys.tools.generic.model.validation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+import org.junit.Test;
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.Model;
+import org.telosys.tools.generic.model.fake.FakeAttribute;
+import org.telosys.tools.generic.model.fake.FakeEntity;
+import org.telosys.tools.generic.model.fake.FakeModels;
+import org.telosys.tools.generic.model.frozen.ModelFreezer;
+import org.telosys.tools.generic.model.types.NeutralType;
+
+public class EntityValidatorTest {
+
+	private static final Instant NOW = LocalDate.of(2025, 6, 1).atTime(12, 0).atZone(ZoneId.systemDefault()).toInstant();
+
+	private EntityValidator bookValidator() {
+		Model model = FakeModels.buildBookstoreModel();
+		return ValidatorCompiler.compile(model.getEntityByClassName("Book"));
+	}
+
+	// id, isbn, title, price, publicationDate, publisherId, authorId, summary
+	private Object[] validBook(int id) {
+		return new Object[] { (long) id, "9780000000001", "Title", new BigDecimal("12.50"), LocalDate.of(2020, 1, 1), 1, 2, null };
+	}
+
+	@Test
+	public void testProgram() {
+		EntityValidator validator = bookValidator();
+		assertEquals(8, validator.getFieldCount());
+		assertEquals(1, validator.getFieldIndex("isbn"));
+		assertEquals(-1, validator.getFieldIndex("foo"));
+		// id : 1 (key => not null), isbn : 4 (not null, min, max, pattern), title : 2, price : 2, date : 1, authorId : 1
+		assertEquals(11, validator.getInstructionCount());
+	}
+
+	@Test
+	public void testValid() {
+		EntityValidator validator = bookValidator();
+		assertTrue(validator.isValid(validBook(1)));
+		Object[] book = validBook(1);
+		book[3] = 999.99d ;
+		book[4] = LocalDateTime.of(2001, 2, 3, 4, 5);
+		assertTrue(validator.validate(book).isValid());
+	}
+
+	@Test
+	public void testViolations() {
+		EntityValidator validator = bookValidator();
+		Object[][] records = new Object[4][];
+		records[0] = validBook(1);
+		records[1] = validBook(2);
+		records[1][1] = "97800000A" ;   // too short + pattern
+		records[1][2] = null ;          // not null
+		records[1][3] = 1000 ;          // max value (integer value)
+		records[2] = validBook(3);
+		records[2][4] = LocalDate.of(2030, 1, 1); // not in the past
+		records[2][6] = null ;          // not null
+		records[3] = validBook(4);
+		records[3][3] = "12" ;          // wrong type
+		ValidationResult result = new ValidationResult(validator);
+		validator.validate(records, result, NOW);
+		assertEquals(7, result.size());
+		assertEquals(3, result.getInvalidRecordCount());
+		assertEquals(1, result.getRecordIndex(0));
+		assertEquals(Constraint.MIN_LENGTH, result.getConstraint(0));
+		assertEquals(Constraint.PATTERN, result.getConstraint(1));
+		assertEquals(Constraint.NOT_NULL, result.getConstraint(2));
+		assertEquals(2, result.getFieldIndex(2));
+		assertEquals(Constraint.MAX_VALUE, result.getConstraint(3));
+		assertEquals(Constraint.DATE_PAST, result.getConstraint(4));
+		assertEquals(Constraint.NOT_NULL, result.getConstraint(5));
+		assertEquals(Constraint.TYPE, result.getConstraint(6));
+		assertEquals("record 1 : Book.isbn : too short", result.getMessages().get(0));
+
+		// reuse
+		result.clear();
+		validator.validate(new Object[][] { validBook(1) }, result, NOW);
+		assertTrue(result.isValid());
+	}
+
+	@Test
+	public void testPastFuture() {
+		FakeEntity event = new FakeEntity("Event", "EVENT");
+		event.addAttribute(new FakeAttribute("day", NeutralType.DATE).datePast());
+		event.addAttribute(new FakeAttribute("created", NeutralType.TIMESTAMP).datePast());
+		event.addAttribute(new FakeAttribute("expires", NeutralType.TIMESTAMP).dateFuture());
+		EntityValidator validator = ValidatorCompiler.compile(event);
+		LocalDateTime localNow = LocalDateTime.ofInstant(NOW, ZoneId.systemDefault());
+
+		// same day : 1 hour ago and in 1 hour
+		Object[][] records = new Object[][] {
+			{ LocalDate.of(2025, 5, 31), NOW.minusSeconds(3600), NOW.plusSeconds(3600) },
+			{ LocalDate.of(2025, 5, 31), localNow.minusHours(1), localNow.plusHours(1) },
+			{ LocalDate.of(2025, 5, 31), new Date(NOW.toEpochMilli() - 1000), OffsetDateTime.ofInstant(NOW.plusSeconds(1), ZoneOffset.UTC) },
+			{ LocalDate.of(2025, 5, 31), LocalDate.of(2025, 5, 31), LocalDate.of(2025, 6, 2) }
+		};
+		ValidationResult result = new ValidationResult(validator);
+		validator.validate(records, result, NOW);
+		assertTrue(result.getMessages().toString(), result.isValid());
+
+		// wrong side of 'now' on the same day 
+		records = new Object[][] {
+			{ LocalDate.of(2025, 6, 1), NOW.plusSeconds(3600), NOW.minusSeconds(3600) },
+			{ null, localNow.plusHours(1), localNow.minusHours(1) },
+			{ null, NOW, NOW },
+			{ null, LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 1) }
+		};
+		validator.validate(records, result, NOW);
+		assertEquals(9, result.size());
+		assertEquals(Constraint.DATE_PAST, result.getConstraint(0));
+		assertEquals(Constraint.DATE_PAST, result.getConstraint(1));
+		assertEquals(Constraint.DATE_FUTURE, result.getConstraint(2));
+	}
+
+	@Test
+	public void testNotBlank() {
+		Entity author = FakeModels.buildBookstoreModel().getEntityByClassName("Author");
+		EntityValidator validator = ValidatorCompiler.compile(author);
+		assertTrue(validator.isValid(new Object[] { 1, null, "Hugo" }));
+		assertFalse(validator.isValid(new Object[] { 1, null, " \t" }));
+		assertFalse(validator.isValid(new Object[] { 1, null, "1234567890123456789012345678901234567890X" }));
+	}
+
+	@Test
+	public void testCompilerCache() {
+		Entity book = ModelFreezer.freeze(FakeModels.buildBookstoreModel()).getEntityByClassName("Book");
+		ValidatorCompiler compiler = new ValidatorCompiler();
+		EntityValidator validator = compiler.getValidator(book);
+		assertSame(validator, compiler.getValidator(book));
+		assertEquals(1, compiler.size());
+		compiler.invalidate(book);
+		assertEquals(0, compiler.size());
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testShortRecord() {
+		bookValidator().isValid(new Object[3]);
+	}
+}
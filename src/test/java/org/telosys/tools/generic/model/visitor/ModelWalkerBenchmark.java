@@ -0,0 +1,41 @@
+package org.telosys.tools.generic.model.visitor;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import org.telosys.tools.generic.model.Model;
+import org.telosys.tools.generic.model.frozen.ModelFreezer;
+import org.telosys.tools.generic.model.visitor.ModelWalkerTest.CountingVisitor;
+
+/**
+ * Allocation benchmark (not a unit test) : walking a frozen model must not allocate <br>
+ * Run with 'java ... ModelWalkerBenchmark' on a HotSpot JVM
+ */
+public class ModelWalkerBenchmark {
+
+	public static void main(String[] args) {
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if ( ! ( bean instanceof com.sun.management.ThreadMXBean ) 
+				|| ! ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported() ) {
+			System.out.println("Allocation measurement not supported by this JVM");
+			return;
+		}
+		com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean ;
+		threadBean.setThreadAllocatedMemoryEnabled(true);
+
+		Model model = ModelFreezer.freeze(ModelWalkerTest.buildModel());
+		CountingVisitor visitor = new CountingVisitor();
+		for ( int i = 0 ; i < 20000 ; i++ ) { // warm-up
+			ModelWalker.walk(model, visitor);
+		}
+		int iterations = 100000 ;
+		long threadId = Thread.currentThread().getId();
+		visitor = new CountingVisitor();
+		long before = threadBean.getThreadAllocatedBytes(threadId);
+		for ( int i = 0 ; i < iterations ; i++ ) {
+			ModelWalker.walk(model, visitor);
+		}
+		long allocated = threadBean.getThreadAllocatedBytes(threadId) - before ;
+		System.out.println("ModelWalker : " + visitor.total() + " elements visited, " + allocated + " bytes allocated");
+	}
+}
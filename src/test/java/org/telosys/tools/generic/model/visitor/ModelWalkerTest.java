@@ -0,0 +1,123 @@
+package org.telosys.tools.generic.model.visitor;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import org.telosys.tools.generic.model.Attribute;
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.ForeignKey;
+import org.telosys.tools.generic.model.ForeignKeyAttribute;
+import org.telosys.tools.generic.model.Link;
+import org.telosys.tools.generic.model.enums.CascadeOption;
+import org.telosys.tools.generic.model.fake.FakeEntity;
+import org.telosys.tools.generic.model.fake.FakeLink;
+import org.telosys.tools.generic.model.fake.FakeModel;
+import org.telosys.tools.generic.model.fake.FakeModels;
+import org.telosys.tools.generic.model.frozen.ModelFreezer;
+
+public class ModelWalkerTest {
+
+	/**
+	 * Visitor counting the elements (no allocation)
+	 */
+	static class CountingVisitor implements ModelVisitor {
+		int entities ;
+		int endEntities ;
+		int attributes ;
+		int links ;
+		int cascadeOptions ;
+		int foreignKeys ;
+		int fkAttributes ;
+		int tags ;
+		int tagValuesLength ;
+
+		int total() {
+			return entities + attributes + links + cascadeOptions + foreignKeys + fkAttributes + tags ;
+		}
+		@Override
+		public boolean visitEntity(Entity entity) {
+			entities++ ;
+			return true;
+		}
+		@Override
+		public void endEntity(Entity entity) {
+			endEntities++ ;
+		}
+		@Override
+		public void visitEntityTag(Entity entity, String tagName, String tagValue) {
+			tags++ ;
+			tagValuesLength += tagValue.length();
+		}
+		@Override
+		public void visitAttribute(Entity entity, Attribute attribute) {
+			attributes++ ;
+		}
+		@Override
+		public void visitAttributeTag(Entity entity, Attribute attribute, String tagName, String tagValue) {
+			tags++ ;
+			tagValuesLength += tagValue.length();
+		}
+		@Override
+		public void visitLink(Entity entity, Link link) {
+			links++ ;
+		}
+		@Override
+		public void visitCascadeOption(Entity entity, Link link, CascadeOption cascadeOption) {
+			cascadeOptions++ ;
+		}
+		@Override
+		public void visitForeignKey(Entity entity, ForeignKey foreignKey) {
+			foreignKeys++ ;
+		}
+		@Override
+		public void visitForeignKeyAttribute(Entity entity, ForeignKey foreignKey, ForeignKeyAttribute fkAttribute) {
+			fkAttributes++ ;
+		}
+	}
+
+	static FakeModel buildModel() {
+		FakeModel model = FakeModels.buildBookstoreModel();
+		FakeEntity book = (FakeEntity) model.getEntityByClassName("Book");
+		FakeLink reviews = (FakeLink) book.getLinks().get(2);
+		reviews.getCascadeOptions().add(CascadeOption.PERSIST);
+		reviews.getCascadeOptions().add(CascadeOption.REMOVE);
+		return model;
+	}
+
+	@Test
+	public void testCounts() {
+		CountingVisitor visitor = new CountingVisitor();
+		ModelWalker.walk(buildModel(), visitor);
+		assertEquals(5, visitor.entities);
+		assertEquals(5, visitor.endEntities);
+		assertEquals(21, visitor.attributes);
+		assertEquals(6, visitor.links);
+		assertEquals(2, visitor.cascadeOptions);
+		assertEquals(4, visitor.foreignKeys);
+		assertEquals(4, visitor.fkAttributes);
+		// Book.Audit, Book.title.Searchable, Review.rating.Weight
+		assertEquals(3, visitor.tags);
+
+		CountingVisitor frozenVisitor = new CountingVisitor();
+		ModelWalker.walk(ModelFreezer.freeze(buildModel()), frozenVisitor);
+		assertEquals(visitor.total(), frozenVisitor.total());
+		assertEquals(2, frozenVisitor.cascadeOptions);
+		assertEquals(3, frozenVisitor.tags);
+	}
+
+	@Test
+	public void testSkipEntity() {
+		CountingVisitor visitor = new CountingVisitor() {
+			@Override
+			public boolean visitEntity(Entity entity) {
+				super.visitEntity(entity);
+				return ! "Book".equals(entity.getClassName());
+			}
+		};
+		ModelWalker.walk(buildModel(), visitor);
+		assertEquals(5, visitor.entities);
+		assertEquals(5, visitor.endEntities);
+		assertEquals(13, visitor.attributes);
+		assertEquals(0, visitor.cascadeOptions);
+	}
+}